@@ -0,0 +1,49 @@
+package com.capgemini.go.bean;
+
+public class DeliveryTimeOutlierBean {
+	private String retailerId;
+	private String retailerName;
+	private byte productCategoryNumber;
+	private String productCategoryName;
+	private String productUniqueId;
+	private int deliveryDays;
+	private double averageDeliveryDays;
+	private double standardDeviationDeliveryDays;
+	private double zScore;
+
+	// Getters
+	public String getRetailerId() {return retailerId;}
+	public String getRetailerName() {return retailerName;}
+	public byte getProductCategoryNumber() {return productCategoryNumber;}
+	public String getProductCategoryName() {return productCategoryName;}
+	public String getProductUniqueId() {return productUniqueId;}
+	public int getDeliveryDays() {return deliveryDays;}
+	public double getAverageDeliveryDays() {return averageDeliveryDays;}
+	public double getStandardDeviationDeliveryDays() {return standardDeviationDeliveryDays;}
+	public double getZScore() {return zScore;}
+
+	// Setters
+	public void setRetailerId(String retailerId) {this.retailerId = retailerId;}
+	public void setRetailerName(String retailerName) {this.retailerName = retailerName;}
+	public void setProductCategoryNumber(byte productCategoryNumber) {this.productCategoryNumber = productCategoryNumber;}
+	public void setProductCategoryName(String productCategoryName) {this.productCategoryName = productCategoryName;}
+	public void setProductUniqueId(String productUniqueId) {this.productUniqueId = productUniqueId;}
+	public void setDeliveryDays(int deliveryDays) {this.deliveryDays = deliveryDays;}
+	public void setAverageDeliveryDays(double averageDeliveryDays) {this.averageDeliveryDays = averageDeliveryDays;}
+	public void setStandardDeviationDeliveryDays(double standardDeviationDeliveryDays) {this.standardDeviationDeliveryDays = standardDeviationDeliveryDays;}
+	public void setZScore(double zScore) {this.zScore = zScore;}
+
+	// Constructors
+	public DeliveryTimeOutlierBean () {
+
+	}
+
+	/*
+	 * one received item, as read by RetailerInventoryDao.streamDeliveryDays
+	 */
+	public DeliveryTimeOutlierBean(String productUniqueId, byte productCategoryNumber, int deliveryDays) {
+		this.productUniqueId = productUniqueId;
+		this.productCategoryNumber = productCategoryNumber;
+		this.deliveryDays = deliveryDays;
+	}
+}
@@ -0,0 +1,65 @@
+package com.capgemini.go.bean;
+
+public class DeliveryTimeStatsBean {
+	private String retailerId;
+	private String retailerName;
+	private byte productCategoryNumber;
+	private String productCategoryName;
+	private long items;
+	private long totalDeliveryDays;
+	private long sumOfSquaredDeliveryDays;
+	private int minDeliveryDays;
+	private int maxDeliveryDays;
+
+	// Getters
+	public String getRetailerId() {return retailerId;}
+	public String getRetailerName() {return retailerName;}
+	public byte getProductCategoryNumber() {return productCategoryNumber;}
+	public String getProductCategoryName() {return productCategoryName;}
+	public long getItems() {return items;}
+	public long getTotalDeliveryDays() {return totalDeliveryDays;}
+	public long getSumOfSquaredDeliveryDays() {return sumOfSquaredDeliveryDays;}
+	public int getMinDeliveryDays() {return minDeliveryDays;}
+	public int getMaxDeliveryDays() {return maxDeliveryDays;}
+	public double getAverageDeliveryDays() {return items == 0 ? 0 : (double) totalDeliveryDays / items;}
+
+	// population variance; the sums are exact integers, so only the final division rounds
+	public double getVarianceDeliveryDays() {
+		if (items == 0) {
+			return 0;
+		}
+		double variance = (sumOfSquaredDeliveryDays - (double) totalDeliveryDays * totalDeliveryDays / items) / items;
+		return Math.max(variance, 0);
+	}
+
+	public double getStandardDeviationDeliveryDays() {return Math.sqrt(getVarianceDeliveryDays());}
+
+	// Setters
+	public void setRetailerId(String retailerId) {this.retailerId = retailerId;}
+	public void setRetailerName(String retailerName) {this.retailerName = retailerName;}
+	public void setProductCategoryNumber(byte productCategoryNumber) {this.productCategoryNumber = productCategoryNumber;}
+	public void setProductCategoryName(String productCategoryName) {this.productCategoryName = productCategoryName;}
+	public void setItems(long items) {this.items = items;}
+	public void setTotalDeliveryDays(long totalDeliveryDays) {this.totalDeliveryDays = totalDeliveryDays;}
+	public void setSumOfSquaredDeliveryDays(long sumOfSquaredDeliveryDays) {this.sumOfSquaredDeliveryDays = sumOfSquaredDeliveryDays;}
+	public void setMinDeliveryDays(int minDeliveryDays) {this.minDeliveryDays = minDeliveryDays;}
+	public void setMaxDeliveryDays(int maxDeliveryDays) {this.maxDeliveryDays = maxDeliveryDays;}
+
+	// Constructors
+	public DeliveryTimeStatsBean () {
+
+	}
+
+	/*
+	 * one category, as aggregated by RetailerInventoryDao.getCategoryDeliveryTimeAggregates
+	 */
+	public DeliveryTimeStatsBean(byte productCategoryNumber, long items, long totalDeliveryDays,
+			long sumOfSquaredDeliveryDays, int minDeliveryDays, int maxDeliveryDays) {
+		this.productCategoryNumber = productCategoryNumber;
+		this.items = items;
+		this.totalDeliveryDays = totalDeliveryDays;
+		this.sumOfSquaredDeliveryDays = sumOfSquaredDeliveryDays;
+		this.minDeliveryDays = minDeliveryDays;
+		this.maxDeliveryDays = maxDeliveryDays;
+	}
+}
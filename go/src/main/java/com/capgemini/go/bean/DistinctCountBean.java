@@ -0,0 +1,28 @@
+package com.capgemini.go.bean;
+
+public class DistinctCountBean {
+	private long distinctRetailers;
+	private long distinctProducts;
+	private double relativeError;
+
+	// Getters
+	public long getDistinctRetailers() {return distinctRetailers;}
+	public long getDistinctProducts() {return distinctProducts;}
+	public double getRelativeError() {return relativeError;}
+
+	// Setters
+	public void setDistinctRetailers(long distinctRetailers) {this.distinctRetailers = distinctRetailers;}
+	public void setDistinctProducts(long distinctProducts) {this.distinctProducts = distinctProducts;}
+	public void setRelativeError(double relativeError) {this.relativeError = relativeError;}
+
+	// Constructors
+	public DistinctCountBean () {
+
+	}
+
+	public DistinctCountBean(long distinctRetailers, long distinctProducts, double relativeError) {
+		this.distinctRetailers = distinctRetailers;
+		this.distinctProducts = distinctProducts;
+		this.relativeError = relativeError;
+	}
+}
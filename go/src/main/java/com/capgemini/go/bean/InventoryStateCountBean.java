@@ -0,0 +1,43 @@
+package com.capgemini.go.bean;
+
+public class InventoryStateCountBean {
+	private String retailerId;
+	private byte productCategoryNumber;
+	private String productCategoryName;
+	private long inTransit;
+	private long onShelf;
+	private long sold;
+
+	// Getters
+	public String getRetailerId() {return retailerId;}
+	public byte getProductCategoryNumber() {return productCategoryNumber;}
+	public String getProductCategoryName() {return productCategoryName;}
+	public long getInTransit() {return inTransit;}
+	public long getOnShelf() {return onShelf;}
+	public long getSold() {return sold;}
+
+	// Setters
+	public void setRetailerId(String retailerId) {this.retailerId = retailerId;}
+	public void setProductCategoryNumber(byte productCategoryNumber) {this.productCategoryNumber = productCategoryNumber;}
+	public void setProductCategoryName(String productCategoryName) {this.productCategoryName = productCategoryName;}
+	public void setInTransit(long inTransit) {this.inTransit = inTransit;}
+	public void setOnShelf(long onShelf) {this.onShelf = onShelf;}
+	public void setSold(long sold) {this.sold = sold;}
+
+	// Constructors
+	public InventoryStateCountBean () {
+
+	}
+
+	/*
+	 * item counts (or changes of them) of one retailer and category, as held by InventoryStateCounters
+	 */
+	public InventoryStateCountBean(String retailerId, byte productCategoryNumber, long inTransit, long onShelf,
+			long sold) {
+		this.retailerId = retailerId;
+		this.productCategoryNumber = productCategoryNumber;
+		this.inTransit = inTransit;
+		this.onShelf = onShelf;
+		this.sold = sold;
+	}
+}
@@ -0,0 +1,32 @@
+package com.capgemini.go.bean;
+
+public class MonthlyRevenueBean {
+	private int year;
+	private int month;
+	private double revenue;
+
+	// Getters
+	public int getYear() {return year;}
+	public int getMonth() {return month;}
+	public double getRevenue() {return revenue;}
+
+	// Setters
+	public void setYear(int year) {this.year = year;}
+	public void setMonth(int month) {this.month = month;}
+	public void setRevenue(double revenue) {this.revenue = revenue;}
+
+	// Constructors
+	public MonthlyRevenueBean () {
+
+	}
+
+	/*
+	 * used by the HQL constructor expression in HQLQuerryMapper.SELECT_MONTHLY_REVENUE;
+	 * year is the calendar year and month runs from 1 to 12
+	 */
+	public MonthlyRevenueBean(int year, int month, double revenue) {
+		this.year = year;
+		this.month = month;
+		this.revenue = revenue;
+	}
+}
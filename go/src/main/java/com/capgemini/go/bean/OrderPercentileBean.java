@@ -0,0 +1,40 @@
+package com.capgemini.go.bean;
+
+public class OrderPercentileBean {
+	private String period;
+	private int productCategory;
+	private long orders;
+	private double valueP50;
+	private double valueP90;
+	private double valueP99;
+	private double basketP50;
+	private double basketP90;
+	private double basketP99;
+
+	// Getters
+	public String getPeriod() {return period;}
+	public int getProductCategory() {return productCategory;}
+	public long getOrders() {return orders;}
+	public double getValueP50() {return valueP50;}
+	public double getValueP90() {return valueP90;}
+	public double getValueP99() {return valueP99;}
+	public double getBasketP50() {return basketP50;}
+	public double getBasketP90() {return basketP90;}
+	public double getBasketP99() {return basketP99;}
+
+	// Setters
+	public void setPeriod(String period) {this.period = period;}
+	public void setProductCategory(int productCategory) {this.productCategory = productCategory;}
+	public void setOrders(long orders) {this.orders = orders;}
+	public void setValueP50(double valueP50) {this.valueP50 = valueP50;}
+	public void setValueP90(double valueP90) {this.valueP90 = valueP90;}
+	public void setValueP99(double valueP99) {this.valueP99 = valueP99;}
+	public void setBasketP50(double basketP50) {this.basketP50 = basketP50;}
+	public void setBasketP90(double basketP90) {this.basketP90 = basketP90;}
+	public void setBasketP99(double basketP99) {this.basketP99 = basketP99;}
+
+	// Constructors
+	public OrderPercentileBean () {
+
+	}
+}
@@ -0,0 +1,42 @@
+package com.capgemini.go.bean;
+
+import java.util.Date;
+
+public class OrderTotalBean {
+	private String orderId;
+	private Date orderDate;
+	private int productCategory;
+	private double value;
+	private long lines;
+
+	// Getters
+	public String getOrderId() {return orderId;}
+	public Date getOrderDate() {return orderDate;}
+	public int getProductCategory() {return productCategory;}
+	public double getValue() {return value;}
+	public long getLines() {return lines;}
+
+	// Setters
+	public void setOrderId(String orderId) {this.orderId = orderId;}
+	public void setOrderDate(Date orderDate) {this.orderDate = orderDate;}
+	public void setProductCategory(int productCategory) {this.productCategory = productCategory;}
+	public void setValue(double value) {this.value = value;}
+	public void setLines(long lines) {this.lines = lines;}
+
+	// Constructors
+	public OrderTotalBean () {
+
+	}
+
+	/*
+	 * used by the HQL constructor expression in HQLQuerryMapper.SELECT_ORDER_CATEGORY_TOTALS; value and lines
+	 * cover the active lines of one category of the order
+	 */
+	public OrderTotalBean(String orderId, Date orderDate, int productCategory, double value, long lines) {
+		this.orderId = orderId;
+		this.orderDate = orderDate;
+		this.productCategory = productCategory;
+		this.value = value;
+		this.lines = lines;
+	}
+}
@@ -0,0 +1,81 @@
+package com.capgemini.go.bean;
+
+import java.util.List;
+
+/*******************************************************************************************************
+ * - Class Name : ReportJob <br>
+ * - Description : a report computed in the background. The submitting request gets the job id back
+ * at once; the status, progress and, once DONE, the result rows are read by polling. Fields are
+ * written by the report job thread and read by request threads. <br>
+ *******************************************************************************************************/
+public class ReportJob {
+
+	public enum Kind {
+		GROWTH, SHELF_TIME
+	}
+
+	public enum Status {
+		QUEUED, RUNNING, DONE, FAILED
+	}
+
+	private final String jobId;
+	private final Kind kind;
+	private final int reportType;
+	private final long submittedAt = System.currentTimeMillis();
+	private volatile Status status = Status.QUEUED;
+	private volatile int completedSteps;
+	private volatile int totalSteps = 1;
+	private volatile long startedAt;
+	private volatile long finishedAt;
+	private volatile List<?> result;
+	private volatile String error;
+
+	public ReportJob(String jobId, Kind kind, int reportType) {
+		this.jobId = jobId;
+		this.kind = kind;
+		this.reportType = reportType;
+	}
+
+	// Getters
+	public String getJobId() {return jobId;}
+	public Kind getKind() {return kind;}
+	public int getReportType() {return reportType;}
+	public long getSubmittedAt() {return submittedAt;}
+	public Status getStatus() {return status;}
+	public int getCompletedSteps() {return completedSteps;}
+	public int getTotalSteps() {return totalSteps;}
+	public long getStartedAt() {return startedAt;}
+	public long getFinishedAt() {return finishedAt;}
+	public List<?> getResult() {return result;}
+	public String getError() {return error;}
+
+	public int getProgressPercent() {
+		return status == Status.DONE ? 100 : (int) (100L * completedSteps / Math.max(totalSteps, 1));
+	}
+
+	// State changes, made by the report job thread
+	public void start() {
+		this.startedAt = System.currentTimeMillis();
+		this.status = Status.RUNNING;
+	}
+
+	public void planned(int totalSteps) {
+		this.totalSteps = totalSteps;
+	}
+
+	public void stepCompleted() {
+		completedSteps++;
+	}
+
+	public void finish(List<?> result) {
+		this.result = result;
+		this.finishedAt = System.currentTimeMillis();
+		this.status = Status.DONE;
+	}
+
+	public void fail(String error) {
+		this.error = error;
+		this.finishedAt = System.currentTimeMillis();
+		this.status = Status.FAILED;
+	}
+}
@@ -55,6 +55,15 @@ public class RetailerInventoryBean {
 		this.shelfTimePeriod = shelfTimePeriod;
 	}
 	
+	/*
+	 * one item of an inventory page, as projected by RetailerInventoryDao.getItemPageByRetailer
+	 */
+	public RetailerInventoryBean(String productUniqueId, byte productCategoryNumber, String productName) {
+		this.productUniqueId = productUniqueId;
+		this.productCategoryNumber = productCategoryNumber;
+		this.productName = productName;
+	}
+	
 	public static String periodToString (Period period) {
 		return "Years: " + period.getYears() + " Months: " + period.getMonths() + " Days: " + period.getDays();
 	}
@@ -0,0 +1,29 @@
+package com.capgemini.go.bean;
+
+import java.util.List;
+
+public class RetailerInventoryPageBean {
+	private List<RetailerInventoryBean> items;
+	private String nextCursor;
+
+	// Getters
+	public List<RetailerInventoryBean> getItems() {return items;}
+	public String getNextCursor() {return nextCursor;}
+
+	// Setters
+	public void setItems(List<RetailerInventoryBean> items) {this.items = items;}
+	public void setNextCursor(String nextCursor) {this.nextCursor = nextCursor;}
+
+	// Constructors
+	public RetailerInventoryPageBean () {
+
+	}
+
+	/*
+	 * nextCursor is null on the last page
+	 */
+	public RetailerInventoryPageBean(List<RetailerInventoryBean> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+}
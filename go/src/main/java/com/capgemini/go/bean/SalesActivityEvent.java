@@ -0,0 +1,73 @@
+package com.capgemini.go.bean;
+
+import org.springframework.context.ApplicationEvent;
+
+/*******************************************************************************************************
+ * - Class Name : SalesActivityEvent <br>
+ * - Description : published whenever order lines are placed, cancelled or returned, so that the
+ * incrementally maintained sales figures can be adjusted without rescanning ORDER/ORDER_PRODUCT_MAP <br>
+ * - units is positive for placed orders and negative for cancellations and returns <br>
+ * - the previous totals are the active value and line count of the order, and of its lines of this line's
+ * category, before this change <br>
+ *******************************************************************************************************/
+public class SalesActivityEvent extends ApplicationEvent {
+
+	private static final long serialVersionUID = -3154087237716493470L;
+
+	public enum ActivityType {
+		ORDER, CANCEL, RETURN
+	}
+
+	private final SalesLineBean salesLine;
+	private final int units;
+	private final ActivityType activityType;
+	private final double previousOrderValue;
+	private final long previousOrderLines;
+	private final double previousCategoryValue;
+	private final long previousCategoryLines;
+
+	public SalesActivityEvent(Object source, SalesLineBean salesLine, int units, ActivityType activityType,
+			double previousOrderValue, long previousOrderLines, double previousCategoryValue,
+			long previousCategoryLines) {
+		super(source);
+		this.salesLine = salesLine;
+		this.units = units;
+		this.activityType = activityType;
+		this.previousOrderValue = previousOrderValue;
+		this.previousOrderLines = previousOrderLines;
+		this.previousCategoryValue = previousCategoryValue;
+		this.previousCategoryLines = previousCategoryLines;
+	}
+
+	public SalesLineBean getSalesLine() {
+		return salesLine;
+	}
+
+	public int getUnits() {
+		return units;
+	}
+
+	public ActivityType getActivityType() {
+		return activityType;
+	}
+
+	public double getPreviousOrderValue() {
+		return previousOrderValue;
+	}
+
+	public long getPreviousOrderLines() {
+		return previousOrderLines;
+	}
+
+	public double getPreviousCategoryValue() {
+		return previousCategoryValue;
+	}
+
+	public long getPreviousCategoryLines() {
+		return previousCategoryLines;
+	}
+
+	public double getRevenueDelta() {
+		return units * salesLine.getPrice();
+	}
+}
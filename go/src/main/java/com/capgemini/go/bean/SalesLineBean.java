@@ -0,0 +1,46 @@
+package com.capgemini.go.bean;
+
+import java.util.Date;
+
+public class SalesLineBean {
+	private String orderId;
+	private String productId;
+	private String userId;
+	private Date orderDate;
+	private int productCategory;
+	private double price;
+
+	// Getters
+	public String getOrderId() {return orderId;}
+	public String getProductId() {return productId;}
+	public String getUserId() {return userId;}
+	public Date getOrderDate() {return orderDate;}
+	public int getProductCategory() {return productCategory;}
+	public double getPrice() {return price;}
+
+	// Setters
+	public void setOrderId(String orderId) {this.orderId = orderId;}
+	public void setProductId(String productId) {this.productId = productId;}
+	public void setUserId(String userId) {this.userId = userId;}
+	public void setOrderDate(Date orderDate) {this.orderDate = orderDate;}
+	public void setProductCategory(int productCategory) {this.productCategory = productCategory;}
+	public void setPrice(double price) {this.price = price;}
+
+	// Constructors
+	public SalesLineBean () {
+
+	}
+
+	/*
+	 * used by the HQL constructor expressions in HQLQuerryMapper (SELECT_SALES_LINE, SELECT_SALES_REPORT_DATA)
+	 */
+	public SalesLineBean(String orderId, String productId, String userId, Date orderDate, int productCategory,
+			double price) {
+		this.orderId = orderId;
+		this.productId = productId;
+		this.userId = userId;
+		this.orderDate = orderDate;
+		this.productCategory = productCategory;
+		this.price = price;
+	}
+}
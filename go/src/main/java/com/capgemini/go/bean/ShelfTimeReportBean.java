@@ -0,0 +1,74 @@
+package com.capgemini.go.bean;
+
+public class ShelfTimeReportBean {
+	private String retailerId;
+	private String retailerName;
+	private String period;
+	private int year;
+	private int month;
+	private byte productCategoryNumber;
+	private String productCategoryName;
+	private long items;
+	private long totalShelfDays;
+	private int minShelfDays;
+	private int maxShelfDays;
+
+	// Getters
+	public String getRetailerId() {return retailerId;}
+	public String getRetailerName() {return retailerName;}
+	public String getPeriod() {return period;}
+	public int getYear() {return year;}
+	public int getMonth() {return month;}
+	public byte getProductCategoryNumber() {return productCategoryNumber;}
+	public String getProductCategoryName() {return productCategoryName;}
+	public long getItems() {return items;}
+	public long getTotalShelfDays() {return totalShelfDays;}
+	public int getMinShelfDays() {return minShelfDays;}
+	public int getMaxShelfDays() {return maxShelfDays;}
+	public double getAverageShelfDays() {return items == 0 ? 0 : (double) totalShelfDays / items;}
+
+	// Setters
+	public void setRetailerId(String retailerId) {this.retailerId = retailerId;}
+	public void setRetailerName(String retailerName) {this.retailerName = retailerName;}
+	public void setPeriod(String period) {this.period = period;}
+	public void setYear(int year) {this.year = year;}
+	public void setMonth(int month) {this.month = month;}
+	public void setProductCategoryNumber(byte productCategoryNumber) {this.productCategoryNumber = productCategoryNumber;}
+	public void setProductCategoryName(String productCategoryName) {this.productCategoryName = productCategoryName;}
+	public void setItems(long items) {this.items = items;}
+	public void setTotalShelfDays(long totalShelfDays) {this.totalShelfDays = totalShelfDays;}
+	public void setMinShelfDays(int minShelfDays) {this.minShelfDays = minShelfDays;}
+	public void setMaxShelfDays(int maxShelfDays) {this.maxShelfDays = maxShelfDays;}
+
+	// Constructors
+	public ShelfTimeReportBean () {
+
+	}
+
+	/*
+	 * one month of one category, as aggregated by RetailerInventoryDao.getMonthlyShelfTimeAggregates
+	 */
+	public ShelfTimeReportBean(int year, int month, byte productCategoryNumber, long items, long totalShelfDays,
+			int minShelfDays, int maxShelfDays) {
+		this.year = year;
+		this.month = month;
+		this.productCategoryNumber = productCategoryNumber;
+		this.items = items;
+		this.totalShelfDays = totalShelfDays;
+		this.minShelfDays = minShelfDays;
+		this.maxShelfDays = maxShelfDays;
+	}
+
+	// adds the items of another bucket of the same category; counts and sums add, so the average stays exact
+	public void merge(ShelfTimeReportBean other) {
+		if (items == 0) {
+			minShelfDays = other.minShelfDays;
+			maxShelfDays = other.maxShelfDays;
+		} else if (other.items > 0) {
+			minShelfDays = Math.min(minShelfDays, other.minShelfDays);
+			maxShelfDays = Math.max(maxShelfDays, other.maxShelfDays);
+		}
+		items += other.items;
+		totalShelfDays += other.totalShelfDays;
+	}
+}
@@ -0,0 +1,50 @@
+package com.capgemini.go.bean;
+
+import com.capgemini.go.utility.TimeHistogramBuckets;
+
+public class TimeHistogramBean {
+	private String retailerId;
+	private String retailerName;
+	private byte productCategoryNumber;
+	private String productCategoryName;
+	private long items;
+	// upper bounds (days, inclusive) of all buckets but the last, which is open ended
+	private int[] upperBounds;
+	private long[] bucketItems;
+
+	// Getters
+	public String getRetailerId() {return retailerId;}
+	public String getRetailerName() {return retailerName;}
+	public byte getProductCategoryNumber() {return productCategoryNumber;}
+	public String getProductCategoryName() {return productCategoryName;}
+	public long getItems() {return items;}
+	public int[] getUpperBounds() {return upperBounds;}
+	public long[] getBucketItems() {return bucketItems;}
+
+	// "0-7", "8-30", ..., "91+"
+	public String getBucketLabel(int bucket) {return TimeHistogramBuckets.label(upperBounds, bucket);}
+
+	// Setters
+	public void setRetailerId(String retailerId) {this.retailerId = retailerId;}
+	public void setRetailerName(String retailerName) {this.retailerName = retailerName;}
+	public void setProductCategoryNumber(byte productCategoryNumber) {this.productCategoryNumber = productCategoryNumber;}
+	public void setProductCategoryName(String productCategoryName) {this.productCategoryName = productCategoryName;}
+	public void setItems(long items) {this.items = items;}
+	public void setUpperBounds(int[] upperBounds) {this.upperBounds = upperBounds;}
+	public void setBucketItems(long[] bucketItems) {this.bucketItems = bucketItems;}
+
+	// Constructors
+	public TimeHistogramBean () {
+
+	}
+
+	/*
+	 * one category, as aggregated by RetailerInventoryDao.getTimeHistogram
+	 */
+	public TimeHistogramBean(byte productCategoryNumber, long items, int[] upperBounds, long[] bucketItems) {
+		this.productCategoryNumber = productCategoryNumber;
+		this.items = items;
+		this.upperBounds = upperBounds;
+		this.bucketItems = bucketItems;
+	}
+}
@@ -0,0 +1,39 @@
+package com.capgemini.go.bean;
+
+public class TopSalesBean {
+	private int rank;
+	private String userId;
+	private String productId;
+	private int productCategory;
+	private double revenue;
+	private long units;
+
+	// Getters
+	public int getRank() {return rank;}
+	public String getUserId() {return userId;}
+	public String getProductId() {return productId;}
+	public int getProductCategory() {return productCategory;}
+	public double getRevenue() {return revenue;}
+	public long getUnits() {return units;}
+
+	// Setters
+	public void setRank(int rank) {this.rank = rank;}
+	public void setUserId(String userId) {this.userId = userId;}
+	public void setProductId(String productId) {this.productId = productId;}
+	public void setProductCategory(int productCategory) {this.productCategory = productCategory;}
+	public void setRevenue(double revenue) {this.revenue = revenue;}
+	public void setUnits(long units) {this.units = units;}
+
+	// Constructors
+	public TopSalesBean () {
+
+	}
+
+	public TopSalesBean(String userId, String productId, int productCategory, double revenue, long units) {
+		this.userId = userId;
+		this.productId = productId;
+		this.productCategory = productCategory;
+		this.revenue = revenue;
+		this.units = units;
+	}
+}
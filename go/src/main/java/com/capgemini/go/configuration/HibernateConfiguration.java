@@ -37,6 +37,9 @@ public class HibernateConfiguration {
 	  @Value("${hibernate.hbm2ddl.auto}")
 	  private String HIBERNATE_HBM2DDL_AUTO;
 	  
+	  @Value("${hibernate.jdbc.batch_size:50}")
+	  private String HIBERNATE_JDBC_BATCH_SIZE;
+	  
 	  @Value("${entitymanager.packagesToScan}")
 	  private String ENTITYMANAGER_PACKAGES_TO_SCAN;
 
@@ -49,6 +52,8 @@ public class HibernateConfiguration {
 	    hibernateProperties.put("hibernate.dialect", HIBERNATE_DIALECT);
 	    hibernateProperties.put("hibernate.show_sql", HIBERNATE_SHOW_SQL);
 	    hibernateProperties.put("hibernate.hbm2ddl.auto", HIBERNATE_HBM2DDL_AUTO);
+	    hibernateProperties.put("hibernate.jdbc.batch_size", HIBERNATE_JDBC_BATCH_SIZE);
+	    hibernateProperties.put("hibernate.order_inserts", "true");
 	    sessionFactory.setHibernateProperties(hibernateProperties);
         return sessionFactory;
      }
@@ -1,31 +1,52 @@
 package com.capgemini.go.controller;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.time.Month;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.capgemini.go.bean.OrderPercentileBean;
+import com.capgemini.go.bean.TopSalesBean;
+import com.capgemini.go.dto.SalesRollupDTO;
 import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
 import com.capgemini.go.dto.ViewSalesReportByUserDTO;
 import com.capgemini.go.exception.GoAdminException;
 import com.capgemini.go.service.GoAdminReportsService;
+import com.capgemini.go.service.SalesAnalyticsService;
+import com.capgemini.go.utility.ReportExportWriter;
+import com.capgemini.go.utility.SalesColumnStore;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:4200", maxAge = 3600)
 @RequestMapping("/Reports")
 public class GoAdminReportsController {
 
+	private Logger logger = Logger.getRootLogger();
+
 	@Autowired
 	private GoAdminReportsService goAdminReportsService;
 
@@ -37,6 +58,17 @@ public class GoAdminReportsController {
 		this.goAdminReportsService = goAdminReportsService;
 	}
 
+	@Autowired
+	private SalesAnalyticsService salesAnalyticsService;
+
+	public SalesAnalyticsService getSalesAnalyticsService() {
+		return salesAnalyticsService;
+	}
+
+	public void setSalesAnalyticsService(SalesAnalyticsService salesAnalyticsService) {
+		this.salesAnalyticsService = salesAnalyticsService;
+	}
+
 	@ResponseBody
 	@RequestMapping(value = "/RevenueReports", method = RequestMethod.POST)
 	public String getRevenueReports(@RequestBody Map<String, Object> requestData) {
@@ -71,6 +103,54 @@ public class GoAdminReportsController {
 		return dataList.toString();
 	}
 
+	// same report as /RevenueReports, written to the response as rows come off the database cursor
+	@RequestMapping(value = "/RevenueReports/Stream", method = RequestMethod.POST)
+	public void streamRevenueReports(@RequestBody Map<String, Object> requestData, HttpServletResponse response)
+			throws IOException {
+
+		String userId = requestData.get("retailerId").toString();
+		int categoryType = Integer.parseInt(requestData.get("reportType").toString());
+		String date1 = requestData.get("startDate").toString();
+		String date2 = requestData.get("endDate").toString();
+
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		JsonWriter writer = new JsonWriter(new BufferedWriter(
+				new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 16 * 1024));
+		try {
+			Date dentry;
+			Date dexit;
+			try {
+				dentry = new SimpleDateFormat("yyyy-MM-dd").parse(date1);
+				dexit = new SimpleDateFormat("yyyy-MM-dd").parse(date2);
+			} catch (ParseException e) {
+				writer.beginObject().name("Error").value(e.getMessage()).endObject();
+				return;
+			}
+
+			writer.beginArray();
+			try {
+				goAdminReportsService.streamSalesReportByUserAndCategory(dentry, dexit, userId, categoryType, bean -> {
+					writer.beginObject();
+					writer.name("userId").value(bean.getUserId());
+					writer.name("date").value(bean.getDate());
+					writer.name("orderId").value(bean.getOrderId());
+					writer.name("productId").value(bean.getProductId());
+					writer.name("productCategory").value(Integer.toString(bean.getProductCategory()));
+					writer.name("productPrice").value(Double.toString(bean.getProductPrice()));
+					writer.endObject();
+				});
+			} catch (GoAdminException e) {
+				// rows may already have been sent, so the failure is reported as the last array element
+				e.printStackTrace();
+				writer.beginObject().name("Error").value(e.getMessage()).endObject();
+			}
+			writer.endArray();
+		} finally {
+			writer.close();
+		}
+	}
+
 	@ResponseBody
 
 	@RequestMapping(value = "/GrowthReports", method = RequestMethod.POST)
@@ -90,18 +170,62 @@ public class GoAdminReportsController {
 			List<ViewDetailedSalesReportByProductDTO> list = goAdminReportsService
 					.viewDetailedSalesReportByProduct(dentry, dexit, categoryType);
 			for (ViewDetailedSalesReportByProductDTO bean : list) {
+				dataList.add(growthRowToJson(bean, categoryType));
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+
+		return dataList.toString();
+	}
+
+	// also used for the rows of growth report jobs
+	static JsonObject growthRowToJson(ViewDetailedSalesReportByProductDTO bean, int categoryType) {
+		JsonObject dataObj = new JsonObject();
+		if (categoryType == 1) {
+			dataObj.addProperty("period", Month.of(bean.getPeriod() + 1).name());
+		} else if (categoryType == 2) {
+			dataObj.addProperty("period", "Q" + Integer.toString((bean.getPeriod()) + 1));
+		} else {
+			dataObj.addProperty("period", "YEAR:" + Integer.toString(bean.getPeriod()));
+		}
+		dataObj.addProperty("revenue", Double.toString(bean.getRevenue()));
+		dataObj.addProperty("amountChange", Double.toString(bean.getAmountChange()));
+		dataObj.addProperty("percentageGrowth", Double.toString(bean.getPercentageGrowth()));
+		dataObj.addProperty("colorCode", bean.getCode());
+		// approximate (HyperLogLog, about 1.6% relative standard error at the default precision)
+		if (bean.getDistinctRetailers() != null) {
+			dataObj.addProperty("distinctRetailers", Long.toString(bean.getDistinctRetailers()));
+			dataObj.addProperty("distinctProducts", Long.toString(bean.getDistinctProducts()));
+		}
+		return dataObj;
+	}
+
+	@ResponseBody
+	@RequestMapping(value = "/RevenueSummary", method = RequestMethod.POST)
+	public String getRevenueSummary(@RequestBody Map<String, Object> requestData) {
+
+		String userId = requestData.get("retailerId").toString();
+		int categoryType = Integer.parseInt(requestData.get("reportType").toString());
+		String date1 = requestData.get("startDate").toString();
+		String date2 = requestData.get("endDate").toString();
+
+		JsonArray dataList = new JsonArray();
+		try {
+
+			Date dentry = new SimpleDateFormat("yyyy-MM-dd").parse(date1);
+			Date dexit = new SimpleDateFormat("yyyy-MM-dd").parse(date2);
+			SimpleDateFormat dayFormat = new SimpleDateFormat("yyyy-MM-dd");
+
+			List<SalesRollupDTO> list = goAdminReportsService.viewRevenueSummaryByUserAndCategory(dentry, dexit,
+					userId, categoryType);
+			for (SalesRollupDTO bean : list) {
 				JsonObject dataObj = new JsonObject();
-				if (categoryType == 1) {
-					dataObj.addProperty("period", Month.of(bean.getPeriod() + 1).name());
-				} else if (categoryType == 2) {
-					dataObj.addProperty("period", "Q" + Integer.toString((bean.getPeriod()) + 1));
-				} else {
-					dataObj.addProperty("period", "YEAR:" + Integer.toString(bean.getPeriod()));
-				}
+				dataObj.addProperty("date", dayFormat.format(bean.getSalesDay()));
+				dataObj.addProperty("userId", bean.getUserId());
+				dataObj.addProperty("productCategory", Integer.toString(bean.getProductCategory()));
 				dataObj.addProperty("revenue", Double.toString(bean.getRevenue()));
-				dataObj.addProperty("amountChange", Double.toString(bean.getAmountChange()));
-				dataObj.addProperty("percentageGrowth", Double.toString(bean.getPercentageGrowth()));
-				dataObj.addProperty("colorCode", bean.getCode());
+				dataObj.addProperty("units", Long.toString(bean.getUnits()));
 				dataList.add(dataObj);
 			}
 		} catch (Exception e) {
@@ -111,4 +235,266 @@ public class GoAdminReportsController {
 		return dataList.toString();
 	}
 
+	// best selling products of a date range; count defaults to 20 and metric ("revenue" or "units") to revenue
+	@ResponseBody
+	@RequestMapping(value = "/TopProducts", method = RequestMethod.POST)
+	public String getTopProducts(@RequestBody Map<String, Object> requestData) {
+
+		JsonArray dataList = new JsonArray();
+		try {
+			Date dentry = new SimpleDateFormat("yyyy-MM-dd").parse(requestData.get("startDate").toString());
+			Date dexit = new SimpleDateFormat("yyyy-MM-dd").parse(requestData.get("endDate").toString());
+			Object count = requestData.get("count");
+			Object metric = requestData.get("metric");
+
+			List<TopSalesBean> list = goAdminReportsService.viewTopProducts(dentry, dexit,
+					count == null ? 20 : Integer.parseInt(count.toString()),
+					metric != null && metric.toString().equalsIgnoreCase("units"));
+			for (TopSalesBean bean : list) {
+				JsonObject dataObj = topSalesToJson(bean);
+				dataObj.addProperty("productId", bean.getProductId());
+				dataList.add(dataObj);
+			}
+		} catch (ParseException | GoAdminException | RuntimeException e) {
+			JsonObject dataObj = new JsonObject();
+			dataObj.addProperty("Error", e.getMessage());
+			dataList.add(dataObj);
+		}
+		return dataList.toString();
+	}
+
+	// best selling product categories of every retailer; count defaults to 3 and metric to revenue
+	@ResponseBody
+	@RequestMapping(value = "/TopCategoriesByUser", method = RequestMethod.POST)
+	public String getTopCategoriesByUser(@RequestBody Map<String, Object> requestData) {
+
+		JsonArray dataList = new JsonArray();
+		try {
+			Date dentry = new SimpleDateFormat("yyyy-MM-dd").parse(requestData.get("startDate").toString());
+			Date dexit = new SimpleDateFormat("yyyy-MM-dd").parse(requestData.get("endDate").toString());
+			Object count = requestData.get("count");
+			Object metric = requestData.get("metric");
+
+			List<TopSalesBean> list = goAdminReportsService.viewTopCategoriesByUser(dentry, dexit,
+					count == null ? 3 : Integer.parseInt(count.toString()),
+					metric != null && metric.toString().equalsIgnoreCase("units"));
+			for (TopSalesBean bean : list) {
+				JsonObject dataObj = topSalesToJson(bean);
+				dataObj.addProperty("userId", bean.getUserId());
+				dataList.add(dataObj);
+			}
+		} catch (ParseException | GoAdminException | RuntimeException e) {
+			JsonObject dataObj = new JsonObject();
+			dataObj.addProperty("Error", e.getMessage());
+			dataList.add(dataObj);
+		}
+		return dataList.toString();
+	}
+
+	private static JsonObject topSalesToJson(TopSalesBean bean) {
+		JsonObject dataObj = new JsonObject();
+		dataObj.addProperty("rank", bean.getRank());
+		dataObj.addProperty("productCategory", Integer.toString(bean.getProductCategory()));
+		dataObj.addProperty("revenue", Double.toString(bean.getRevenue()));
+		dataObj.addProperty("units", Long.toString(bean.getUnits()));
+		return dataObj;
+	}
+
+	// ad-hoc slice of the in-memory sales facts; retailerId, productId and groupBy are optional,
+	// "ALL" selects every user and reportType 6 (or absent) every category
+	@ResponseBody
+	@RequestMapping(value = "/Slice", method = RequestMethod.POST)
+	public String getSalesSlice(@RequestBody Map<String, Object> requestData) {
+
+		JsonObject dataObj = new JsonObject();
+		try {
+			SalesColumnStore.Slice slice = new SalesColumnStore.Slice(
+					LocalDate.parse(requestData.get("startDate").toString()),
+					LocalDate.parse(requestData.get("endDate").toString()));
+			Object userId = requestData.get("retailerId");
+			if (userId != null && !userId.toString().equalsIgnoreCase("ALL")) {
+				slice.user(userId.toString());
+			}
+			Object categoryType = requestData.get("reportType");
+			if (categoryType != null && Integer.parseInt(categoryType.toString()) != 6) {
+				slice.category(Integer.parseInt(categoryType.toString()));
+			}
+			Object productId = requestData.get("productId");
+			if (productId != null) {
+				slice.product(productId.toString());
+			}
+			Object groupBy = requestData.get("groupBy");
+			if (groupBy != null) {
+				slice.groupBy(SalesColumnStore.GroupBy.valueOf(groupBy.toString().toUpperCase()));
+			}
+
+			SalesColumnStore.SliceResult result = salesAnalyticsService.slice(slice);
+			dataObj.addProperty("revenue", result.getRevenue());
+			dataObj.addProperty("units", result.getUnits());
+			dataObj.addProperty("lines", result.getLines());
+			JsonArray groups = new JsonArray();
+			for (Map.Entry<String, Double> group : result.getRevenueByGroup().entrySet()) {
+				JsonObject groupObj = new JsonObject();
+				groupObj.addProperty("key", group.getKey());
+				groupObj.addProperty("revenue", group.getValue());
+				groups.add(groupObj);
+			}
+			dataObj.add("groups", groups);
+		} catch (GoAdminException | RuntimeException e) {
+			dataObj = new JsonObject();
+			dataObj.addProperty("Error", e.getMessage());
+		}
+		return dataObj.toString();
+	}
+
+	// p50 / p90 / p99 order value and basket size from the in-memory order sketches; reportType 1-5 selects a
+	// category (6 or absent whole orders) and groupBy "MONTH" returns one row per calendar month
+	@ResponseBody
+	@RequestMapping(value = "/OrderPercentiles", method = RequestMethod.POST)
+	public String getOrderPercentiles(@RequestBody Map<String, Object> requestData) {
+
+		JsonArray dataList = new JsonArray();
+		try {
+			Object categoryType = requestData.get("reportType");
+			Object groupBy = requestData.get("groupBy");
+			List<OrderPercentileBean> list = salesAnalyticsService.orderPercentiles(
+					LocalDate.parse(requestData.get("startDate").toString()),
+					LocalDate.parse(requestData.get("endDate").toString()),
+					categoryType == null ? 6 : Integer.parseInt(categoryType.toString()),
+					groupBy != null && groupBy.toString().equalsIgnoreCase("MONTH"));
+			for (OrderPercentileBean bean : list) {
+				JsonObject dataObj = new JsonObject();
+				dataObj.addProperty("period", bean.getPeriod());
+				dataObj.addProperty("productCategory", Integer.toString(bean.getProductCategory()));
+				dataObj.addProperty("orders", Long.toString(bean.getOrders()));
+				dataObj.addProperty("orderValueP50", Double.toString(bean.getValueP50()));
+				dataObj.addProperty("orderValueP90", Double.toString(bean.getValueP90()));
+				dataObj.addProperty("orderValueP99", Double.toString(bean.getValueP99()));
+				dataObj.addProperty("basketSizeP50", Long.toString(Math.round(bean.getBasketP50())));
+				dataObj.addProperty("basketSizeP90", Long.toString(Math.round(bean.getBasketP90())));
+				dataObj.addProperty("basketSizeP99", Long.toString(Math.round(bean.getBasketP99())));
+				dataList.add(dataObj);
+			}
+		} catch (GoAdminException | RuntimeException e) {
+			JsonObject dataObj = new JsonObject();
+			dataObj.addProperty("Error", e.getMessage());
+			dataList.add(dataObj);
+		}
+		return dataList.toString();
+	}
+
+	@ResponseBody
+	@GetMapping("/CacheStats")
+	public String getReportCacheStats() {
+		JsonObject dataObj = new JsonObject();
+		for (Map.Entry<String, Object> stat : goAdminReportsService.getReportCacheStats().entrySet()) {
+			dataObj.addProperty(stat.getKey(), String.valueOf(stat.getValue()));
+		}
+		return dataObj.toString();
+	}
+
+	@ResponseBody
+	@RequestMapping(value = "/RebuildRollup", method = RequestMethod.POST)
+	public String rebuildRollup() {
+		JsonObject dataObj = new JsonObject();
+		try {
+			dataObj.addProperty("rollupRows", goAdminReportsService.rebuildSalesRollup());
+		} catch (GoAdminException e) {
+			dataObj.addProperty("Error", e.getMessage());
+		}
+		return dataObj.toString();
+	}
+
+	// gzip-compressed CSV / NDJSON download of the revenue report, read from a DB cursor
+	@GetMapping("/Export/Revenue")
+	public void exportRevenueReport(@RequestParam("retailerId") String userId, @RequestParam("reportType") int categoryType,
+			@RequestParam("startDate") String date1, @RequestParam("endDate") String date2,
+			@RequestParam(value = "format", defaultValue = "csv") String format, HttpServletResponse response)
+			throws IOException {
+
+		Date dentry;
+		Date dexit;
+		try {
+			dentry = new SimpleDateFormat("yyyy-MM-dd").parse(date1);
+			dexit = new SimpleDateFormat("yyyy-MM-dd").parse(date2);
+		} catch (ParseException e) {
+			sendExportError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+			return;
+		}
+		ReportExportWriter.Format exportFormat = ReportExportWriter.Format.of(format);
+		startExport(response, "revenue", exportFormat);
+
+		ReportExportWriter writer = new ReportExportWriter(response.getOutputStream(), exportFormat, "userId",
+				"date", "orderId", "productId", "productCategory", "productPrice");
+		try {
+			goAdminReportsService.streamSalesReportByUserAndCategory(dentry, dexit, userId, categoryType,
+					bean -> writer.writeRow(bean.getUserId(), bean.getDate(), bean.getOrderId(), bean.getProductId(),
+							bean.getProductCategory(), bean.getProductPrice()));
+			writer.close();
+		} catch (GoAdminException | IOException | RuntimeException e) {
+			abortExport(response, writer, e);
+		}
+	}
+
+	// gzip-compressed CSV / NDJSON download of the growth report
+	@GetMapping("/Export/Growth")
+	public void exportGrowthReport(@RequestParam("reportType") int categoryType, @RequestParam("startDate") String date1,
+			@RequestParam("endDate") String date2, @RequestParam(value = "format", defaultValue = "csv") String format,
+			HttpServletResponse response) throws IOException {
+
+		List<ViewDetailedSalesReportByProductDTO> list;
+		try {
+			Date dentry = new SimpleDateFormat("yyyy-MM-dd").parse(date1);
+			Date dexit = new SimpleDateFormat("yyyy-MM-dd").parse(date2);
+			list = goAdminReportsService.viewDetailedSalesReportByProduct(dentry, dexit, categoryType);
+		} catch (ParseException e) {
+			sendExportError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+			return;
+		} catch (GoAdminException | ConnectException | RuntimeException e) {
+			sendExportError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
+			return;
+		}
+		ReportExportWriter.Format exportFormat = ReportExportWriter.Format.of(format);
+		startExport(response, "growth", exportFormat);
+
+		ReportExportWriter writer = new ReportExportWriter(response.getOutputStream(), exportFormat, "type",
+				"period", "revenue", "amountChange", "percentageGrowth", "colorCode");
+		try {
+			for (ViewDetailedSalesReportByProductDTO bean : list) {
+				writer.writeRow(bean.getType(), bean.getPeriod(), bean.getRevenue(), bean.getAmountChange(),
+						bean.getPercentageGrowth(), bean.getCode());
+			}
+			writer.close();
+		} catch (IOException | RuntimeException e) {
+			abortExport(response, writer, e);
+		}
+	}
+
+	private void startExport(HttpServletResponse response, String report, ReportExportWriter.Format format) {
+		response.setContentType("application/gzip");
+		response.setHeader("Content-Disposition",
+				"attachment; filename=\"" + report + "-report." + format.getExtension() + ".gz\"");
+	}
+
+	// nothing sent yet: the download is replaced by an error; otherwise the client gets a gzip file without its
+	// trailer, which fails to decompress instead of passing for a complete report
+	private void abortExport(HttpServletResponse response, ReportExportWriter writer, Exception error)
+			throws IOException {
+		logger.error("abortExport - export failed after " + writer.getRows() + " rows - " + error.getMessage());
+		writer.abort();
+		if (!response.isCommitted()) {
+			response.reset();
+			sendExportError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, error.getMessage());
+		}
+	}
+
+	private void sendExportError(HttpServletResponse response, int status, String message) throws IOException {
+		JsonObject dataObj = new JsonObject();
+		dataObj.addProperty("Error", message);
+		response.setStatus(status);
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		response.getOutputStream().write(dataObj.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
 }
@@ -0,0 +1,139 @@
+package com.capgemini.go.controller;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.capgemini.go.bean.ReportJob;
+import com.capgemini.go.bean.ShelfTimeReportBean;
+import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.service.ReportJobService;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/*******************************************************************************************************
+ * Long-running reports as background jobs: a submit call returns the job id at once, the job is then
+ * polled for status and progress and its rows are fetched once it is DONE. Rows have the same format as
+ * the matching synchronous report.
+ ********************************************************************************************************/
+@RestController
+@CrossOrigin(origins = "http://localhost:4200", maxAge = 3600)
+@RequestMapping("/ReportJobs")
+public class ReportJobController {
+
+	private Logger logger = Logger.getRootLogger();
+
+	@Autowired
+	private ReportJobService reportJobService;
+
+	public ReportJobService getReportJobService() {
+		return reportJobService;
+	}
+
+	public void setReportJobService(ReportJobService reportJobService) {
+		this.reportJobService = reportJobService;
+	}
+
+	// same body as POST /Reports/GrowthReports
+	@ResponseBody
+	@PostMapping("/GrowthReports")
+	public String submitGrowthReport(@RequestBody Map<String, Object> requestData) {
+		try {
+			int categoryType = Integer.parseInt(requestData.get("reportType").toString());
+			Date dentry = new SimpleDateFormat("yyyy-MM-dd").parse(requestData.get("startDate").toString());
+			Date dexit = new SimpleDateFormat("yyyy-MM-dd").parse(requestData.get("endDate").toString());
+			return statusToJson(reportJobService.submitGrowthReport(dentry, dexit, categoryType)).toString();
+		} catch (Exception error) {
+			logger.error("submitGrowthReport - " + error.getMessage());
+			return errorToJson(error.getMessage());
+		}
+	}
+
+	// same body as POST /RetailerInventory/ShelfTimeReport; retailerId "ALL" covers every retailer
+	@ResponseBody
+	@PostMapping("/ShelfTimeReport")
+	public String submitShelfTimeReport(@RequestBody Map<String, Object> requestData) {
+		try {
+			String retailerId = requestData.get("retailerId").toString();
+			int reportType = Integer.valueOf(requestData.get("reportType").toString());
+			return statusToJson(reportJobService.submitShelfTimeReport(retailerId, reportType)).toString();
+		} catch (Exception error) {
+			logger.error("submitShelfTimeReport - " + error.getMessage());
+			return errorToJson(error.getMessage());
+		}
+	}
+
+	@ResponseBody
+	@GetMapping("/{jobId}")
+	public String getJobStatus(@PathVariable String jobId) {
+		try {
+			return statusToJson(reportJobService.getJob(jobId)).toString();
+		} catch (GoAdminException error) {
+			return errorToJson(error.getMessage());
+		}
+	}
+
+	@ResponseBody
+	@GetMapping("/{jobId}/Result")
+	public String getJobResult(@PathVariable String jobId) {
+		try {
+			ReportJob job = reportJobService.getJob(jobId);
+			if (job.getStatus() != ReportJob.Status.DONE) {
+				return errorToJson(job.getStatus() == ReportJob.Status.FAILED ? job.getError()
+						: ExceptionConstants.REPORT_JOB_NOT_FINISHED + job.getStatus());
+			}
+			JsonArray dataList = new JsonArray();
+			for (Object row : job.getResult()) {
+				if (job.getKind() == ReportJob.Kind.GROWTH) {
+					dataList.add(GoAdminReportsController.growthRowToJson((ViewDetailedSalesReportByProductDTO) row,
+							job.getReportType()));
+				} else {
+					dataList.add(RetailerInventoryController.shelfTimeItemToJson((ShelfTimeReportBean) row));
+				}
+			}
+			return dataList.toString();
+		} catch (GoAdminException error) {
+			return errorToJson(error.getMessage());
+		}
+	}
+
+	private JsonObject statusToJson(ReportJob job) {
+		JsonObject jobObj = new JsonObject();
+		jobObj.addProperty("jobId", job.getJobId());
+		jobObj.addProperty("report", job.getKind().name());
+		jobObj.addProperty("status", job.getStatus().name());
+		jobObj.addProperty("progress", job.getProgressPercent());
+		jobObj.addProperty("completedSteps", job.getCompletedSteps());
+		jobObj.addProperty("totalSteps", job.getTotalSteps());
+		jobObj.addProperty("submittedAt", job.getSubmittedAt());
+		if (job.getFinishedAt() != 0) {
+			jobObj.addProperty("elapsedMillis", job.getFinishedAt() - job.getStartedAt());
+		}
+		if (job.getResult() != null) {
+			jobObj.addProperty("rows", job.getResult().size());
+		}
+		if (job.getError() != null) {
+			jobObj.addProperty("Error", job.getError());
+		}
+		return jobObj;
+	}
+
+	private String errorToJson(String message) {
+		JsonObject errorObj = new JsonObject();
+		errorObj.addProperty("Error", message);
+		return errorObj.toString();
+	}
+}
@@ -1,8 +1,11 @@
 package com.capgemini.go.controller;
 
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -10,13 +13,21 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import org.apache.log4j.Logger;
 
+import com.capgemini.go.bean.DeliveryTimeOutlierBean;
+import com.capgemini.go.bean.DeliveryTimeStatsBean;
+import com.capgemini.go.bean.InventoryStateCountBean;
 import com.capgemini.go.bean.RetailerInventoryBean;
+import com.capgemini.go.bean.RetailerInventoryPageBean;
+import com.capgemini.go.bean.ShelfTimeReportBean;
+import com.capgemini.go.bean.TimeHistogramBean;
+import com.capgemini.go.exception.ExceptionConstants;
 import com.capgemini.go.exception.RetailerInventoryException;
 import com.capgemini.go.service.RetailerInventoryService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -52,7 +63,7 @@ public class RetailerInventoryController {
 		String retailerId = requestData.get("retailerId").toString();
 		int reportType = Integer.valueOf(requestData.get("reportType").toString());
 		Calendar dateSelection = Calendar.getInstance();
-		List<RetailerInventoryBean> result = null;
+		List<ShelfTimeReportBean> result = null;
 		switch (reportType) {
 			case 1: {
 				try {
@@ -96,20 +107,28 @@ public class RetailerInventoryController {
 			return dataResponse.toString();
 		}
 		JsonArray itemList = new JsonArray();
-		for (RetailerInventoryBean item : result) {
-			JsonObject itemObj = new JsonObject();
-			itemObj.addProperty ("retailerId", item.getRetailerId());
-			itemObj.addProperty("retailerName", item.getRetailerName());
-			itemObj.addProperty("productCategoryNumber", item.getProductCategoryNumber());
-			itemObj.addProperty("productCategoryName", item.getProductCategoryName());
-			itemObj.addProperty("productUniqueId", item.getProductUniqueId());
-			itemObj.addProperty("shelfTimePeriod", RetailerInventoryBean.periodToString(item.getShelfTimePeriod()));
-			itemList.add(itemObj);
+		for (ShelfTimeReportBean item : result) {
+			itemList.add(shelfTimeItemToJson(item));
 		}
 		logger.info("getShelfTimeReport - " + "Sent requested data");
 		return itemList.toString();
 	}
 	
+	// also used for the rows of shelf time report jobs
+	static JsonObject shelfTimeItemToJson (ShelfTimeReportBean item) {
+		JsonObject itemObj = new JsonObject();
+		itemObj.addProperty ("retailerId", item.getRetailerId());
+		itemObj.addProperty("retailerName", item.getRetailerName());
+		itemObj.addProperty("period", item.getPeriod());
+		itemObj.addProperty("productCategoryNumber", item.getProductCategoryNumber());
+		itemObj.addProperty("productCategoryName", item.getProductCategoryName());
+		itemObj.addProperty("items", item.getItems());
+		itemObj.addProperty("averageShelfDays", item.getAverageShelfDays());
+		itemObj.addProperty("minShelfDays", item.getMinShelfDays());
+		itemObj.addProperty("maxShelfDays", item.getMaxShelfDays());
+		return itemObj;
+	}
+	
 	@ResponseBody
 	@PostMapping("/DeliveryTimeReport")
 	public String getDeliveryTimeReport (@RequestBody Map<String, Object> requestData) {
@@ -131,24 +150,42 @@ public class RetailerInventoryController {
 				break;
 			}
 			case 2: {
+				JsonArray categoryList = new JsonArray();
 				try {
-					result = this.retailerInventoryService.getCategoryWiseDeliveryTimeReport(retailerId);
+					for (DeliveryTimeStatsBean category : this.retailerInventoryService.getCategoryWiseDeliveryTimeReport(retailerId)) {
+						categoryList.add(deliveryTimeStatsToJson(category));
+					}
 				} catch (RetailerInventoryException error) {
 					logger.error("getDeliveryTimeReport - " + error.getMessage());
 					((ObjectNode) dataResponse).put("Error", error.getMessage());
 					return dataResponse.toString();
 				}
-				break;
+				logger.info("getDeliveryTimeReport - " + "Sent requested data");
+				return categoryList.toString();
 			}
 			case 3: {
+				JsonArray outlierList = new JsonArray();
 				try {
-					result = this.retailerInventoryService.getOutlierCategoryItemWiseDeliveryTimeReport(retailerId);
+					for (DeliveryTimeOutlierBean item : this.retailerInventoryService.getOutlierCategoryItemWiseDeliveryTimeReport(retailerId)) {
+						JsonObject itemObj = new JsonObject();
+						itemObj.addProperty ("retailerId", item.getRetailerId());
+						itemObj.addProperty("retailerName", item.getRetailerName());
+						itemObj.addProperty("productCategoryNumber", item.getProductCategoryNumber());
+						itemObj.addProperty("productCategoryName", item.getProductCategoryName());
+						itemObj.addProperty("productUniqueId", item.getProductUniqueId());
+						itemObj.addProperty("deliveryDays", item.getDeliveryDays());
+						itemObj.addProperty("averageDeliveryDays", item.getAverageDeliveryDays());
+						itemObj.addProperty("standardDeviationDeliveryDays", item.getStandardDeviationDeliveryDays());
+						itemObj.addProperty("zScore", item.getZScore());
+						outlierList.add(itemObj);
+					}
 				} catch (RetailerInventoryException error) {
 					logger.error("getDeliveryTimeReport - " + error.getMessage());
 					((ObjectNode) dataResponse).put("Error", error.getMessage());
 					return dataResponse.toString();
 				}
-				break;
+				logger.info("getDeliveryTimeReport - " + "Sent requested data");
+				return outlierList.toString();
 			}
 			default: {
 				logger.error("getDeliveryTimeReport - " + "Invalid Argument Received");
@@ -175,6 +212,20 @@ public class RetailerInventoryController {
 		logger.info("getDeliveryTimeReport - " + "Sent requested data");
 		return itemList.toString();
 	}
+
+	static JsonObject deliveryTimeStatsToJson (DeliveryTimeStatsBean category) {
+		JsonObject categoryObj = new JsonObject();
+		categoryObj.addProperty ("retailerId", category.getRetailerId());
+		categoryObj.addProperty("retailerName", category.getRetailerName());
+		categoryObj.addProperty("productCategoryNumber", category.getProductCategoryNumber());
+		categoryObj.addProperty("productCategoryName", category.getProductCategoryName());
+		categoryObj.addProperty("items", category.getItems());
+		categoryObj.addProperty("averageDeliveryDays", category.getAverageDeliveryDays());
+		categoryObj.addProperty("standardDeviationDeliveryDays", category.getStandardDeviationDeliveryDays());
+		categoryObj.addProperty("minDeliveryDays", category.getMinDeliveryDays());
+		categoryObj.addProperty("maxDeliveryDays", category.getMaxDeliveryDays());
+		return categoryObj;
+	}
 	
 	@ResponseBody
 	@PostMapping("/RetailerList")
@@ -200,16 +251,138 @@ public class RetailerInventoryController {
 		return retailerList.toString();
 	}
 	
+	@ResponseBody
+	@GetMapping("/CacheStats")
+	public String getReportCacheStats () {
+		JsonObject statsObj = new JsonObject();
+		for (Map.Entry<String, Object> stat : this.retailerInventoryService.getReportCacheStats().entrySet()) {
+			statsObj.addProperty(stat.getKey(), String.valueOf(stat.getValue()));
+		}
+		return statsObj.toString();
+	}
+	
+	// type is shelf (sold items) or delivery (received items); bounds are the inclusive upper day bounds of all
+	// buckets but the last, e.g. 7,30,90 for 0-7, 8-30, 31-90 and 91+ days (the configured default when omitted)
+	@ResponseBody
+	@GetMapping("/TimeHistogram/{retailerId}")
+	public String getTimeHistogram (@PathVariable String retailerId,
+			@RequestParam(value = "type", defaultValue = "shelf") String type,
+			@RequestParam(value = "bounds", required = false) String bounds) {
+		logger.info("getTimeHistogram - " + "Request for " + retailerId + " " + type + " time histogram Received");
+		ObjectMapper mapper = new ObjectMapper();
+		JsonNode dataResponse = mapper.createObjectNode();
+		JsonObject histogramObj = new JsonObject();
+		JsonArray categoryList = new JsonArray();
+		try {
+			int[] upperBounds = null;
+			if (bounds != null && !bounds.trim().isEmpty()) {
+				String[] values = bounds.split(",");
+				upperBounds = new int[values.length];
+				for (int index = 0; index < values.length; index++) {
+					upperBounds[index] = Integer.parseInt(values[index].trim());
+				}
+			}
+			List<TimeHistogramBean> result;
+			if ("shelf".equalsIgnoreCase(type)) {
+				result = this.retailerInventoryService.getShelfTimeHistogram(retailerId, upperBounds);
+			} else if ("delivery".equalsIgnoreCase(type)) {
+				result = this.retailerInventoryService.getDeliveryTimeHistogram(retailerId, upperBounds);
+			} else {
+				throw new RetailerInventoryException("getTimeHistogram - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+			}
+			TimeHistogramBean first = result.get(0);
+			long[] totals = new long[first.getBucketItems().length];
+			JsonArray bucketList = new JsonArray();
+			for (int bucket = 0; bucket < totals.length; bucket++) {
+				bucketList.add(first.getBucketLabel(bucket));
+			}
+			for (TimeHistogramBean item : result) {
+				JsonObject categoryObj = new JsonObject();
+				categoryObj.addProperty("productCategoryNumber", item.getProductCategoryNumber());
+				categoryObj.addProperty("productCategoryName", item.getProductCategoryName());
+				categoryObj.addProperty("items", item.getItems());
+				JsonArray countList = new JsonArray();
+				for (int bucket = 0; bucket < totals.length; bucket++) {
+					countList.add(item.getBucketItems()[bucket]);
+					totals[bucket] += item.getBucketItems()[bucket];
+				}
+				categoryObj.add("counts", countList);
+				categoryList.add(categoryObj);
+			}
+			JsonArray totalList = new JsonArray();
+			for (long total : totals) {
+				totalList.add(total);
+			}
+			histogramObj.addProperty("retailerId", retailerId);
+			histogramObj.addProperty("retailerName", first.getRetailerName());
+			histogramObj.addProperty("type", type.toLowerCase());
+			histogramObj.add("buckets", bucketList);
+			histogramObj.add("counts", totalList);
+			histogramObj.add("categories", categoryList);
+		} catch (Exception error) {
+			logger.error("getTimeHistogram - " + error.getMessage());
+			((ObjectNode) dataResponse).put("Error", error.getMessage());
+			return dataResponse.toString();
+		}
+		logger.info("getTimeHistogram - " + "Sent requested data");
+		return histogramObj.toString();
+	}
+	
+	// counts kept in memory by the inventory updates; no database access
+	@ResponseBody
+	@GetMapping("/InventoryStateCounts/{retailerId}")
+	public String getInventoryStateCounts (@PathVariable String retailerId) {
+		logger.info("getInventoryStateCounts - " + "Request for " + retailerId + " Inventory State Counts Received");
+		ObjectMapper mapper = new ObjectMapper();
+		JsonNode dataResponse = mapper.createObjectNode();
+		JsonObject countsObj = new JsonObject();
+		JsonArray categoryList = new JsonArray();
+		long inTransit = 0;
+		long onShelf = 0;
+		long sold = 0;
+		try {
+			List<InventoryStateCountBean> result = this.retailerInventoryService.getInventoryStateCounts(retailerId);
+			for (InventoryStateCountBean item : result) {
+				JsonObject categoryObj = new JsonObject();
+				categoryObj.addProperty("productCategoryNumber", item.getProductCategoryNumber());
+				categoryObj.addProperty("productCategoryName", item.getProductCategoryName());
+				categoryObj.addProperty("inTransit", item.getInTransit());
+				categoryObj.addProperty("onShelf", item.getOnShelf());
+				categoryObj.addProperty("sold", item.getSold());
+				categoryList.add(categoryObj);
+				inTransit += item.getInTransit();
+				onShelf += item.getOnShelf();
+				sold += item.getSold();
+			}
+		} catch (Exception error) {
+			logger.error("getInventoryStateCounts - " + error.getMessage());
+			((ObjectNode) dataResponse).put("Error", error.getMessage());
+			return dataResponse.toString();
+		}
+		countsObj.addProperty("retailerId", retailerId);
+		countsObj.addProperty("inTransit", inTransit);
+		countsObj.addProperty("onShelf", onShelf);
+		countsObj.addProperty("sold", sold);
+		countsObj.add("categories", categoryList);
+		logger.info("getInventoryStateCounts - " + "Sent requested data");
+		return countsObj.toString();
+	}
+	
+	// one page per call, in unique id order; pass nextCursor back as cursor for the next page (null on the last page)
 	@ResponseBody
 	@GetMapping("/RetailerInventoryById/{retailerId}")
-	public String getRetailerInventoryById (@PathVariable String retailerId) {
+	public String getRetailerInventoryById (@PathVariable String retailerId,
+			@RequestParam(value = "category", defaultValue = "0") byte category,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "pageSize", defaultValue = "0") int pageSize) {
 		logger.info("getRetailerInventoryById - " + "Request for " + retailerId + " Inventory Received");
 		ObjectMapper mapper = new ObjectMapper();
 		JsonNode dataResponse = mapper.createObjectNode();
+		JsonObject pageObj = new JsonObject();
 		JsonArray itemList = new JsonArray();
 		try {
-			List<RetailerInventoryBean> result = this.retailerInventoryService.getInventoryById(retailerId);
-			for (RetailerInventoryBean item : result) {
+			RetailerInventoryPageBean page = this.retailerInventoryService.getInventoryById(retailerId, category, cursor, pageSize);
+			for (RetailerInventoryBean item : page.getItems()) {
 				JsonObject itemObj = new JsonObject();
 				itemObj.addProperty ("retailerId", item.getRetailerId());
 				itemObj.addProperty("retailerName", item.getRetailerName());
@@ -219,13 +392,15 @@ public class RetailerInventoryController {
 				itemObj.addProperty("productUniqueId", item.getProductUniqueId());
 				itemList.add(itemObj);
 			}
+			pageObj.add("items", itemList);
+			pageObj.addProperty("nextCursor", page.getNextCursor());
 		} catch (Exception error) {
 			logger.error("getRetailerInventoryById - " + error.getMessage());
 			((ObjectNode) dataResponse).put("Error", error.getMessage());
 			return dataResponse.toString();
 		}
 		logger.info("getRetailerInventoryById - " + "Sent requested data");
-		return itemList.toString();
+		return pageObj.toString();
 	}
 	
 	@ResponseBody
@@ -263,4 +438,62 @@ public class RetailerInventoryController {
 		((ObjectNode) dataResponse).put("Message", "Item Sale Time Stamp updated successfully!");
 		return dataResponse.toString();
 	}
+	
+	// body: retailerId, productUins (list) and optionally timestamp ("yyyy-MM-dd HH:mm:ss", UTC; default now)
+	@ResponseBody
+	@PostMapping("/BulkUpdateReceiveTime")
+	public String bulkUpdateReceiveTime (@RequestBody Map<String, Object> requestData) {
+		return bulkUpdateTime(requestData, false);
+	}
+	
+	// body as for BulkUpdateReceiveTime
+	@ResponseBody
+	@PostMapping("/BulkUpdateSaleTime")
+	public String bulkUpdateSaleTime (@RequestBody Map<String, Object> requestData) {
+		return bulkUpdateTime(requestData, true);
+	}
+	
+	private String bulkUpdateTime (Map<String, Object> requestData, boolean sale) {
+		String function = sale ? "bulkUpdateSaleTime" : "bulkUpdateReceiveTime";
+		ObjectMapper mapper = new ObjectMapper();
+		JsonNode dataResponse = mapper.createObjectNode();
+		JsonObject resultObj = new JsonObject();
+		try {
+			String retailerId = requestData.get("retailerId").toString();
+			List<String> productUins = new ArrayList<String>();
+			for (Object productUin : (List<?>) requestData.get("productUins")) {
+				productUins.add(productUin.toString());
+			}
+			if (productUins.isEmpty()) {
+				throw new RetailerInventoryException(ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+			}
+			Calendar timestamp = null;
+			if (requestData.get("timestamp") != null) {
+				SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+				format.setTimeZone(TimeZone.getTimeZone("UTC"));
+				timestamp = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+				timestamp.setTime(format.parse(requestData.get("timestamp").toString()));
+			}
+			Map<String, Boolean> outcomes = sale
+					? this.retailerInventoryService.updateItemSaleTimestamps(retailerId, productUins, timestamp)
+					: this.retailerInventoryService.updateItemReceiveTimestamps(retailerId, productUins, timestamp);
+			JsonArray itemList = new JsonArray();
+			int updated = 0;
+			for (Map.Entry<String, Boolean> outcome : outcomes.entrySet()) {
+				JsonObject itemObj = new JsonObject();
+				itemObj.addProperty("productUin", outcome.getKey());
+				itemObj.addProperty("outcome", outcome.getValue() ? "UPDATED" : ExceptionConstants.PRODUCT_NOT_IN_INVENTORY);
+				itemList.add(itemObj);
+				updated += outcome.getValue() ? 1 : 0;
+			}
+			resultObj.addProperty("updated", updated);
+			resultObj.addProperty("notInInventory", outcomes.size() - updated);
+			resultObj.add("items", itemList);
+		} catch (Exception error) {
+			logger.info(function + " - " + error.getMessage());
+			((ObjectNode) dataResponse).put("Error", error.getMessage());
+			return dataResponse.toString();
+		}
+		return resultObj.toString();
+	}
 }
@@ -0,0 +1,64 @@
+package com.capgemini.go.controller;
+
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.capgemini.go.dto.SalesRepDTO;
+import com.capgemini.go.exception.SalesRepresentativeException;
+import com.capgemini.go.service.SalesRepPerformanceService;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:4200")
+@RequestMapping("/SalesRep")
+public class SalesRepPerformanceController {
+
+	private Logger logger = Logger.getRootLogger();
+
+	@Autowired
+	private SalesRepPerformanceService salesRepPerformanceService;
+
+	public SalesRepPerformanceService getSalesRepPerformanceService() {
+		return salesRepPerformanceService;
+	}
+
+	public void setSalesRepPerformanceService(SalesRepPerformanceService salesRepPerformanceService) {
+		this.salesRepPerformanceService = salesRepPerformanceService;
+	}
+
+	@ResponseBody
+	@GetMapping("/Leaderboard/{count}")
+	public String getLeaderboard(@PathVariable int count) {
+		logger.info("getLeaderboard - " + "Request for top " + count + " sales representatives received");
+		JsonArray leaderboard = new JsonArray();
+		try {
+			List<SalesRepDTO> result = salesRepPerformanceService.getLeaderboard(count);
+			int rank = 1;
+			for (SalesRepDTO salesRep : result) {
+				JsonObject salesRepObj = new JsonObject();
+				salesRepObj.addProperty("rank", rank++);
+				salesRepObj.addProperty("userId", salesRep.getUserId());
+				salesRepObj.addProperty("currentSales", salesRep.getCurrentSales());
+				salesRepObj.addProperty("target", salesRep.getTarget());
+				salesRepObj.addProperty("targetStatus", salesRep.getTargetStatus());
+				leaderboard.add(salesRepObj);
+			}
+		} catch (SalesRepresentativeException error) {
+			logger.error("getLeaderboard - " + error.getMessage());
+			JsonObject errorObj = new JsonObject();
+			errorObj.addProperty("Error", error.getMessage());
+			return errorObj.toString();
+		}
+		logger.info("getLeaderboard - " + "Sent requested data");
+		return leaderboard.toString();
+	}
+}
@@ -1,14 +1,19 @@
 package com.capgemini.go.dao;
 
+import java.io.IOException;
 import java.net.ConnectException;
 import java.util.Date;
 import java.util.List;
 
 import org.springframework.stereotype.Component;
 
+import com.capgemini.go.bean.SalesLineBean;
+import com.capgemini.go.bean.TopSalesBean;
+import com.capgemini.go.dto.SalesRollupDTO;
 import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
 import com.capgemini.go.dto.ViewSalesReportByUserDTO;
 import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.utility.RowHandler;
 
 
 
@@ -30,6 +35,29 @@ public interface GoAdminReportsDao {
 	List<ViewSalesReportByUserDTO> viewSalesReportByUserAndCategory(Date entry, Date exit, String TargetuserId,
 			int category) throws GoAdminException,ConnectException;
 
+	// ------------------------ GreatOutdoor Application --------------------------
+		/*******************************************************************************************************
+		 * Function Name : streamSalesReportByUserAndCategory 
+		 * Input Parameters : entry ,exit , targetuserId, category, handler 
+		 * Return Type : int 
+		 * Throws : GoAdmin Exception, IOException
+		 * Description : Same rows as viewSalesReportByUserAndCategory, read with a forward-only
+		 * cursor and passed to the handler one at a time; returns the number of rows
+		 ********************************************************************************************************/
+	int streamSalesReportByUserAndCategory(Date entry, Date exit, String TargetuserId, int category,
+			RowHandler<ViewSalesReportByUserDTO> handler) throws GoAdminException, IOException;
+
+	// ------------------------ GreatOutdoor Application --------------------------
+		/*******************************************************************************************************
+		 * Function Name : streamActiveSalesLines 
+		 * Input Parameters : handler 
+		 * Return Type : int 
+		 * Throws : GoAdmin Exception, IOException
+		 * Description : Passes every active order line (one per product UIN) to the handler
+		 * through a forward-only cursor; returns the number of lines
+		 ********************************************************************************************************/
+	int streamActiveSalesLines(RowHandler<SalesLineBean> handler) throws GoAdminException, IOException;
+
 	// ------------------------ GreatOutdoor Application --------------------------
 		/*******************************************************************************************************
 		 * Function Name : viewDetailedSalesReportByProduct 
@@ -48,4 +76,39 @@ public interface GoAdminReportsDao {
 	List<ViewDetailedSalesReportByProductDTO> viewDetailedSalesReportByProduct(Date entry, Date exit, int cat)
 			 throws GoAdminException,ConnectException;
 
+	// ------------------------ GreatOutdoor Application --------------------------
+		/*******************************************************************************************************
+		 * Function Name : viewRevenueSummaryByUserAndCategory 
+		 * Input Parameters : entry ,exit , targetuserId, category 
+		 * Return Type : List 
+		 * Throws : GoAdmin Exception
+		 * Description : Net revenue and units per day, product category and user,
+		 * read from SALES_ROLLUP; "ALL" selects every user and category 6 every category
+		 ********************************************************************************************************/
+	List<SalesRollupDTO> viewRevenueSummaryByUserAndCategory(Date entry, Date exit, String TargetuserId, int category)
+			throws GoAdminException;
+
+	// ------------------------ GreatOutdoor Application --------------------------
+		/*******************************************************************************************************
+		 * Function Name : viewTopProducts 
+		 * Input Parameters : entry ,exit , count, byUnits 
+		 * Return Type : List 
+		 * Throws : GoAdmin Exception
+		 * Description : The count best selling products of the days entry..exit,
+		 * ranked by revenue or by units sold
+		 ********************************************************************************************************/
+	List<TopSalesBean> viewTopProducts(Date entry, Date exit, int count, boolean byUnits) throws GoAdminException;
+
+	// ------------------------ GreatOutdoor Application --------------------------
+		/*******************************************************************************************************
+		 * Function Name : viewTopCategoriesByUser 
+		 * Input Parameters : entry ,exit , count, byUnits 
+		 * Return Type : List 
+		 * Throws : GoAdmin Exception
+		 * Description : For every user, the count product categories with the
+		 * highest revenue or units in the days entry..exit, ranked from 1
+		 ********************************************************************************************************/
+	List<TopSalesBean> viewTopCategoriesByUser(Date entry, Date exit, int count, boolean byUnits)
+			throws GoAdminException;
+
 }
@@ -1,22 +1,39 @@
 package com.capgemini.go.dao;
 
+import java.io.IOException;
 import java.net.ConnectException;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.log4j.Logger;
+import org.hibernate.CacheMode;
 import org.hibernate.HibernateException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import com.capgemini.go.bean.MonthlyRevenueBean;
+import com.capgemini.go.bean.SalesLineBean;
+import com.capgemini.go.bean.TopSalesBean;
+import com.capgemini.go.dto.SalesRollupDTO;
 import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
 import com.capgemini.go.dto.ViewSalesReportByUserDTO;
 import com.capgemini.go.exception.ExceptionConstants;
 import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.utility.GrowthReportCalculator;
+import com.capgemini.go.utility.RowHandler;
+import com.capgemini.go.utility.TopN;
 
 @Repository(value = "goAdminReportsDao")
 public class GoAdminReportsDaoImpl implements GoAdminReportsDao {
@@ -25,6 +42,18 @@ public class GoAdminReportsDaoImpl implements GoAdminReportsDao {
 	
 	@Autowired
 	private SessionFactory sessionFactory;
+
+	// when set, the growth report reads net revenue from SALES_ROLLUP instead of scanning order lines
+	@Value("${reports.source.rollup:false}")
+	private boolean readFromRollup;
+
+	// growth reports spanning at least this many years compute their years in parallel
+	@Value("${reports.growth.parallel.min.years:100}")
+	private int growthParallelMinYears;
+
+	// Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole result set
+	@Value("${reports.stream.fetch.size:-2147483648}")
+	private int streamFetchSize;
 	// this will create one sessionFactory for this class
 	// there is only one sessionFactory should be created for the applications
 	// we can create multiple sessions for a sessionFactory
@@ -56,9 +85,6 @@ public class GoAdminReportsDaoImpl implements GoAdminReportsDao {
 		Session session = null;
 
 		try {
-			ViewSalesReportByUserDTO temp;
-		
-
 			if (entry == null || exit == null) {
 				logger.error(ExceptionConstants.INVALID_DATE);
 				throw new GoAdminException(ExceptionConstants.INVALID_DATE);
@@ -66,59 +92,11 @@ public class GoAdminReportsDaoImpl implements GoAdminReportsDao {
 
 			session = getSessionFactory().openSession();
 			session.beginTransaction();
-			//results object array
-			List<Object[]> results = session.createQuery(HQLQuerryMapper.SELECT_DATA_FROM_DATABASE).getResultList();
-			String userId, date, orderId, productId;
-			int productCategory;
-			Double productPrice;
-
-			for (Object[] data : results) {
-				
-				//storing the data from database to a temporary variable
-				userId = data[0].toString();
-				date = data[1].toString();
-				orderId = data[2].toString();
-				productId = data[3].toString();
-				productCategory = Integer.parseInt(data[4].toString());
-				productPrice = Double.parseDouble(data[5].toString());
-				
-				//First condition i.e a particular UserId and Product category
-				if (TargetuserId.equalsIgnoreCase(userId) && category == productCategory) {
-
-					temp = new ViewSalesReportByUserDTO();
-					temp.setUserId(userId);
-					temp.setDate(date);
-					temp.setOrderId(orderId);
-					temp.setProductId(productId);
-					temp.setProductPrice(productPrice);
-					temp.setProductCategory(productCategory);
-					viewSales.add(temp);
-				} 
-				//Second condition i.e a All UserId and Product category
-				else if (TargetuserId.equalsIgnoreCase("ALL") && category == productCategory) {
-					temp = new ViewSalesReportByUserDTO();
-					temp.setUserId(userId);
-					temp.setDate(date);
-					temp.setOrderId(orderId);
-					temp.setProductId(productId);
-					temp.setProductPrice(productPrice);
-					temp.setProductCategory(productCategory);
-					viewSales.add(temp);
-				} 
-				//Third condition i.e All UserId and All Product category
-				else if (TargetuserId.equalsIgnoreCase("ALL") && category == 6) {
-					temp = new ViewSalesReportByUserDTO();
-					temp.setUserId(userId);
-					temp.setDate(date);
-					temp.setOrderId(orderId);
-					temp.setProductId(productId);
-					temp.setProductPrice(productPrice);
-					temp.setProductCategory(productCategory);
-					viewSales.add(temp);
-
-				}
-
+			Query<SalesLineBean> query = createSalesReportQuery(session, entry, exit, TargetuserId, category);
+			for (SalesLineBean line : query.getResultList()) {
+				viewSales.add(toSalesReportRow(line));
 			}
+			session.getTransaction().commit();
 
 		} catch (HibernateException e) {
 
@@ -130,10 +108,132 @@ public class GoAdminReportsDaoImpl implements GoAdminReportsDao {
 			throw new GoAdminException(ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage()); 
 			
 
+		} finally {
+			if (session != null) {
+				session.close();
+			}
 		}
 		return viewSales;
 	}
 
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * Function Name : streamSalesReportByUserAndCategory Input Parameters : entry
+	 * ,exit , targetuserId, category, handler Return Type : int Throws : GoAdmin
+	 * Exception, IOException Description : Same rows as
+	 * viewSalesReportByUserAndCategory, read through a forward-only cursor and
+	 * handed to the handler one at a time; returns the number of rows
+	 ********************************************************************************************************/
+
+	public int streamSalesReportByUserAndCategory(Date entry, Date exit, String TargetuserId, int category,
+			RowHandler<ViewSalesReportByUserDTO> handler) throws GoAdminException, IOException {
+		if (entry == null || exit == null) {
+			logger.error(ExceptionConstants.INVALID_DATE);
+			throw new GoAdminException(ExceptionConstants.INVALID_DATE);
+		}
+		int rows = 0;
+		Session session = null;
+		ScrollableResults cursor = null;
+		try {
+			session = getSessionFactory().openSession();
+			session.beginTransaction();
+			Query<SalesLineBean> query = createSalesReportQuery(session, entry, exit, TargetuserId, category);
+			query.setReadOnly(true);
+			query.setCacheMode(CacheMode.IGNORE);
+			query.setFetchSize(streamFetchSize);
+			cursor = query.scroll(ScrollMode.FORWARD_ONLY);
+			while (cursor.next()) {
+				handler.handle(toSalesReportRow((SalesLineBean) cursor.get(0)));
+				rows++;
+			}
+			session.getTransaction().commit();
+		} catch (HibernateException exp) {
+			logger.error("streamSalesReportByUserAndCategory - " + exp.getMessage());
+			throw new GoAdminException(ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage());
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+			if (session != null) {
+				session.close();
+			}
+		}
+		return rows;
+	}
+
+	/*******************************************************************************************************
+	 * Function Name : streamActiveSalesLines Input Parameters : handler Return
+	 * Type : int Throws : GoAdmin Exception, IOException Description : Passes every
+	 * active order line to the handler through a forward-only cursor
+	 ********************************************************************************************************/
+	@Override
+	public int streamActiveSalesLines(RowHandler<SalesLineBean> handler) throws GoAdminException, IOException {
+		int rows = 0;
+		Session session = null;
+		ScrollableResults cursor = null;
+		try {
+			session = getSessionFactory().openSession();
+			session.beginTransaction();
+			Query<SalesLineBean> query = session.createQuery(HQLQuerryMapper.SELECT_ACTIVE_SALES_LINES,
+					SalesLineBean.class);
+			query.setReadOnly(true);
+			query.setCacheMode(CacheMode.IGNORE);
+			query.setFetchSize(streamFetchSize);
+			cursor = query.scroll(ScrollMode.FORWARD_ONLY);
+			while (cursor.next()) {
+				handler.handle((SalesLineBean) cursor.get(0));
+				rows++;
+			}
+			session.getTransaction().commit();
+		} catch (HibernateException exp) {
+			logger.error("streamActiveSalesLines - " + exp.getMessage());
+			throw new GoAdminException(ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage());
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+			if (session != null) {
+				session.close();
+			}
+		}
+		return rows;
+	}
+
+	/*******************************************************************************************************
+	 * Function Name : createSalesReportQuery Description : Builds the filtered sales
+	 * report query. "ALL" selects every user; category 6 selects every category,
+	 * but only together with "ALL". The date range covers entry through the whole
+	 * exit day.
+	 ********************************************************************************************************/
+	private Query<SalesLineBean> createSalesReportQuery(Session session, Date entry, Date exit, String TargetuserId,
+			int category) {
+		boolean allUsers = TargetuserId.equalsIgnoreCase("ALL");
+		boolean allCategories = allUsers && category == 6;
+		String hql = HQLQuerryMapper.SELECT_SALES_REPORT_DATA
+				+ (allUsers ? "" : HQLQuerryMapper.SALES_REPORT_USER_FILTER)
+				+ (allCategories ? "" : HQLQuerryMapper.SALES_REPORT_CATEGORY_FILTER);
+
+		Calendar exitExclusive = Calendar.getInstance();
+		exitExclusive.setTime(exit);
+		exitExclusive.add(Calendar.DATE, 1);
+
+		Query<SalesLineBean> query = session.createQuery(hql, SalesLineBean.class);
+		query.setParameter("entry", entry);
+		query.setParameter("exitExclusive", exitExclusive.getTime());
+		if (!allUsers) {
+			query.setParameter("userId", TargetuserId);
+		}
+		if (!allCategories) {
+			query.setParameter("category", category);
+		}
+		return query;
+	}
+
+	private ViewSalesReportByUserDTO toSalesReportRow(SalesLineBean line) {
+		return new ViewSalesReportByUserDTO(line.getUserId(), line.getOrderDate().toString(), line.getOrderId(),
+				line.getProductId(), line.getProductCategory(), line.getPrice());
+	}
+
 	// ------------------------ GreatOutdoor Application --------------------------
 	/*******************************************************************************************************
 	 * Function Name : viewDetailedSalesReportByProduct Input Parameters : entry
@@ -148,31 +248,8 @@ public class GoAdminReportsDaoImpl implements GoAdminReportsDao {
 	public List<ViewDetailedSalesReportByProductDTO> viewDetailedSalesReportByProduct(Date entry, Date exit,
 			int category) throws GoAdminException, ConnectException {
 
-		List<ViewDetailedSalesReportByProductDTO> viewDetailedSalesReportByProduct = new ArrayList<ViewDetailedSalesReportByProductDTO>();
 		List<ViewDetailedSalesReportByProductDTO> growthListfinal = new ArrayList<ViewDetailedSalesReportByProductDTO>();
 
-		ViewDetailedSalesReportByProductDTO temp;
-
-		Statement stmt = null;
-		
-		int j = 0;
-		double prevM = 0.0, prevQ = 0.0, prevY = 0.0;
-
-		double[] amtM = new double[12];
-		double[] perChngM = new double[12];
-		String[] codeM = new String[12];
-
-		double[] amtQ = new double[4];
-		double[] perChngQ = new double[4];
-		String[] codeQ = new String[4];
-
-		double amtY = 0.0, perChngY = 0.0;
-		String codeY;
-
-		double[] arrRevM = new double[12];
-		double[] arrRevQ = new double[4];
-		double arrRevY = 0.0;
-
 		Session session = null;
 
 		try {
@@ -189,203 +266,241 @@ public class GoAdminReportsDaoImpl implements GoAdminReportsDao {
 			session = getSessionFactory().openSession();
 			session.beginTransaction();
 
-			List<Object[]> results = session.createQuery(HQLQuerryMapper.SELECT_REVENUE_DATA).getResultList();
+			// revenue per calendar month, summed by the database over whole years startYear..endYear
+			Map<Integer, double[]> revenueByYear = loadMonthlyRevenue(session, startYear, endYear);
 
-			Double price;
-
-			if (results.size() == 0) {
+			if (revenueByYear.isEmpty()
+					&& session.createQuery(HQLQuerryMapper.ANY_ORDER_LINE).setMaxResults(1).getResultList().isEmpty()) {
 				logger.error(ExceptionConstants.EMPTY_DATABASE);
 				throw new GoAdminException(ExceptionConstants.EMPTY_DATABASE);
 
 			}
 
-			// loop from start year to end year
-			for (int index = startYear; index <= endYear; index++) {
-				// loop for going through order list
-				for (Object[] rs : results) {
-
-					int month = Integer.parseInt((rs[0].toString().substring(5, 7)));
-					int year = Integer.parseInt((rs[0].toString().substring(0, 4))) - 1900;
-
-					for (j = 0; j <= 11; j++) {
-
-						if (month == j && year == index) {
-
-							price = Double.parseDouble(rs[1].toString());
-							arrRevM[j] += price;
-
-						}
-
-					}
-					
-				}
-				
-				// loop for going from January to December
-				for (j = 0; j <= 11; j++) {
-
-					temp = new ViewDetailedSalesReportByProductDTO();
-					// Initializing the amount change of current month and previous month
-
-					if (j == 0) {
-
-						amtM[j] = arrRevM[j] - prevM;
-						perChngM[j] = Math.round((100 * (amtM[j]) / prevM) * 100) / 100D;
-
-					} else {
-						amtM[j] = arrRevM[j] - arrRevM[j - 1];
-						perChngM[j] = Math.round((100 * (amtM[j]) / arrRevM[j - 1]) * 100) / 100D;
-
-					}
-
-					// checking the necessary condition for color code
-					if (perChngM[j] >= 10.0)
-						codeM[j] = "GREEN";
-					else if (perChngM[j] >= 2.0 && perChngM[j] <= 10)
-						codeM[j] = "AMBER";
-					else
-						codeM[j] = "RED";
-
-					temp.setPeriod(j);
-					temp.setRevenue(arrRevM[j]);
-					temp.setAmountChange(amtM[j]);
-					temp.setPercentageGrowth(perChngM[j]);
-					temp.setCode(codeM[j]);
-					temp.setType("MONTH");
-
-					viewDetailedSalesReportByProduct.add(temp);
-
-				}
-
-				// Initializing previous month as last month of current year
-				prevM = arrRevM[11];
-
-				int k = 0;
-				for (j = 0; j <= 3; j++) {
-					arrRevQ[j] = arrRevM[k] + arrRevM[k + 1] + arrRevM[k + 2];
-					k += 3;
-
-				}
-
-				for (j = 0; j <= 3; j++) {
-
-					temp = new ViewDetailedSalesReportByProductDTO();
-					// Initializing the amount change of current month and previous month
-
-					if (j == 0) {
-
-						amtQ[j] = arrRevQ[j] - prevQ;
-						perChngM[j] = Math.round((100 * (amtQ[j]) / prevQ) * 100) / 100D;
-
-					} else {
-
-						amtQ[j] = arrRevQ[j] - arrRevQ[j - 1];
-						perChngQ[j] = Math.round((100 * (amtQ[j]) / arrRevQ[j - 1]) * 100) / 100D;
+			//Month to month, Quarter to Quarter, Year to Year
+			String type = category == 1 ? GrowthReportCalculator.MONTH
+					: category == 2 ? GrowthReportCalculator.QUARTER
+							: category == 3 ? GrowthReportCalculator.YEAR : null;
+			if (type != null) {
+				// short ranges are cheaper to compute on the calling thread
+				boolean parallel = endYear - startYear + 1 >= growthParallelMinYears;
+				growthListfinal = GrowthReportCalculator.compute(revenueByYear, startYear, endYear, type,
+						parallel ? ForkJoinPool.commonPool() : null);
+			}
+		} catch (HibernateException e) {
+			logger.error(e.getMessage());
 
-					}
+			session.getTransaction().rollback();
 
-					// checking the necessary condition for color code
-					if (perChngQ[j] >= 10.0)
-						codeQ[j] = "GREEN";
-					else if (perChngQ[j] >= 2.0 && perChngQ[j] <= 10)
-						codeQ[j] = "AMBER";
-					else
-						codeQ[j] = "RED";
+		} catch (Exception exp) {
+			logger.error(exp.getMessage());
+			throw new GoAdminException(ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage()); 
+			
 
-					temp.setPeriod(j);
-					temp.setRevenue(arrRevQ[j]);
-					temp.setAmountChange(amtQ[j]);
-					temp.setPercentageGrowth(perChngQ[j]);
-					temp.setCode(codeQ[j]);
-					temp.setType("QUARTER");
+		} finally {
+			if (session != null) {
+				session.close();
+			}
+		}
 
-					viewDetailedSalesReportByProduct.add(temp);
+		return growthListfinal;
 
-				}
-				// Initializing the amount change of previous quarter as last quarter
-				prevQ = arrRevQ[3];
-
-				// year to year
-				arrRevY = arrRevQ[0] + arrRevQ[1] + arrRevQ[2] + arrRevQ[3];
-				amtY = arrRevY - prevY;
-				perChngY = Math.round((100 * (amtY / prevY)));
-				if (perChngY >= 10.0)
-					codeY = "GREEN";
-				else if (perChngY >= 2.0 && perChngY <= 10)
-					codeY = "AMBER";
-				else
-					codeY = "RED";
-
-				temp = new ViewDetailedSalesReportByProductDTO();
-				temp.setPeriod((index + 1900));
-				temp.setRevenue(arrRevY);
-				temp.setAmountChange(amtY);
-				temp.setPercentageGrowth(perChngY);
-				temp.setCode(codeY);
-				temp.setType("YEAR");
-				viewDetailedSalesReportByProduct.add(temp);
-				prevY = arrRevY;
-				for (j = 0; j <= 11; j++) {
-
-					amtM[j] = 0.0;
-					perChngM[j] = 0.0;
-					codeM[j] = "NA";
-					arrRevM[j] = 0.0;
+	}
 
-				}
-				for (j = 0; j <= 3; j++) {
-					amtQ[j] = 0.0;
-					perChngQ[j] = 0.0;
-					codeQ[j] = "NA";
-					arrRevQ[j] = 0.0;
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * Function Name : viewRevenueSummaryByUserAndCategory Input Parameters : entry
+	 * ,exit , targetuserId, category Return Type : List Throws : GoAdmin Exception
+	 * Description : Net revenue and units per day, product category and user for
+	 * the days entry..exit, read from SALES_ROLLUP so the work is proportional to
+	 * the days in range
+	 ********************************************************************************************************/
+	public List<SalesRollupDTO> viewRevenueSummaryByUserAndCategory(Date entry, Date exit, String TargetuserId,
+			int category) throws GoAdminException {
+		if (entry == null || exit == null) {
+			logger.error(ExceptionConstants.INVALID_DATE);
+			throw new GoAdminException(ExceptionConstants.INVALID_DATE);
+		}
+		boolean allUsers = TargetuserId.equalsIgnoreCase("ALL");
+		boolean allCategories = category == 6;
+		String hql = HQLQuerryMapper.SELECT_SALES_ROLLUP + (allUsers ? "" : HQLQuerryMapper.ROLLUP_USER_FILTER)
+				+ (allCategories ? "" : HQLQuerryMapper.ROLLUP_CATEGORY_FILTER) + HQLQuerryMapper.ROLLUP_ORDER;
 
-				}
-				amtY = 0.0;
-				perChngY = 0.0;
-				codeY = "NA";
-				arrRevY = 0.0;
+		Calendar exitExclusive = Calendar.getInstance();
+		exitExclusive.setTime(exit);
+		exitExclusive.add(Calendar.DATE, 1);
 
+		List<SalesRollupDTO> summary = new ArrayList<SalesRollupDTO>();
+		Session session = null;
+		try {
+			session = getSessionFactory().openSession();
+			Query<SalesRollupDTO> query = session.createQuery(hql, SalesRollupDTO.class);
+			query.setParameter("entry", entry);
+			query.setParameter("exitExclusive", exitExclusive.getTime());
+			if (!allUsers) {
+				query.setParameter("userId", TargetuserId);
 			}
-			// end of index year
+			if (!allCategories) {
+				query.setParameter("category", category);
+			}
+			summary = query.getResultList();
+		} catch (HibernateException exp) {
+			logger.error(exp.getMessage());
+			throw new GoAdminException(ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage());
+		} finally {
+			if (session != null) {
+				session.close();
+			}
+		}
+		return summary;
+	}
 
-			int n = viewDetailedSalesReportByProduct.size(), index;
-			//Month to month
-			if (category == 1) {
-				for (index = 0; index < n; index++) {
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * Function Name : viewTopProducts Input Parameters : entry ,exit , count,
+	 * byUnits Return Type : List Throws : GoAdmin Exception Description : The count
+	 * best selling products of the days entry..exit by revenue (or by units sold).
+	 * Grouping, ordering and the limit run in the database, so only count rows are
+	 * returned
+	 ********************************************************************************************************/
+	public List<TopSalesBean> viewTopProducts(Date entry, Date exit, int count, boolean byUnits)
+			throws GoAdminException {
+		if (entry == null || exit == null) {
+			logger.error(ExceptionConstants.INVALID_DATE);
+			throw new GoAdminException(ExceptionConstants.INVALID_DATE);
+		}
+		Calendar exitExclusive = Calendar.getInstance();
+		exitExclusive.setTime(exit);
+		exitExclusive.add(Calendar.DATE, 1);
 
-					if (viewDetailedSalesReportByProduct.get(index).getType().equalsIgnoreCase("MONTH"))
-						growthListfinal.add(viewDetailedSalesReportByProduct.get(index));
-				}
+		List<TopSalesBean> top = new ArrayList<TopSalesBean>();
+		Session session = null;
+		try {
+			session = getSessionFactory().openSession();
+			Query<Object[]> query = session.createQuery(HQLQuerryMapper.TOP_PRODUCTS
+					+ (byUnits ? HQLQuerryMapper.TOP_PRODUCTS_BY_UNITS : HQLQuerryMapper.TOP_PRODUCTS_BY_REVENUE),
+					Object[].class);
+			query.setParameter("entry", entry);
+			query.setParameter("exitExclusive", exitExclusive.getTime());
+			query.setMaxResults(count);
+			for (Object[] row : query.getResultList()) {
+				TopSalesBean product = new TopSalesBean(null, (String) row[0], ((Number) row[1]).intValue(),
+						((Number) row[2]).doubleValue(), ((Number) row[3]).longValue());
+				product.setRank(top.size() + 1);
+				top.add(product);
+			}
+		} catch (HibernateException exp) {
+			logger.error("viewTopProducts - " + exp.getMessage());
+			throw new GoAdminException(ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage());
+		} finally {
+			if (session != null) {
+				session.close();
+			}
+		}
+		return top;
+	}
 
-			} 
-			//Quarter to Quarter
-			else if (category == 2) {
-				for (index = 0; index < n; index++) {
-					if (viewDetailedSalesReportByProduct.get(index).getType().equalsIgnoreCase("QUARTER"))
-						growthListfinal.add(viewDetailedSalesReportByProduct.get(index));
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * Function Name : viewTopCategoriesByUser Input Parameters : entry ,exit ,
+	 * count, byUnits Return Type : List Throws : GoAdmin Exception Description : For
+	 * every user, the count product categories with the highest revenue (or units)
+	 * in the days entry..exit. The per user and category totals are read in user
+	 * order through a forward-only cursor and each user's categories pass through a
+	 * bounded heap, so memory holds one user's top categories at a time
+	 ********************************************************************************************************/
+	public List<TopSalesBean> viewTopCategoriesByUser(Date entry, Date exit, int count, boolean byUnits)
+			throws GoAdminException {
+		if (entry == null || exit == null) {
+			logger.error(ExceptionConstants.INVALID_DATE);
+			throw new GoAdminException(ExceptionConstants.INVALID_DATE);
+		}
+		Calendar exitExclusive = Calendar.getInstance();
+		exitExclusive.setTime(exit);
+		exitExclusive.add(Calendar.DATE, 1);
+
+		Comparator<TopSalesBean> order = byUnits
+				? Comparator.comparingLong(TopSalesBean::getUnits).thenComparing(TopSalesBean::getRevenue)
+				: Comparator.comparingDouble(TopSalesBean::getRevenue).thenComparing(TopSalesBean::getUnits);
+		// the lower category wins a tie
+		order = order.thenComparing(Comparator.comparingInt(TopSalesBean::getProductCategory).reversed());
+		TopN<TopSalesBean> userTop = new TopN<TopSalesBean>(count, order);
+
+		List<TopSalesBean> top = new ArrayList<TopSalesBean>();
+		Session session = null;
+		ScrollableResults cursor = null;
+		try {
+			session = getSessionFactory().openSession();
+			session.beginTransaction();
+			// SALES_ROLLUP already holds revenue and units per user, category and day
+			Query<Object[]> query = session.createQuery(readFromRollup
+					? HQLQuerryMapper.CATEGORY_SALES_BY_USER_FROM_ROLLUP
+					: HQLQuerryMapper.CATEGORY_SALES_BY_USER, Object[].class);
+			query.setParameter("entry", entry);
+			query.setParameter("exitExclusive", exitExclusive.getTime());
+			query.setReadOnly(true);
+			query.setCacheMode(CacheMode.IGNORE);
+			query.setFetchSize(streamFetchSize);
+			cursor = query.scroll(ScrollMode.FORWARD_ONLY);
+			String currentUser = null;
+			while (cursor.next()) {
+				String userId = (String) cursor.get(0);
+				if (!userId.equals(currentUser)) {
+					addRanked(top, userTop);
+					currentUser = userId;
 				}
-
+				userTop.offer(new TopSalesBean(userId, null, ((Number) cursor.get(1)).intValue(),
+						((Number) cursor.get(2)).doubleValue(), ((Number) cursor.get(3)).longValue()));
 			}
-			//Year to Year
-			else if (category == 3) {
-				for (index = 0; index < n; index++) {
-					if (viewDetailedSalesReportByProduct.get(index).getType().equalsIgnoreCase("YEAR"))
-						growthListfinal.add(viewDetailedSalesReportByProduct.get(index));
-				}
+			addRanked(top, userTop);
+			session.getTransaction().commit();
+		} catch (HibernateException exp) {
+			logger.error("viewTopCategoriesByUser - " + exp.getMessage());
+			throw new GoAdminException(ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage());
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+			if (session != null) {
+				session.close();
 			}
-		} catch (HibernateException e) {
-			logger.error(e.getMessage());
-
-			session.getTransaction().rollback();
-
-		} catch (Exception exp) {
-			logger.error(exp.getMessage());
-			throw new GoAdminException(ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage()); 
-			
-
 		}
+		return top;
+	}
 
-		return growthListfinal;
+	private static void addRanked(List<TopSalesBean> top, TopN<TopSalesBean> userTop) {
+		int rank = 1;
+		for (TopSalesBean category : userTop.drain()) {
+			category.setRank(rank++);
+			top.add(category);
+		}
+	}
 
+	/*******************************************************************************************************
+	 * Function Name : loadMonthlyRevenue Input Parameters : session, startYear,
+	 * endYear (years since 1900, as returned by Date.getYear) Return Type : Map
+	 * Description : Runs the GROUP BY year, month aggregation and returns, per year,
+	 * the revenue of each month indexed 0 (January) to 11 (December)
+	 ********************************************************************************************************/
+	private Map<Integer, double[]> loadMonthlyRevenue(Session session, int startYear, int endYear) {
+		Calendar from = Calendar.getInstance();
+		from.clear();
+		from.set(startYear + 1900, Calendar.JANUARY, 1);
+		Calendar to = Calendar.getInstance();
+		to.clear();
+		to.set(endYear + 1901, Calendar.JANUARY, 1);
+
+		Query<MonthlyRevenueBean> query = session.createQuery(readFromRollup
+				? HQLQuerryMapper.SELECT_MONTHLY_REVENUE_FROM_ROLLUP
+				: HQLQuerryMapper.SELECT_MONTHLY_REVENUE, MonthlyRevenueBean.class);
+		query.setParameter("entry", from.getTime());
+		query.setParameter("exitExclusive", to.getTime());
+
+		Map<Integer, double[]> revenueByYear = new HashMap<Integer, double[]>();
+		for (MonthlyRevenueBean bucket : query.getResultList()) {
+			revenueByYear.computeIfAbsent(bucket.getYear() - 1900, year -> new double[12])[bucket.getMonth()
+					- 1] += bucket.getRevenue();
+		}
+		return revenueByYear;
 	}
 
 }
@@ -10,14 +10,83 @@ public class HQLQuerryMapper {
 	public static final String CHANGE_ACTIVE_STATUS = "UPDATE UserEntity SET userActiveStatus=1 WHERE userId =:userLoggin";
 
 	public static final String VALIDATE_NUMBER_EMAIL = "SELECT COUNT(*) FROM UserEntity WHERE userNumber =:existNum OR userMail =:existMail";
+	// id and name only, looked up by primary key
+	public static final String SELECT_USER_NAMES = "SELECT u.userId, u.userName FROM UserDTO u WHERE u.userId IN (:userIds)";
+
+	// RETAILER INVENTORY HQL QUERRY
+	// shelf days (receive to sale) of the sold items of one retailer per sale month and category; the sale date
+	// range filters are appended when given, followed by the GROUP BY
+	public static final String SELECT_MONTHLY_SHELF_TIME = "SELECT year(ri.productSaleTimestamp), month(ri.productSaleTimestamp), ri.productCategory, COUNT(ri.productUniqueId), SUM(datediff(ri.productSaleTimestamp, ri.productReceiveTimestamp)), MIN(datediff(ri.productSaleTimestamp, ri.productReceiveTimestamp)), MAX(datediff(ri.productSaleTimestamp, ri.productReceiveTimestamp)) FROM RetailerInventoryDTO ri WHERE ri.retailerId = :retailerId AND ri.productReceiveTimestamp IS NOT NULL AND ri.productSaleTimestamp IS NOT NULL";
+	public static final String SHELF_TIME_FROM_FILTER = " AND ri.productSaleTimestamp >= :saleFrom";
+	public static final String SHELF_TIME_TO_FILTER = " AND ri.productSaleTimestamp < :saleToExclusive";
+	public static final String SHELF_TIME_GROUP = " GROUP BY year(ri.productSaleTimestamp), month(ri.productSaleTimestamp), ri.productCategory";
+	// delivery days (dispatch to receive) of the received items of one retailer per category: count, sum, min, max
+	// and sum of squares, from which the service derives mean and variance
+	public static final String SELECT_CATEGORY_DELIVERY_TIME = "SELECT ri.productCategory, COUNT(ri.productUniqueId), SUM(datediff(ri.productReceiveTimestamp, ri.productDispatchTimestamp)), SUM(datediff(ri.productReceiveTimestamp, ri.productDispatchTimestamp) * datediff(ri.productReceiveTimestamp, ri.productDispatchTimestamp)), MIN(datediff(ri.productReceiveTimestamp, ri.productDispatchTimestamp)), MAX(datediff(ri.productReceiveTimestamp, ri.productDispatchTimestamp)) FROM RetailerInventoryDTO ri WHERE ri.retailerId = :retailerId AND ri.productReceiveTimestamp IS NOT NULL GROUP BY ri.productCategory ORDER BY ri.productCategory";
+	// delivery days of every received item of one retailer, read through a cursor by the outlier report
+	public static final String SELECT_ITEM_DELIVERY_DAYS = "SELECT new com.capgemini.go.bean.DeliveryTimeOutlierBean(ri.productUniqueId, ri.productCategory, datediff(ri.productReceiveTimestamp, ri.productDispatchTimestamp)) FROM RetailerInventoryDTO ri WHERE ri.retailerId = :retailerId AND ri.productReceiveTimestamp IS NOT NULL";
+	// MySQL: applies to the next transaction only, whose reads then all see the snapshot taken by its first read
+	public static final String NEXT_TRANSACTION_REPEATABLE_READ = "SET TRANSACTION ISOLATION LEVEL REPEATABLE READ";
+	// one page of a retailer's inventory in unique id order (keyset pagination): only the displayed columns are
+	// selected; the category and "after" filters are appended when given, followed by the ORDER BY
+	public static final String SELECT_INVENTORY_PAGE = "SELECT new com.capgemini.go.bean.RetailerInventoryBean(ri.productUniqueId, ri.productCategory, prod.productName) FROM RetailerInventoryDTO ri LEFT JOIN ProductDTO prod ON ri.productId=prod.productId WHERE ri.retailerId = :retailerId";
+	public static final String INVENTORY_PAGE_CATEGORY_FILTER = " AND ri.productCategory = :productCategory";
+	public static final String INVENTORY_PAGE_AFTER_FILTER = " AND ri.productUniqueId > :afterUin";
+	public static final String INVENTORY_PAGE_ORDER = " ORDER BY ri.productUniqueId";
+	// time histogram of one retailer's items per category: the item count, then for each bucket bound (:bound0,
+	// :bound1, ...) the items of at most that many days; the service derives the bucket counts from these
+	public static final String SELECT_TIME_HISTOGRAM = "SELECT ri.productCategory, COUNT(ri.productUniqueId)";
+	public static final String TIME_HISTOGRAM_BUCKET = ", SUM(CASE WHEN %s <= :bound%d THEN 1 ELSE 0 END)";
+	public static final String SHELF_DAYS = "datediff(ri.productSaleTimestamp, ri.productReceiveTimestamp)";
+	public static final String DELIVERY_DAYS = "datediff(ri.productReceiveTimestamp, ri.productDispatchTimestamp)";
+	public static final String TIME_HISTOGRAM_SOLD_ITEMS = " FROM RetailerInventoryDTO ri WHERE ri.retailerId = :retailerId AND ri.productReceiveTimestamp IS NOT NULL AND ri.productSaleTimestamp IS NOT NULL";
+	public static final String TIME_HISTOGRAM_RECEIVED_ITEMS = " FROM RetailerInventoryDTO ri WHERE ri.retailerId = :retailerId AND ri.productReceiveTimestamp IS NOT NULL";
+	public static final String TIME_HISTOGRAM_GROUP = " GROUP BY ri.productCategory ORDER BY ri.productCategory";
+	// bulk receive / sale time updates of the items of one retailer, one IN list chunk per statement
+	public static final String BULK_UPDATE_RECEIVE_TIME = "UPDATE RetailerInventoryDTO ri SET ri.productReceiveTimestamp = :timestamp WHERE ri.retailerId = :retailerId AND ri.productUniqueId IN (:productUins)";
+	public static final String BULK_UPDATE_SALE_TIME = "UPDATE RetailerInventoryDTO ri SET ri.productSaleTimestamp = :timestamp WHERE ri.retailerId = :retailerId AND ri.productUniqueId IN (:productUins)";
+	public static final String SELECT_RETAILER_UINS = "SELECT ri.productUniqueId FROM RetailerInventoryDTO ri WHERE ri.retailerId = :retailerId AND ri.productUniqueId IN (:productUins)";
+	// inventory items per retailer, read once to seed the retailer registry
+	public static final String SELECT_ITEM_COUNT_BY_RETAILER = "SELECT ri.retailerId, COUNT(ri.productUniqueId) FROM RetailerInventoryDTO ri GROUP BY ri.retailerId";
+	// items of one retailer among the given ones that a bulk receive / sale time update moves to another state:
+	// the unsold ones (and for receive updates, the ones not received either), per category, with how many of
+	// them were on shelf; the rows are locked so a concurrent change to them waits for this transaction and the
+	// counts are those the update that follows changes (native, as HQL has no FOR UPDATE)
+	public static final String SELECT_UNSOLD_BY_CATEGORY = "SELECT PRODUCT_CATEGORY, COUNT(*), COUNT(PRODUCT_RECEIVE_TIMESTAMP) FROM RETAILER_INVENTORY WHERE RETAILER_ID = :retailerId AND PRODUCT_UIN IN (:productUins) AND PRODUCT_SALE_TIMESTAMP IS NULL";
+	public static final String UNSOLD_NOT_RECEIVED_FILTER = " AND PRODUCT_RECEIVE_TIMESTAMP IS NULL";
+	public static final String UNSOLD_GROUP = " GROUP BY PRODUCT_CATEGORY FOR UPDATE";
+	// inventory state summary: adds the in transit / on shelf / sold changes of one retailer and category
+	public static final String ADD_INVENTORY_SUMMARY = "INSERT INTO RETAILER_INVENTORY_SUMMARY (RETAILER_ID, PRODUCT_CATEGORY, IN_TRANSIT, ON_SHELF, SOLD) VALUES (:retailerId, :productCategory, :inTransit, :onShelf, :sold) ON DUPLICATE KEY UPDATE IN_TRANSIT = IN_TRANSIT + VALUES(IN_TRANSIT), ON_SHELF = ON_SHELF + VALUES(ON_SHELF), SOLD = SOLD + VALUES(SOLD)";
+	public static final String CLEAR_INVENTORY_SUMMARY = "DELETE FROM RETAILER_INVENTORY_SUMMARY";
+	public static final String REBUILD_INVENTORY_SUMMARY = "INSERT INTO RETAILER_INVENTORY_SUMMARY (RETAILER_ID, PRODUCT_CATEGORY, IN_TRANSIT, ON_SHELF, SOLD) SELECT RETAILER_ID, PRODUCT_CATEGORY, SUM(CASE WHEN PRODUCT_SALE_TIMESTAMP IS NULL AND PRODUCT_RECEIVE_TIMESTAMP IS NULL THEN 1 ELSE 0 END), SUM(CASE WHEN PRODUCT_SALE_TIMESTAMP IS NULL AND PRODUCT_RECEIVE_TIMESTAMP IS NOT NULL THEN 1 ELSE 0 END), SUM(CASE WHEN PRODUCT_SALE_TIMESTAMP IS NOT NULL THEN 1 ELSE 0 END) FROM RETAILER_INVENTORY GROUP BY RETAILER_ID, PRODUCT_CATEGORY";
+	public static final String SELECT_INVENTORY_SUMMARY = "SELECT new com.capgemini.go.bean.InventoryStateCountBean(s.retailerId, s.productCategory, s.inTransit, s.onShelf, s.sold) FROM RetailerInventorySummaryDTO s";
 
 	public static final String UPDATE_ORDER_PRODUCT_MAP = "UPDATE OrderProductMapDTO opm SET opm.productStatus=0 WHERE ORDER_ID=:orderId and opm.productStatus=:productStatus";
 
 	// GOADMIN REPORTS HQL QUERRY
 
-	public static final String SELECT_REVENUE_DATA = "SELECT order.orderInitiateTime , prod.price  FROM OrderDTO order JOIN OrderProductMapDTO opm ON order.orderId=opm.orderId JOIN ProductDTO prod ON opm.productId=prod.productId";
+	public static final String SELECT_MONTHLY_REVENUE = "SELECT new com.capgemini.go.bean.MonthlyRevenueBean(year(ord.orderInitiateTime), month(ord.orderInitiateTime), sum(prod.price)) FROM OrderDTO ord JOIN OrderProductMapDTO opm ON ord.orderId=opm.orderId JOIN ProductDTO prod ON opm.productId=prod.productId WHERE ord.orderInitiateTime >= :entry AND ord.orderInitiateTime < :exitExclusive GROUP BY year(ord.orderInitiateTime), month(ord.orderInitiateTime)";
 
-	public static final String SELECT_DATA_FROM_DATABASE = "SELECT order.userId , order.orderInitiateTime , order.orderId , opm.productId , prod.productCategory , prod.price  FROM OrderDTO order JOIN OrderProductMapDTO opm ON order.orderId=opm.orderId JOIN ProductDTO prod ON opm.productId=prod.productId";
+	public static final String ANY_ORDER_LINE = "SELECT opm.productUIN FROM OrderProductMapDTO opm";
+
+	// entry is inclusive, exitExclusive is the day after the requested end date
+	public static final String SELECT_SALES_REPORT_DATA = "SELECT new com.capgemini.go.bean.SalesLineBean(ord.orderId, opm.productId, ord.userId, ord.orderInitiateTime, prod.productCategory, prod.price) FROM OrderDTO ord JOIN OrderProductMapDTO opm ON ord.orderId=opm.orderId JOIN ProductDTO prod ON opm.productId=prod.productId WHERE ord.orderInitiateTime >= :entry AND ord.orderInitiateTime < :exitExclusive";
+
+	public static final String SALES_REPORT_USER_FILTER = " AND ord.userId = :userId";
+
+	public static final String SALES_REPORT_CATEGORY_FILTER = " AND prod.productCategory = :category";
+
+	// top-N reports over active order lines; the ORDER BY clause is chosen by the caller and the limit is set with setMaxResults
+	public static final String TOP_PRODUCTS = "SELECT opm.productId, prod.productCategory, SUM(prod.price), COUNT(opm.productUIN) FROM OrderDTO ord JOIN OrderProductMapDTO opm ON ord.orderId=opm.orderId JOIN ProductDTO prod ON opm.productId=prod.productId WHERE opm.productStatus = 1 AND ord.orderInitiateTime >= :entry AND ord.orderInitiateTime < :exitExclusive GROUP BY opm.productId, prod.productCategory";
+	public static final String TOP_PRODUCTS_BY_REVENUE = " ORDER BY SUM(prod.price) DESC, opm.productId";
+	public static final String TOP_PRODUCTS_BY_UNITS = " ORDER BY COUNT(opm.productUIN) DESC, opm.productId";
+	// revenue and units per user and category, ordered by user so each user's categories arrive together
+	public static final String CATEGORY_SALES_BY_USER = "SELECT ord.userId, prod.productCategory, SUM(prod.price), COUNT(opm.productUIN) FROM OrderDTO ord JOIN OrderProductMapDTO opm ON ord.orderId=opm.orderId JOIN ProductDTO prod ON opm.productId=prod.productId WHERE opm.productStatus = 1 AND ord.orderInitiateTime >= :entry AND ord.orderInitiateTime < :exitExclusive GROUP BY ord.userId, prod.productCategory ORDER BY ord.userId";
+	public static final String CATEGORY_SALES_BY_USER_FROM_ROLLUP = "SELECT r.userId, r.productCategory, SUM(r.revenue), SUM(r.units) FROM SalesRollupDTO r WHERE r.salesDay >= :entry AND r.salesDay < :exitExclusive GROUP BY r.userId, r.productCategory ORDER BY r.userId";
+
+	// every active order line, read once to load the in-memory sales column store; day order keeps its blocks narrow
+	public static final String SELECT_ACTIVE_SALES_LINES = "SELECT new com.capgemini.go.bean.SalesLineBean(ord.orderId, opm.productId, ord.userId, ord.orderInitiateTime, prod.productCategory, prod.price) FROM OrderDTO ord JOIN OrderProductMapDTO opm ON ord.orderId=opm.orderId JOIN ProductDTO prod ON opm.productId=prod.productId WHERE opm.productStatus = 1 ORDER BY ord.orderInitiateTime, ord.orderId";
+	// value and line count of the active lines of each order and product category, ordered by order
 
 	// Cancel Order, product by Sales Rep
 	public static final String IS_ORDER_PRESENT = "SELECT orderId FROM OrderDTO WHERE orderId = :orderID";
@@ -34,7 +103,7 @@ public class HQLQuerryMapper {
 
 	public static final String UPDATE_ORDER_PRODUCT_MAP_CANCEL_PROD_EQUAL_QUANTITY = "Update OrderProductMapDTO set productStatus = 0 where orderId =:orderID AND productId =:productID";
 
-	public static final String UPDATE_ORDER_PRODUCT_MAP_CANCEL_PROD_LESS_QUANTITY = "UPDATE ORDER_PRODUCT_MAP SET PRODUCT_STATUS = 0 WHERE PRODUCT_UIN IN (SELECT * FROM (SELECT PRODUCT_UIN FROM ORDER_PRODUCT_MAP WHERE ORDER_ID = :orderID AND PRODUCT_ID = :productID LIMIT :quantity) AS L)";
+	public static final String UPDATE_ORDER_PRODUCT_MAP_CANCEL_PROD_LESS_QUANTITY = "UPDATE ORDER_PRODUCT_MAP SET PRODUCT_STATUS = 0 WHERE PRODUCT_UIN IN (SELECT * FROM (SELECT PRODUCT_UIN FROM ORDER_PRODUCT_MAP WHERE ORDER_ID = :orderID AND PRODUCT_ID = :productID ORDER BY PRODUCT_UIN LIMIT :quantity) AS L)";
 
 	public static final String GET_ORDER_PRODUCT_MAP_CANCEL_PROD_EQUAL_QUANTITY = "FROM OrderProductMapDTO WHERE orderId =:orderID AND productId =:productID AND productStatus =:value";
 
@@ -48,10 +117,54 @@ public class HQLQuerryMapper {
 	// end of cancel
 	// sales rep return order
 	public static final String GET_ORDER_PRODUCT_MAP = "FROM OrderProductMapDTO opm WHERE opm.orderId=:orderId  AND opm.productStatus=1";
-	public static final String UPDATE_ORDER_PRODUCT_MAP_BY_QTY = "UPDATE ORDER_PRODUCT_MAP SET PRODUCT_STATUS = 0 WHERE PRODUCT_UIN IN (SELECT * FROM (SELECT PRODUCT_UIN FROM ORDER_PRODUCT_MAP WHERE ORDER_ID = :orderId AND PRODUCT_ID = :productId LIMIT :qty) AS L)";
+	public static final String UPDATE_ORDER_PRODUCT_MAP_BY_QTY = "UPDATE ORDER_PRODUCT_MAP SET PRODUCT_STATUS = 0 WHERE PRODUCT_UIN IN (SELECT * FROM (SELECT PRODUCT_UIN FROM ORDER_PRODUCT_MAP WHERE ORDER_ID = :orderId AND PRODUCT_ID = :productId ORDER BY PRODUCT_UIN LIMIT :qty) AS L)";
 
-	public static final String GET_PRODUCT_UIN = "SELECT PRODUCT_UIN FROM `ORDER_PRODUCT_MAP` WHERE ORDER_ID = :orderId AND PRODUCT_ID = :productId LIMIT  :qty";
+	public static final String GET_PRODUCT_UIN = "SELECT PRODUCT_UIN FROM `ORDER_PRODUCT_MAP` WHERE ORDER_ID = :orderId AND PRODUCT_ID = :productId ORDER BY PRODUCT_UIN LIMIT :qty";
 	public static final String CHECK_ORDER_DISPATCH_STATUS_RETURN = "SELECT ORDER_DISPATCH_STATUS FROM `ORDER` WHERE ORDER_ID= :orderID";
+	// sales rep performance tracking
+	public static final String SELECT_ORDER_CATEGORY_TOTALS = "SELECT new com.capgemini.go.bean.OrderTotalBean(ord.orderId, ord.orderInitiateTime, prod.productCategory, SUM(prod.price), COUNT(opm.productUIN)) FROM OrderDTO ord JOIN OrderProductMapDTO opm ON ord.orderId=opm.orderId JOIN ProductDTO prod ON opm.productId=prod.productId WHERE ord.orderId = :orderId AND opm.productStatus = 1 GROUP BY ord.orderId, ord.orderInitiateTime, prod.productCategory";
+	public static final String SELECT_SALES_LINE = "SELECT new com.capgemini.go.bean.SalesLineBean(ord.orderId, prod.productId, ord.userId, ord.orderInitiateTime, prod.productCategory, prod.price) FROM OrderDTO ord, ProductDTO prod WHERE ord.orderId = :orderId AND prod.productId = :productId";
+	public static final String GET_ALL_SALES_REPS = "FROM SalesRepDTO";
+	// TARGET_STATUS is assigned before CURRENT_SALES because MySQL evaluates SET assignments left to right
+	public static final String ADD_SALES_REP_CURRENT_SALES = "UPDATE SALES_REP SET TARGET_STATUS = CASE WHEN CURRENT_SALES + :delta > TARGET_SALES THEN -1 WHEN CURRENT_SALES + :delta = TARGET_SALES THEN 0 ELSE 1 END, CURRENT_SALES = CURRENT_SALES + :delta WHERE USER_ID = :userID";
+	// end of sales rep performance tracking
+
+	// sales rollup: revenue and line count of the active order lines matched by one of the predicates below,
+	// per rollup row; the delta form locks the lines so concurrent changes to them wait for this transaction
+	public static final String SALES_ROLLUP_LINES = "SELECT DATE(o.ORDER_INITIATE_TIME), p.PRODUCT_CATEGORY, o.USER_ID, SUM(p.PRODUCT_PRICE), COUNT(*) FROM ORDER_PRODUCT_MAP opm JOIN `ORDER` o ON o.ORDER_ID = opm.ORDER_ID JOIN PRODUCT p ON p.PRODUCT_ID = opm.PRODUCT_ID WHERE opm.PRODUCT_STATUS = 1 AND %s GROUP BY DATE(o.ORDER_INITIATE_TIME), p.PRODUCT_CATEGORY, o.USER_ID";
+
+	public static final String SALES_ROLLUP_DELTA_LINES = SALES_ROLLUP_LINES + " FOR UPDATE";
+
+	// adds one signed delta row (see SalesRollupDelta) to the rollup
+	public static final String SALES_ROLLUP_UPSERT = "INSERT INTO SALES_ROLLUP (SALES_DAY, PRODUCT_CATEGORY, USER_ID, REVENUE, UNITS) VALUES (:salesDay, :productCategory, :userId, :revenue, :units) ON DUPLICATE KEY UPDATE REVENUE = REVENUE + VALUES(REVENUE), UNITS = UNITS + VALUES(UNITS)";
+
+	public static final String SALES_ROLLUP_REBUILD = "INSERT INTO SALES_ROLLUP (SALES_DAY, PRODUCT_CATEGORY, USER_ID, REVENUE, UNITS) " + SALES_ROLLUP_LINES;
+
+	public static final String ROLLUP_BY_PRODUCT_UIN = "opm.PRODUCT_UIN = :productUin";
+
+	public static final String ROLLUP_BY_ORDER = "opm.ORDER_ID = :orderId";
+
+	public static final String ROLLUP_BY_ORDER_PRODUCT = "opm.ORDER_ID = :orderId AND opm.PRODUCT_ID = :productId";
+
+	// must pick the same rows as UPDATE_ORDER_PRODUCT_MAP_BY_QTY / UPDATE_ORDER_PRODUCT_MAP_CANCEL_PROD_LESS_QUANTITY
+	public static final String ROLLUP_BY_ORDER_PRODUCT_LIMIT = "opm.PRODUCT_UIN IN (SELECT * FROM (SELECT PRODUCT_UIN FROM ORDER_PRODUCT_MAP WHERE ORDER_ID = :orderId AND PRODUCT_ID = :productId ORDER BY PRODUCT_UIN LIMIT :quantity) AS L)";
+
+	public static final String ROLLUP_BY_ALL_ACTIVE = "1 = 1";
+
+	public static final String CLEAR_SALES_ROLLUP = "DELETE FROM SALES_ROLLUP";
+
+	public static final String ANY_SALES_ROLLUP = "FROM SalesRollupDTO";
+
+	public static final String SELECT_MONTHLY_REVENUE_FROM_ROLLUP = "SELECT new com.capgemini.go.bean.MonthlyRevenueBean(year(r.salesDay), month(r.salesDay), sum(r.revenue)) FROM SalesRollupDTO r WHERE r.salesDay >= :entry AND r.salesDay < :exitExclusive GROUP BY year(r.salesDay), month(r.salesDay)";
+
+	public static final String SELECT_SALES_ROLLUP = "FROM SalesRollupDTO r WHERE r.salesDay >= :entry AND r.salesDay < :exitExclusive";
+
+	public static final String ROLLUP_USER_FILTER = " AND r.userId = :userId";
+
+	public static final String ROLLUP_CATEGORY_FILTER = " AND r.productCategory = :category";
+
+	public static final String ROLLUP_ORDER = " ORDER BY r.salesDay, r.productCategory, r.userId";
+	// end of sales rollup
 	public static final String VIEW_WISHLIST = "FROM ProductDTO prod join WishlistDTO fol ON fol.id.productId=prod.productId WHERE fol.id.userId= :userId";
 
 }
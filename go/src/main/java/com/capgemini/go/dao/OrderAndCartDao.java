@@ -1,7 +1,11 @@
 package com.capgemini.go.dao;
 
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
+import com.capgemini.go.bean.OrderTotalBean;
+import com.capgemini.go.bean.SalesLineBean;
 import com.capgemini.go.dto.CartDTO;
 import com.capgemini.go.dto.OrderDTO;
 import com.capgemini.go.dto.OrderProductMapDTO;
@@ -93,4 +97,24 @@ public interface OrderAndCartDao {
 	 ********************************************************************************************************/
 	boolean updateProductUinMap (ProductUINMapDTO ProductUinMapEntity) throws RetailerException;
 	// END OF PRODUCT UIN MAP TABLE MANIPULATION FUNCTIONS
+
+	// SALES LINE FUNCTIONS
+	/*******************************************************************************************************
+	 * Function Name : getSalesLine <br>
+	 * Input Parameters : orderId, productId <br>
+	 * Return Type : SalesLineBean <br>
+	 * Throws : RetailerException <br>
+	 * Description : to get the ordering user, order date, category and price of a product in an order <br>
+	 ********************************************************************************************************/
+	SalesLineBean getSalesLine (String orderId, String productId) throws RetailerException;
+
+	/*******************************************************************************************************
+	 * Function Name : getOrderCategoryTotals <br>
+	 * Input Parameters : orderId <br>
+	 * Return Type : List<OrderTotalBean> <br>
+	 * Throws : RetailerException <br>
+	 * Description : to get the value and line count of the active lines of each product category of an order <br>
+	 ********************************************************************************************************/
+	List<OrderTotalBean> getOrderCategoryTotals (String orderId) throws RetailerException;
+	// END OF SALES LINE FUNCTIONS
 }
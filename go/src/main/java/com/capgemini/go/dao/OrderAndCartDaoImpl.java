@@ -12,6 +12,8 @@ import org.hibernate.Transaction;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import com.capgemini.go.bean.OrderTotalBean;
+import com.capgemini.go.bean.SalesLineBean;
 import com.capgemini.go.dto.CartDTO;
 import com.capgemini.go.dto.OrderDTO;
 import com.capgemini.go.dto.OrderProductMapDTO;
@@ -25,6 +27,8 @@ public class OrderAndCartDaoImpl implements OrderAndCartDao {
 	private Logger logger = Logger.getRootLogger();
 	@Autowired
 	private SessionFactory sessionFactory;
+	@Autowired
+	private SalesRollupDao salesRollupDao;
 
 	public SessionFactory getSessionFactory() {
 		return sessionFactory;
@@ -216,6 +220,7 @@ public class OrderAndCartDaoImpl implements OrderAndCartDao {
 		try {
 			transaction = session.beginTransaction();
 			session.save(newItem);
+			salesRollupDao.applyByProductUin(session, newItem.getProductUIN(), 1);
 			transaction.commit();
 		} catch (IllegalStateException error) {
 			logger.error(error.getMessage());
@@ -254,6 +259,7 @@ public class OrderAndCartDaoImpl implements OrderAndCartDao {
 		Session session = getSessionFactory().openSession();
 		try {
 			transaction = session.beginTransaction();
+			salesRollupDao.applyByProductUin(session, newItem.getProductUIN(), -1);
 			session.remove(newItem);
 			transaction.commit();
 		} catch (IllegalStateException error) {
@@ -325,4 +331,73 @@ public class OrderAndCartDaoImpl implements OrderAndCartDao {
 		return itemUpdated;
 	}
 	// END OF PRODUCT UIN MAP TABLE MANIPULATION FUNCTIONS
+
+	// SALES LINE FUNCTIONS
+	/*******************************************************************************************************
+	 * Function Name : getSalesLine <br>
+	 * Input Parameters : orderId, productId <br>
+	 * Return Type : SalesLineBean <br>
+	 * Throws : RetailerException <br>
+	 * Description : to get the ordering user, order date, category and price of a product in an order <br>
+	 ********************************************************************************************************/
+	@Override
+	public SalesLineBean getSalesLine(String orderId, String productId) throws RetailerException {
+		SalesLineBean salesLine = null;
+
+		Transaction transaction = null;
+		Session session = getSessionFactory().openSession();
+		try {
+			transaction = session.beginTransaction();
+			List<SalesLineBean> result = session.createQuery(HQLQuerryMapper.SELECT_SALES_LINE, SalesLineBean.class)
+					.setParameter("orderId", orderId).setParameter("productId", productId).list();
+			transaction.commit();
+			if (!result.isEmpty()) {
+				salesLine = result.get(0);
+			}
+		} catch (IllegalStateException error) {
+			logger.error(error.getMessage());
+			throw new RetailerException("getSalesLine - " + ExceptionConstants.INAPPROPRIATE_METHOD_INVOCATION);
+		} catch (PersistenceException error) {
+			logger.error(error.getMessage());
+			throw new RetailerException("getSalesLine - " + ExceptionConstants.PERSISTENCE_ERROR);
+		} finally {
+			session.close();
+		}
+		if (salesLine == null) {
+			logger.error("getSalesLine - " + ExceptionConstants.NO_DATA_FOUND);
+			throw new RetailerException("getSalesLine - " + ExceptionConstants.NO_DATA_FOUND);
+		}
+		return salesLine;
+	}
+
+	/*******************************************************************************************************
+	 * Function Name : getOrderCategoryTotals <br>
+	 * Input Parameters : orderId <br>
+	 * Return Type : List<OrderTotalBean> <br>
+	 * Throws : RetailerException <br>
+	 * Description : to get the value and line count of the active lines of each product category of an order <br>
+	 ********************************************************************************************************/
+	@Override
+	public List<OrderTotalBean> getOrderCategoryTotals(String orderId) throws RetailerException {
+		List<OrderTotalBean> totals = null;
+
+		Transaction transaction = null;
+		Session session = getSessionFactory().openSession();
+		try {
+			transaction = session.beginTransaction();
+			totals = session.createQuery(HQLQuerryMapper.SELECT_ORDER_CATEGORY_TOTALS, OrderTotalBean.class)
+					.setParameter("orderId", orderId).list();
+			transaction.commit();
+		} catch (IllegalStateException error) {
+			logger.error(error.getMessage());
+			throw new RetailerException("getOrderCategoryTotals - " + ExceptionConstants.INAPPROPRIATE_METHOD_INVOCATION);
+		} catch (PersistenceException error) {
+			logger.error(error.getMessage());
+			throw new RetailerException("getOrderCategoryTotals - " + ExceptionConstants.PERSISTENCE_ERROR);
+		} finally {
+			session.close();
+		}
+		return totals;
+	}
+	// END OF SALES LINE FUNCTIONS
 }
@@ -0,0 +1,39 @@
+package com.capgemini.go.dao;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.stereotype.Component;
+
+import com.capgemini.go.dto.OrderCancelDTO;
+import com.capgemini.go.dto.OrderReturnDTO;
+import com.capgemini.go.exception.SalesRepresentativeException;
+
+@Component
+public interface OrderAuditDao {
+
+	/*******************************************************************************************************
+	 * - Function Name : saveCancelRows - Input Parameters : List<OrderCancelDTO> -
+	 * Return Type : CompletableFuture<Void> - Throws : SalesRepresentativeException
+	 * - Description : Queues ORDER_CANCEL rows for the group-commit writer; the
+	 * future completes once the rows are committed
+	 ********************************************************************************************************/
+	CompletableFuture<Void> saveCancelRows(List<OrderCancelDTO> rows) throws SalesRepresentativeException;
+
+	/*******************************************************************************************************
+	 * - Function Name : saveReturnRows - Input Parameters : List<OrderReturnDTO> -
+	 * Return Type : CompletableFuture<Void> - Throws : SalesRepresentativeException
+	 * - Description : Queues ORDER_RETURN rows for the group-commit writer; the
+	 * future completes once the rows are committed
+	 ********************************************************************************************************/
+	CompletableFuture<Void> saveReturnRows(List<OrderReturnDTO> rows) throws SalesRepresentativeException;
+
+	/*******************************************************************************************************
+	 * - Function Name : awaitDurable - Input Parameters : CompletableFuture<Void> -
+	 * Return Type : void - Throws : SalesRepresentativeException - Description :
+	 * Blocks until the rows behind the future are committed, converting a failed
+	 * write, or one not committed within audit.groupcommit.await.ms, into a
+	 * SalesRepresentativeException
+	 ********************************************************************************************************/
+	void awaitDurable(CompletableFuture<Void> durable) throws SalesRepresentativeException;
+}
@@ -0,0 +1,127 @@
+package com.capgemini.go.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import com.capgemini.go.dto.OrderCancelDTO;
+import com.capgemini.go.dto.OrderReturnDTO;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.SalesRepresentativeException;
+import com.capgemini.go.utility.GroupCommitWriter;
+
+@Repository(value = "orderAuditDao")
+public class OrderAuditDaoImpl implements OrderAuditDao {
+
+	private Logger logger = Logger.getRootLogger();
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	@Value("${audit.groupcommit.window.ms:2}")
+	private long windowMillis;
+
+	@Value("${audit.groupcommit.max.rows:500}")
+	private int maxRows;
+
+	@Value("${audit.groupcommit.queue.capacity:10000}")
+	private int queueCapacity;
+
+	@Value("${audit.groupcommit.await.ms:30000}")
+	private long awaitMillis;
+
+	// cancel and return rows share one writer so both kinds ride the same commit
+	private GroupCommitWriter<Object> writer;
+
+	public SessionFactory getSessionFactory() {
+		return sessionFactory;
+	}
+
+	public void setSessionFactory(SessionFactory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
+	@PostConstruct
+	public void startWriter() {
+		writer = new GroupCommitWriter<Object>("order-audit-writer", this::commitRows, windowMillis, maxRows,
+				queueCapacity);
+		writer.start();
+	}
+
+	@PreDestroy
+	public void stopWriter() throws InterruptedException {
+		writer.shutdown();
+	}
+
+	@Override
+	public CompletableFuture<Void> saveCancelRows(List<OrderCancelDTO> rows) throws SalesRepresentativeException {
+		return submit(new ArrayList<Object>(rows), "saveCancelRows");
+	}
+
+	@Override
+	public CompletableFuture<Void> saveReturnRows(List<OrderReturnDTO> rows) throws SalesRepresentativeException {
+		return submit(new ArrayList<Object>(rows), "saveReturnRows");
+	}
+
+	@Override
+	public void awaitDurable(CompletableFuture<Void> durable) throws SalesRepresentativeException {
+		try {
+			durable.get(awaitMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException exp) {
+			Thread.currentThread().interrupt();
+			logger.error("awaitDurable - " + ExceptionConstants.AUDIT_WRITE_FAILURE);
+			throw new SalesRepresentativeException("awaitDurable - " + ExceptionConstants.AUDIT_WRITE_FAILURE);
+		} catch (ExecutionException exp) {
+			logger.error("awaitDurable - " + ExceptionConstants.AUDIT_WRITE_FAILURE + exp.getCause().getMessage());
+			throw new SalesRepresentativeException(
+					"awaitDurable - " + ExceptionConstants.AUDIT_WRITE_FAILURE + exp.getCause().getMessage());
+		} catch (TimeoutException exp) {
+			logger.error("awaitDurable - " + ExceptionConstants.AUDIT_WRITE_TIMEOUT + awaitMillis + " ms");
+			throw new SalesRepresentativeException(
+					"awaitDurable - " + ExceptionConstants.AUDIT_WRITE_TIMEOUT + awaitMillis + " ms");
+		}
+	}
+
+	private CompletableFuture<Void> submit(List<Object> rows, String caller) throws SalesRepresentativeException {
+		try {
+			return writer.submit(rows);
+		} catch (InterruptedException exp) {
+			Thread.currentThread().interrupt();
+			logger.error(caller + " - " + ExceptionConstants.AUDIT_WRITE_FAILURE);
+			throw new SalesRepresentativeException(caller + " - " + ExceptionConstants.AUDIT_WRITE_FAILURE);
+		}
+	}
+
+	private void commitRows(List<Object> rows) {
+		Session session = getSessionFactory().openSession();
+		Transaction transaction = null;
+		try {
+			transaction = session.beginTransaction();
+			for (Object row : rows) {
+				session.save(row);
+			}
+			transaction.commit();
+		} catch (RuntimeException exp) {
+			if (transaction != null && transaction.isActive()) {
+				transaction.rollback();
+			}
+			throw exp;
+		} finally {
+			session.close();
+		}
+	}
+}
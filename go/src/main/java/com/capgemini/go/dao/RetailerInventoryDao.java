@@ -1,11 +1,22 @@
 package com.capgemini.go.dao;
 
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.stereotype.Component;
 
+import com.capgemini.go.bean.DeliveryTimeOutlierBean;
+import com.capgemini.go.bean.DeliveryTimeStatsBean;
+import com.capgemini.go.bean.RetailerInventoryBean;
+import com.capgemini.go.bean.ShelfTimeReportBean;
+import com.capgemini.go.bean.TimeHistogramBean;
 import com.capgemini.go.dto.RetailerInventoryDTO;
 import com.capgemini.go.exception.RetailerInventoryException;
+import com.capgemini.go.utility.RowHandler;
 
 @Component
 public interface RetailerInventoryDao {
@@ -31,6 +42,61 @@ public interface RetailerInventoryDao {
 	 *******************************************************************************************************/
 	public List<RetailerInventoryDTO> getDeliveredItemsDetails(RetailerInventoryDTO queryArguments)
 			throws RetailerInventoryException;
+
+	/*******************************************************************************************************
+	 * - Function Name : getMonthlyShelfTimeAggregates <br>
+	 * - Description : to get item count and total, minimum and maximum shelf days of the items sold by a <br>
+	 * retailer, per sale month and product category, aggregated by the database <br>
+	 * 
+	 * @param retailerId
+	 * @param saleFrom          (first sale time included, null for no lower bound)
+	 * @param saleToExclusive   (first sale time excluded, null for no upper bound)
+	 * @return List<ShelfTimeReportBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public List<ShelfTimeReportBean> getMonthlyShelfTimeAggregates(String retailerId, Calendar saleFrom,
+			Calendar saleToExclusive) throws RetailerInventoryException;
+
+	/*******************************************************************************************************
+	 * - Function Name : getCategoryDeliveryTimeAggregates <br>
+	 * - Description : to get item count and total, squared total, minimum and maximum delivery days of the <br>
+	 * items received by a retailer, per product category, aggregated by the database <br>
+	 * 
+	 * @param retailerId
+	 * @return List<DeliveryTimeStatsBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public List<DeliveryTimeStatsBean> getCategoryDeliveryTimeAggregates(String retailerId)
+			throws RetailerInventoryException;
+
+	/*******************************************************************************************************
+	 * - Function Name : streamDeliveryDays <br>
+	 * - Description : to pass the per category delivery days aggregates of a retailer to the category <br>
+	 * handler, then the unique id, category and delivery days of every item received by the retailer to <br>
+	 * the item handler through a forward-only cursor; both are read from the same snapshot <br>
+	 * 
+	 * @param retailerId
+	 * @param categoryHandler
+	 * @param itemHandler
+	 * @return int (item rows read)
+	 * @throws RetailerInventoryException, IOException
+	 *******************************************************************************************************/
+	public int streamDeliveryDays(String retailerId, RowHandler<DeliveryTimeStatsBean> categoryHandler,
+			RowHandler<DeliveryTimeOutlierBean> itemHandler) throws RetailerInventoryException, IOException;
+
+	/*******************************************************************************************************
+	 * - Function Name : getItemPageByRetailer <br>
+	 * - Description : to get up to maxResults items of a retailer in unique id order, after afterUin <br>
+	 * 
+	 * @param retailerId
+	 * @param productCategory (0 for every category)
+	 * @param afterUin        (null for the first page)
+	 * @param maxResults
+	 * @return List<RetailerInventoryBean> (unique id, category and product name only)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public List<RetailerInventoryBean> getItemPageByRetailer(String retailerId, byte productCategory, String afterUin,
+			int maxResults) throws RetailerInventoryException;
 	// END OF Retailer Inventory Data Access Functions
 
 	// Functions for Retailer Inventory Manipulation
@@ -46,13 +112,13 @@ public interface RetailerInventoryDao {
 			throws RetailerInventoryException;
 
 	/*******************************************************************************************************
-	 * - Function Name : getListOfRetailers <br>
-	 * - Description : to get List of all Retailer ID's in database <br>
+	 * - Function Name : getItemCountByRetailer <br>
+	 * - Description : to get the number of inventory items of every retailer that has any, by retailer ID <br>
 	 * 
-	 * @return List<RetailerInventoryDTO>
+	 * @return Map<String, Long>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryDTO> getListOfRetailers() throws RetailerInventoryException;
+	public Map<String, Long> getItemCountByRetailer() throws RetailerInventoryException;
 
 	/*******************************************************************************************************
 	 * - Function Name : updateProductReceiveTimeStamp <br>
@@ -74,6 +140,32 @@ public interface RetailerInventoryDao {
 	 *******************************************************************************************************/
 	boolean updateProductSaleTimeStamp(RetailerInventoryDTO queryArguments) throws RetailerInventoryException;
 
+	/*******************************************************************************************************
+	 * - Function Name : bulkUpdateProductReceiveTimeStamp <br>
+	 * - Description : to set the receive time stamp of many items of a retailer in one transaction <br>
+	 * 
+	 * @param retailerId
+	 * @param productUins (distinct)
+	 * @param timestamp
+	 * @return Set<String> (the unique ids that were in the retailer's inventory and got updated)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	Set<String> bulkUpdateProductReceiveTimeStamp(String retailerId, Collection<String> productUins, Calendar timestamp)
+			throws RetailerInventoryException;
+
+	/*******************************************************************************************************
+	 * - Function Name : bulkUpdateProductSaleTimeStamp <br>
+	 * - Description : to set the sale time stamp of many items of a retailer in one transaction <br>
+	 * 
+	 * @param retailerId
+	 * @param productUins (distinct)
+	 * @param timestamp
+	 * @return Set<String> (the unique ids that were in the retailer's inventory and got updated)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	Set<String> bulkUpdateProductSaleTimeStamp(String retailerId, Collection<String> productUins, Calendar timestamp)
+			throws RetailerInventoryException;
+
 	/*******************************************************************************************************
 	 * - Function Name : insertItemInRetailerInventory <br>
 	 * - Description : to insert an item into inventory <br>
@@ -94,4 +186,18 @@ public interface RetailerInventoryDao {
 	 *******************************************************************************************************/
 	boolean deleteItemInRetailerInventory(RetailerInventoryDTO queryArguments) throws RetailerInventoryException;
 	// end of Functions for Retailer Inventory Manipulation
+
+	/*******************************************************************************************************
+	 * - Function Name : getTimeHistogram <br>
+	 * - Description : to get the shelf days (sold items) or delivery days (received items) of a retailer's <br>
+	 * items as bucket counts per product category, counted by the database <br>
+	 * 
+	 * @param retailerId
+	 * @param shelfTime   (true for shelf days, false for delivery days)
+	 * @param upperBounds (ascending, inclusive upper bounds of all buckets but the last)
+	 * @return List<TimeHistogramBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public List<TimeHistogramBean> getTimeHistogram(String retailerId, boolean shelfTime, int[] upperBounds)
+			throws RetailerInventoryException;
 }
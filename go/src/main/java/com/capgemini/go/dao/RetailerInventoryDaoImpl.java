@@ -1,7 +1,17 @@
 package com.capgemini.go.dao;
 
+import java.io.IOException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceException;
 import javax.persistence.RollbackException;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -9,15 +19,28 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 
 import org.apache.log4j.Logger;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import com.capgemini.go.bean.DeliveryTimeOutlierBean;
+import com.capgemini.go.bean.DeliveryTimeStatsBean;
+import com.capgemini.go.bean.RetailerInventoryBean;
+import com.capgemini.go.bean.ShelfTimeReportBean;
+import com.capgemini.go.bean.TimeHistogramBean;
 import com.capgemini.go.dto.RetailerInventoryDTO;
 import com.capgemini.go.exception.ExceptionConstants;
 import com.capgemini.go.exception.RetailerInventoryException;
+import com.capgemini.go.utility.InventoryStateCounters;
+import com.capgemini.go.utility.RowHandler;
+import com.capgemini.go.utility.TimeHistogramBuckets;
 
 @Repository(value = "retailerInventoryDao")
 public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
@@ -27,6 +50,13 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 	@Autowired	
 	private SessionFactory sessionFactory;
 
+	// unique ids bound per IN list, well below the placeholder limits of the database and driver
+	private static final int UIN_CHUNK = 1000;
+
+	// Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole result set
+	@Value("${reports.stream.fetch.size:-2147483648}")
+	private int streamFetchSize;
+
 	public SessionFactory getSessionFactory() {
 		return sessionFactory;
 	}
@@ -34,6 +64,20 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 	public void setSessionFactory(SessionFactory sessionFactory) {
 		this.sessionFactory = sessionFactory;
 	}
+
+	// in transit / on shelf / sold counts, told about every committed change of an item's state; each change
+	// runs between beginInventoryChange and endInventoryChange, so a reload of the counts never falls between
+	// its commit and its recordTransition
+	@Autowired
+	private RetailerInventorySummaryDao retailerInventorySummaryDao;
+
+	public RetailerInventorySummaryDao getRetailerInventorySummaryDao() {
+		return retailerInventorySummaryDao;
+	}
+
+	public void setRetailerInventorySummaryDao(RetailerInventorySummaryDao retailerInventorySummaryDao) {
+		this.retailerInventorySummaryDao = retailerInventorySummaryDao;
+	}
 	
 	// Functions for Retailer Inventory Manipulation
 	/*******************************************************************************************************
@@ -81,47 +125,34 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 	}
 
 	/*******************************************************************************************************
-	 * - Function Name : getListOfRetailers <br>
-	 * - Description : to get List of all Retailer ID's in database <br>
+	 * - Function Name : getItemCountByRetailer <br>
+	 * - Description : to get the number of inventory items of every retailer that has any, by retailer ID <br>
 	 * 
-	 * @return List<RetailerInventoryDTO>
+	 * @return Map<String, Long>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryDTO> getListOfRetailers() throws RetailerInventoryException {
-		logger.info("getListOfRetailers - " + "function called");
-		List<RetailerInventoryDTO> result = null;
-		Transaction transaction = null;
+	@Override
+	public Map<String, Long> getItemCountByRetailer() throws RetailerInventoryException {
+		logger.info("getItemCountByRetailer - " + "function called");
+		Map<String, Long> result = new HashMap<String, Long>();
 		Session session = getSessionFactory().openSession();
-		
 		try {
-			transaction = session.beginTransaction();
-			CriteriaBuilder builder = session.getCriteriaBuilder();
-			CriteriaQuery<RetailerInventoryDTO> criteriaQuery = builder.createQuery(RetailerInventoryDTO.class);
-			Root<RetailerInventoryDTO> retailerInventory = criteriaQuery.from(RetailerInventoryDTO.class);
-			criteriaQuery.select(retailerInventory.get("retailerId"));
-			criteriaQuery.groupBy(retailerInventory.get("retailerId"));
-			result = session.createQuery(criteriaQuery).getResultList();
-			transaction.commit();
-			logger.info("getListOfRetailers - " + "Data extracted from database");
-		} catch (IllegalStateException error) {
-			logger.error(error.getMessage());
-			throw new RetailerInventoryException(
-					"getListOfRetailers - " + ExceptionConstants.INAPPROPRIATE_METHOD_INVOCATION);
+			Query<Object[]> query = session.createQuery(HQLQuerryMapper.SELECT_ITEM_COUNT_BY_RETAILER, Object[].class);
+			for (Object[] row : query.getResultList()) {
+				result.put((String) row[0], ((Number) row[1]).longValue());
+			}
+			logger.info("getItemCountByRetailer - " + "Data extracted from database");
 		} catch (IllegalArgumentException error) {
-			logger.error(error.getMessage());
+			logger.error("getItemCountByRetailer - " + error.getMessage());
 			throw new RetailerInventoryException(
-					"getListOfRetailers - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+					"getItemCountByRetailer - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
 		} catch (PersistenceException error) {
-			logger.error(error.getMessage());
-			throw new RetailerInventoryException("getListOfRetailers - " + ExceptionConstants.PERSISTENCE_ERROR);
+			logger.error("getItemCountByRetailer - " + error.getMessage());
+			throw new RetailerInventoryException("getItemCountByRetailer - " + ExceptionConstants.PERSISTENCE_ERROR);
 		} finally {
 			session.close();
 		}
-		if (result == null || result.size() == 0) {
-			logger.error("getListOfRetailers - " + ExceptionConstants.NO_DATA_FOUND);
-			throw new RetailerInventoryException("getListOfRetailers - " + ExceptionConstants.NO_DATA_FOUND);
-		}
-		logger.info("getListOfRetailers - " + "Sent requested data");
+		logger.info("getItemCountByRetailer - " + "function return");
 		return result;
 	}
 
@@ -144,19 +175,26 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 		 * retailerUserId
 		 */
 		Transaction transaction = null;
+		RetailerInventoryDTO existingItem = null;
+		int fromState = InventoryStateCounters.NONE;
 		Session session = getSessionFactory().openSession();
+		retailerInventorySummaryDao.beginInventoryChange();
 		try {
 			transaction = session.getTransaction();
 			transaction.begin();
-			RetailerInventoryDTO existingItem = session
-					.find(RetailerInventoryDTO.class, queryArguments.getProductUniqueId());
-			if (existingItem == null) {
+			// locked, so a concurrent change of the item waits and fromState is the state this update leaves
+			existingItem = session.find(RetailerInventoryDTO.class, queryArguments.getProductUniqueId(),
+					LockModeType.PESSIMISTIC_WRITE);
+			// an item of another retailer is not in this retailer's inventory
+			if (existingItem == null || !existingItem.getRetailerId().equals(queryArguments.getRetailerId())) {
 				logger.debug(ExceptionConstants.PRODUCT_NOT_IN_INVENTORY);
 				throw new RetailerInventoryException(
 						"updateProductReceiveTimeStamp - " + ExceptionConstants.PRODUCT_NOT_IN_INVENTORY);
 			}
+			fromState = stateOf(existingItem);
 			existingItem.setProductReceiveTimestamp(queryArguments.getProductReceiveTimestamp());
 			transaction.commit();
+			recordTransition(existingItem, fromState, stateOf(existingItem));
 		} catch (IllegalStateException error) {
 			logger.error(error.getMessage());
 			throw new RetailerInventoryException(
@@ -167,6 +205,7 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 					"updateProductReceiveTimeStamp - " + ExceptionConstants.FAILURE_COMMIT_CHANGES);
 		} finally {
 			session.close();
+			retailerInventorySummaryDao.endInventoryChange();
 		}
 		receiveTimestampUpdated = true;
 		return receiveTimestampUpdated;
@@ -190,19 +229,26 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 		 * retailerUserId
 		 */
 		Transaction transaction = null;
+		RetailerInventoryDTO existingItem = null;
+		int fromState = InventoryStateCounters.NONE;
 		Session session = getSessionFactory().openSession();
+		retailerInventorySummaryDao.beginInventoryChange();
 		try {
 			transaction = session.getTransaction();
 			transaction.begin();
-			RetailerInventoryDTO existingItem = session
-					.find(RetailerInventoryDTO.class, queryArguments.getProductUniqueId());
-			if (existingItem == null) {
+			// locked, so a concurrent change of the item waits and fromState is the state this update leaves
+			existingItem = session.find(RetailerInventoryDTO.class, queryArguments.getProductUniqueId(),
+					LockModeType.PESSIMISTIC_WRITE);
+			// an item of another retailer is not in this retailer's inventory
+			if (existingItem == null || !existingItem.getRetailerId().equals(queryArguments.getRetailerId())) {
 				logger.debug(ExceptionConstants.PRODUCT_NOT_IN_INVENTORY);
 				throw new RetailerInventoryException(
 						"updateProductSaleTimeStamp - " + ExceptionConstants.PRODUCT_NOT_IN_INVENTORY);
 			}
+			fromState = stateOf(existingItem);
 			existingItem.setProductSaleTimestamp(queryArguments.getProductSaleTimestamp());
 			transaction.commit();
+			recordTransition(existingItem, fromState, stateOf(existingItem));
 		} catch (IllegalStateException error) {
 			logger.error("updateProductSaleTimeStamp - " + error.getMessage());
 			throw new RetailerInventoryException(
@@ -213,11 +259,107 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 					"updateProductSaleTimeStamp - " + ExceptionConstants.FAILURE_COMMIT_CHANGES);
 		} finally {
 			session.close();
+			retailerInventorySummaryDao.endInventoryChange();
 		}
 		saleTimestampUpdated = true;
 		return saleTimestampUpdated;
 	}
 
+	/*******************************************************************************************************
+	 * - Function Name : bulkUpdateProductReceiveTimeStamp <br>
+	 * - Description : to set the receive time stamp of many items of a retailer in one transaction <br>
+	 * 
+	 * @param retailerId
+	 * @param productUins (distinct)
+	 * @param timestamp
+	 * @return Set<String> (the unique ids that were in the retailer's inventory and got updated)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	@Override
+	public Set<String> bulkUpdateProductReceiveTimeStamp(String retailerId, Collection<String> productUins,
+			Calendar timestamp) throws RetailerInventoryException {
+		return bulkUpdateTimeStamp("bulkUpdateProductReceiveTimeStamp", HQLQuerryMapper.BULK_UPDATE_RECEIVE_TIME,
+				HQLQuerryMapper.UNSOLD_NOT_RECEIVED_FILTER, InventoryStateCounters.ON_SHELF, retailerId, productUins,
+				timestamp);
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : bulkUpdateProductSaleTimeStamp <br>
+	 * - Description : to set the sale time stamp of many items of a retailer in one transaction <br>
+	 * 
+	 * @param retailerId
+	 * @param productUins (distinct)
+	 * @param timestamp
+	 * @return Set<String> (the unique ids that were in the retailer's inventory and got updated)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	@Override
+	public Set<String> bulkUpdateProductSaleTimeStamp(String retailerId, Collection<String> productUins,
+			Calendar timestamp) throws RetailerInventoryException {
+		return bulkUpdateTimeStamp("bulkUpdateProductSaleTimeStamp", HQLQuerryMapper.BULK_UPDATE_SALE_TIME, "",
+				InventoryStateCounters.SOLD, retailerId, productUins, timestamp);
+	}
+
+	// one UPDATE per chunk of unique ids; only a chunk that did not match every id is looked up again to tell
+	// which ids are missing, so a fully scanned truck costs one statement per UIN_CHUNK items
+	// movingFilter narrows SELECT_UNSOLD_BY_CATEGORY to the items the update moves to toState
+	private Set<String> bulkUpdateTimeStamp(String function, String updateHql, String movingFilter, int toState,
+			String retailerId, Collection<String> productUins, Calendar timestamp) throws RetailerInventoryException {
+		logger.info(function + " - " + "function called for " + productUins.size() + " items");
+		Set<String> updated = new HashSet<String>();
+		List<String> uins = new ArrayList<String>(productUins);
+		// per chunk and category: category, unsold items moved, of which on shelf
+		List<Object[]> moved = new ArrayList<Object[]>();
+		Transaction transaction = null;
+		Session session = getSessionFactory().openSession();
+		retailerInventorySummaryDao.beginInventoryChange();
+		try {
+			transaction = session.beginTransaction();
+			for (int from = 0; from < uins.size(); from += UIN_CHUNK) {
+				List<String> chunk = uins.subList(from, Math.min(uins.size(), from + UIN_CHUNK));
+				moved.addAll(session.createNativeQuery(HQLQuerryMapper.SELECT_UNSOLD_BY_CATEGORY + movingFilter
+						+ HQLQuerryMapper.UNSOLD_GROUP).setParameter("retailerId", retailerId)
+						.setParameterList("productUins", chunk).getResultList());
+				int rows = session.createQuery(updateHql).setParameter("timestamp", timestamp)
+						.setParameter("retailerId", retailerId).setParameterList("productUins", chunk).executeUpdate();
+				if (rows == chunk.size()) {
+					updated.addAll(chunk);
+				} else {
+					updated.addAll(session.createQuery(HQLQuerryMapper.SELECT_RETAILER_UINS, String.class)
+							.setParameter("retailerId", retailerId).setParameterList("productUins", chunk)
+							.getResultList());
+				}
+			}
+			transaction.commit();
+			for (Object[] row : moved) {
+				long unsold = ((Number) row[1]).longValue();
+				long onShelf = ((Number) row[2]).longValue();
+				byte productCategory = ((Number) row[0]).byteValue();
+				retailerInventorySummaryDao.recordTransition(retailerId, productCategory,
+						InventoryStateCounters.IN_TRANSIT, toState, unsold - onShelf);
+				retailerInventorySummaryDao.recordTransition(retailerId, productCategory,
+						InventoryStateCounters.ON_SHELF, toState, onShelf);
+			}
+		} catch (IllegalStateException error) {
+			logger.error(function + " - " + error.getMessage());
+			throw new RetailerInventoryException(function + " - " + ExceptionConstants.INAPPROPRIATE_METHOD_INVOCATION);
+		} catch (RollbackException error) {
+			logger.error(function + " - " + error.getMessage());
+			throw new RetailerInventoryException(function + " - " + ExceptionConstants.FAILURE_COMMIT_CHANGES);
+		} catch (PersistenceException error) {
+			logger.error(function + " - " + error.getMessage());
+			if (transaction != null && transaction.isActive()) {
+				transaction.rollback();
+			}
+			throw new RetailerInventoryException(function + " - " + ExceptionConstants.PERSISTENCE_ERROR);
+		} finally {
+			session.close();
+			retailerInventorySummaryDao.endInventoryChange();
+		}
+		logger.info(function + " - " + updated.size() + " items updated");
+		return updated;
+	}
+
 	/*******************************************************************************************************
 	 * - Function Name : insertItemInRetailerInventory <br>
 	 * - Description : to insert an item into inventory <br>
@@ -250,10 +392,12 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 
 		Transaction transaction = null;
 		Session session = getSessionFactory().openSession();
+		retailerInventorySummaryDao.beginInventoryChange();
 		try {
 			transaction = session.beginTransaction();
 			session.save(newItem);
 			transaction.commit();
+			recordTransition(newItem, InventoryStateCounters.NONE, stateOf(newItem));
 			logger.info("insertItemInRetailerInventory - " + "Data inserted into database");
 		} catch (IllegalStateException error) {
 			logger.error(error.getMessage());
@@ -269,6 +413,7 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 					"insertItemInRetailerInventory - " + ExceptionConstants.PRODUCT_ALREADY_PRESENT_IN_INVENTORY);
 		} finally {
 			session.close();
+			retailerInventorySummaryDao.endInventoryChange();
 		}
 		productInserted = true;
 		return productInserted;
@@ -276,7 +421,7 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 
 	/*******************************************************************************************************
 	 * - Function Name : deleteItemInRetailerInventory <br>
-	 * - Description : to delete an item in inventory <br>
+	 * - Description : to delete an item in inventory; an item of another retailer is not deleted <br>
 	 * 
 	 * @param queryArguments (retailerId, productUin)
 	 * @return List<RetailerInventoryDTO>
@@ -295,18 +440,24 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 		 * in any case, if the arguments are supplied, they will be stored in the
 		 * database
 		 */
-		RetailerInventoryDTO newItem = new RetailerInventoryDTO();
-		newItem.setRetailerId(queryArguments.getRetailerId());
-		newItem.setProductCategory((byte) queryArguments.getProductCategory());
-		newItem.setProductUniqueId(queryArguments.getProductUniqueId());
-		newItem.setProductDispatchTimestamp(queryArguments.getProductDispatchTimestamp());
-
 		Transaction transaction = null;
+		RetailerInventoryDTO existingItem = null;
 		Session session = getSessionFactory().openSession();
+		retailerInventorySummaryDao.beginInventoryChange();
 		try {
 			transaction = session.beginTransaction();
-			session.remove(newItem);
+			// read (and lock) first, so the counts know the state of the item removed
+			existingItem = session.find(RetailerInventoryDTO.class, queryArguments.getProductUniqueId(),
+					LockModeType.PESSIMISTIC_WRITE);
+			// an item of another retailer is not in this retailer's inventory
+			if (existingItem == null || !existingItem.getRetailerId().equals(queryArguments.getRetailerId())) {
+				logger.debug(ExceptionConstants.PRODUCT_NOT_IN_INVENTORY);
+				throw new RetailerInventoryException(
+						"deleteItemInRetailerInventory - " + ExceptionConstants.PRODUCT_NOT_IN_INVENTORY);
+			}
+			session.remove(existingItem);
 			transaction.commit();
+			recordTransition(existingItem, stateOf(existingItem), InventoryStateCounters.NONE);
 			logger.info("deleteItemInRetailerInventory - " + "Data removed from database");
 		} catch (IllegalStateException error) {
 			logger.error("deleteItemInRetailerInventory - " + error.getMessage());
@@ -318,6 +469,7 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 					"deleteItemInRetailerInventory - " + ExceptionConstants.FAILURE_COMMIT_CHANGES);
 		} finally {
 			session.close();
+			retailerInventorySummaryDao.endInventoryChange();
 		}
 		itemDeleted = true;
 		return itemDeleted;
@@ -420,5 +572,284 @@ public class RetailerInventoryDaoImpl implements RetailerInventoryDao {
 		logger.info("getDeliveredItemsDetails - " + "function return");
 		return result;
 	}
+
+	/*******************************************************************************************************
+	 * - Function Name : getMonthlyShelfTimeAggregates <br>
+	 * - Description : to get item count and total, minimum and maximum shelf days of the items sold by a <br>
+	 * retailer, per sale month and product category; only the aggregates leave the database <br>
+	 * 
+	 * @param retailerId
+	 * @param saleFrom          (null for no lower bound)
+	 * @param saleToExclusive   (null for no upper bound)
+	 * @return List<ShelfTimeReportBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	@Override
+	public List<ShelfTimeReportBean> getMonthlyShelfTimeAggregates(String retailerId, Calendar saleFrom,
+			Calendar saleToExclusive) throws RetailerInventoryException {
+		logger.info("getMonthlyShelfTimeAggregates - " + "function called");
+		String hql = HQLQuerryMapper.SELECT_MONTHLY_SHELF_TIME
+				+ (saleFrom == null ? "" : HQLQuerryMapper.SHELF_TIME_FROM_FILTER)
+				+ (saleToExclusive == null ? "" : HQLQuerryMapper.SHELF_TIME_TO_FILTER)
+				+ HQLQuerryMapper.SHELF_TIME_GROUP;
+		List<ShelfTimeReportBean> result = new ArrayList<ShelfTimeReportBean>();
+		Session session = getSessionFactory().openSession();
+		try {
+			Query<Object[]> query = session.createQuery(hql, Object[].class);
+			query.setParameter("retailerId", retailerId);
+			if (saleFrom != null) {
+				query.setParameter("saleFrom", saleFrom);
+			}
+			if (saleToExclusive != null) {
+				query.setParameter("saleToExclusive", saleToExclusive);
+			}
+			for (Object[] row : query.getResultList()) {
+				result.add(new ShelfTimeReportBean(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+						((Number) row[2]).byteValue(), ((Number) row[3]).longValue(), ((Number) row[4]).longValue(),
+						((Number) row[5]).intValue(), ((Number) row[6]).intValue()));
+			}
+			logger.info("getMonthlyShelfTimeAggregates - " + "Data extracted from database");
+		} catch (IllegalArgumentException error) {
+			logger.error("getMonthlyShelfTimeAggregates - " + error.getMessage());
+			throw new RetailerInventoryException(
+					"getMonthlyShelfTimeAggregates - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+		} catch (PersistenceException error) {
+			logger.error("getMonthlyShelfTimeAggregates - " + error.getMessage());
+			throw new RetailerInventoryException("getMonthlyShelfTimeAggregates - " + ExceptionConstants.PERSISTENCE_ERROR);
+		} finally {
+			session.close();
+		}
+		if (result.size() == 0) {
+			logger.error("getMonthlyShelfTimeAggregates - " + ExceptionConstants.NO_DATA_FOUND);
+			throw new RetailerInventoryException("getMonthlyShelfTimeAggregates - " + ExceptionConstants.NO_DATA_FOUND);
+		}
+		logger.info("getMonthlyShelfTimeAggregates - " + "function return");
+		return result;
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : getCategoryDeliveryTimeAggregates <br>
+	 * - Description : to get item count and total, squared total, minimum and maximum delivery days of the <br>
+	 * items received by a retailer, per product category; only the aggregates leave the database <br>
+	 * 
+	 * @param retailerId
+	 * @return List<DeliveryTimeStatsBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	@Override
+	public List<DeliveryTimeStatsBean> getCategoryDeliveryTimeAggregates(String retailerId)
+			throws RetailerInventoryException {
+		logger.info("getCategoryDeliveryTimeAggregates - " + "function called");
+		List<DeliveryTimeStatsBean> result = new ArrayList<DeliveryTimeStatsBean>();
+		Session session = getSessionFactory().openSession();
+		try {
+			result.addAll(readCategoryDeliveryTimeAggregates(session, retailerId));
+			logger.info("getCategoryDeliveryTimeAggregates - " + "Data extracted from database");
+		} catch (IllegalArgumentException error) {
+			logger.error("getCategoryDeliveryTimeAggregates - " + error.getMessage());
+			throw new RetailerInventoryException(
+					"getCategoryDeliveryTimeAggregates - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+		} catch (PersistenceException error) {
+			logger.error("getCategoryDeliveryTimeAggregates - " + error.getMessage());
+			throw new RetailerInventoryException("getCategoryDeliveryTimeAggregates - " + ExceptionConstants.PERSISTENCE_ERROR);
+		} finally {
+			session.close();
+		}
+		if (result.size() == 0) {
+			logger.error("getCategoryDeliveryTimeAggregates - " + ExceptionConstants.NO_DATA_FOUND);
+			throw new RetailerInventoryException("getCategoryDeliveryTimeAggregates - " + ExceptionConstants.NO_DATA_FOUND);
+		}
+		logger.info("getCategoryDeliveryTimeAggregates - " + "function return");
+		return result;
+	}
+
+	private static List<DeliveryTimeStatsBean> readCategoryDeliveryTimeAggregates(Session session, String retailerId) {
+		List<DeliveryTimeStatsBean> result = new ArrayList<DeliveryTimeStatsBean>();
+		Query<Object[]> query = session.createQuery(HQLQuerryMapper.SELECT_CATEGORY_DELIVERY_TIME, Object[].class);
+		query.setParameter("retailerId", retailerId);
+		for (Object[] row : query.getResultList()) {
+			result.add(new DeliveryTimeStatsBean(((Number) row[0]).byteValue(), ((Number) row[1]).longValue(),
+					((Number) row[2]).longValue(), ((Number) row[3]).longValue(), ((Number) row[4]).intValue(),
+					((Number) row[5]).intValue()));
+		}
+		return result;
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : streamDeliveryDays <br>
+	 * - Description : to pass the per category delivery days aggregates of a retailer to the category <br>
+	 * handler, then the unique id, category and delivery days of every item received by the retailer to <br>
+	 * the item handler through a forward-only cursor, so the items are never held in memory together. <br>
+	 * Both queries run in one repeatable read transaction, so the items are the ones the aggregates were <br>
+	 * computed over <br>
+	 * 
+	 * @param retailerId
+	 * @param categoryHandler
+	 * @param itemHandler
+	 * @return int (item rows read)
+	 * @throws RetailerInventoryException, IOException
+	 *******************************************************************************************************/
+	@Override
+	public int streamDeliveryDays(String retailerId, RowHandler<DeliveryTimeStatsBean> categoryHandler,
+			RowHandler<DeliveryTimeOutlierBean> itemHandler) throws RetailerInventoryException, IOException {
+		logger.info("streamDeliveryDays - " + "function called");
+		int rows = 0;
+		Session session = getSessionFactory().openSession();
+		ScrollableResults cursor = null;
+		try {
+			session.doWork(connection -> {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute(HQLQuerryMapper.NEXT_TRANSACTION_REPEATABLE_READ);
+				}
+			});
+			session.beginTransaction();
+			for (DeliveryTimeStatsBean category : readCategoryDeliveryTimeAggregates(session, retailerId)) {
+				categoryHandler.handle(category);
+			}
+			Query<DeliveryTimeOutlierBean> query = session.createQuery(HQLQuerryMapper.SELECT_ITEM_DELIVERY_DAYS,
+					DeliveryTimeOutlierBean.class);
+			query.setParameter("retailerId", retailerId);
+			query.setReadOnly(true);
+			query.setCacheMode(CacheMode.IGNORE);
+			query.setFetchSize(streamFetchSize);
+			cursor = query.scroll(ScrollMode.FORWARD_ONLY);
+			while (cursor.next()) {
+				itemHandler.handle((DeliveryTimeOutlierBean) cursor.get(0));
+				rows++;
+			}
+			session.getTransaction().commit();
+		} catch (IllegalArgumentException error) {
+			logger.error("streamDeliveryDays - " + error.getMessage());
+			throw new RetailerInventoryException(
+					"streamDeliveryDays - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+		} catch (PersistenceException error) {
+			logger.error("streamDeliveryDays - " + error.getMessage());
+			throw new RetailerInventoryException("streamDeliveryDays - " + ExceptionConstants.PERSISTENCE_ERROR);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+			session.close();
+		}
+		logger.info("streamDeliveryDays - " + rows + " rows read");
+		return rows;
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : getItemPageByRetailer <br>
+	 * - Description : to get up to maxResults items of a retailer in unique id order, after afterUin; <br>
+	 * seeks on the (retailer, [category,] unique id) index instead of skipping an offset <br>
+	 * 
+	 * @param retailerId
+	 * @param productCategory (0 for every category)
+	 * @param afterUin        (null for the first page)
+	 * @param maxResults
+	 * @return List<RetailerInventoryBean> (unique id, category and product name only)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	@Override
+	public List<RetailerInventoryBean> getItemPageByRetailer(String retailerId, byte productCategory, String afterUin,
+			int maxResults) throws RetailerInventoryException {
+		logger.info("getItemPageByRetailer - " + "function called");
+		String hql = HQLQuerryMapper.SELECT_INVENTORY_PAGE
+				+ (productCategory == 0 ? "" : HQLQuerryMapper.INVENTORY_PAGE_CATEGORY_FILTER)
+				+ (afterUin == null ? "" : HQLQuerryMapper.INVENTORY_PAGE_AFTER_FILTER)
+				+ HQLQuerryMapper.INVENTORY_PAGE_ORDER;
+		List<RetailerInventoryBean> result = null;
+		Session session = getSessionFactory().openSession();
+		try {
+			Query<RetailerInventoryBean> query = session.createQuery(hql, RetailerInventoryBean.class);
+			query.setParameter("retailerId", retailerId);
+			if (productCategory != 0) {
+				query.setParameter("productCategory", productCategory);
+			}
+			if (afterUin != null) {
+				query.setParameter("afterUin", afterUin);
+			}
+			query.setMaxResults(maxResults);
+			result = query.getResultList();
+			logger.info("getItemPageByRetailer - " + "Data extracted from database");
+		} catch (IllegalArgumentException error) {
+			logger.error("getItemPageByRetailer - " + error.getMessage());
+			throw new RetailerInventoryException(
+					"getItemPageByRetailer - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+		} catch (PersistenceException error) {
+			logger.error("getItemPageByRetailer - " + error.getMessage());
+			throw new RetailerInventoryException("getItemPageByRetailer - " + ExceptionConstants.PERSISTENCE_ERROR);
+		} finally {
+			session.close();
+		}
+		logger.info("getItemPageByRetailer - " + "function return");
+		return result;
+	}
 	// END OF Retailer Inventory Data Access Functions
+
+	/*******************************************************************************************************
+	 * - Function Name : getTimeHistogram <br>
+	 * - Description : to get the shelf days (sold items) or delivery days (received items) of a retailer's <br>
+	 * items as bucket counts per product category; the database counts the items of each category at or <br>
+	 * below every bound in one pass and only those counts leave it <br>
+	 * 
+	 * @param retailerId
+	 * @param shelfTime   (true for shelf days, false for delivery days)
+	 * @param upperBounds (ascending, inclusive upper bounds of all buckets but the last)
+	 * @return List<TimeHistogramBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	@Override
+	public List<TimeHistogramBean> getTimeHistogram(String retailerId, boolean shelfTime, int[] upperBounds)
+			throws RetailerInventoryException {
+		logger.info("getTimeHistogram - " + "function called");
+		List<TimeHistogramBean> result = new ArrayList<TimeHistogramBean>();
+		StringBuilder hql = new StringBuilder(HQLQuerryMapper.SELECT_TIME_HISTOGRAM);
+		for (int bound = 0; bound < upperBounds.length; bound++) {
+			hql.append(String.format(HQLQuerryMapper.TIME_HISTOGRAM_BUCKET,
+					shelfTime ? HQLQuerryMapper.SHELF_DAYS : HQLQuerryMapper.DELIVERY_DAYS, bound));
+		}
+		hql.append(shelfTime ? HQLQuerryMapper.TIME_HISTOGRAM_SOLD_ITEMS : HQLQuerryMapper.TIME_HISTOGRAM_RECEIVED_ITEMS);
+		hql.append(HQLQuerryMapper.TIME_HISTOGRAM_GROUP);
+		Session session = getSessionFactory().openSession();
+		try {
+			Query<Object[]> query = session.createQuery(hql.toString(), Object[].class);
+			query.setParameter("retailerId", retailerId);
+			for (int bound = 0; bound < upperBounds.length; bound++) {
+				query.setParameter("bound" + bound, upperBounds[bound]);
+			}
+			for (Object[] row : query.getResultList()) {
+				long items = ((Number) row[1]).longValue();
+				// row[2 + b] counts the items at or below bound b
+				long[] atOrBelow = new long[upperBounds.length];
+				for (int bound = 0; bound < upperBounds.length; bound++) {
+					atOrBelow[bound] = row[2 + bound] == null ? 0 : ((Number) row[2 + bound]).longValue();
+				}
+				result.add(new TimeHistogramBean(((Number) row[0]).byteValue(), items, upperBounds,
+						TimeHistogramBuckets.fromCumulative(items, atOrBelow)));
+			}
+			logger.info("getTimeHistogram - " + "Data extracted from database");
+		} catch (IllegalArgumentException error) {
+			logger.error("getTimeHistogram - " + error.getMessage());
+			throw new RetailerInventoryException(
+					"getTimeHistogram - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+		} catch (PersistenceException error) {
+			logger.error("getTimeHistogram - " + error.getMessage());
+			throw new RetailerInventoryException("getTimeHistogram - " + ExceptionConstants.PERSISTENCE_ERROR);
+		} finally {
+			session.close();
+		}
+		if (result.size() == 0) {
+			logger.error("getTimeHistogram - " + ExceptionConstants.NO_DATA_FOUND);
+			throw new RetailerInventoryException("getTimeHistogram - " + ExceptionConstants.NO_DATA_FOUND);
+		}
+		logger.info("getTimeHistogram - " + "function return");
+		return result;
+	}
+
+	private static int stateOf(RetailerInventoryDTO item) {
+		return InventoryStateCounters.state(item.getProductReceiveTimestamp(), item.getProductSaleTimestamp());
+	}
+
+	private void recordTransition(RetailerInventoryDTO item, int fromState, int toState) {
+		retailerInventorySummaryDao.recordTransition(item.getRetailerId(), item.getProductCategory(), fromState,
+				toState, 1);
+	}
 }
@@ -0,0 +1,61 @@
+package com.capgemini.go.dao;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.capgemini.go.bean.InventoryStateCountBean;
+import com.capgemini.go.exception.RetailerInventoryException;
+
+/*******************************************************************************************************
+ * Keeps the in transit / on shelf / sold item counts per retailer and product
+ * category in memory and writes their changes to RETAILER_INVENTORY_SUMMARY.
+ * recordTransition is called by RetailerInventoryDao after each committed
+ * inventory change; states are the InventoryStateCounters constants.
+ ********************************************************************************************************/
+@Component
+public interface RetailerInventorySummaryDao {
+
+	void recordTransition(String retailerId, byte productCategory, int fromState, int toState, long items);
+
+	/*******************************************************************************************************
+	 * - Function Name : beginInventoryChange <br>
+	 * - Description : to be called before the transaction of an inventory change, with endInventoryChange <br>
+	 * in a finally block after its recordTransition calls; changes run concurrently with each other, while <br>
+	 * loadInventoryStateCounts waits for the changes in progress and holds new ones until it is done <br>
+	 *******************************************************************************************************/
+	void beginInventoryChange();
+
+	void endInventoryChange();
+
+	/*******************************************************************************************************
+	 * - Function Name : getInventoryStateCounts <br>
+	 * - Description : to get the current item counts per category of a retailer, from memory <br>
+	 * 
+	 * @param retailerId
+	 * @return List<InventoryStateCountBean>
+	 *******************************************************************************************************/
+	List<InventoryStateCountBean> getInventoryStateCounts(String retailerId);
+
+	/*******************************************************************************************************
+	 * - Function Name : flushInventoryStateCounts <br>
+	 * - Description : to add the count changes since the last flush to RETAILER_INVENTORY_SUMMARY in one <br>
+	 * transaction; the changes are kept for the next flush if it fails <br>
+	 * 
+	 * @return int (retailer and category rows written)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	int flushInventoryStateCounts() throws RetailerInventoryException;
+
+	/*******************************************************************************************************
+	 * - Function Name : loadInventoryStateCounts <br>
+	 * - Description : to replace the counts in memory with RETAILER_INVENTORY_SUMMARY, after rebuilding it <br>
+	 * from RETAILER_INVENTORY if rebuild is set or the summary is empty; no inventory change runs meanwhile, <br>
+	 * so each change is either in what is read or recorded after the counts are replaced <br>
+	 * 
+	 * @param rebuild
+	 * @return int (retailer and category rows read)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	int loadInventoryStateCounts(boolean rebuild) throws RetailerInventoryException;
+}
@@ -0,0 +1,158 @@
+package com.capgemini.go.dao;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.persistence.PersistenceException;
+
+import org.apache.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.capgemini.go.bean.InventoryStateCountBean;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.RetailerInventoryException;
+import com.capgemini.go.utility.GoUtility;
+import com.capgemini.go.utility.InventoryStateCounters;
+
+@Repository(value = "retailerInventorySummaryDao")
+public class RetailerInventorySummaryDaoImpl implements RetailerInventorySummaryDao {
+
+	private Logger logger = Logger.getRootLogger();
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	public SessionFactory getSessionFactory() {
+		return sessionFactory;
+	}
+
+	public void setSessionFactory(SessionFactory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
+	private final InventoryStateCounters counters = new InventoryStateCounters();
+
+	// shared by inventory changes and flushes, exclusive for a load: a change committed before the summary is
+	// read but recorded after the counts are replaced would count twice, one committed after the read but
+	// recorded before, not at all
+	private final ReadWriteLock changeLock = new ReentrantReadWriteLock();
+
+	@Override
+	public void beginInventoryChange() {
+		changeLock.readLock().lock();
+	}
+
+	@Override
+	public void endInventoryChange() {
+		changeLock.readLock().unlock();
+	}
+
+	@Override
+	public void recordTransition(String retailerId, byte productCategory, int fromState, int toState, long items) {
+		counters.move(retailerId, productCategory, fromState, toState, items);
+	}
+
+	@Override
+	public List<InventoryStateCountBean> getInventoryStateCounts(String retailerId) {
+		List<InventoryStateCountBean> result = counters.get(retailerId);
+		for (InventoryStateCountBean count : result) {
+			count.setProductCategoryName(GoUtility.getCategoryName(count.getProductCategoryNumber()));
+		}
+		return result;
+	}
+
+	@Override
+	public int flushInventoryStateCounts() throws RetailerInventoryException {
+		// a load must not read the summary while drained changes are not in it yet
+		changeLock.readLock().lock();
+		try {
+			return writeInventoryStateChanges();
+		} finally {
+			changeLock.readLock().unlock();
+		}
+	}
+
+	private int writeInventoryStateChanges() throws RetailerInventoryException {
+		List<InventoryStateCountBean> changes = counters.drain();
+		if (changes.isEmpty()) {
+			return 0;
+		}
+		Transaction transaction = null;
+		Session session = getSessionFactory().openSession();
+		try {
+			transaction = session.beginTransaction();
+			for (InventoryStateCountBean change : changes) {
+				session.createNativeQuery(HQLQuerryMapper.ADD_INVENTORY_SUMMARY)
+						.setParameter("retailerId", change.getRetailerId())
+						.setParameter("productCategory", change.getProductCategoryNumber())
+						.setParameter("inTransit", change.getInTransit()).setParameter("onShelf", change.getOnShelf())
+						.setParameter("sold", change.getSold()).executeUpdate();
+			}
+			transaction.commit();
+		} catch (IllegalStateException | PersistenceException error) {
+			logger.error("flushInventoryStateCounts - " + error.getMessage());
+			if (transaction != null && transaction.isActive()) {
+				transaction.rollback();
+			}
+			counters.restore(changes);
+			throw new RetailerInventoryException(
+					"flushInventoryStateCounts - " + ExceptionConstants.FAILURE_COMMIT_CHANGES);
+		} finally {
+			session.close();
+		}
+		logger.info("flushInventoryStateCounts - " + changes.size() + " summary rows updated");
+		return changes.size();
+	}
+
+	@Override
+	public int loadInventoryStateCounts(boolean rebuild) throws RetailerInventoryException {
+		logger.info("loadInventoryStateCounts - " + "function called");
+		changeLock.writeLock().lock();
+		try {
+			return replaceInventoryStateCounts(rebuild);
+		} finally {
+			changeLock.writeLock().unlock();
+		}
+	}
+
+	private int replaceInventoryStateCounts(boolean rebuild) throws RetailerInventoryException {
+		if (!rebuild) {
+			// the summary read must include the changes recorded so far
+			writeInventoryStateChanges();
+		}
+		List<InventoryStateCountBean> counts = null;
+		Transaction transaction = null;
+		Session session = getSessionFactory().openSession();
+		try {
+			transaction = session.beginTransaction();
+			if (!rebuild) {
+				counts = session.createQuery(HQLQuerryMapper.SELECT_INVENTORY_SUMMARY, InventoryStateCountBean.class)
+						.getResultList();
+			}
+			if (rebuild || counts.isEmpty()) {
+				session.createNativeQuery(HQLQuerryMapper.CLEAR_INVENTORY_SUMMARY).executeUpdate();
+				int rows = session.createNativeQuery(HQLQuerryMapper.REBUILD_INVENTORY_SUMMARY).executeUpdate();
+				logger.info("loadInventoryStateCounts - " + rows + " summary rows rebuilt");
+				counts = session.createQuery(HQLQuerryMapper.SELECT_INVENTORY_SUMMARY, InventoryStateCountBean.class)
+						.getResultList();
+			}
+			transaction.commit();
+		} catch (IllegalStateException | PersistenceException error) {
+			logger.error("loadInventoryStateCounts - " + error.getMessage());
+			if (transaction != null && transaction.isActive()) {
+				transaction.rollback();
+			}
+			throw new RetailerInventoryException("loadInventoryStateCounts - " + ExceptionConstants.PERSISTENCE_ERROR);
+		} finally {
+			session.close();
+		}
+		counters.reset(counts);
+		logger.info("loadInventoryStateCounts - " + counts.size() + " summary rows loaded");
+		return counts.size();
+	}
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import com.capgemini.go.dto.OrderCancelDTO;
 import com.capgemini.go.dto.OrderProductMapDTO;
 import com.capgemini.go.dto.OrderReturnDTO;
+import com.capgemini.go.dto.SalesRepDTO;
 import com.capgemini.go.exception.SalesRepresentativeException;
 
 @Component
@@ -176,4 +177,22 @@ public interface SalesRepresentativeDao {
 	 ********************************************************************************************************/
 	String getBonus(String userId) throws Exception;
 
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * - Function Name : getAllSalesReps() - Input Parameters : - Return Type :
+	 * List<SalesRepDTO> - Throws : SalesRepresentativeException - Description :
+	 * Returns every Sales Representative with target and current sales
+	 ********************************************************************************************************/
+	List<SalesRepDTO> getAllSalesReps() throws SalesRepresentativeException;
+
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * - Function Name : addToCurrentSales(String userId, double delta) - Input
+	 * Parameters : userId, delta - Return Type : boolean - Throws :
+	 * SalesRepresentativeException - Description : Adds the accumulated sales delta
+	 * to the current sales of a Sales Representative and recomputes the target
+	 * status in the same statement
+	 ********************************************************************************************************/
+	boolean addToCurrentSales(String userId, double delta) throws SalesRepresentativeException;
+
 }
@@ -2,6 +2,7 @@ package com.capgemini.go.dao;
 
 import java.net.ConnectException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -36,6 +37,14 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 	// database
 	@Autowired
 	private SessionFactory sessionFactory;
+
+	// ORDER_CANCEL / ORDER_RETURN rows are written through the group-commit writer
+	@Autowired
+	private OrderAuditDao orderAuditDao;
+
+	// SALES_ROLLUP is adjusted in the same transaction as every order line status change
+	@Autowired
+	private SalesRollupDao salesRollupDao;
 	// this will create one sessionFactory for this class
 	// there is only one sessionFactory should be created for the applications
 	// we can create multiple sessions for a sessionFactory
@@ -50,6 +59,22 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 		this.sessionFactory = sessionFactory;
 	}
 
+	public OrderAuditDao getOrderAuditDao() {
+		return orderAuditDao;
+	}
+
+	public void setOrderAuditDao(OrderAuditDao orderAuditDao) {
+		this.orderAuditDao = orderAuditDao;
+	}
+
+	public SalesRollupDao getSalesRollupDao() {
+		return salesRollupDao;
+	}
+
+	public void setSalesRollupDao(SalesRollupDao salesRollupDao) {
+		this.salesRollupDao = salesRollupDao;
+	}
+
 	// ------------------------ 1. GO Application --------------------------
 	/*******************************************************************************************************
 	 * - Function Name : returnOrder - Input Parameters : OrderReturnDTO - Return
@@ -64,27 +89,20 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 		Date date = new Date();
 		java.sql.Date sqlDate = new java.sql.Date(date.getTime());
 
-		Session session = null;
+		OrderReturnDTO orderReturn = new OrderReturnDTO();
+		orderReturn.setOrderId(or.getOrderId());
+		orderReturn.setOrderReturnReason(or.getOrderReturnReason());
+		orderReturn.setProductId(or.getProductId());
+		orderReturn.setProductUIN(or.getProductUIN());
+		orderReturn.setUserId(or.getUserId());
+		orderReturn.setOrderReturnTime(sqlDate);
 		try {
-			session = getSessionFactory().openSession();
-			session.beginTransaction();
-			OrderReturnDTO orderReturn = new OrderReturnDTO();
-			orderReturn.setOrderId(or.getOrderId());
-			orderReturn.setOrderReturnReason(or.getOrderReturnReason());
-			orderReturn.setProductId(or.getProductId());
-			orderReturn.setProductUIN(or.getProductUIN());
-			orderReturn.setUserId(or.getUserId());
-			orderReturn.setOrderReturnTime(sqlDate);
-			session.save(orderReturn);
-			session.getTransaction().commit();
+			orderAuditDao.awaitDurable(orderAuditDao.saveReturnRows(Collections.singletonList(orderReturn)));
 			returnOrderStatus = true;
 			logger.info(InfoConstants.Return_Accepted);
-		} catch (HibernateException exp) {
-			session.getTransaction().rollback();
+		} catch (SalesRepresentativeException exp) {
 			logger.error(ExceptionConstants.UNABLE_TO_UPDATE_RETURN_ORDER);
 			throw new SalesRepresentativeException(ExceptionConstants.UNABLE_TO_UPDATE_RETURN_ORDER + exp.getMessage());
-		} finally {
-			session.close();
 		}
 
 		return returnOrderStatus;
@@ -106,6 +124,7 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 			session = getSessionFactory().openSession();
 			session.beginTransaction();
 			OrderProductMapDTO opm = new OrderProductMapDTO();
+			salesRollupDao.applyByOrder(session, orderId, -1);
 			Query query = session.createQuery(HQLQuerryMapper.UPDATE_ORDER_PRODUCT_MAP);
 			query.setParameter("orderId", orderId);
 			query.setParameter("productStatus", productStatus);
@@ -252,6 +271,7 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 		try {
 			session = getSessionFactory().openSession();
 			session.beginTransaction();
+			salesRollupDao.applyByOrderProductLimit(session, orderId, productId, qty, -1);
 			Query query = session.createNativeQuery(HQLQuerryMapper.UPDATE_ORDER_PRODUCT_MAP_BY_QTY);
 			query.setParameter("orderId", orderId);
 			query.setParameter("productId", productId);
@@ -286,44 +306,44 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 			throws SalesRepresentativeException, ConnectException {
 		boolean orderReturnStatus = false;
 		Session session = null;
-		Session session2 = null;
 		List<String> productUIN = new ArrayList<String>();
 		Date date = new Date();
 		java.sql.Date sqlDate = new java.sql.Date(date.getTime());
-		SalesRepresentativeDao salesRepDao = new SalesRepresentativeDaoImpl();
+		List<OrderReturnDTO> orderReturns = new ArrayList<OrderReturnDTO>();
 		try {
 			session = getSessionFactory().openSession();
 			session.beginTransaction();
 
-			OrderReturnDTO orderReturn = new OrderReturnDTO();
 			Query query = session.createNativeQuery(HQLQuerryMapper.GET_PRODUCT_UIN);
 			query.setParameter("orderId", orderId);
 			query.setParameter("productId", productId);
 			query.setParameter("qty", qty);
 			productUIN = (List<String>) query.list();
-			for (int i = 0; i < productUIN.size(); i++) {
-				session2 = getSessionFactory().openSession();
-				session2.beginTransaction();
-				orderReturn.setOrderId(orderId);
-				orderReturn.setProductId(productId);
-				orderReturn.setProductUIN(productUIN.get(i));
-				orderReturn.setOrderReturnReason(reason);
-				orderReturn.setUserId(userId);
-				orderReturn.setOrderReturnTime(sqlDate);
-				session2.save(orderReturn);
-				session2.getTransaction().commit();
-				orderReturnStatus = true;
-			}
-			logger.info(InfoConstants.OrderReturnUpdated);
-
-
+			session.getTransaction().commit();
 		} catch (HibernateException exp) {
 			session.getTransaction().rollback();
 			logger.error(ExceptionConstants.COUNT_PRODUCT_FAILURE);
 			throw new SalesRepresentativeException(ExceptionConstants.COUNT_PRODUCT_FAILURE + exp.getMessage());
 		} finally {
 			session.close();
-			session2.close();
+		}
+		for (int i = 0; i < productUIN.size(); i++) {
+			OrderReturnDTO orderReturn = new OrderReturnDTO();
+			orderReturn.setOrderId(orderId);
+			orderReturn.setProductId(productId);
+			orderReturn.setProductUIN(productUIN.get(i));
+			orderReturn.setOrderReturnReason(reason);
+			orderReturn.setUserId(userId);
+			orderReturn.setOrderReturnTime(sqlDate);
+			orderReturns.add(orderReturn);
+		}
+		try {
+			orderAuditDao.awaitDurable(orderAuditDao.saveReturnRows(orderReturns));
+			orderReturnStatus = !orderReturns.isEmpty();
+			logger.info(InfoConstants.OrderReturnUpdated);
+		} catch (SalesRepresentativeException exp) {
+			logger.error(ExceptionConstants.ORDER_RETURN_UPDATE_ERROR);
+			throw new SalesRepresentativeException(ExceptionConstants.ORDER_RETURN_UPDATE_ERROR + exp.getMessage());
 		}
 		return orderReturnStatus;
 	}
@@ -503,14 +523,11 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 	 **************************************************************************************************************/
 	@Override
 	public String cancelOrder(OrderCancelDTO orderCancel) throws Exception {
-		Session session = null;
 		Session session2 = null;
 		String cancelOrderStatus = "Order cant be cancelled";
 		int value = 0;
 		int i = 0;
 		try {
-			session = getSessionFactory().openSession();
-			session.beginTransaction();
 			OrderCancelDTO oce = new OrderCancelDTO();
 			oce.setOrderid(orderCancel.getOrderid());
 			oce.setUserId(orderCancel.getUserId());
@@ -518,12 +535,11 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 			oce.setProductuin(orderCancel.getProductuin());
 			oce.setOrdercanceltime(orderCancel.getOrdercanceltime());
 			oce.setOrdercancelstatus(1);
-			session.save(oce);
-			session.getTransaction().commit();
+			orderAuditDao.awaitDurable(orderAuditDao.saveCancelRows(Collections.singletonList(oce)));
 			session2 = getSessionFactory().openSession();
 			session2.beginTransaction();
-			Query query = session2.createQuery(
-					"update OrderProductMapDTO opm set opm.productStatus = 0 where opm.orderId =:orderID and opm.productUIN =:productUin");
+			salesRollupDao.applyByProductUin(session2, orderCancel.getProductuin(), -1);
+			Query query = session2.createQuery(HQLQuerryMapper.UPDATE_ORDER_PRODUCT_MAP_WITH_PRODUCT_UIN);
 			query.setParameter("orderID", orderCancel.getOrderid());
 			query.setParameter("productUin", orderCancel.getProductuin());
 			int rowsChanged = query.executeUpdate();
@@ -532,12 +548,15 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 			cancelOrderStatus = "The product with the uin " + orderCancel.getProductuin() + " has been cancelled";
 		} catch (Exception exp) {
 			logger.error(exp.getMessage());
-			session.getTransaction().rollback();
+			if (session2 != null) {
+				session2.getTransaction().rollback();
+			}
 			// GoLog.logger.error(exceptionProps.getProperty(" return_order_failure"));
 		} finally {
 			try {
-				session.close();
-				session2.close();
+				if (session2 != null) {
+					session2.close();
+				}
 			} catch (Exception exp) {
 				logger.error(exp.getMessage());
 				throw new Exception(exp.getMessage());
@@ -600,12 +619,14 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 			session = getSessionFactory().openSession();
 			session.beginTransaction();
 			if (productQtyOrdered == quantity) {
+				salesRollupDao.applyByOrderProduct(session, orderId, productId, -1);
 				Query query = session.createQuery(HQLQuerryMapper.UPDATE_ORDER_PRODUCT_MAP_CANCEL_PROD_EQUAL_QUANTITY);
 				query.setParameter("orderID", orderId);
 				query.setParameter("productID", productId);
 				rowsChanged = query.executeUpdate();
 				session.getTransaction().commit();
 			} else if (productQtyOrdered > quantity) {
+				salesRollupDao.applyByOrderProductLimit(session, orderId, productId, quantity, -1);
 				Query query = session
 						.createNativeQuery(HQLQuerryMapper.UPDATE_ORDER_PRODUCT_MAP_CANCEL_PROD_LESS_QUANTITY);
 				query.setParameter("orderID", orderId);
@@ -648,8 +669,7 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 			String userId) throws Exception {
 		String statusCancelOrderForProduct = null;
 		Session session = null;
-		Session session2 = null;
-		int index = 0;
+		List<OrderProductMapDTO> orderProductMapEntityList = new ArrayList<OrderProductMapDTO>();
 		try {
 			session = getSessionFactory().openSession();
 			session.beginTransaction();
@@ -658,56 +678,16 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 				query.setParameter("orderID", orderId);
 				query.setParameter("productID", productId);
 				query.setParameter("value", 0);
-				List<OrderProductMapDTO> orderProductMapEntityList = (List<OrderProductMapDTO>) query.list();
-				session2 = getSessionFactory().openSession();
-				session2.beginTransaction();
-				while (orderProductMapEntityList.size() > index) {
-					OrderCancelDTO oce = new OrderCancelDTO();
-					oce.setOrderid(orderProductMapEntityList.get(index).getOrderId());
-					oce.setUserId(userId);
-					oce.setProductid(orderProductMapEntityList.get(index).getProductId());
-					oce.setProductuin(orderProductMapEntityList.get(index).getProductUIN());
-					Date date = new Date();
-					java.sql.Date sqlDate = new java.sql.Date(date.getTime());
-					oce.setOrdercanceltime(sqlDate);
-					oce.setOrdercancelstatus(1);
-					session2.save(oce);
-					session2.getTransaction().commit();
-					index++;
-					session2 = getSessionFactory().openSession();
-					session2.beginTransaction();
-				}
-				System.out.println(
-						"The order-cancel table's " + orderProductMapEntityList.size() + " rows has been inserted");
+				orderProductMapEntityList = (List<OrderProductMapDTO>) query.list();
 			} else if (productQtyOrdered > quantity) {
 				Query query = session.createQuery(HQLQuerryMapper.GET_ORDER_PRODUCT_MAP_CANCEL_PROD_LESS_QUANTITY);
 				query.setParameter("orderID", orderId);
 				query.setParameter("productID", productId);
 				query.setFirstResult(0);
 				query.setMaxResults(quantity);
-				List<OrderProductMapDTO> orderProductMapEntityList = (List<OrderProductMapDTO>) query.list();
-				session2 = getSessionFactory().openSession();
-				session2.beginTransaction();
-				while (orderProductMapEntityList.size() > index) {
-					OrderCancelDTO oce = new OrderCancelDTO();
-					oce.setOrderid(orderProductMapEntityList.get(index).getOrderId());
-					oce.setUserId(userId);
-					oce.setProductid(orderProductMapEntityList.get(index).getProductId());
-					oce.setProductuin(orderProductMapEntityList.get(index).getProductUIN());
-					Date date = new Date();
-					java.sql.Date sqlDate = new java.sql.Date(date.getTime());
-					oce.setOrdercanceltime(sqlDate);
-					oce.setOrdercancelstatus(1);
-					session2.save(oce);
-					session2.getTransaction().commit();
-					index++;
-					session2 = getSessionFactory().openSession();
-					session2.beginTransaction();
-				}
-				System.out.println(
-						"The order-cancel table's " + orderProductMapEntityList.size() + " rows has been inserted");
+				orderProductMapEntityList = (List<OrderProductMapDTO>) query.list();
 			}
-			statusCancelOrderForProduct = "The given quantity of product has been cancelled";
+			session.getTransaction().commit();
 		} catch (Exception exp) {
 			logger.error(exp.getMessage());
 			session.getTransaction().rollback();
@@ -716,12 +696,27 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 		} finally {
 			try {
 				session.close();
-				session2.close();
 			} catch (Exception exp) {
 				logger.error(exp.getMessage());
 				throw new SalesRepresentativeException(exp.getMessage());
 			}
 		}
+		java.sql.Date sqlDate = new java.sql.Date(new Date().getTime());
+		List<OrderCancelDTO> orderCancels = new ArrayList<OrderCancelDTO>();
+		for (OrderProductMapDTO orderProductMap : orderProductMapEntityList) {
+			OrderCancelDTO oce = new OrderCancelDTO();
+			oce.setOrderid(orderProductMap.getOrderId());
+			oce.setUserId(userId);
+			oce.setProductid(orderProductMap.getProductId());
+			oce.setProductuin(orderProductMap.getProductUIN());
+			oce.setOrdercanceltime(sqlDate);
+			oce.setOrdercancelstatus(1);
+			orderCancels.add(oce);
+		}
+		// all rows of this request are committed together, and together with concurrent requests
+		orderAuditDao.awaitDurable(orderAuditDao.saveCancelRows(orderCancels));
+		logger.info("The order-cancel table's " + orderCancels.size() + " rows has been inserted");
+		statusCancelOrderForProduct = "The given quantity of product has been cancelled";
 		return statusCancelOrderForProduct;
 	}
 
@@ -813,4 +808,59 @@ public class SalesRepresentativeDaoImpl implements SalesRepresentativeDao {
 		return bonusForSales;
 	}
 
+	// ------------------------ 1. GO Application --------------------------
+	/*******************************************************************************************************
+	 * - Function Name : getAllSalesReps() - Input Parameters : - Return Type :
+	 * List<SalesRepDTO> - Throws : SalesRepresentativeException - Description :
+	 * Returns every Sales Representative with target and current sales
+	 ********************************************************************************************************/
+	@Override
+	public List<SalesRepDTO> getAllSalesReps() throws SalesRepresentativeException {
+		List<SalesRepDTO> salesReps = new ArrayList<SalesRepDTO>();
+		Session session = null;
+		try {
+			session = getSessionFactory().openSession();
+			session.beginTransaction();
+			salesReps = session.createQuery(HQLQuerryMapper.GET_ALL_SALES_REPS, SalesRepDTO.class).list();
+			session.getTransaction().commit();
+		} catch (HibernateException exp) {
+			session.getTransaction().rollback();
+			logger.error(exp.getMessage());
+			throw new SalesRepresentativeException("getAllSalesReps - " + exp.getMessage());
+		} finally {
+			session.close();
+		}
+		return salesReps;
+	}
+
+	// ------------------------ 1. GO Application --------------------------
+	/*******************************************************************************************************
+	 * - Function Name : addToCurrentSales(String userId, double delta) - Input
+	 * Parameters : userId, delta - Return Type : boolean - Throws :
+	 * SalesRepresentativeException - Description : Adds the accumulated sales delta
+	 * to the current sales of a Sales Representative and recomputes the target
+	 * status in the same statement
+	 ********************************************************************************************************/
+	@Override
+	public boolean addToCurrentSales(String userId, double delta) throws SalesRepresentativeException {
+		int rowsChanged = 0;
+		Session session = null;
+		try {
+			session = getSessionFactory().openSession();
+			session.beginTransaction();
+			Query query = session.createNativeQuery(HQLQuerryMapper.ADD_SALES_REP_CURRENT_SALES);
+			query.setParameter("delta", delta);
+			query.setParameter("userID", userId);
+			rowsChanged = query.executeUpdate();
+			session.getTransaction().commit();
+		} catch (HibernateException exp) {
+			session.getTransaction().rollback();
+			logger.error(exp.getMessage());
+			throw new SalesRepresentativeException("addToCurrentSales - " + exp.getMessage());
+		} finally {
+			session.close();
+		}
+		return rowsChanged > 0;
+	}
+
 }
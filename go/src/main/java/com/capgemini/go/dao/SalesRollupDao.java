@@ -0,0 +1,38 @@
+package com.capgemini.go.dao;
+
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+
+import com.capgemini.go.exception.GoAdminException;
+
+/*******************************************************************************************************
+ * The apply* functions run inside the caller's session and transaction, so a
+ * rollup change commits or rolls back together with the order change that
+ * caused it. They must be called while the affected order lines are still
+ * active: after an order line is inserted (sign = 1) or before it is
+ * cancelled, returned or removed (sign = -1).
+ ********************************************************************************************************/
+@Component
+public interface SalesRollupDao {
+
+	void applyByProductUin(Session session, String productUin, int sign);
+
+	void applyByOrder(Session session, String orderId, int sign);
+
+	void applyByOrderProduct(Session session, String orderId, String productId, int sign);
+
+	void applyByOrderProductLimit(Session session, String orderId, String productId, int quantity, int sign);
+
+	/*******************************************************************************************************
+	 * - Function Name : rebuildRollup - Return Type : int - Throws :
+	 * GoAdminException - Description : Recomputes SALES_ROLLUP from all active
+	 * order lines in a single transaction; returns the number of rollup rows
+	 ********************************************************************************************************/
+	int rebuildRollup() throws GoAdminException;
+
+	/*******************************************************************************************************
+	 * - Function Name : isRollupEmpty - Return Type : boolean - Throws :
+	 * GoAdminException - Description : true when SALES_ROLLUP has no rows yet
+	 ********************************************************************************************************/
+	boolean isRollupEmpty() throws GoAdminException;
+}
@@ -0,0 +1,125 @@
+package com.capgemini.go.dao;
+
+import org.apache.log4j.Logger;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.capgemini.go.dto.SalesRollupDTO;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.utility.SalesRollupDelta;
+
+@Repository(value = "salesRollupDao")
+public class SalesRollupDaoImpl implements SalesRollupDao {
+
+	private Logger logger = Logger.getRootLogger();
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	public SessionFactory getSessionFactory() {
+		return sessionFactory;
+	}
+
+	public void setSessionFactory(SessionFactory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
+	// ------------------------ DELTA FUNCTIONS --------------------------
+	@Override
+	public void applyByProductUin(Session session, String productUin, int sign) {
+		NativeQuery query = linesQuery(session, HQLQuerryMapper.ROLLUP_BY_PRODUCT_UIN);
+		query.setParameter("productUin", productUin);
+		apply(session, query, sign);
+	}
+
+	@Override
+	public void applyByOrder(Session session, String orderId, int sign) {
+		NativeQuery query = linesQuery(session, HQLQuerryMapper.ROLLUP_BY_ORDER);
+		query.setParameter("orderId", orderId);
+		apply(session, query, sign);
+	}
+
+	@Override
+	public void applyByOrderProduct(Session session, String orderId, String productId, int sign) {
+		NativeQuery query = linesQuery(session, HQLQuerryMapper.ROLLUP_BY_ORDER_PRODUCT);
+		query.setParameter("orderId", orderId);
+		query.setParameter("productId", productId);
+		apply(session, query, sign);
+	}
+
+	@Override
+	public void applyByOrderProductLimit(Session session, String orderId, String productId, int quantity, int sign) {
+		NativeQuery query = linesQuery(session, HQLQuerryMapper.ROLLUP_BY_ORDER_PRODUCT_LIMIT);
+		query.setParameter("orderId", orderId);
+		query.setParameter("productId", productId);
+		query.setParameter("quantity", quantity);
+		apply(session, query, sign);
+	}
+
+	private NativeQuery linesQuery(Session session, String predicate) {
+		// pending inserts of the caller must be visible to the SELECT
+		session.flush();
+		return session.createNativeQuery(String.format(HQLQuerryMapper.SALES_ROLLUP_DELTA_LINES, predicate));
+	}
+
+	private void apply(Session session, NativeQuery linesQuery, int sign) {
+		SalesRollupDelta delta = new SalesRollupDelta(sign);
+		for (Object linesRow : linesQuery.getResultList()) {
+			delta.addLines((Object[]) linesRow);
+		}
+		for (SalesRollupDTO row : delta.getRows()) {
+			NativeQuery upsert = session.createNativeQuery(HQLQuerryMapper.SALES_ROLLUP_UPSERT);
+			upsert.setParameter("salesDay", row.getSalesDay());
+			upsert.setParameter("productCategory", row.getProductCategory());
+			upsert.setParameter("userId", row.getUserId());
+			upsert.setParameter("revenue", row.getRevenue());
+			upsert.setParameter("units", row.getUnits());
+			upsert.executeUpdate();
+		}
+	}
+
+	// ------------------------ REBUILD FUNCTIONS --------------------------
+	@Override
+	public int rebuildRollup() throws GoAdminException {
+		int rollupRows = 0;
+		Transaction transaction = null;
+		Session session = getSessionFactory().openSession();
+		try {
+			transaction = session.beginTransaction();
+			session.createNativeQuery(HQLQuerryMapper.CLEAR_SALES_ROLLUP).executeUpdate();
+			rollupRows = session.createNativeQuery(
+					String.format(HQLQuerryMapper.SALES_ROLLUP_REBUILD, HQLQuerryMapper.ROLLUP_BY_ALL_ACTIVE))
+					.executeUpdate();
+			transaction.commit();
+			logger.info("rebuildRollup - " + rollupRows + " rollup rows written");
+		} catch (HibernateException exp) {
+			if (transaction != null) {
+				transaction.rollback();
+			}
+			logger.error("rebuildRollup - " + ExceptionConstants.ROLLUP_REBUILD_FAILURE + exp.getMessage());
+			throw new GoAdminException("rebuildRollup - " + ExceptionConstants.ROLLUP_REBUILD_FAILURE + exp.getMessage());
+		} finally {
+			session.close();
+		}
+		return rollupRows;
+	}
+
+	@Override
+	public boolean isRollupEmpty() throws GoAdminException {
+		Session session = getSessionFactory().openSession();
+		try {
+			return session.createQuery(HQLQuerryMapper.ANY_SALES_ROLLUP).setMaxResults(1).getResultList().isEmpty();
+		} catch (HibernateException exp) {
+			logger.error("isRollupEmpty - " + exp.getMessage());
+			throw new GoAdminException("isRollupEmpty - " + ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage());
+		} finally {
+			session.close();
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package com.capgemini.go.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.stereotype.Component;
 
@@ -74,4 +76,12 @@ public interface UserDao {
 	 * @throws Exception
 	 ********************************************************************************************************/
 	List<UserDTO> getUserIdList () throws UserException;
+
+	/*******************************************************************************************************
+	 * - Function Name : getUserNames - Input Parameters : userIds - Return Type
+	 * : Map - Throws :UserException - Description : names of the given users by
+	 * user id, read as an id/name projection by primary key; unknown ids are left
+	 * out
+	 ********************************************************************************************************/
+	Map<String, String> getUserNames (Collection<String> userIds) throws UserException;
 }
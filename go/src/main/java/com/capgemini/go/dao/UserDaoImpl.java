@@ -2,7 +2,10 @@ package com.capgemini.go.dao;
 
 import java.net.ConnectException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
@@ -32,6 +35,9 @@ public class UserDaoImpl implements UserDao {
 
 	@Autowired
 	private SessionFactory sessionFactory;
+
+	// ids bound per IN list, well below the placeholder limits of the database and driver
+	private static final int USER_ID_CHUNK = 1000;
 	// this will create one sessionFactory for this class
 	// there is only one sessionFactory should be created for the applications
 	// we can create multiple sessions for a sessionFactory
@@ -276,4 +282,34 @@ public class UserDaoImpl implements UserDao {
 		}
 		return result;
 	}
+
+	/*******************************************************************************************************
+	 * - Function Name : getUserNames - Input Parameters : userIds - Return Type
+	 * : Map - Throws :UserException - Description : names of the given users by
+	 * user id; the ids are looked up in chunks of USER_ID_CHUNK
+	 ********************************************************************************************************/
+	public Map<String, String> getUserNames (Collection<String> userIds) throws UserException {
+		Map<String, String> result = new HashMap<String, String>();
+		if (userIds.isEmpty()) {
+			return result;
+		}
+		List<String> ids = new ArrayList<String>(userIds);
+		Session session = getSessionFactory().openSession();
+		try {
+			for (int from = 0; from < ids.size(); from += USER_ID_CHUNK) {
+				List<Object[]> rows = session.createQuery(HQLQuerryMapper.SELECT_USER_NAMES, Object[].class)
+						.setParameterList("userIds", ids.subList(from, Math.min(ids.size(), from + USER_ID_CHUNK)))
+						.getResultList();
+				for (Object[] row : rows) {
+					result.put((String) row[0], (String) row[1]);
+				}
+			}
+		} catch (HibernateException exp) {
+			logger.error("getUserNames - " + exp.getMessage());
+			throw new UserException ("getUserNames - " + ExceptionConstants.INTERNAL_RUNTIME_ERROR);
+		} finally {
+			session.close();
+		}
+		return result;
+	}
 }
@@ -7,6 +7,7 @@ import java.util.Date;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -14,7 +15,8 @@ import javax.persistence.TemporalType;
  
 
 @Entity
-@Table(name = "`ORDER`")
+@Table(name = "`ORDER`", indexes = { @Index(name = "IDX_ORDER_INITIATE_TIME", columnList = "ORDER_INITIATE_TIME"),
+        @Index(name = "IDX_ORDER_USER_INITIATE_TIME", columnList = "USER_ID, ORDER_INITIATE_TIME") })
 public class OrderDTO {
     @Id
     @Column(name="ORDER_ID",unique = false, nullable = false)
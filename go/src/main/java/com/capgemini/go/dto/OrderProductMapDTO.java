@@ -5,11 +5,13 @@ import java.io.Serializable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 
 @Entity(name = "OrderProductMapDTO")
-@Table(name = "ORDER_PRODUCT_MAP", uniqueConstraints = { @UniqueConstraint(columnNames = "product_uin") })
+@Table(name = "ORDER_PRODUCT_MAP", uniqueConstraints = { @UniqueConstraint(columnNames = "product_uin") }, indexes = {
+		@Index(name = "IDX_OPM_ORDER_PRODUCT", columnList = "ORDER_ID, PRODUCT_ID") })
 public class OrderProductMapDTO implements Serializable {
 
 	private static final long serialVersionUID = -5870696027119904888L;
@@ -5,10 +5,14 @@ import java.util.Calendar;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
 @Entity
-@Table(name = "RETAILER_INVENTORY")
+@Table(name = "RETAILER_INVENTORY", indexes = {
+		@Index(name = "IDX_RI_RETAILER_SALE_TIME", columnList = "RETAILER_ID, PRODUCT_SALE_TIMESTAMP"),
+		@Index(name = "IDX_RI_RETAILER_UIN", columnList = "RETAILER_ID, PRODUCT_UIN"),
+		@Index(name = "IDX_RI_RETAILER_CATEGORY_UIN", columnList = "RETAILER_ID, PRODUCT_CATEGORY, PRODUCT_UIN") })
 public class RetailerInventoryDTO {
 	// attributes
 	@Column(name = "RETAILER_ID", unique = false, nullable = false)
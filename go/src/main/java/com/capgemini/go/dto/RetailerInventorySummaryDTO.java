@@ -0,0 +1,120 @@
+package com.capgemini.go.dto;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/*******************************************************************************************************
+ * RETAILER_INVENTORY_SUMMARY holds the number of RETAILER_INVENTORY items in
+ * transit (not received), on shelf (received, not sold) and sold per retailer
+ * and product category. It is written by RetailerInventorySummaryDao from the
+ * in-memory counters kept by the inventory updates, and rebuilt from
+ * RETAILER_INVENTORY when empty or on repair.
+ ********************************************************************************************************/
+@Entity(name = "RetailerInventorySummaryDTO")
+@Table(name = "RETAILER_INVENTORY_SUMMARY")
+public class RetailerInventorySummaryDTO implements Serializable {
+
+	private static final long serialVersionUID = -3318062950145503167L;
+
+	@Id
+	@Column(name = "RETAILER_ID", nullable = false, length = 20)
+	private String retailerId;
+
+	@Id
+	@Column(name = "PRODUCT_CATEGORY", nullable = false)
+	private byte productCategory;
+
+	@Column(name = "IN_TRANSIT", nullable = false)
+	private long inTransit;
+
+	@Column(name = "ON_SHELF", nullable = false)
+	private long onShelf;
+
+	@Column(name = "SOLD", nullable = false)
+	private long sold;
+
+	public RetailerInventorySummaryDTO() {
+		super();
+	}
+
+	public RetailerInventorySummaryDTO(String retailerId, byte productCategory, long inTransit, long onShelf,
+			long sold) {
+		super();
+		this.retailerId = retailerId;
+		this.productCategory = productCategory;
+		this.inTransit = inTransit;
+		this.onShelf = onShelf;
+		this.sold = sold;
+	}
+
+	public String getRetailerId() {
+		return retailerId;
+	}
+
+	public void setRetailerId(String retailerId) {
+		this.retailerId = retailerId;
+	}
+
+	public byte getProductCategory() {
+		return productCategory;
+	}
+
+	public void setProductCategory(byte productCategory) {
+		this.productCategory = productCategory;
+	}
+
+	public long getInTransit() {
+		return inTransit;
+	}
+
+	public void setInTransit(long inTransit) {
+		this.inTransit = inTransit;
+	}
+
+	public long getOnShelf() {
+		return onShelf;
+	}
+
+	public void setOnShelf(long onShelf) {
+		this.onShelf = onShelf;
+	}
+
+	public long getSold() {
+		return sold;
+	}
+
+	public void setSold(long sold) {
+		this.sold = sold;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + productCategory;
+		result = prime * result + ((retailerId == null) ? 0 : retailerId.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		RetailerInventorySummaryDTO other = (RetailerInventorySummaryDTO) obj;
+		if (productCategory != other.productCategory)
+			return false;
+		return retailerId == null ? other.retailerId == null : retailerId.equals(other.retailerId);
+	}
+
+	@Override
+	public String toString() {
+		return "RetailerInventorySummaryDTO [retailerId=" + retailerId + ", productCategory=" + productCategory
+				+ ", inTransit=" + inTransit + ", onShelf=" + onShelf + ", sold=" + sold + "]";
+	}
+}
@@ -0,0 +1,126 @@
+package com.capgemini.go.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/*******************************************************************************************************
+ * SALES_ROLLUP holds the net revenue and unit count of active order lines
+ * (PRODUCT_STATUS = 1) per order day, product category and ordering user. It
+ * is maintained by SalesRollupDao inside the transactions that place, cancel
+ * and return order lines.
+ ********************************************************************************************************/
+@Entity(name = "SalesRollupDTO")
+@Table(name = "SALES_ROLLUP")
+public class SalesRollupDTO implements Serializable {
+
+	private static final long serialVersionUID = 4126358023372291452L;
+
+	@Id
+	@Temporal(TemporalType.DATE)
+	@Column(name = "SALES_DAY", nullable = false)
+	private Date salesDay;
+
+	@Id
+	@Column(name = "PRODUCT_CATEGORY", nullable = false)
+	private int productCategory;
+
+	@Id
+	@Column(name = "USER_ID", nullable = false, length = 20)
+	private String userId;
+
+	@Column(name = "REVENUE", nullable = false)
+	private double revenue;
+
+	@Column(name = "UNITS", nullable = false)
+	private long units;
+
+	public SalesRollupDTO() {
+		super();
+	}
+
+	public SalesRollupDTO(Date salesDay, int productCategory, String userId, double revenue, long units) {
+		super();
+		this.salesDay = salesDay;
+		this.productCategory = productCategory;
+		this.userId = userId;
+		this.revenue = revenue;
+		this.units = units;
+	}
+
+	public Date getSalesDay() {
+		return salesDay;
+	}
+
+	public void setSalesDay(Date salesDay) {
+		this.salesDay = salesDay;
+	}
+
+	public int getProductCategory() {
+		return productCategory;
+	}
+
+	public void setProductCategory(int productCategory) {
+		this.productCategory = productCategory;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public double getRevenue() {
+		return revenue;
+	}
+
+	public void setRevenue(double revenue) {
+		this.revenue = revenue;
+	}
+
+	public long getUnits() {
+		return units;
+	}
+
+	public void setUnits(long units) {
+		this.units = units;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + productCategory;
+		result = prime * result + ((salesDay == null) ? 0 : salesDay.hashCode());
+		result = prime * result + ((userId == null) ? 0 : userId.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		SalesRollupDTO other = (SalesRollupDTO) obj;
+		if (productCategory != other.productCategory)
+			return false;
+		if (salesDay == null ? other.salesDay != null : !salesDay.equals(other.salesDay))
+			return false;
+		return userId == null ? other.userId == null : userId.equals(other.userId);
+	}
+
+	@Override
+	public String toString() {
+		return "SalesRollupDTO [salesDay=" + salesDay + ", productCategory=" + productCategory + ", userId=" + userId
+				+ ", revenue=" + revenue + ", units=" + units + "]";
+	}
+}
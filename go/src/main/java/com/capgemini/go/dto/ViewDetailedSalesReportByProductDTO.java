@@ -8,6 +8,9 @@ public class ViewDetailedSalesReportByProductDTO {
 	private Double percentageGrowth;
 	private String code;
 	private String type;
+	// approximate distinct counts of the period, null when the sketches are not loaded
+	private Long distinctRetailers;
+	private Long distinctProducts;
 
 	public ViewDetailedSalesReportByProductDTO(int period, Double revenue, Double amountChange, Double percentageGrowth,
 			String code, String type) {
@@ -72,6 +75,22 @@ public class ViewDetailedSalesReportByProductDTO {
 		this.type = type;
 	}
 
+	public Long getDistinctRetailers() {
+		return distinctRetailers;
+	}
+
+	public void setDistinctRetailers(Long distinctRetailers) {
+		this.distinctRetailers = distinctRetailers;
+	}
+
+	public Long getDistinctProducts() {
+		return distinctProducts;
+	}
+
+	public void setDistinctProducts(Long distinctProducts) {
+		this.distinctProducts = distinctProducts;
+	}
+
 	public void printData() {
 
 		System.out.printf("%-25s %-25.2f %-25.2f %-25.2f %-25s %-25s %n", period, revenue, amountChange,
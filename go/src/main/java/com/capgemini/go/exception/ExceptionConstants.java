@@ -42,6 +42,11 @@ public class ExceptionConstants {
 	public static final String INVALID_DATE = "The given date is invalid";
 	public static final String EMPTY_DATABASE = "The database is empty";
 	public static final String ERROR_IN_VIEWING = "The Reports cant be viewed >>>";
+	public static final String ROLLUP_REBUILD_FAILURE = "Unable to rebuild the sales rollup >>>";
+	public static final String SALES_STORE_NOT_LOADED = "The in-memory sales store has not been loaded";
+	public static final String REPORT_JOB_QUEUE_FULL = "Too many report jobs are waiting, try again later";
+	public static final String REPORT_JOB_NOT_FOUND = "No report job with this id >>>";
+	public static final String REPORT_JOB_NOT_FINISHED = "The report job has not finished >>>";
 	// END OF REPORT CONSTANT
 
 	// WISHLIST EXCEPTION CONSTANTS
@@ -69,4 +74,9 @@ public class ExceptionConstants {
 	public static final String RETURN_ORDER_ERROR="Return Order request failed";
 	public static final String RETURN_PRODUCT_ERROR="Return Product request failed";
 
+	// Audit Writer Constants
+	public static final String WRITER_NOT_RUNNING="Audit writer is not accepting rows";
+	public static final String AUDIT_WRITE_FAILURE="Unable to write audit rows to the database ";
+	public static final String AUDIT_WRITE_TIMEOUT="Audit rows were not committed within ";
+
 }
@@ -1,21 +1,41 @@
 package com.capgemini.go.service;
 
+import java.io.IOException;
 import java.net.ConnectException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
 
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.capgemini.go.bean.DistinctCountBean;
+import com.capgemini.go.bean.SalesActivityEvent;
+import com.capgemini.go.bean.TopSalesBean;
+import com.capgemini.go.dto.SalesRollupDTO;
 import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
 import com.capgemini.go.dto.ViewSalesReportByUserDTO;
 
 import com.capgemini.go.dao.GoAdminReportsDao;
 import com.capgemini.go.dao.GoAdminReportsDaoImpl;
 import com.capgemini.go.dao.ProductDao;
+import com.capgemini.go.dao.SalesRollupDao;
+import com.capgemini.go.exception.ExceptionConstants;
 import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.utility.GrowthReportCalculator;
+import com.capgemini.go.utility.ReportCache;
+import com.capgemini.go.utility.RowHandler;
+import com.capgemini.go.utility.SalesColumnStore;
 
 @Service(value = "goAdminReportService")
 public class GoAdminReportServiceImpl implements GoAdminReportsService {
@@ -33,6 +53,63 @@ public class GoAdminReportServiceImpl implements GoAdminReportsService {
 		this.goAdminReportsDao = goAdminReportsDao;
 	}
 
+	@Autowired
+	private SalesRollupDao salesRollupDao;
+
+	public SalesRollupDao getSalesRollupDao() {
+		return salesRollupDao;
+	}
+
+	public void setSalesRollupDao(SalesRollupDao salesRollupDao) {
+		this.salesRollupDao = salesRollupDao;
+	}
+
+	@Autowired
+	private SalesAnalyticsService salesAnalyticsService;
+
+	public SalesAnalyticsService getSalesAnalyticsService() {
+		return salesAnalyticsService;
+	}
+
+	public void setSalesAnalyticsService(SalesAnalyticsService salesAnalyticsService) {
+		this.salesAnalyticsService = salesAnalyticsService;
+	}
+
+	@Value("${reports.cache.max.entries:500}")
+	private int cacheMaxEntries;
+
+	@Value("${reports.cache.ttl.ms:300000}")
+	private long cacheTtlMillis;
+
+	private ReportCache reportCache;
+
+	@PostConstruct
+	public void createReportCache() {
+		reportCache = new ReportCache("goAdminReports", cacheMaxEntries, cacheTtlMillis);
+	}
+
+	// orders, cancels and returns change the reports covering the day the order was placed
+	@EventListener
+	public void onSalesActivity(SalesActivityEvent event) {
+		reportCache.invalidateDay(SalesColumnStore.toEpochDay(event.getSalesLine().getOrderDate()));
+	}
+
+	public Map<String, Object> getReportCacheStats() {
+		return reportCache.getStats();
+	}
+
+	// the DAO also declares ConnectException, which a single-exception loader cannot carry
+	private <V> V cached(String key, int fromDay, int toDay, ReportCache.Loader<V, Exception> loader)
+			throws GoAdminException, ConnectException {
+		try {
+			return reportCache.get(key, fromDay, toDay, loader);
+		} catch (GoAdminException | ConnectException | RuntimeException exp) {
+			throw exp;
+		} catch (Exception exp) {
+			throw new GoAdminException(ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage());
+		}
+	}
+
 	// ------------------------ GreatOutdoor Application --------------------------
 	/*******************************************************************************************************
 	 * Function Name : viewSalesReportByUserAndCategory Input Parameters :
@@ -43,8 +120,26 @@ public class GoAdminReportServiceImpl implements GoAdminReportsService {
 
 	public List<ViewSalesReportByUserDTO> viewSalesReportByUserAndCategory(Date entry, Date exit, String TargetuserId,
 			int category) throws GoAdminException, ConnectException {
-		return goAdminReportsDao.viewSalesReportByUserAndCategory(entry, exit, TargetuserId, category);
+		if (entry == null || exit == null) {
+			return goAdminReportsDao.viewSalesReportByUserAndCategory(entry, exit, TargetuserId, category);
+		}
+		return cached(ReportCache.key("salesReport", entry, exit, TargetuserId, category),
+				SalesColumnStore.toEpochDay(entry), SalesColumnStore.toEpochDay(exit),
+				() -> Collections.unmodifiableList(
+						goAdminReportsDao.viewSalesReportByUserAndCategory(entry, exit, TargetuserId, category)));
+	}
+
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * Function Name : streamSalesReportByUserAndCategory Input Parameters :
+	 * TargetuserId , entry , exit , category , handler Return Type : int Throws :
+	 * GoAdminException, IOException Description : Streams the sales report rows to
+	 * the handler without building a list
+	 ********************************************************************************************************/
 
+	public int streamSalesReportByUserAndCategory(Date entry, Date exit, String TargetuserId, int category,
+			RowHandler<ViewSalesReportByUserDTO> handler) throws GoAdminException, IOException {
+		return goAdminReportsDao.streamSalesReportByUserAndCategory(entry, exit, TargetuserId, category, handler);
 	}
 
 	// ------------------------ GreatOutdoor Application --------------------------
@@ -57,8 +152,132 @@ public class GoAdminReportServiceImpl implements GoAdminReportsService {
 
 	public List<ViewDetailedSalesReportByProductDTO> viewDetailedSalesReportByProduct(Date entry, Date exit, int cat)
 			throws GoAdminException, ConnectException {
+		if (entry == null || exit == null) {
+			return goAdminReportsDao.viewDetailedSalesReportByProduct(entry, exit, cat);
+		}
+		// the growth report always covers whole years
+		int fromDay = (int) LocalDate.of(entry.getYear() + 1900, 1, 1).toEpochDay();
+		int toDay = (int) LocalDate.of(exit.getYear() + 1900, 12, 31).toEpochDay();
+		return cached(ReportCache.key("growthReport", entry.getYear(), exit.getYear(), cat), fromDay, toDay, () -> {
+			List<ViewDetailedSalesReportByProductDTO> rows = goAdminReportsDao.viewDetailedSalesReportByProduct(entry,
+					exit, cat);
+			addDistinctCounts(rows, entry.getYear() + 1900);
+			return Collections.unmodifiableList(rows);
+		});
+	}
+
+	// rows come in year order from startYear: twelve per year for MONTH, four for QUARTER, one for YEAR
+	private void addDistinctCounts(List<ViewDetailedSalesReportByProductDTO> rows, int startYear) {
+		try {
+			for (int i = 0; i < rows.size(); i++) {
+				ViewDetailedSalesReportByProductDTO row = rows.get(i);
+				LocalDate from;
+				LocalDate to;
+				if (GrowthReportCalculator.MONTH.equals(row.getType())) {
+					from = LocalDate.of(startYear + i / 12, row.getPeriod() + 1, 1);
+					to = from.plusMonths(1).minusDays(1);
+				} else if (GrowthReportCalculator.QUARTER.equals(row.getType())) {
+					from = LocalDate.of(startYear + i / 4, row.getPeriod() * 3 + 1, 1);
+					to = from.plusMonths(3).minusDays(1);
+				} else {
+					from = LocalDate.of(row.getPeriod(), 1, 1);
+					to = LocalDate.of(row.getPeriod(), 12, 31);
+				}
+				DistinctCountBean distinct = salesAnalyticsService.countDistinct(from, to);
+				row.setDistinctRetailers(distinct.getDistinctRetailers());
+				row.setDistinctProducts(distinct.getDistinctProducts());
+			}
+		} catch (GoAdminException exp) {
+			// the in-memory analytics are disabled or not loaded yet; the report goes out without the counts
+			logger.debug("addDistinctCounts - " + exp.getMessage());
+		}
+	}
+
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * Function Name : viewRevenueSummaryByUserAndCategory Input Parameters :
+	 * TargetuserId , entry , exit , category Return Type : List Throws :
+	 * GoAdminException Description : Net revenue and units per day, product
+	 * category and user from SALES_ROLLUP
+	 ********************************************************************************************************/
 
-		return goAdminReportsDao.viewDetailedSalesReportByProduct(entry, exit, cat);
+	public List<SalesRollupDTO> viewRevenueSummaryByUserAndCategory(Date entry, Date exit, String TargetuserId,
+			int category) throws GoAdminException {
+		if (entry == null || exit == null) {
+			return goAdminReportsDao.viewRevenueSummaryByUserAndCategory(entry, exit, TargetuserId, category);
+		}
+		return reportCache.get(ReportCache.key("revenueSummary", entry, exit, TargetuserId, category),
+				SalesColumnStore.toEpochDay(entry), SalesColumnStore.toEpochDay(exit),
+				() -> Collections.unmodifiableList(
+						goAdminReportsDao.viewRevenueSummaryByUserAndCategory(entry, exit, TargetuserId, category)));
+	}
+
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * Function Name : viewTopProducts Input Parameters : entry , exit , count ,
+	 * byUnits Return Type : List Throws : GoAdminException Description : The count
+	 * best selling products of the days entry..exit by revenue or units
+	 ********************************************************************************************************/
+
+	public List<TopSalesBean> viewTopProducts(Date entry, Date exit, int count, boolean byUnits)
+			throws GoAdminException {
+		if (entry == null || exit == null) {
+			return goAdminReportsDao.viewTopProducts(entry, exit, count, byUnits);
+		}
+		return reportCache.get(ReportCache.key("topProducts", entry, exit, count, byUnits),
+				SalesColumnStore.toEpochDay(entry), SalesColumnStore.toEpochDay(exit),
+				() -> Collections.unmodifiableList(goAdminReportsDao.viewTopProducts(entry, exit, count, byUnits)));
+	}
+
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * Function Name : viewTopCategoriesByUser Input Parameters : entry , exit ,
+	 * count , byUnits Return Type : List Throws : GoAdminException Description : The
+	 * count best selling product categories of every user in the days entry..exit
+	 ********************************************************************************************************/
+
+	public List<TopSalesBean> viewTopCategoriesByUser(Date entry, Date exit, int count, boolean byUnits)
+			throws GoAdminException {
+		if (entry == null || exit == null) {
+			return goAdminReportsDao.viewTopCategoriesByUser(entry, exit, count, byUnits);
+		}
+		return reportCache.get(ReportCache.key("topCategoriesByUser", entry, exit, count, byUnits),
+				SalesColumnStore.toEpochDay(entry), SalesColumnStore.toEpochDay(exit), () -> Collections
+						.unmodifiableList(goAdminReportsDao.viewTopCategoriesByUser(entry, exit, count, byUnits)));
+	}
+
+	// ------------------------ GreatOutdoor Application --------------------------
+	/*******************************************************************************************************
+	 * Function Name : rebuildSalesRollup Return Type : int Throws :
+	 * GoAdminException Description : Full rebuild of SALES_ROLLUP, for backfill and
+	 * repair
+	 ********************************************************************************************************/
+
+	public int rebuildSalesRollup() throws GoAdminException {
+		int rollupRows = salesRollupDao.rebuildRollup();
+		reportCache.invalidateAll();
+		return rollupRows;
+	}
+
+	// the rollup is only maintained incrementally once it exists, so an empty table is backfilled at startup
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfillSalesRollup() {
+		try {
+			if (salesRollupDao.isRollupEmpty()) {
+				salesRollupDao.rebuildRollup();
+			}
+		} catch (GoAdminException exp) {
+			logger.error("backfillSalesRollup - " + exp.getMessage());
+		}
+	}
 
+	// periodic repair in case the rollup drifted from ORDER_PRODUCT_MAP through out-of-band changes
+	@Scheduled(cron = "${salesrollup.rebuild.cron:0 30 2 * * *}")
+	public void scheduledSalesRollupRebuild() {
+		try {
+			rebuildSalesRollup();
+		} catch (GoAdminException exp) {
+			logger.error("scheduledSalesRollupRebuild - " + exp.getMessage());
+		}
 	}
 }
@@ -1,12 +1,17 @@
 package com.capgemini.go.service;
 
+import java.io.IOException;
 import java.net.ConnectException;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
+import com.capgemini.go.bean.TopSalesBean;
+import com.capgemini.go.dto.SalesRollupDTO;
 import com.capgemini.go.dto.ViewSalesReportByUserDTO;
 import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
 import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.utility.RowHandler;
 
 public interface GoAdminReportsService {
 	
@@ -27,6 +32,17 @@ public interface GoAdminReportsService {
 		List<ViewSalesReportByUserDTO> viewSalesReportByUserAndCategory(Date entry, Date exit, String TargetuserId,
 				int category) throws GoAdminException,ConnectException;
 
+		// ------------------------ GreatOutdoor Application --------------------------
+			/*******************************************************************************************************
+			 * Function Name : streamSalesReportByUserAndCategory 
+			 * Input Parameters : entry ,exit , targetuserId, category, handler 
+			 * Return Type : int 
+			 * Throws : GoAdmin Exception, IOException
+			 * Description : Passes the sales report rows to the handler as they are read from the database
+			 ********************************************************************************************************/
+		int streamSalesReportByUserAndCategory(Date entry, Date exit, String TargetuserId, int category,
+				RowHandler<ViewSalesReportByUserDTO> handler) throws GoAdminException, IOException;
+
 		// ------------------------ GreatOutdoor Application --------------------------
 			/*******************************************************************************************************
 			 * Function Name : viewDetailedSalesReportByProduct 
@@ -45,7 +61,53 @@ public interface GoAdminReportsService {
 		List<ViewDetailedSalesReportByProductDTO> viewDetailedSalesReportByProduct(Date entry, Date exit, int cat)
 				 throws GoAdminException,ConnectException;
 
-	
-	
+		// ------------------------ GreatOutdoor Application --------------------------
+			/*******************************************************************************************************
+			 * Function Name : viewRevenueSummaryByUserAndCategory 
+			 * Input Parameters : entry ,exit , targetuserId, category 
+			 * Return Type : List 
+			 * Throws : GoAdmin Exception
+			 * Description : Net revenue and units per day, product category and user from SALES_ROLLUP
+			 ********************************************************************************************************/
+		List<SalesRollupDTO> viewRevenueSummaryByUserAndCategory(Date entry, Date exit, String TargetuserId,
+				int category) throws GoAdminException;
+
+		// ------------------------ GreatOutdoor Application --------------------------
+			/*******************************************************************************************************
+			 * Function Name : viewTopProducts 
+			 * Input Parameters : entry ,exit , count, byUnits 
+			 * Return Type : List 
+			 * Throws : GoAdmin Exception
+			 * Description : The count best selling products of the days entry..exit by revenue or units
+			 ********************************************************************************************************/
+		List<TopSalesBean> viewTopProducts(Date entry, Date exit, int count, boolean byUnits) throws GoAdminException;
+
+		// ------------------------ GreatOutdoor Application --------------------------
+			/*******************************************************************************************************
+			 * Function Name : viewTopCategoriesByUser 
+			 * Input Parameters : entry ,exit , count, byUnits 
+			 * Return Type : List 
+			 * Throws : GoAdmin Exception
+			 * Description : The count best selling product categories of every user in the days entry..exit
+			 ********************************************************************************************************/
+		List<TopSalesBean> viewTopCategoriesByUser(Date entry, Date exit, int count, boolean byUnits)
+				throws GoAdminException;
+
+		// ------------------------ GreatOutdoor Application --------------------------
+			/*******************************************************************************************************
+			 * Function Name : rebuildSalesRollup 
+			 * Return Type : int 
+			 * Throws : GoAdmin Exception
+			 * Description : Recomputes SALES_ROLLUP from the active order lines; returns the number of rollup rows
+			 ********************************************************************************************************/
+		int rebuildSalesRollup() throws GoAdminException;
+
+		// ------------------------ GreatOutdoor Application --------------------------
+			/*******************************************************************************************************
+			 * Function Name : getReportCacheStats 
+			 * Return Type : Map 
+			 * Description : Size, hit, miss, eviction, expiration and invalidation counts of the report cache
+			 ********************************************************************************************************/
+		Map<String, Object> getReportCacheStats();
 
 }
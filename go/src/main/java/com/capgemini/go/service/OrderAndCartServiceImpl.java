@@ -3,6 +3,7 @@ package com.capgemini.go.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.capgemini.go.bean.SalesActivityEvent.ActivityType;
 import com.capgemini.go.dao.OrderAndCartDao;
 import com.capgemini.go.dto.CartDTO;
 import com.capgemini.go.dto.OrderDTO;
@@ -25,6 +26,17 @@ public class OrderAndCartServiceImpl implements OrderAndCartService {
 		this.orderAndCartDao = orderAndCartDao;
 	}
 
+	@Autowired
+	private SalesActivityPublisher salesActivityPublisher;
+
+	public SalesActivityPublisher getSalesActivityPublisher() {
+		return salesActivityPublisher;
+	}
+
+	public void setSalesActivityPublisher(SalesActivityPublisher salesActivityPublisher) {
+		this.salesActivityPublisher = salesActivityPublisher;
+	}
+
 	/*******************************************************************************************************
 	 * Function Name : addItemToCart <br>
 	 * Input Parameters : CartDTO (retailerId, productId, quantity) <br>
@@ -114,6 +126,10 @@ public class OrderAndCartServiceImpl implements OrderAndCartService {
 				orderProductMapEntity.getProductStatus(), orderProductMapEntity.getGiftStatus());
 		
 		boolean OrderProductMapInserted = orderAndCartDao.insertOrderProductMapEntity(orderProductMap);
+		if (OrderProductMapInserted && orderProductMap.getProductStatus() == 1) {
+			salesActivityPublisher.publish(orderProductMap.getOrderId(), orderProductMap.getProductId(), 1,
+					ActivityType.ORDER);
+		}
 		return OrderProductMapInserted;
 	}
 
@@ -0,0 +1,32 @@
+package com.capgemini.go.service;
+
+import java.util.Date;
+
+import com.capgemini.go.bean.ReportJob;
+import com.capgemini.go.exception.GoAdminException;
+
+public interface ReportJobService {
+
+	/*******************************************************************************************************
+	 * - Function Name : submitGrowthReport - Input Parameters : entry, exit,
+	 * reportType - Return Type : ReportJob - Throws : GoAdminException -
+	 * Description : queues a growth report; fails at once when the report job
+	 * queue is full
+	 ********************************************************************************************************/
+	ReportJob submitGrowthReport(Date entry, Date exit, int reportType) throws GoAdminException;
+
+	/*******************************************************************************************************
+	 * - Function Name : submitShelfTimeReport - Input Parameters : retailerId,
+	 * reportType - Return Type : ReportJob - Throws : GoAdminException -
+	 * Description : queues a shelf time report for one retailer or, with "ALL",
+	 * for every retailer; fails at once when the report job queue is full
+	 ********************************************************************************************************/
+	ReportJob submitShelfTimeReport(String retailerId, int reportType) throws GoAdminException;
+
+	/*******************************************************************************************************
+	 * - Function Name : getJob - Input Parameters : jobId - Return Type : ReportJob
+	 * - Throws : GoAdminException - Description : the job with this id, until it is
+	 * removed some time after finishing
+	 ********************************************************************************************************/
+	ReportJob getJob(String jobId) throws GoAdminException;
+}
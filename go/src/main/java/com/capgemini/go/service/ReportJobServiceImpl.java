@@ -0,0 +1,217 @@
+package com.capgemini.go.service;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.capgemini.go.bean.ReportJob;
+import com.capgemini.go.bean.RetailerInventoryBean;
+import com.capgemini.go.bean.ShelfTimeReportBean;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.exception.RetailerInventoryException;
+
+@Service(value = "reportJobService")
+public class ReportJobServiceImpl implements ReportJobService {
+
+	private Logger logger = Logger.getRootLogger();
+
+	@Autowired
+	private GoAdminReportsService goAdminReportsService;
+
+	@Autowired
+	private RetailerInventoryService retailerInventoryService;
+
+	public void setGoAdminReportsService(GoAdminReportsService goAdminReportsService) {
+		this.goAdminReportsService = goAdminReportsService;
+	}
+
+	public void setRetailerInventoryService(RetailerInventoryService retailerInventoryService) {
+		this.retailerInventoryService = retailerInventoryService;
+	}
+
+	// each job thread holds at most one DB connection, so this is also the reporting connection budget
+	@Value("${reports.jobs.threads:2}")
+	private int threads;
+
+	@Value("${reports.jobs.queue.capacity:20}")
+	private int queueCapacity;
+
+	@Value("${reports.jobs.retention.ms:3600000}")
+	private long retentionMillis;
+
+	private ThreadPoolExecutor executor;
+
+	private final ConcurrentHashMap<String, ReportJob> jobs = new ConcurrentHashMap<String, ReportJob>();
+
+	/**
+	 * - Description : one step of a report job; steps run one after another on a job thread
+	 */
+	private interface Step {
+		List<?> run() throws Exception;
+	}
+
+	/**
+	 * - Description : builds the steps of a report job once it starts, so that lookups needed to plan
+	 * the job also run on the job thread
+	 */
+	private interface Plan {
+		List<Step> steps() throws Exception;
+	}
+
+	@PostConstruct
+	public void startExecutor() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	@PreDestroy
+	public void stopExecutor() {
+		executor.shutdownNow();
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : submitGrowthReport - Description : the growth report is a
+	 * single step
+	 ********************************************************************************************************/
+	@Override
+	public ReportJob submitGrowthReport(Date entry, Date exit, int reportType) throws GoAdminException {
+		ReportJob job = new ReportJob(UUID.randomUUID().toString(), ReportJob.Kind.GROWTH, reportType);
+		return submit(job, () -> Collections.<Step>singletonList(
+				() -> goAdminReportsService.viewDetailedSalesReportByProduct(entry, exit, reportType)));
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : submitShelfTimeReport - Description : one step per
+	 * retailer; for "ALL", retailers without data for the report are skipped
+	 ********************************************************************************************************/
+	@Override
+	public ReportJob submitShelfTimeReport(String retailerId, int reportType) throws GoAdminException {
+		ReportJob job = new ReportJob(UUID.randomUUID().toString(), ReportJob.Kind.SHELF_TIME, reportType);
+		if (!retailerId.equalsIgnoreCase("ALL")) {
+			return submit(job,
+					() -> Collections.<Step>singletonList(() -> shelfTimeReport(retailerId, reportType, false)));
+		}
+		return submit(job, () -> {
+			List<Step> steps = new ArrayList<Step>();
+			for (RetailerInventoryBean retailer : retailerInventoryService.getListOfRetailers()) {
+				steps.add(() -> shelfTimeReport(retailer.getRetailerId(), reportType, true));
+			}
+			return steps;
+		});
+	}
+
+	@Override
+	public ReportJob getJob(String jobId) throws GoAdminException {
+		ReportJob job = jobs.get(jobId);
+		if (job == null) {
+			throw new GoAdminException(ExceptionConstants.REPORT_JOB_NOT_FOUND + jobId);
+		}
+		return job;
+	}
+
+	private ReportJob submit(ReportJob job, Plan plan) throws GoAdminException {
+		jobs.put(job.getJobId(), job);
+		try {
+			executor.execute(() -> run(job, plan));
+		} catch (RejectedExecutionException error) {
+			jobs.remove(job.getJobId());
+			logger.error("submit - " + ExceptionConstants.REPORT_JOB_QUEUE_FULL);
+			throw new GoAdminException(ExceptionConstants.REPORT_JOB_QUEUE_FULL);
+		}
+		logger.info("submit - report job " + job.getJobId() + " (" + job.getKind() + ") queued");
+		return job;
+	}
+
+	private void run(ReportJob job, Plan plan) {
+		try {
+			job.start();
+			List<Step> steps = plan.steps();
+			List<Object> rows = new ArrayList<Object>();
+			job.planned(steps.size());
+			for (Step step : steps) {
+				List<?> stepRows = step.run();
+				if (stepRows != null) {
+					rows.addAll(stepRows);
+				}
+				job.stepCompleted();
+			}
+			job.finish(rows);
+			logger.info("run - report job " + job.getJobId() + " done, " + rows.size() + " rows in "
+					+ (job.getFinishedAt() - job.getStartedAt()) + " ms");
+		} catch (Exception error) {
+			logger.error("run - report job " + job.getJobId() + " failed - " + error.getMessage());
+			job.fail(error.getMessage() == null ? error.toString() : error.getMessage());
+		}
+	}
+
+	private List<ShelfTimeReportBean> shelfTimeReport(String retailerId, int reportType, boolean skipMissing)
+			throws RetailerInventoryException {
+		Calendar dateSelection = Calendar.getInstance();
+		List<ShelfTimeReportBean> result;
+		try {
+			switch (reportType) {
+			case 1:
+				result = retailerInventoryService.getMonthlyShelfTimeReport(retailerId, dateSelection);
+				break;
+			case 2:
+				result = retailerInventoryService.getQuarterlyShelfTimeReport(retailerId, dateSelection);
+				break;
+			case 3:
+				result = retailerInventoryService.getYearlyShelfTimeReport(retailerId, dateSelection);
+				break;
+			default:
+				throw new RetailerInventoryException("Invalid Argument Received");
+			}
+		} catch (RetailerInventoryException error) {
+			// only a retailer without data is skipped; a database failure fails the whole job
+			if (skipMissing && error.getMessage() != null
+					&& error.getMessage().endsWith(ExceptionConstants.NO_DATA_FOUND)) {
+				logger.info("shelfTimeReport - skipping " + retailerId + " - " + error.getMessage());
+				return null;
+			}
+			throw error;
+		}
+		if (result == null && !skipMissing) {
+			throw new RetailerInventoryException("Data could not be obtained from database");
+		}
+		return result;
+	}
+
+	// finished jobs are kept for polling for the retention period, then dropped with their rows
+	@Scheduled(fixedDelayString = "${reports.jobs.cleanup.interval.ms:60000}")
+	public void removeExpiredJobs() {
+		long cutoff = System.currentTimeMillis() - retentionMillis;
+		Iterator<ReportJob> iterator = jobs.values().iterator();
+		while (iterator.hasNext()) {
+			ReportJob job = iterator.next();
+			if (job.getFinishedAt() != 0 && job.getFinishedAt() < cutoff) {
+				iterator.remove();
+			}
+		}
+	}
+}
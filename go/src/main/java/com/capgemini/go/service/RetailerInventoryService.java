@@ -2,46 +2,54 @@ package com.capgemini.go.service;
 
 import java.util.Calendar;
 import java.util.List;
+import java.util.Map;
 
+import com.capgemini.go.bean.DeliveryTimeOutlierBean;
+import com.capgemini.go.bean.DeliveryTimeStatsBean;
+import com.capgemini.go.bean.InventoryStateCountBean;
 import com.capgemini.go.bean.RetailerInventoryBean;
+import com.capgemini.go.bean.RetailerInventoryPageBean;
+import com.capgemini.go.bean.ShelfTimeReportBean;
+import com.capgemini.go.bean.TimeHistogramBean;
 import com.capgemini.go.exception.RetailerInventoryException;
 
 public interface RetailerInventoryService {
 	// Shelf Time Report and Delivery Time Report
 	/*******************************************************************************************************
 	 * - Function Name : getMonthlyShelfTimeReport <br>
-	 * - Description : to get Monthly Shelf Time Report  <br>
+	 * - Description : to get Monthly Shelf Time Report: item count and average, minimum and maximum  <br>
+	 * shelf days per sale month and product category of the year of dateSelection  <br>
 	 * 
 	 * @param String retailerId
 	 * @param Calendar dateSelection
-	 * @return List<RetailerInventoryBean>
+	 * @return List<ShelfTimeReportBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getMonthlyShelfTimeReport(String retailerId, Calendar dateSelection)
+	public List<ShelfTimeReportBean> getMonthlyShelfTimeReport(String retailerId, Calendar dateSelection)
 			throws RetailerInventoryException;
 
 	/*******************************************************************************************************
 	 * - Function Name : getQuarterlyShelfTimeReport <br>
-	 * - Description : to get Quarterly Shelf Time Report  <br>
+	 * - Description : to get Quarterly Shelf Time Report, per sale quarter and product category  <br>
 	 * 
 	 * @param String retailerId
 	 * @param Calendar dateSelection
-	 * @return List<RetailerInventoryBean>
+	 * @return List<ShelfTimeReportBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getQuarterlyShelfTimeReport(String retailerId, Calendar dateSelection)
+	public List<ShelfTimeReportBean> getQuarterlyShelfTimeReport(String retailerId, Calendar dateSelection)
 			throws RetailerInventoryException;
 
 	/*******************************************************************************************************
 	 * - Function Name : getYearlyShelfTimeReport <br>
-	 * - Description : to get Yearly Shelf Time Report  <br>
+	 * - Description : to get Yearly Shelf Time Report, per sale year and product category  <br>
 	 * 
 	 * @param String retailerId
 	 * @param Calendar dateSelection
-	 * @return List<RetailerInventoryBean>
+	 * @return List<ShelfTimeReportBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getYearlyShelfTimeReport(String retailerId, Calendar dateSelection)
+	public List<ShelfTimeReportBean> getYearlyShelfTimeReport(String retailerId, Calendar dateSelection)
 			throws RetailerInventoryException;
 
 	/*******************************************************************************************************
@@ -57,24 +65,52 @@ public interface RetailerInventoryService {
 	
 	/*******************************************************************************************************
 	 * - Function Name : getCategoryWiseDeliveryTimeReport <br>
-	 * - Description : to get Category wise Delivery Time Report  <br>
+	 * - Description : to get Category wise Delivery Time Report: item count and mean, standard deviation,  <br>
+	 * minimum and maximum delivery days per product category  <br>
 	 * 
 	 * @param String retailerId
-	 * @return List<RetailerInventoryBean>
+	 * @return List<DeliveryTimeStatsBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getCategoryWiseDeliveryTimeReport(String retailerId)
+	public List<DeliveryTimeStatsBean> getCategoryWiseDeliveryTimeReport(String retailerId)
 			throws RetailerInventoryException;
 	
 	/*******************************************************************************************************
 	 * - Function Name : getOutlierCategoryItemWiseDeliveryTimeReport <br>
-	 * - Description : to get Outlier Category Item wise Delivery Time Report  <br>
+	 * - Description : to get Outlier Category Item wise Delivery Time Report: the items whose delivery  <br>
+	 * days are far (in standard deviations) from the mean of their category  <br>
 	 * 
 	 * @param String retailerId
-	 * @return List<RetailerInventoryBean>
+	 * @return List<DeliveryTimeOutlierBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getOutlierCategoryItemWiseDeliveryTimeReport(String retailerId)
+	public List<DeliveryTimeOutlierBean> getOutlierCategoryItemWiseDeliveryTimeReport(String retailerId)
+			throws RetailerInventoryException;
+
+	/*******************************************************************************************************
+	 * - Function Name : getShelfTimeHistogram <br>
+	 * - Description : to get the number of sold items per shelf days bucket and product category  <br>
+	 * 
+	 * @param String retailerId
+	 * @param int[] upperBounds (ascending, inclusive upper bounds of all buckets but the last; null for the
+	 *              default buckets)
+	 * @return List<TimeHistogramBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public List<TimeHistogramBean> getShelfTimeHistogram(String retailerId, int[] upperBounds)
+			throws RetailerInventoryException;
+
+	/*******************************************************************************************************
+	 * - Function Name : getDeliveryTimeHistogram <br>
+	 * - Description : to get the number of received items per delivery days bucket and product category  <br>
+	 * 
+	 * @param String retailerId
+	 * @param int[] upperBounds (ascending, inclusive upper bounds of all buckets but the last; null for the
+	 *              default buckets)
+	 * @return List<TimeHistogramBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public List<TimeHistogramBean> getDeliveryTimeHistogram(String retailerId, int[] upperBounds)
 			throws RetailerInventoryException;
 	// end of Shelf Time Report and Delivery Time Report
 	
@@ -126,12 +162,56 @@ public interface RetailerInventoryService {
 	 *******************************************************************************************************/
 	public boolean updateItemSaleTimestamp (String retailerId, String productUIN) throws RetailerInventoryException;
 	
+	/*******************************************************************************************************
+	 * - Function Name : updateItemReceiveTimestamps <br>
+	 * - Description : to update the receive timestamp of many items of a retailer in one transaction  <br>
+	 * 
+	 * @return Map<String, Boolean> (per unique id: true if updated | false if not in the retailer's inventory)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public Map<String, Boolean> updateItemReceiveTimestamps (String retailerId, List<String> productUINs,
+			Calendar timestamp) throws RetailerInventoryException;
+	
+	/*******************************************************************************************************
+	 * - Function Name : updateItemSaleTimestamps <br>
+	 * - Description : to update the sale timestamp of many items of a retailer in one transaction  <br>
+	 * 
+	 * @return Map<String, Boolean> (per unique id: true if updated | false if not in the retailer's inventory)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public Map<String, Boolean> updateItemSaleTimestamps (String retailerId, List<String> productUINs,
+			Calendar timestamp) throws RetailerInventoryException;
+	
 	/*******************************************************************************************************
 	 * - Function Name : getInventoryById <br>
-	 * - Description : to get inventory of a particular retailer <br>
+	 * - Description : to get one page of the inventory of a particular retailer, in unique id order <br>
 	 * 
-	 * @return List<RetailerInventoryBean>
+	 * @param String retailerId
+	 * @param byte   productCategory (0 for every category)
+	 * @param String cursor          (nextCursor of the previous page, null for the first page)
+	 * @param int    pageSize        (0 for the default page size)
+	 * @return RetailerInventoryPageBean
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public RetailerInventoryPageBean getInventoryById (String retailerId, byte productCategory, String cursor,
+			int pageSize) throws RetailerInventoryException;
+	
+	/*******************************************************************************************************
+	 * - Function Name : getReportCacheStats <br>
+	 * - Description : size, hit, miss, eviction, expiration and invalidation counts of the report cache <br>
+	 * 
+	 * @return Map<String, Object>
+	 *******************************************************************************************************/
+	public Map<String, Object> getReportCacheStats();
+	
+	/*******************************************************************************************************
+	 * - Function Name : getInventoryStateCounts <br>
+	 * - Description : to get the number of items of a retailer in transit, on shelf and sold per product <br>
+	 * category, from the counters kept up to date by the inventory updates (no database access)  <br>
+	 * 
+	 * @param String retailerId
+	 * @return List<InventoryStateCountBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getInventoryById (String retailerId) throws RetailerInventoryException;
+	public List<InventoryStateCountBean> getInventoryStateCounts (String retailerId) throws RetailerInventoryException;
 }
@@ -1,29 +1,53 @@
 package com.capgemini.go.service;
 
-import java.time.Period;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Calendar;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.TimeZone;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.capgemini.go.bean.DeliveryTimeOutlierBean;
+import com.capgemini.go.bean.DeliveryTimeStatsBean;
+import com.capgemini.go.bean.InventoryStateCountBean;
 import com.capgemini.go.bean.RetailerInventoryBean;
+import com.capgemini.go.bean.RetailerInventoryPageBean;
+import com.capgemini.go.bean.SalesActivityEvent;
+import com.capgemini.go.bean.ShelfTimeReportBean;
+import com.capgemini.go.bean.TimeHistogramBean;
 import com.capgemini.go.dao.ProductDao;
 import com.capgemini.go.dao.RetailerInventoryDao;
+import com.capgemini.go.dao.RetailerInventorySummaryDao;
 import com.capgemini.go.dao.UserDao;
-import com.capgemini.go.dto.ProductDTO;
 import com.capgemini.go.dto.RetailerInventoryDTO;
-import com.capgemini.go.dto.UserDTO;
 import com.capgemini.go.exception.ExceptionConstants;
-import com.capgemini.go.exception.ProductException;
 import com.capgemini.go.exception.RetailerInventoryException;
 import com.capgemini.go.exception.UserException;
 import com.capgemini.go.utility.GoUtility;
+import com.capgemini.go.utility.ReportCache;
+import com.capgemini.go.utility.RetailerRegistry;
+import com.capgemini.go.utility.TimeHistogramBuckets;
 
 @Service (value = "retailerInventoryService")
 public class RetailerInventoryServiceImpl implements RetailerInventoryService {
@@ -54,6 +78,17 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 	
 	@Autowired
 	private ProductDao productDao;
+
+	@Autowired
+	private RetailerInventorySummaryDao retailerInventorySummaryDao;
+
+	public RetailerInventorySummaryDao getRetailerInventorySummaryDao () {
+		return retailerInventorySummaryDao;
+	}
+
+	public void setRetailerInventorySummaryDao (RetailerInventorySummaryDao retailerInventorySummaryDao) {
+		this.retailerInventorySummaryDao = retailerInventorySummaryDao;
+	}
 	
 	public ProductDao getProductDao () {
 		return productDao;
@@ -62,79 +97,155 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 	public void setProductDao (ProductDao productDao) {
 		this.productDao = productDao;
 	}
+
+	@Value("${reports.cache.max.entries:500}")
+	private int cacheMaxEntries;
+
+	@Value("${reports.cache.ttl.ms:300000}")
+	private long cacheTtlMillis;
+
+	private ReportCache reportCache;
+
+	// retailers with items in inventory, maintained by addItemToInventory and deleteItemFromInventory
+	private final RetailerRegistry retailerRegistry = new RetailerRegistry();
+
+	@Value("${reports.outlier.z.score:3.0}")
+	private double outlierZScore;
+
+	@Value("${reports.histogram.bounds:7,30,90}")
+	private int[] histogramBounds;
+
+	@Value("${reports.histogram.max.bounds:20}")
+	private int histogramMaxBounds;
+
+	@Value("${reports.inventory.page.size:100}")
+	private int inventoryPageSize;
+
+	@Value("${reports.inventory.page.max.size:1000}")
+	private int inventoryPageMaxSize;
+
+	@PostConstruct
+	public void createReportCache() {
+		reportCache = new ReportCache("retailerInventoryReports", cacheMaxEntries, cacheTtlMillis);
+	}
+
+	// orders, cancels and returns placed by a retailer change that retailer's inventory
+	@EventListener
+	public void onSalesActivity(SalesActivityEvent event) {
+		invalidateRetailer(event.getSalesLine().getUserId());
+	}
+
+	private void invalidateRetailer(String retailerId) {
+		reportCache.invalidateOwner(retailerId);
+	}
+
+	public Map<String, Object> getReportCacheStats() {
+		return reportCache.getStats();
+	}
 	// Shelf Time Report and Delivery Time Report
 	/*******************************************************************************************************
 	 * - Function Name : getMonthlyShelfTimeReport <br>
-	 * - Description : to get Monthly Shelf Time Report <br>
+	 * - Description : to get Monthly Shelf Time Report: item count and average, minimum and maximum <br>
+	 * shelf days per sale month and product category of the year of dateSelection <br>
 	 * 
 	 * @param String   retailerId
-	 * @param Calendar dateSelection
-	 * @return List<RetailerInventoryBean>
+	 * @param Calendar dateSelection (null for every year)
+	 * @return List<ShelfTimeReportBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getMonthlyShelfTimeReport(String retailerId, Calendar dateSelection)
+	public List<ShelfTimeReportBean> getMonthlyShelfTimeReport(String retailerId, Calendar dateSelection)
 			throws RetailerInventoryException {
-		return null;
+		return getShelfTimeReport("monthlyShelfTime", retailerId, dateSelection, 1);
 	}
 
 	/*******************************************************************************************************
 	 * - Function Name : getQuarterlyShelfTimeReport <br>
-	 * - Description : to get Quarterly Shelf Time Report <br>
+	 * - Description : to get Quarterly Shelf Time Report: as the monthly report, per sale quarter <br>
 	 * 
 	 * @param String   retailerId
-	 * @param Calendar dateSelection
-	 * @return List<RetailerInventoryBean>
+	 * @param Calendar dateSelection (null for every year)
+	 * @return List<ShelfTimeReportBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getQuarterlyShelfTimeReport(String retailerId, Calendar dateSelection)
+	public List<ShelfTimeReportBean> getQuarterlyShelfTimeReport(String retailerId, Calendar dateSelection)
 			throws RetailerInventoryException {
-		return null;
+		return getShelfTimeReport("quarterlyShelfTime", retailerId, dateSelection, 3);
 	}
 
 	/*******************************************************************************************************
 	 * - Function Name : getYearlyShelfTimeReport <br>
-	 * - Description : to get Yearly Shelf Time Report <br>
+	 * - Description : to get Yearly Shelf Time Report: as the monthly report, per sale year <br>
 	 * 
 	 * @param String   retailerId
-	 * @param Calendar dateSelection
-	 * @return List<RetailerInventoryBean>
+	 * @param Calendar dateSelection (null for every year)
+	 * @return List<ShelfTimeReportBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getYearlyShelfTimeReport (String retailerId, Calendar dateSelection)
+	public List<ShelfTimeReportBean> getYearlyShelfTimeReport (String retailerId, Calendar dateSelection)
 			throws RetailerInventoryException {
-		List<RetailerInventoryBean> result = new ArrayList<RetailerInventoryBean> ();
-		
-		RetailerInventoryDTO queryArguments = new RetailerInventoryDTO (retailerId, (byte)0, null, null, null, null, dateSelection);
-		List<RetailerInventoryDTO> listOfSoldItems = this.retailerInventoryDao.getSoldItemsDetails(queryArguments);
+		return getShelfTimeReport("yearlyShelfTime", retailerId, dateSelection, 12);
+	}
+
+	private List<ShelfTimeReportBean> getShelfTimeReport (String report, String retailerId, Calendar dateSelection,
+			int monthsPerPeriod) throws RetailerInventoryException {
+		Integer year = dateSelection == null ? null : dateSelection.get(Calendar.YEAR);
+		return reportCache.get(ReportCache.key(report, retailerId, year), retailerId,
+				() -> Collections.unmodifiableList(loadShelfTimeReport(retailerId, year, monthsPerPeriod)));
+	}
+
+	// the database aggregates per sale month; quarters and years are folded from the months, which is exact
+	// because item counts, shelf day totals, minima and maxima all combine
+	private List<ShelfTimeReportBean> loadShelfTimeReport (String retailerId, Integer year, int monthsPerPeriod)
+			throws RetailerInventoryException {
+		Calendar saleFrom = null;
+		Calendar saleToExclusive = null;
+		if (year != null) {
+			saleFrom = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+			saleFrom.clear();
+			saleFrom.set(year, Calendar.JANUARY, 1);
+			saleToExclusive = (Calendar) saleFrom.clone();
+			saleToExclusive.add(Calendar.YEAR, 1);
+		}
+		List<ShelfTimeReportBean> months = this.retailerInventoryDao.getMonthlyShelfTimeAggregates(retailerId,
+				saleFrom, saleToExclusive);
+		String retailerName;
 		try {
-			List<UserDTO> userList = this.userDao.getUserIdList();
-			
-			for (RetailerInventoryDTO soldItem : listOfSoldItems) {
-				RetailerInventoryBean object = new RetailerInventoryBean ();
-				object.setRetailerId(retailerId);
-				for (UserDTO user : userList) {
-					if (user.getUserId().equals(retailerId)) {
-						object.setRetailerName(user.getUserName());
-						break;
-					}
-				}
-				object.setProductCategoryNumber(soldItem.getProductCategory());
-				object.setProductCategoryName(GoUtility.getCategoryName(soldItem.getProductCategory()));
-				object.setProductUniqueId(soldItem.getProductUniqueId());
-				object.setShelfTimePeriod(GoUtility.calculatePeriod(soldItem.getProductReceiveTimestamp(), 
-						soldItem.getProductSaleTimestamp()));
-				object.setDeliveryTimePeriod(null);
-				result.add(object);
-			}
-			
+			retailerName = getRetailerName(retailerId);
 		} catch (UserException error) {
-			logger.error(error.getMessage());
-			throw new RetailerInventoryException ("getYearlyShelfTimeReport - " + ExceptionConstants.FAILED_TO_RETRIEVE_USERNAME);
-		} catch (RuntimeException error) {
-			logger.error(error.getMessage());
-			throw new RetailerInventoryException ("getYearlyShelfTimeReport - " + ExceptionConstants.INTERNAL_RUNTIME_ERROR);
+			logger.error("getShelfTimeReport - " + error.getMessage());
+			throw new RetailerInventoryException ("getShelfTimeReport - " + ExceptionConstants.FAILED_TO_RETRIEVE_USERNAME);
 		}
-		return result;
+
+		// ordered by period, then category
+		Map<String, ShelfTimeReportBean> periods = new TreeMap<String, ShelfTimeReportBean> ();
+		for (ShelfTimeReportBean month : months) {
+			String period;
+			if (monthsPerPeriod == 1) {
+				period = String.format("%d-%02d", month.getYear(), month.getMonth());
+			} else if (monthsPerPeriod == 3) {
+				period = month.getYear() + "-Q" + ((month.getMonth() - 1) / 3 + 1);
+			} else {
+				period = String.valueOf(month.getYear());
+			}
+			ShelfTimeReportBean bucket = periods.computeIfAbsent(period + "|" + month.getProductCategoryNumber(),
+					key -> new ShelfTimeReportBean ());
+			if (bucket.getPeriod() == null) {
+				bucket.setRetailerId(retailerId);
+				bucket.setRetailerName(retailerName);
+				bucket.setPeriod(period);
+				bucket.setYear(month.getYear());
+				bucket.setMonth(monthsPerPeriod == 12 ? 1 : (month.getMonth() - 1) / monthsPerPeriod * monthsPerPeriod + 1);
+				bucket.setProductCategoryNumber(month.getProductCategoryNumber());
+				bucket.setProductCategoryName(GoUtility.getCategoryName(month.getProductCategoryNumber()));
+			}
+			bucket.merge(month);
+		}
+		return new ArrayList<ShelfTimeReportBean> (periods.values());
+	}
+
+	// the name of the retailer a report is about, looked up once per report; null for an unknown retailer
+	private String getRetailerName (String retailerId) throws UserException {
+		return this.userDao.getUserNames(Collections.singleton(retailerId)).get(retailerId);
 	}
 
 	/*******************************************************************************************************
@@ -147,6 +258,12 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 	 *******************************************************************************************************/
 	public List<RetailerInventoryBean> getItemWiseDeliveryTimeReport (String retailerId)
 			throws RetailerInventoryException {
+		return reportCache.get(ReportCache.key("itemWiseDeliveryTime", retailerId), retailerId,
+				() -> Collections.unmodifiableList(loadItemWiseDeliveryTimeReport(retailerId)));
+	}
+
+	private List<RetailerInventoryBean> loadItemWiseDeliveryTimeReport (String retailerId)
+			throws RetailerInventoryException {
 		logger.info("getItemWiseDeliveryTimeReport - " + "Request for item wise delivery time report received");
 		List<RetailerInventoryBean> result = new ArrayList<RetailerInventoryBean> ();
 		
@@ -154,17 +271,12 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 		List<RetailerInventoryDTO> listOfDeliveredItems = this.retailerInventoryDao.getDeliveredItemsDetails(queryArguments);
 				
 		try {
-			List<UserDTO> userList = this.userDao.getUserIdList();
+			String retailerName = getRetailerName(retailerId);
 			
 			for (RetailerInventoryDTO deliveredItem : listOfDeliveredItems) {
 				RetailerInventoryBean object = new RetailerInventoryBean ();
 				object.setRetailerId(retailerId);
-				for (UserDTO user : userList) {
-					if (user.getUserId().equals(retailerId)) {
-						object.setRetailerName(user.getUserName());
-						break;
-					}
-				}
+				object.setRetailerName(retailerName);
 				object.setProductCategoryNumber(deliveredItem.getProductCategory());
 				object.setProductCategoryName(GoUtility.getCategoryName(deliveredItem.getProductCategory()));
 				object.setProductUniqueId(deliveredItem.getProductUniqueId());
@@ -186,72 +298,35 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 
 	/*******************************************************************************************************
 	 * - Function Name : getCategoryWiseDeliveryTimeReport <br>
-	 * - Description : to get Category wise Delivery Time Report <br>
+	 * - Description : to get Category wise Delivery Time Report: item count and mean, standard deviation, <br>
+	 * minimum and maximum delivery days per product category <br>
 	 * 
 	 * @param String retailerId
-	 * @return List<RetailerInventoryBean>
+	 * @return List<DeliveryTimeStatsBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getCategoryWiseDeliveryTimeReport(String retailerId)
+	public List<DeliveryTimeStatsBean> getCategoryWiseDeliveryTimeReport(String retailerId)
+			throws RetailerInventoryException {
+		return reportCache.get(ReportCache.key("categoryWiseDeliveryTime", retailerId), retailerId,
+				() -> Collections.unmodifiableList(loadCategoryWiseDeliveryTimeReport(retailerId)));
+	}
+
+	// the database computes the per category sums in one pass over the retailer's received items
+	private List<DeliveryTimeStatsBean> loadCategoryWiseDeliveryTimeReport(String retailerId)
 			throws RetailerInventoryException {
 		logger.info("getCategoryWiseDeliveryTimeReport - " + "Request for Category Wise delivery time report received");
-		List<RetailerInventoryBean> result = new ArrayList<RetailerInventoryBean> ();
-		
-		RetailerInventoryDTO queryArguments = new RetailerInventoryDTO (retailerId, (byte)0, null, null, null, null, null);
-		List<RetailerInventoryDTO> listOfDeliveredItems = this.retailerInventoryDao.getDeliveredItemsDetails(queryArguments);
-		
-		Map<Integer, List<RetailerInventoryBean>> map = new HashMap<Integer, List<RetailerInventoryBean>>();
-		for (int category = 1; category <= 5; category++)
-			map.put(category, new ArrayList<RetailerInventoryBean>());
-		
+		List<DeliveryTimeStatsBean> result = this.retailerInventoryDao.getCategoryDeliveryTimeAggregates(retailerId);
+		String retailerName;
 		try {
-			List<UserDTO> userList = this.userDao.getUserIdList();
-			for (RetailerInventoryDTO deliveredItem : listOfDeliveredItems) {
-				RetailerInventoryBean object = new RetailerInventoryBean ();
-				object.setRetailerId(retailerId);
-				for (UserDTO user : userList) {
-					if (user.getUserId().equals(retailerId)) {
-						object.setRetailerName(user.getUserName());
-						break;
-					}
-				}
-				object.setProductCategoryNumber(deliveredItem.getProductCategory());
-				object.setProductCategoryName(GoUtility.getCategoryName(deliveredItem.getProductCategory()));
-				object.setProductUniqueId(deliveredItem.getProductUniqueId());
-				object.setDeliveryTimePeriod(GoUtility.calculatePeriod(deliveredItem.getProductDispatchTimestamp(), deliveredItem.getProductReceiveTimestamp()));
-				object.setShelfTimePeriod(null);
-				map.get(Integer.valueOf(object.getProductCategoryNumber())).add(object);
-			}
-			
-			for (int category = 1; category <= 5; category++) {
-				if (map.get(category).size() != 0) {
-					int years = 0, months = 0, days = 0, count = 0;
-					for (RetailerInventoryBean item : map.get(category)) {
-						years += item.getDeliveryTimePeriod().getYears(); 
-						months += item.getDeliveryTimePeriod().getMonths(); 
-						days += item.getDeliveryTimePeriod().getDays();
-						count ++;
-					}
-					years /= count;
-					months /= count;
-					days /= count;
-					RetailerInventoryBean object = new RetailerInventoryBean ();
-					object.setProductCategoryNumber((byte)category);
-					object.setProductCategoryName(GoUtility.getCategoryName(category));
-					object.setProductUniqueId("----");
-					object.setDeliveryTimePeriod(Period.of(years, months, days));
-					result.add(object);
-				}
-			}
-			
+			retailerName = getRetailerName(retailerId);
 		} catch (UserException error) {
 			logger.error("getCategoryWiseDeliveryTimeReport - " + error.getMessage());
-			error.printStackTrace();
 			throw new RetailerInventoryException ("getCategoryWiseDeliveryTimeReport - " + ExceptionConstants.FAILED_TO_RETRIEVE_USERNAME);
-		} catch (RuntimeException error) {
-			logger.error("getCategoryWiseDeliveryTimeReport - " + error.getMessage());
-			error.printStackTrace();
-			throw new RetailerInventoryException ("getCategoryWiseDeliveryTimeReport - " + ExceptionConstants.INTERNAL_RUNTIME_ERROR);
+		}
+		for (DeliveryTimeStatsBean category : result) {
+			category.setRetailerId(retailerId);
+			category.setRetailerName(retailerName);
+			category.setProductCategoryName(GoUtility.getCategoryName(category.getProductCategoryNumber()));
 		}
 		logger.info("getCategoryWiseDeliveryTimeReport - " + "Sent requested data");
 		return result;
@@ -260,22 +335,128 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 	/*******************************************************************************************************
 	 * - Function Name : get
 	 * OutlierCategoryItemWiseDeliveryTimeReport <br>
-	 * - Description : to get Outlier Category Item wise Delivery Time Report <br>
+	 * - Description : to get Outlier Category Item wise Delivery Time Report: the items whose delivery days <br>
+	 * are at least reports.outlier.z.score standard deviations away from the mean of their category <br>
 	 * 
 	 * @param String retailerId
-	 * @return List<RetailerInventoryBean>
+	 * @return List<DeliveryTimeOutlierBean>
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getOutlierCategoryItemWiseDeliveryTimeReport(String retailerId)
+	public List<DeliveryTimeOutlierBean> getOutlierCategoryItemWiseDeliveryTimeReport(String retailerId)
 			throws RetailerInventoryException {
-		List<RetailerInventoryBean> categoryWiseDeliveryTime = getCategoryWiseDeliveryTimeReport(retailerId);
-		int maxCatNumber = 0, minCatNumber = 0;
-		for (int category = 0; category < 4; category ++) {
-			if (GoUtility.comparePeriod(categoryWiseDeliveryTime.get(category).getDeliveryTimePeriod(), categoryWiseDeliveryTime.get(category+1).getDeliveryTimePeriod())) {
-				
-			}
+		return reportCache.get(ReportCache.key("outlierDeliveryTime", retailerId, outlierZScore), retailerId,
+				() -> Collections.unmodifiableList(loadOutlierCategoryItemWiseDeliveryTimeReport(retailerId)));
+	}
+
+	// the category means and deviations are aggregated by the database and the items then read once through a
+	// cursor, in the same snapshot, keeping only the outliers
+	private List<DeliveryTimeOutlierBean> loadOutlierCategoryItemWiseDeliveryTimeReport(String retailerId)
+			throws RetailerInventoryException {
+		logger.info("getOutlierCategoryItemWiseDeliveryTimeReport - " + "Request for outlier delivery time report received");
+		String retailerName;
+		try {
+			retailerName = getRetailerName(retailerId);
+		} catch (UserException error) {
+			logger.error("getOutlierCategoryItemWiseDeliveryTimeReport - " + error.getMessage());
+			throw new RetailerInventoryException ("getOutlierCategoryItemWiseDeliveryTimeReport - " + ExceptionConstants.FAILED_TO_RETRIEVE_USERNAME);
 		}
-		return null;
+		DeliveryTimeStatsBean[] statsByCategory = new DeliveryTimeStatsBean[256];
+		List<DeliveryTimeOutlierBean> result = new ArrayList<DeliveryTimeOutlierBean> ();
+		int items;
+		try {
+			items = this.retailerInventoryDao.streamDeliveryDays(retailerId,
+					category -> statsByCategory[category.getProductCategoryNumber() & 0xFF] = category, item -> {
+				DeliveryTimeStatsBean category = statsByCategory[item.getProductCategoryNumber() & 0xFF];
+				// a category without spread has no outliers
+				if (category == null || category.getStandardDeviationDeliveryDays() == 0) {
+					return;
+				}
+				double zScore = (item.getDeliveryDays() - category.getAverageDeliveryDays())
+						/ category.getStandardDeviationDeliveryDays();
+				if (Math.abs(zScore) >= outlierZScore) {
+					item.setRetailerId(retailerId);
+					item.setRetailerName(retailerName);
+					item.setProductCategoryName(GoUtility.getCategoryName(item.getProductCategoryNumber()));
+					item.setAverageDeliveryDays(category.getAverageDeliveryDays());
+					item.setStandardDeviationDeliveryDays(category.getStandardDeviationDeliveryDays());
+					item.setZScore(zScore);
+					result.add(item);
+				}
+			});
+		} catch (IOException error) {
+			logger.error("getOutlierCategoryItemWiseDeliveryTimeReport - " + error.getMessage());
+			throw new RetailerInventoryException ("getOutlierCategoryItemWiseDeliveryTimeReport - " + ExceptionConstants.INTERNAL_RUNTIME_ERROR);
+		}
+		if (items == 0) {
+			logger.error("getOutlierCategoryItemWiseDeliveryTimeReport - " + ExceptionConstants.NO_DATA_FOUND);
+			throw new RetailerInventoryException ("getOutlierCategoryItemWiseDeliveryTimeReport - " + ExceptionConstants.NO_DATA_FOUND);
+		}
+		// by category, the furthest outliers first
+		result.sort(Comparator.comparingInt((DeliveryTimeOutlierBean item) -> item.getProductCategoryNumber())
+				.thenComparing(item -> -Math.abs(item.getZScore())));
+		logger.info("getOutlierCategoryItemWiseDeliveryTimeReport - " + result.size() + " outliers found");
+		return result;
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : getShelfTimeHistogram <br>
+	 * - Description : to get the number of sold items per shelf days bucket and product category <br>
+	 * 
+	 * @param String retailerId
+	 * @param int[]  upperBounds (ascending, inclusive upper bounds of all buckets but the last; null for the
+	 *               default buckets)
+	 * @return List<TimeHistogramBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public List<TimeHistogramBean> getShelfTimeHistogram(String retailerId, int[] upperBounds)
+			throws RetailerInventoryException {
+		return getTimeHistogram("shelfTimeHistogram", retailerId, true, upperBounds);
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : getDeliveryTimeHistogram <br>
+	 * - Description : to get the number of received items per delivery days bucket and product category <br>
+	 * 
+	 * @param String retailerId
+	 * @param int[]  upperBounds (ascending, inclusive upper bounds of all buckets but the last; null for the
+	 *               default buckets)
+	 * @return List<TimeHistogramBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public List<TimeHistogramBean> getDeliveryTimeHistogram(String retailerId, int[] upperBounds)
+			throws RetailerInventoryException {
+		return getTimeHistogram("deliveryTimeHistogram", retailerId, false, upperBounds);
+	}
+
+	private List<TimeHistogramBean> getTimeHistogram(String report, String retailerId, boolean shelfTime,
+			int[] upperBounds) throws RetailerInventoryException {
+		int[] bounds = upperBounds == null || upperBounds.length == 0 ? histogramBounds : upperBounds.clone();
+		if (!TimeHistogramBuckets.isValid(bounds, histogramMaxBounds)) {
+			logger.error(report + " - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+			throw new RetailerInventoryException(report + " - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+		}
+		return reportCache.get(ReportCache.key(report, retailerId, Arrays.toString(bounds)), retailerId,
+				() -> Collections.unmodifiableList(loadTimeHistogram(report, retailerId, shelfTime, bounds)));
+	}
+
+	private List<TimeHistogramBean> loadTimeHistogram(String report, String retailerId, boolean shelfTime,
+			int[] bounds) throws RetailerInventoryException {
+		logger.info(report + " - " + "Request for time histogram received");
+		List<TimeHistogramBean> result = this.retailerInventoryDao.getTimeHistogram(retailerId, shelfTime, bounds);
+		String retailerName;
+		try {
+			retailerName = getRetailerName(retailerId);
+		} catch (UserException error) {
+			logger.error(report + " - " + error.getMessage());
+			throw new RetailerInventoryException (report + " - " + ExceptionConstants.FAILED_TO_RETRIEVE_USERNAME);
+		}
+		for (TimeHistogramBean category : result) {
+			category.setRetailerId(retailerId);
+			category.setRetailerName(retailerName);
+			category.setProductCategoryName(GoUtility.getCategoryName(category.getProductCategoryNumber()));
+		}
+		logger.info(report + " - " + "Sent requested data");
+		return result;
 	}
 	// end of Shelf Time Report and Delivery Time Report
 
@@ -288,38 +469,56 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 	 *******************************************************************************************************/
 	public List<RetailerInventoryBean> getListOfRetailers() throws RetailerInventoryException {
 		logger.info("getListOfRetailers - function called");
-		List<RetailerInventoryBean> result = new ArrayList<RetailerInventoryBean> ();
-		
-		List<RetailerInventoryDTO> tempListOfDeliveredItems = this.retailerInventoryDao.getListOfRetailers();
-		List<RetailerInventoryDTO> listOfDeliveredItems = new ArrayList<RetailerInventoryDTO> ();
-		for (int index = 0; index < tempListOfDeliveredItems.size(); index++) {
-			listOfDeliveredItems.add(new RetailerInventoryDTO (String.valueOf(tempListOfDeliveredItems.get(index)), 
-					(byte)0, null, null, null, null, null));
+		List<RetailerInventoryBean> result = retailerRegistry.isLoaded() ? retailerRegistry.getRetailers()
+				: loadRetailerRegistry();
+		if (result.isEmpty()) {
+			logger.error("getListOfRetailers - " + ExceptionConstants.NO_DATA_FOUND);
+			throw new RetailerInventoryException("getListOfRetailers - " + ExceptionConstants.NO_DATA_FOUND);
 		}
-		logger.info("getListOfRetailers - List extracted");
-		
-		List<UserDTO> userList = null;
+		logger.info("getListOfRetailers - function return");
+		return result;
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : refreshRetailerRegistry <br>
+	 * - Description : reloads the retailer registry from the database, to pick up inventory written <br>
+	 * outside this service (other instances, bulk loads) <br>
+	 *******************************************************************************************************/
+	@Scheduled(fixedDelayString = "${reports.retailer.registry.refresh.ms:600000}")
+	public void refreshRetailerRegistry() {
+		if (!retailerRegistry.isLoaded()) {
+			return;
+		}
+		try {
+			loadRetailerRegistry();
+		} catch (RetailerInventoryException error) {
+			logger.error("refreshRetailerRegistry - " + error.getMessage());
+		}
+	}
+
+	// reads the item counts and names of all retailers (one GROUP BY and one name lookup) and installs them
+	// unless inventory changed meanwhile; the list read is returned either way
+	private List<RetailerInventoryBean> loadRetailerRegistry() throws RetailerInventoryException {
+		long mark = retailerRegistry.mark();
+		Map<String, Long> itemsByRetailer = this.retailerInventoryDao.getItemCountByRetailer();
+		Map<String, String> retailerNames = null;
 		try {
-			userList = this.userDao.getUserIdList();
+			retailerNames = this.userDao.getUserNames(itemsByRetailer.keySet());
 		} catch (UserException error) {
-			logger.info("getListOfRetailers - " + error.getMessage());
+			logger.error("getListOfRetailers - " + error.getMessage());
 			throw new RetailerInventoryException ("getListOfRetailers - " + error.getMessage());
 		}
-		
-		for (RetailerInventoryDTO item : listOfDeliveredItems) {
-			String retailerName = null;
-			for (UserDTO user : userList) {
-				if (user.getUserId().equals(item.getRetailerId())) {
-					retailerName = user.getUserName();
-					break;
-				}
-			}
+		if (retailerRegistry.load(itemsByRetailer, retailerNames, mark)) {
+			logger.info("getListOfRetailers - retailer registry loaded");
+			return retailerRegistry.getRetailers();
+		}
+		List<RetailerInventoryBean> result = new ArrayList<RetailerInventoryBean> ();
+		for (String retailerId : new TreeSet<String> (itemsByRetailer.keySet())) {
 			RetailerInventoryBean object = new RetailerInventoryBean ();
-			object.setRetailerId(item.getRetailerId());
-			object.setRetailerName(retailerName);
+			object.setRetailerId(retailerId);
+			object.setRetailerName(retailerNames.get(retailerId));
 			result.add(object);
 		}
-		logger.info("getListOfRetailers - function return");
 		return result;
 	}
 
@@ -336,7 +535,23 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 		boolean itemAdded = false;
 		Calendar currentSystemTimestamp = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
 		RetailerInventoryDTO queryArgument = new RetailerInventoryDTO(retailerId, productCategory, productId, productUIN, currentSystemTimestamp, null, null);
-		itemAdded = this.retailerInventoryDao.insertItemInRetailerInventory(queryArgument);
+		// begun before the insert can commit, so no registry load can count the item and then see it added
+		retailerRegistry.writing();
+		try {
+			itemAdded = this.retailerInventoryDao.insertItemInRetailerInventory(queryArgument);
+		} catch (RetailerInventoryException | RuntimeException error) {
+			retailerRegistry.failed();
+			throw error;
+		}
+		invalidateRetailer(retailerId);
+		if (retailerRegistry.added(retailerId)) {
+			try {
+				retailerRegistry.named(retailerId, getRetailerName(retailerId));
+			} catch (UserException error) {
+				// the name is filled in by the next refresh
+				logger.error("addItemToInventory - " + error.getMessage());
+			}
+		}
 		logger.info("addItemToInventory - function return");
 		return itemAdded;
 	}
@@ -352,7 +567,17 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 	public boolean deleteItemFromInventory(String retailerId, String productUIN) throws RetailerInventoryException {
 		logger.info("deleteItemFromInventory - function called");
 		RetailerInventoryDTO queryArgument = new RetailerInventoryDTO(retailerId, (byte)0, null, productUIN, null, null, null);
-		boolean itemDeleted = this.retailerInventoryDao.deleteItemInRetailerInventory(queryArgument);
+		// the DAO only deletes an item of retailerId, so that is the retailer the item is taken from
+		retailerRegistry.writing();
+		boolean itemDeleted;
+		try {
+			itemDeleted = this.retailerInventoryDao.deleteItemInRetailerInventory(queryArgument);
+		} catch (RetailerInventoryException | RuntimeException error) {
+			retailerRegistry.failed();
+			throw error;
+		}
+		invalidateRetailer(retailerId);
+		retailerRegistry.removed(retailerId);
 		logger.info("deleteItemFromInventory - function return");
 		return itemDeleted;
 	}
@@ -369,6 +594,7 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 		Calendar currentSystemTimestamp = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
 		RetailerInventoryDTO queryArgument = new RetailerInventoryDTO(retailerId, (byte)0, null, productUIN, null, currentSystemTimestamp, null);
 		boolean itemUpdated = this.retailerInventoryDao.updateProductReceiveTimeStamp(queryArgument);
+		invalidateRetailer(retailerId);
 		logger.info("updateItemReceiveTimestamp - function return");
 		return itemUpdated;
 	}
@@ -385,51 +611,167 @@ public class RetailerInventoryServiceImpl implements RetailerInventoryService {
 		Calendar currentSystemTimestamp = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
 		RetailerInventoryDTO queryArgument = new RetailerInventoryDTO(retailerId, (byte)0, null, productUIN, null, null, currentSystemTimestamp);
 		boolean itemUpdated = this.retailerInventoryDao.updateProductSaleTimeStamp(queryArgument);
+		invalidateRetailer(retailerId);
 		logger.info("updateItemSaleTimestamp - function return");
 		return itemUpdated;
 	}
 
+	/*******************************************************************************************************
+	 * - Function Name : updateItemReceiveTimestamps <br>
+	 * - Description : to update the receive timestamp of many items of a retailer in one transaction <br>
+	 * 
+	 * @param String       retailerId
+	 * @param List<String> productUINs
+	 * @param Calendar     timestamp (null for the current time)
+	 * @return Map<String, Boolean> (per unique id, in request order: true if updated | false if not in the
+	 *         retailer's inventory)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public Map<String, Boolean> updateItemReceiveTimestamps(String retailerId, List<String> productUINs,
+			Calendar timestamp) throws RetailerInventoryException {
+		logger.info("updateItemReceiveTimestamps - function called");
+		Set<String> uins = new LinkedHashSet<String> (productUINs);
+		Set<String> updated = this.retailerInventoryDao.bulkUpdateProductReceiveTimeStamp(retailerId, uins,
+				timestamp == null ? Calendar.getInstance(TimeZone.getTimeZone("UTC")) : timestamp);
+		invalidateRetailer(retailerId);
+		logger.info("updateItemReceiveTimestamps - function return");
+		return outcomes(uins, updated);
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : updateItemSaleTimestamps <br>
+	 * - Description : to update the sale timestamp of many items of a retailer in one transaction <br>
+	 * 
+	 * @param String       retailerId
+	 * @param List<String> productUINs
+	 * @param Calendar     timestamp (null for the current time)
+	 * @return Map<String, Boolean> (per unique id, in request order: true if updated | false if not in the
+	 *         retailer's inventory)
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public Map<String, Boolean> updateItemSaleTimestamps(String retailerId, List<String> productUINs,
+			Calendar timestamp) throws RetailerInventoryException {
+		logger.info("updateItemSaleTimestamps - function called");
+		Set<String> uins = new LinkedHashSet<String> (productUINs);
+		Set<String> updated = this.retailerInventoryDao.bulkUpdateProductSaleTimeStamp(retailerId, uins,
+				timestamp == null ? Calendar.getInstance(TimeZone.getTimeZone("UTC")) : timestamp);
+		invalidateRetailer(retailerId);
+		logger.info("updateItemSaleTimestamps - function return");
+		return outcomes(uins, updated);
+	}
+
+	private static Map<String, Boolean> outcomes(Set<String> uins, Set<String> updated) {
+		Map<String, Boolean> result = new LinkedHashMap<String, Boolean> ();
+		for (String uin : uins) {
+			result.put(uin, updated.contains(uin));
+		}
+		return result;
+	}
+
 	/*******************************************************************************************************
 	 * - Function Name : getInventoryById <br>
-	 * - Description : to get inventory of a particular retailer <br>
+	 * - Description : to get one page of the inventory of a particular retailer, in unique id order <br>
 	 * 
-	 * @return List<RetailerInventoryBean>
+	 * @param String retailerId
+	 * @param byte   productCategory (0 for every category)
+	 * @param String cursor          (nextCursor of the previous page, null for the first page)
+	 * @param int    pageSize        (0 for reports.inventory.page.size)
+	 * @return RetailerInventoryPageBean
 	 * @throws RetailerInventoryException
 	 *******************************************************************************************************/
-	public List<RetailerInventoryBean> getInventoryById(String retailerId) throws RetailerInventoryException {
+	public RetailerInventoryPageBean getInventoryById(String retailerId, byte productCategory, String cursor,
+			int pageSize) throws RetailerInventoryException {
+		int size = pageSize <= 0 ? inventoryPageSize : Math.min(pageSize, inventoryPageMaxSize);
+		String afterUin = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor);
+		return reportCache.get(ReportCache.key("inventoryById", retailerId, productCategory, afterUin, size), retailerId,
+				() -> loadInventoryPage(retailerId, productCategory, afterUin, size));
+	}
+
+	private RetailerInventoryPageBean loadInventoryPage(String retailerId, byte productCategory, String afterUin,
+			int size) throws RetailerInventoryException {
 		logger.info("getInventoryById - function called with argument (" + retailerId + ")");
-		RetailerInventoryDTO queryArgument = new RetailerInventoryDTO(retailerId, (byte)0, null, null, null, null, null);
-		List<RetailerInventoryDTO> itemList = this.retailerInventoryDao.getItemListByRetailer(queryArgument);
-		List<RetailerInventoryBean> result = new ArrayList<RetailerInventoryBean> ();
-		
+		// one row more than the page tells whether there is a next page
+		List<RetailerInventoryBean> items = this.retailerInventoryDao.getItemPageByRetailer(retailerId, productCategory,
+				afterUin, size + 1);
+		String nextCursor = null;
+		if (items.size() > size) {
+			items = new ArrayList<RetailerInventoryBean> (items.subList(0, size));
+			nextCursor = encodeCursor(items.get(size - 1).getProductUniqueId());
+		}
+		String retailerName;
 		try {
-			UserDTO retailerDetails = this.userDao.getUserById(retailerId);
-			
-			List<ProductDTO> productList = this.productDao.viewAllProducts();
-			
-			for (RetailerInventoryDTO item : itemList) {
-				RetailerInventoryBean itemBean = new RetailerInventoryBean ();
-				itemBean.setRetailerId(retailerId);
-				itemBean.setRetailerName(retailerDetails.getUserName());
-				itemBean.setProductCategoryNumber(item.getProductCategory());
-				itemBean.setProductCategoryName(GoUtility.getCategoryName(item.getProductCategory()));
-				for (ProductDTO product : productList) {
-					if (product.getProductId().equals(item.getProductId())) {
-						itemBean.setProductName(product.getProductName());
-						break;
-					} else {
-						continue;
-					}
-				}
-				itemBean.setProductUniqueId(item.getProductUniqueId());
-				itemBean.setShelfTimePeriod(null);
-				itemBean.setDeliveryTimePeriod(null);
-				result.add(itemBean);
-			}
-		} catch (UserException | ProductException error) {
+			retailerName = getRetailerName(retailerId);
+		} catch (UserException error) {
 			logger.info("getInventoryById - " + error.getMessage());
 			throw new RetailerInventoryException ("getInventoryById - " + error.getMessage());
-		} 
+		}
+		for (RetailerInventoryBean item : items) {
+			item.setRetailerId(retailerId);
+			item.setRetailerName(retailerName);
+			item.setProductCategoryName(GoUtility.getCategoryName(item.getProductCategoryNumber()));
+		}
+		return new RetailerInventoryPageBean(Collections.unmodifiableList(items), nextCursor);
+	}
+
+	// the cursor is the last unique id of a page, so it stays valid while items are added or removed
+	private static String encodeCursor(String lastUin) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(lastUin.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String decodeCursor(String cursor) throws RetailerInventoryException {
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException error) {
+			logger.error("getInventoryById - " + error.getMessage());
+			throw new RetailerInventoryException ("getInventoryById - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+		}
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : getInventoryStateCounts <br>
+	 * - Description : to get the number of items of a retailer in transit, on shelf and sold per product <br>
+	 * category, from the counters kept up to date by the inventory updates <br>
+	 * 
+	 * @param String retailerId
+	 * @return List<InventoryStateCountBean>
+	 * @throws RetailerInventoryException
+	 *******************************************************************************************************/
+	public List<InventoryStateCountBean> getInventoryStateCounts (String retailerId) throws RetailerInventoryException {
+		List<InventoryStateCountBean> result = this.retailerInventorySummaryDao.getInventoryStateCounts(retailerId);
+		if (result.isEmpty()) {
+			logger.error("getInventoryStateCounts - " + ExceptionConstants.NO_DATA_FOUND);
+			throw new RetailerInventoryException("getInventoryStateCounts - " + ExceptionConstants.NO_DATA_FOUND);
+		}
 		return result;
 	}
+
+	// the counters start from RETAILER_INVENTORY_SUMMARY, which is built from RETAILER_INVENTORY when empty
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadInventoryStateCounts() {
+		try {
+			this.retailerInventorySummaryDao.loadInventoryStateCounts(false);
+		} catch (RetailerInventoryException error) {
+			logger.error("loadInventoryStateCounts - " + error.getMessage());
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${reports.inventory.summary.flush.interval.ms:5000}")
+	@PreDestroy
+	public void flushInventoryStateCounts() {
+		try {
+			this.retailerInventorySummaryDao.flushInventoryStateCounts();
+		} catch (RetailerInventoryException error) {
+			logger.error("flushInventoryStateCounts - " + error.getMessage());
+		}
+	}
+
+	// periodic repair in case the counts drifted from RETAILER_INVENTORY through out-of-band changes
+	@Scheduled(cron = "${reports.inventory.summary.rebuild.cron:0 45 2 * * *}")
+	public void rebuildInventoryStateCounts() {
+		try {
+			this.retailerInventorySummaryDao.loadInventoryStateCounts(true);
+		} catch (RetailerInventoryException error) {
+			logger.error("rebuildInventoryStateCounts - " + error.getMessage());
+		}
+	}
 }
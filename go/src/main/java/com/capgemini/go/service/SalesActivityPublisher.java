@@ -0,0 +1,123 @@
+package com.capgemini.go.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.capgemini.go.bean.OrderTotalBean;
+import com.capgemini.go.bean.SalesActivityEvent;
+import com.capgemini.go.bean.SalesActivityEvent.ActivityType;
+import com.capgemini.go.bean.SalesLineBean;
+import com.capgemini.go.dao.OrderAndCartDao;
+import com.capgemini.go.dto.OrderProductMapDTO;
+import com.capgemini.go.exception.RetailerException;
+
+@Service(value = "salesActivityPublisher")
+public class SalesActivityPublisher {
+
+	private Logger logger = Logger.getRootLogger();
+
+	@Autowired
+	private OrderAndCartDao orderAndCartDao;
+
+	@Autowired
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	public OrderAndCartDao getOrderAndCartDao() {
+		return orderAndCartDao;
+	}
+
+	public void setOrderAndCartDao(OrderAndCartDao orderAndCartDao) {
+		this.orderAndCartDao = orderAndCartDao;
+	}
+
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : publish <br>
+	 * - Description : resolves the order line and publishes a SalesActivityEvent for it. A failed lookup
+	 * is only logged; the order, cancel or return it describes has already been written. <br>
+	 * 
+	 * @param orderId
+	 * @param productId
+	 * @param units        (positive for orders, negative for cancels and returns)
+	 * @param activityType
+	 *******************************************************************************************************/
+	public void publish(String orderId, String productId, int units, ActivityType activityType) {
+		if (units == 0) {
+			return;
+		}
+		publishOrder(orderId, Collections.singletonMap(productId, units), activityType);
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : publishAll <br>
+	 * - Description : publishes one event per distinct product of the given order lines, so that an
+	 * order with many units of a product costs a single lookup <br>
+	 * 
+	 * @param orderLines
+	 * @param unitsPerLine (+1 for orders, -1 for cancels and returns)
+	 * @param activityType
+	 *******************************************************************************************************/
+	public void publishAll(List<OrderProductMapDTO> orderLines, int unitsPerLine, ActivityType activityType) {
+		Map<String, Integer> unitsByProduct = new LinkedHashMap<String, Integer>();
+		String orderId = null;
+		for (OrderProductMapDTO orderLine : orderLines) {
+			orderId = orderLine.getOrderId();
+			unitsByProduct.merge(orderLine.getProductId(), unitsPerLine, Integer::sum);
+		}
+		unitsByProduct.values().removeIf(units -> units == 0);
+		if (!unitsByProduct.isEmpty()) {
+			publishOrder(orderId, unitsByProduct, activityType);
+		}
+	}
+
+	// The order's active totals are read once, after the change has been written; taking the change back out
+	// gives the totals before it, and each event carries the totals left by the events published before it.
+	private void publishOrder(String orderId, Map<String, Integer> unitsByProduct, ActivityType activityType) {
+		try {
+			List<SalesLineBean> salesLines = new ArrayList<SalesLineBean>();
+			for (String productId : unitsByProduct.keySet()) {
+				salesLines.add(orderAndCartDao.getSalesLine(orderId, productId));
+			}
+			double orderValue = 0;
+			long orderLines = 0;
+			Map<Integer, double[]> categoryTotals = new HashMap<Integer, double[]>();
+			for (OrderTotalBean total : orderAndCartDao.getOrderCategoryTotals(orderId)) {
+				orderValue += total.getValue();
+				orderLines += total.getLines();
+				categoryTotals.put(total.getProductCategory(), new double[] { total.getValue(), total.getLines() });
+			}
+			for (SalesLineBean salesLine : salesLines) {
+				int units = unitsByProduct.get(salesLine.getProductId());
+				double[] category = categoryTotals.computeIfAbsent(salesLine.getProductCategory(), c -> new double[2]);
+				orderValue -= units * salesLine.getPrice();
+				orderLines -= units;
+				category[0] -= units * salesLine.getPrice();
+				category[1] -= units;
+			}
+			for (SalesLineBean salesLine : salesLines) {
+				int units = unitsByProduct.get(salesLine.getProductId());
+				double[] category = categoryTotals.get(salesLine.getProductCategory());
+				applicationEventPublisher.publishEvent(new SalesActivityEvent(this, salesLine, units, activityType,
+						orderValue, orderLines, category[0], (long) category[1]));
+				orderValue += units * salesLine.getPrice();
+				orderLines += units;
+				category[0] += units * salesLine.getPrice();
+				category[1] += units;
+			}
+		} catch (RetailerException error) {
+			logger.error("publish - " + error.getMessage());
+		}
+	}
+}
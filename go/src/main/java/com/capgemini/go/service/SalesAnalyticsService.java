@@ -0,0 +1,53 @@
+package com.capgemini.go.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.capgemini.go.bean.DistinctCountBean;
+import com.capgemini.go.bean.OrderPercentileBean;
+import com.capgemini.go.bean.SalesActivityEvent;
+import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.utility.SalesColumnStore;
+
+public interface SalesAnalyticsService {
+
+	/*******************************************************************************************************
+	 * - Function Name : loadSalesFacts - Input Parameters : - Return Type : int -
+	 * Throws : GoAdminException - Description : reads every active order line into
+	 * the in-memory column store, holding back order activity until it is done;
+	 * returns the number of facts loaded
+	 ********************************************************************************************************/
+	int loadSalesFacts() throws GoAdminException;
+
+	/*******************************************************************************************************
+	 * - Function Name : onSalesActivity - Input Parameters : SalesActivityEvent -
+	 * Return Type : void - Description : appends the placed, cancelled or returned
+	 * order lines to the column store
+	 ********************************************************************************************************/
+	void onSalesActivity(SalesActivityEvent event);
+
+	/*******************************************************************************************************
+	 * - Function Name : slice - Input Parameters : Slice - Return Type :
+	 * SliceResult - Throws : GoAdminException - Description : net revenue, units
+	 * and order lines matching the slice, optionally grouped
+	 ********************************************************************************************************/
+	SalesColumnStore.SliceResult slice(SalesColumnStore.Slice slice) throws GoAdminException;
+
+	/*******************************************************************************************************
+	 * - Function Name : countDistinct - Input Parameters : from, to - Return Type :
+	 * DistinctCountBean - Throws : GoAdminException - Description : approximate
+	 * number of distinct retailers with orders and of distinct products sold in
+	 * the days from..to, with the relative standard error of the estimates
+	 ********************************************************************************************************/
+	DistinctCountBean countDistinct(LocalDate from, LocalDate to) throws GoAdminException;
+
+	/*******************************************************************************************************
+	 * - Function Name : orderPercentiles - Input Parameters : from, to, category,
+	 * byMonth - Return Type : List - Throws : GoAdminException - Description :
+	 * p50, p90 and p99 of order value and basket size (order lines) over the days
+	 * from..to, as one row or one row per calendar month. Category 1 to 5 takes
+	 * the lines of that category in each order, 6 whole orders
+	 ********************************************************************************************************/
+	List<OrderPercentileBean> orderPercentiles(LocalDate from, LocalDate to, int category, boolean byMonth)
+			throws GoAdminException;
+}
@@ -0,0 +1,337 @@
+package com.capgemini.go.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import com.capgemini.go.bean.DistinctCountBean;
+import com.capgemini.go.bean.OrderPercentileBean;
+import com.capgemini.go.bean.SalesActivityEvent;
+import com.capgemini.go.bean.SalesLineBean;
+import com.capgemini.go.dao.GoAdminReportsDao;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.utility.DailyDistinctSketches;
+import com.capgemini.go.utility.OrderQuantileSketches;
+import com.capgemini.go.utility.QuantileSketch;
+import com.capgemini.go.utility.RowHandler;
+import com.capgemini.go.utility.SalesColumnStore;
+
+@Service(value = "salesAnalyticsService")
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+
+	private Logger logger = Logger.getRootLogger();
+
+	@Autowired
+	private GoAdminReportsDao goAdminReportsDao;
+
+	public GoAdminReportsDao getGoAdminReportsDao() {
+		return goAdminReportsDao;
+	}
+
+	public void setGoAdminReportsDao(GoAdminReportsDao goAdminReportsDao) {
+		this.goAdminReportsDao = goAdminReportsDao;
+	}
+
+	@Value("${analytics.columnstore.enabled:true}")
+	private boolean enabled;
+
+	@Value("${analytics.columnstore.initial.capacity:1048576}")
+	private int initialCapacity;
+
+	// registers per day sketch are 2^precision bytes; relative standard error 1.04 / sqrt(2^precision)
+	@Value("${analytics.distinct.precision:12}")
+	private int distinctPrecision;
+
+	// order value and basket size percentiles are within this relative error of the exact values
+	@Value("${analytics.quantile.relative.accuracy:0.01}")
+	private double quantileAccuracy;
+
+	// delay before a failed load is tried again
+	@Value("${analytics.load.retry.ms:60000}")
+	private long retryMillis;
+
+	private volatile SalesColumnStore store;
+	private volatile DailyDistinctSketches distinctSketches;
+	private volatile OrderQuantileSketches orderSketches;
+
+	// while a load reads the database, order activity is held in `buffered` and applied once the load's
+	// stores are swapped in; events are applied under the lock, so none can reach a store in between
+	private final Object loadLock = new Object();
+	private List<SalesActivityEvent> buffered;
+
+	private ScheduledExecutorService loader;
+
+	// loaded in the background once the application is up, so a slow or failing load neither delays nor fails
+	// startup; reports answer SALES_STORE_NOT_LOADED until a load has completed
+	@EventListener(ApplicationReadyEvent.class)
+	public void startLoading() {
+		if (!enabled) {
+			return;
+		}
+		loader = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "sales-facts-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		loader.execute(this::loadUntilLoaded);
+	}
+
+	private void loadUntilLoaded() {
+		try {
+			loadSalesFacts();
+		} catch (GoAdminException | RuntimeException exp) {
+			logger.error("loadUntilLoaded - " + exp.getMessage() + ", retrying in " + retryMillis + " ms");
+			if (!loader.isShutdown()) {
+				loader.schedule(this::loadUntilLoaded, retryMillis, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void stopLoading() {
+		if (loader != null) {
+			loader.shutdownNow();
+		}
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : loadSalesFacts - Input Parameters : - Return Type : int -
+	 * Throws : GoAdminException - Description : reads every active order line into
+	 * a new column store and new distinct count sketches, and the totals of every
+	 * order from the same lines into new order value and basket size sketches, and
+	 * swaps them in once complete. Order
+	 * activity during the load is applied afterwards to the new stores, or to the
+	 * previous ones if the load fails. An event committed just before the load
+	 * starts but delivered after it is counted twice; that window is the time one
+	 * event takes to be published.
+	 ********************************************************************************************************/
+	@Override
+	public synchronized int loadSalesFacts() throws GoAdminException {
+		long start = System.currentTimeMillis();
+		SalesColumnStore loaded = new SalesColumnStore(initialCapacity);
+		DailyDistinctSketches sketches = new DailyDistinctSketches(distinctPrecision);
+		OrderQuantileSketches orders = new OrderQuantileSketches(quantileAccuracy);
+		OrderSketchLoader orderLoader = new OrderSketchLoader(orders);
+		synchronized (loadLock) {
+			buffered = new ArrayList<SalesActivityEvent>();
+		}
+		boolean complete = false;
+		try {
+			goAdminReportsDao.streamActiveSalesLines(line -> {
+				loaded.append(line.getOrderDate(), line.getUserId(), line.getProductId(), line.getProductCategory(),
+						1, line.getPrice());
+				sketches.add(SalesColumnStore.toEpochDay(line.getOrderDate()), line.getUserId(), line.getProductId());
+				orderLoader.handle(line);
+			});
+			orderLoader.finish();
+			complete = true;
+		} catch (IOException exp) {
+			throw new GoAdminException("loadSalesFacts - " + ExceptionConstants.ERROR_IN_VIEWING + exp.getMessage());
+		} finally {
+			synchronized (loadLock) {
+				if (complete) {
+					store = loaded;
+					distinctSketches = sketches;
+					orderSketches = orders;
+				}
+				for (SalesActivityEvent event : buffered) {
+					apply(event);
+				}
+				buffered = null;
+			}
+		}
+		logger.info("loadSalesFacts - " + loaded.size() + " sales facts loaded in "
+				+ (System.currentTimeMillis() - start) + " ms");
+		return loaded.size();
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : onSalesActivity - Input Parameters : SalesActivityEvent -
+	 * Return Type : void - Description : cancels and returns are appended as
+	 * negative facts dated on the original order day; placed lines are also added
+	 * to the distinct count sketches (sketches cannot forget a value, so a
+	 * cancelled line still counts until the next full load), and the order is
+	 * moved from the totals it had before the event to its new totals in the order
+	 * sketches
+	 ********************************************************************************************************/
+	// runs before the report caches are invalidated, so a report reloaded after the invalidation sees the
+	// updated sketches
+	@Override
+	@EventListener
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void onSalesActivity(SalesActivityEvent event) {
+		if (event.getUnits() == 0) {
+			return;
+		}
+		synchronized (loadLock) {
+			if (buffered != null) {
+				buffered.add(event);
+				return;
+			}
+			apply(event);
+		}
+	}
+
+	private void apply(SalesActivityEvent event) {
+		SalesColumnStore current = store;
+		if (current == null) {
+			return;
+		}
+		SalesLineBean line = event.getSalesLine();
+		current.append(line.getOrderDate(), line.getUserId(), line.getProductId(), line.getProductCategory(),
+				event.getUnits(), event.getRevenueDelta());
+		DailyDistinctSketches sketches = distinctSketches;
+		if (sketches != null && event.getUnits() > 0) {
+			sketches.add(SalesColumnStore.toEpochDay(line.getOrderDate()), line.getUserId(), line.getProductId());
+		}
+		OrderQuantileSketches orders = orderSketches;
+		if (orders != null) {
+			updateOrderSketches(orders, event);
+		}
+	}
+
+	private static void updateOrderSketches(OrderQuantileSketches orders, SalesActivityEvent event) {
+		SalesLineBean line = event.getSalesLine();
+		orders.changeOrder(SalesColumnStore.toEpochDay(line.getOrderDate()), line.getProductCategory(),
+				event.getPreviousOrderValue(), event.getPreviousOrderLines(), event.getPreviousCategoryValue(),
+				event.getPreviousCategoryLines(), event.getRevenueDelta(), event.getUnits());
+	}
+
+	// sums the lines of each order as they are read, an order's lines one after another, and adds the order
+	// once its last line has been read
+	private static final class OrderSketchLoader implements RowHandler<SalesLineBean> {
+		private final OrderQuantileSketches orders;
+		private final double[] value = new double[OrderQuantileSketches.CATEGORIES];
+		private final long[] lines = new long[OrderQuantileSketches.CATEGORIES];
+		private String orderId;
+		private int day;
+
+		private OrderSketchLoader(OrderQuantileSketches orders) {
+			this.orders = orders;
+		}
+
+		@Override
+		public void handle(SalesLineBean line) {
+			if (!line.getOrderId().equals(orderId)) {
+				finish();
+				orderId = line.getOrderId();
+				day = SalesColumnStore.toEpochDay(line.getOrderDate());
+			}
+			int category = line.getProductCategory();
+			if (category > OrderQuantileSketches.WHOLE_ORDER && category < value.length) {
+				value[category] += line.getPrice();
+				lines[category]++;
+				value[OrderQuantileSketches.WHOLE_ORDER] += line.getPrice();
+				lines[OrderQuantileSketches.WHOLE_ORDER]++;
+			}
+		}
+
+		private void finish() {
+			for (int category = 0; category < value.length; category++) {
+				if (lines[category] > 0) {
+					orders.add(day, category, value[category], lines[category]);
+				}
+				value[category] = 0;
+				lines[category] = 0;
+			}
+		}
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : slice - Input Parameters : Slice - Return Type :
+	 * SliceResult - Throws : GoAdminException - Description : filters and
+	 * aggregates the in-memory sales facts
+	 ********************************************************************************************************/
+	@Override
+	public SalesColumnStore.SliceResult slice(SalesColumnStore.Slice slice) throws GoAdminException {
+		SalesColumnStore current = store;
+		if (current == null) {
+			logger.error("slice - " + ExceptionConstants.SALES_STORE_NOT_LOADED);
+			throw new GoAdminException(ExceptionConstants.SALES_STORE_NOT_LOADED);
+		}
+		long start = System.nanoTime();
+		SalesColumnStore.SliceResult result = current.query(slice);
+		logger.debug("slice - " + current.size() + " facts scanned in " + (System.nanoTime() - start) / 1000 + " us");
+		return result;
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : countDistinct - Input Parameters : from, to - Return Type :
+	 * DistinctCountBean - Throws : GoAdminException - Description : approximate
+	 * distinct buying retailers and distinct products sold in the days from..to
+	 ********************************************************************************************************/
+	@Override
+	public DistinctCountBean countDistinct(LocalDate from, LocalDate to) throws GoAdminException {
+		DailyDistinctSketches sketches = distinctSketches;
+		if (sketches == null) {
+			logger.error("countDistinct - " + ExceptionConstants.SALES_STORE_NOT_LOADED);
+			throw new GoAdminException(ExceptionConstants.SALES_STORE_NOT_LOADED);
+		}
+		return sketches.estimate((int) from.toEpochDay(), (int) to.toEpochDay());
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : orderPercentiles - Input Parameters : from, to, category,
+	 * byMonth - Return Type : List - Throws : GoAdminException - Description :
+	 * median, 90th and 99th percentile of order value and basket size for the days
+	 * from..to, or for each calendar month of that range
+	 ********************************************************************************************************/
+	@Override
+	public List<OrderPercentileBean> orderPercentiles(LocalDate from, LocalDate to, int category, boolean byMonth)
+			throws GoAdminException {
+		OrderQuantileSketches orders = orderSketches;
+		if (orders == null) {
+			logger.error("orderPercentiles - " + ExceptionConstants.SALES_STORE_NOT_LOADED);
+			throw new GoAdminException(ExceptionConstants.SALES_STORE_NOT_LOADED);
+		}
+		// category 6 selects whole orders, as in the other reports
+		int sketchCategory = category == 6 ? OrderQuantileSketches.WHOLE_ORDER : category;
+		List<OrderPercentileBean> rows = new ArrayList<OrderPercentileBean>();
+		if (!byMonth) {
+			rows.add(percentiles(from + ".." + to, category,
+					orders.merge((int) from.toEpochDay(), (int) to.toEpochDay(), sketchCategory)));
+			return rows;
+		}
+		for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+			LocalDate monthFrom = month.atDay(1).isBefore(from) ? from : month.atDay(1);
+			LocalDate monthTo = month.atEndOfMonth().isAfter(to) ? to : month.atEndOfMonth();
+			rows.add(percentiles(month.toString(), category,
+					orders.merge((int) monthFrom.toEpochDay(), (int) monthTo.toEpochDay(), sketchCategory)));
+		}
+		return rows;
+	}
+
+	private static OrderPercentileBean percentiles(String period, int category, QuantileSketch[] sketches) {
+		OrderPercentileBean row = new OrderPercentileBean();
+		row.setPeriod(period);
+		row.setProductCategory(category);
+		row.setOrders(sketches[0].getCount());
+		if (sketches[0].getCount() > 0) {
+			row.setValueP50(Math.round(sketches[0].quantile(0.5) * 100) / 100D);
+			row.setValueP90(Math.round(sketches[0].quantile(0.9) * 100) / 100D);
+			row.setValueP99(Math.round(sketches[0].quantile(0.99) * 100) / 100D);
+			// basket sizes are whole numbers of lines
+			row.setBasketP50(Math.round(sketches[1].quantile(0.5)));
+			row.setBasketP90(Math.round(sketches[1].quantile(0.9)));
+			row.setBasketP99(Math.round(sketches[1].quantile(0.99)));
+		}
+		return row;
+	}
+}
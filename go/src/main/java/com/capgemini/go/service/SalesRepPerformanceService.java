@@ -0,0 +1,32 @@
+package com.capgemini.go.service;
+
+import java.util.List;
+
+import com.capgemini.go.bean.SalesActivityEvent;
+import com.capgemini.go.dto.SalesRepDTO;
+import com.capgemini.go.exception.SalesRepresentativeException;
+
+public interface SalesRepPerformanceService {
+
+	/*******************************************************************************************************
+	 * - Function Name : onSalesActivity - Input Parameters : SalesActivityEvent -
+	 * Return Type : void - Description : adjusts the current sales and target
+	 * status of the sales representative who placed the order
+	 ********************************************************************************************************/
+	void onSalesActivity(SalesActivityEvent event);
+
+	/*******************************************************************************************************
+	 * - Function Name : flushPendingSales - Input Parameters : - Return Type : int
+	 * - Description : writes the accumulated sales deltas to SALES_REP and returns
+	 * the number of sales representatives updated
+	 ********************************************************************************************************/
+	int flushPendingSales();
+
+	/*******************************************************************************************************
+	 * - Function Name : getLeaderboard - Input Parameters : int count - Return Type
+	 * : List<SalesRepDTO> - Throws : SalesRepresentativeException - Description :
+	 * returns the top sales representatives by current sales, highest first
+	 ********************************************************************************************************/
+	List<SalesRepDTO> getLeaderboard(int count) throws SalesRepresentativeException;
+
+}
@@ -0,0 +1,182 @@
+package com.capgemini.go.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.capgemini.go.bean.SalesActivityEvent;
+import com.capgemini.go.dao.SalesRepresentativeDao;
+import com.capgemini.go.dto.SalesRepDTO;
+import com.capgemini.go.exception.SalesRepresentativeException;
+
+@Service(value = "salesRepPerformanceService")
+public class SalesRepPerformanceServiceImpl implements SalesRepPerformanceService {
+
+	private Logger logger = Logger.getRootLogger();
+
+	// highest current sales first, ties broken by user id so that distinct reps never compare equal
+	private static final Comparator<SalesRepDTO> LEADERBOARD_ORDER = Comparator
+			.comparing(SalesRepDTO::getCurrentSales, Comparator.reverseOrder()).thenComparing(SalesRepDTO::getUserId);
+
+	@Autowired
+	private SalesRepresentativeDao salesRepresentativeDao;
+
+	public SalesRepresentativeDao getSalesRepDao() {
+		return salesRepresentativeDao;
+	}
+
+	public void setSalesRepDao(SalesRepresentativeDao salesRepresentativeDao) {
+		this.salesRepresentativeDao = salesRepresentativeDao;
+	}
+
+	// sales not yet written to SALES_REP; merge/remove on a ConcurrentHashMap are atomic per rep
+	private final ConcurrentHashMap<String, Double> pendingSales = new ConcurrentHashMap<String, Double>();
+
+	// live standing of every known rep; both collections are guarded by `this`
+	private final Map<String, SalesRepDTO> standings = new HashMap<String, SalesRepDTO>();
+	private final TreeSet<SalesRepDTO> leaderboard = new TreeSet<SalesRepDTO>(LEADERBOARD_ORDER);
+
+	private volatile boolean loaded = false;
+
+	/*******************************************************************************************************
+	 * - Function Name : onSalesActivity - Input Parameters : SalesActivityEvent -
+	 * Return Type : void - Description : adjusts the current sales and target
+	 * status of the sales representative who placed the order in O(log n)
+	 ********************************************************************************************************/
+	@Override
+	@EventListener
+	public void onSalesActivity(SalesActivityEvent event) {
+		String userId = event.getSalesLine().getUserId();
+		double delta = event.getRevenueDelta();
+		if (delta == 0.0 || !ensureLoaded()) {
+			return;
+		}
+		synchronized (this) {
+			SalesRepDTO standing = standings.get(userId);
+			if (standing == null) {
+				// order was not placed by a sales representative
+				return;
+			}
+			leaderboard.remove(standing);
+			standing.setCurrentSales(standing.getCurrentSales() + delta);
+			standing.setTargetStatus(targetStatus(standing.getCurrentSales(), standing.getTarget()));
+			leaderboard.add(standing);
+		}
+		pendingSales.merge(userId, delta, Double::sum);
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : flushPendingSales - Input Parameters : - Return Type : int
+	 * - Description : writes the accumulated sales deltas to SALES_REP and picks up
+	 * sales representatives registered since the last flush
+	 ********************************************************************************************************/
+	@Override
+	@Scheduled(fixedDelayString = "${salesrep.sales.flush.interval.ms:5000}")
+	public int flushPendingSales() {
+		int repsUpdated = 0;
+		Iterator<String> userIds = pendingSales.keySet().iterator();
+		while (userIds.hasNext()) {
+			String userId = userIds.next();
+			Double delta = pendingSales.remove(userId);
+			if (delta == null || delta == 0.0) {
+				continue;
+			}
+			try {
+				if (salesRepresentativeDao.addToCurrentSales(userId, delta)) {
+					repsUpdated++;
+				}
+			} catch (SalesRepresentativeException error) {
+				logger.error("flushPendingSales - " + error.getMessage());
+				// keep the delta for the next flush
+				pendingSales.merge(userId, delta, Double::sum);
+			}
+		}
+		if (loaded) {
+			try {
+				addNewSalesReps(salesRepresentativeDao.getAllSalesReps());
+			} catch (SalesRepresentativeException error) {
+				logger.error("flushPendingSales - " + error.getMessage());
+			}
+		}
+		return repsUpdated;
+	}
+
+	/*******************************************************************************************************
+	 * - Function Name : getLeaderboard - Input Parameters : int count - Return Type
+	 * : List<SalesRepDTO> - Throws : SalesRepresentativeException - Description :
+	 * returns copies of the top sales representatives by current sales
+	 ********************************************************************************************************/
+	@Override
+	public List<SalesRepDTO> getLeaderboard(int count) throws SalesRepresentativeException {
+		if (count <= 0) {
+			throw new SalesRepresentativeException("getLeaderboard - Count must be positive");
+		}
+		if (!ensureLoaded()) {
+			throw new SalesRepresentativeException("getLeaderboard - Sales representatives could not be loaded");
+		}
+		List<SalesRepDTO> result = new ArrayList<SalesRepDTO>(Math.min(count, 64));
+		synchronized (this) {
+			for (SalesRepDTO standing : leaderboard) {
+				if (result.size() == count) {
+					break;
+				}
+				result.add(new SalesRepDTO(standing.getUserId(), standing.getBonus(), standing.getTarget(),
+						standing.getTargetStatus(), standing.getCartId(), standing.getCurrentSales()));
+			}
+		}
+		return result;
+	}
+
+	// seeds the in-memory standings from SALES_REP on first use
+	private boolean ensureLoaded() {
+		if (loaded) {
+			return true;
+		}
+		synchronized (this) {
+			if (!loaded) {
+				try {
+					addNewSalesReps(salesRepresentativeDao.getAllSalesReps());
+					loaded = true;
+				} catch (SalesRepresentativeException error) {
+					logger.error("ensureLoaded - " + error.getMessage());
+				}
+			}
+		}
+		return loaded;
+	}
+
+	private synchronized void addNewSalesReps(List<SalesRepDTO> salesReps) {
+		for (SalesRepDTO salesRep : salesReps) {
+			if (standings.containsKey(salesRep.getUserId())) {
+				continue;
+			}
+			double currentSales = salesRep.getCurrentSales() == null ? 0.0 : salesRep.getCurrentSales();
+			double target = salesRep.getTarget() == null ? 0.0 : salesRep.getTarget();
+			SalesRepDTO standing = new SalesRepDTO(salesRep.getUserId(), salesRep.getBonus(), target,
+					targetStatus(currentSales, target), salesRep.getCartId(), currentSales);
+			standings.put(standing.getUserId(), standing);
+			leaderboard.add(standing);
+		}
+	}
+
+	// same encoding as SalesRepresentativeDaoImpl.getTargetSales: -1 exceeded, 0 met, 1 not met
+	private static int targetStatus(double currentSales, double target) {
+		if (currentSales > target) {
+			return -1;
+		} else if (currentSales == target) {
+			return 0;
+		}
+		return 1;
+	}
+}
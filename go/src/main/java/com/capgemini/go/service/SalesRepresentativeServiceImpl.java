@@ -10,6 +10,7 @@ import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.capgemini.go.bean.SalesActivityEvent.ActivityType;
 import com.capgemini.go.dao.SalesRepresentativeDao;
 import com.capgemini.go.dto.OrderCancelDTO;
 import com.capgemini.go.dto.OrderDTO;
@@ -36,6 +37,17 @@ public class SalesRepresentativeServiceImpl implements SalesRepresentativeServic
 		this.salesRepresentativeDao = salesRepresentativeDao;
 	}
 
+	@Autowired
+	private SalesActivityPublisher salesActivityPublisher;
+
+	public SalesActivityPublisher getSalesActivityPublisher() {
+		return salesActivityPublisher;
+	}
+
+	public void setSalesActivityPublisher(SalesActivityPublisher salesActivityPublisher) {
+		this.salesActivityPublisher = salesActivityPublisher;
+	}
+
 	// ------------------------ 1. GO Application --------------------------
 
 	/*******************************************************************************************************
@@ -61,6 +73,7 @@ public class SalesRepresentativeServiceImpl implements SalesRepresentativeServic
 				if (statusOrderReturn) {
 					orderProductMapStatus = salesRepresentativeDao.updateOrderProductMap(orderId);
 					orderProductMapStatus = true;
+					salesActivityPublisher.publishAll(opm, -1, ActivityType.RETURN);
 				}
 			}
 			if(!orderProductMapStatus) {
@@ -87,6 +100,7 @@ public class SalesRepresentativeServiceImpl implements SalesRepresentativeServic
 					
 					salesRepresentativeDao.updateOrderReturn(orderId, productId, userId, reason, qty);
 					returnProductStatus = true;
+					salesActivityPublisher.publish(orderId, productId, -qty, ActivityType.RETURN);
 				} 
 			}
 		}
@@ -151,6 +165,7 @@ public class SalesRepresentativeServiceImpl implements SalesRepresentativeServic
 				index++;
 				itr.next();
 			}
+			salesActivityPublisher.publishAll(list, -1, ActivityType.CANCEL);
 			System.out.println("The order-cancel table's " + index + " rows has been inserted");
 			statusOrderCancel = "Order has been cancelled";
 			logger.info(statusOrderCancel);
@@ -226,12 +241,14 @@ public class SalesRepresentativeServiceImpl implements SalesRepresentativeServic
 					statusOrderCancelForProduct = salesRepresentativeDao.updateOrderCancelForProduct(orderId, productId,
 							productQtyOrdered, quantity, userId);
 					statusProductCancel = "The given products are canceled";
+					salesActivityPublisher.publish(orderId, productId, -quantity, ActivityType.CANCEL);
 				} else if (productQtyOrdered > quantity) {
 					statusProductCancel = salesRepresentativeDao.cancelProduct(orderId, productId, productQtyOrdered,
 							quantity);
 					statusOrderCancelForProduct = salesRepresentativeDao.updateOrderCancelForProduct(orderId, productId,
 							productQtyOrdered, quantity, userId);
 					statusProductCancel = "The given products are canceled";
+					salesActivityPublisher.publish(orderId, productId, -quantity, ActivityType.CANCEL);
 					logger.info(statusProductCancel);
 					logger.info(statusOrderCancelForProduct);
 				}
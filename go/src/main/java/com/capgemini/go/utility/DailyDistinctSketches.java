@@ -0,0 +1,54 @@
+package com.capgemini.go.utility;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.capgemini.go.bean.DistinctCountBean;
+
+/**
+ * - Class Name : DailyDistinctSketches <br>
+ * - Description : One pair of HyperLogLog sketches (buying users, products sold) per order day. Any <br>
+ * range of days is answered by merging its day sketches, so memory is constant per day and does not <br>
+ * grow with the number of orders.
+ */
+public class DailyDistinctSketches {
+
+	private final int precision;
+	private final ConcurrentHashMap<Integer, HyperLogLog[]> days = new ConcurrentHashMap<Integer, HyperLogLog[]>();
+
+	public DailyDistinctSketches(int precision) {
+		this.precision = precision;
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	public void add(int day, String userId, String productId) {
+		HyperLogLog[] sketches = days.computeIfAbsent(day,
+				d -> new HyperLogLog[] { new HyperLogLog(precision), new HyperLogLog(precision) });
+		synchronized (sketches) {
+			sketches[0].offer(userId);
+			sketches[1].offer(productId);
+		}
+	}
+
+	/**
+	 * - Function Name : estimate <br>
+	 * - Description : Approximate distinct users and products of the days fromDay..toDay (epoch days, <br>
+	 * inclusive).
+	 */
+	public DistinctCountBean estimate(int fromDay, int toDay) {
+		HyperLogLog users = new HyperLogLog(precision);
+		HyperLogLog products = new HyperLogLog(precision);
+		for (int day = fromDay; day <= toDay; day++) {
+			HyperLogLog[] sketches = days.get(day);
+			if (sketches != null) {
+				synchronized (sketches) {
+					users.merge(sketches[0]);
+					products.merge(sketches[1]);
+				}
+			}
+		}
+		return new DistinctCountBean(users.estimate(), products.estimate(), HyperLogLog.relativeError(precision));
+	}
+}
@@ -1,77 +1,538 @@
 package com.capgemini.go.utility;
 
-import java.util.Calendar;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
-import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
-import com.capgemini.go.dao.RetailerInventoryDao;
-import com.capgemini.go.dto.RetailerInventoryDTO;
-import com.capgemini.go.exception.RetailerInventoryException;
+import org.apache.log4j.Logger;
+import org.hibernate.JDBCException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 
+/**
+ * - Class Name : DummyDataGenerator <br>
+ * - Description : Generates a reproducible synthetic data set for load testing: users with one address <br>
+ * each, products, orders with their order product map lines, and the retailer inventory rows of part of <br>
+ * those lines. Buyers and products are drawn from Zipf distributions, prices are log-normal, order volume <br>
+ * grows over the date range, and delivery and shelf times follow log-normal and exponential distributions. <br>
+ * The rows are split into fixed chunks, each generated from its own seed, so a seed always produces the <br>
+ * same rows whatever the number of threads. Chunks run in parallel and are written with batched JDBC <br>
+ * inserts; with MySQL, add rewriteBatchedStatements=true to the JDBC url so each batch is sent as <br>
+ * multi-row inserts. Generated ids start with "G" and do not collide with hand-made data. <br>
+ * It does not check to see if the tables exist, nor does it delete existing data.
+ */
 public class DummyDataGenerator {
-	
-	public static RetailerInventoryDao retailerInventoryDao;
+
+	private static Logger logger = Logger.getRootLogger();
+
+	/**
+	 * Cardinalities and distributions of the data set; the defaults are a small set.
+	 */
+	public static class Config {
+		private long seed = 42;
+		private int users = 10000;
+		private int products = 1000;
+		private long orderLines = 1000000;
+		private double linesPerOrder = 3;
+		private double inventoryShare = 0.2;
+		private LocalDate firstDay = LocalDate.of(2015, 1, 1);
+		private LocalDate lastDay = LocalDate.of(2019, 12, 31);
+		private int threads = Runtime.getRuntime().availableProcessors();
+
+		public Config seed(long seed) {this.seed = seed; return this;}
+		public Config users(int users) {this.users = users; return this;}
+		public Config products(int products) {this.products = products; return this;}
+		public Config orderLines(long orderLines) {this.orderLines = orderLines; return this;}
+		public Config linesPerOrder(double linesPerOrder) {this.linesPerOrder = linesPerOrder; return this;}
+		public Config inventoryShare(double inventoryShare) {this.inventoryShare = inventoryShare; return this;}
+		public Config days(LocalDate firstDay, LocalDate lastDay) {this.firstDay = firstDay; this.lastDay = lastDay; return this;}
+		public Config threads(int threads) {this.threads = threads; return this;}
+	}
+
+	/**
+	 * Receives the generated rows of one chunk, on one thread. Times are epoch milliseconds (UTC).
+	 */
+	public interface Sink {
+		void user(String userId, String userName, String userMail, String userPassword, long userContact,
+				int userCategory) throws SQLException;
+
+		void address(String addressId, String userId, String buildingNo, String city, String state, String zip)
+				throws SQLException;
+
+		void product(String productId, double price, String colour, String dimension, String specification,
+				String manufacturer, int quantity, int productCategory, String productName) throws SQLException;
+
+		void order(String orderId, String userId, String addressId, long initiateTime, long dispatchTime)
+				throws SQLException;
+
+		void orderLine(String orderId, String productId, String productUin, int productStatus, int giftStatus)
+				throws SQLException;
+
+		// receiveTime and saleTime are null for items not received / not sold yet
+		void inventoryItem(String retailerId, int productCategory, String productId, String productUin,
+				long dispatchTime, Long receiveTime, Long saleTime) throws SQLException;
+	}
+
+	/**
+	 * Writes the rows of one chunk.
+	 */
+	@FunctionalInterface
+	public interface Chunk {
+		void write(Sink sink) throws SQLException;
+	}
+
+	/**
+	 * Where chunks are written; called from the generator threads.
+	 */
+	@FunctionalInterface
+	public interface Target {
+		void write(Chunk chunk) throws SQLException;
+	}
+
+	public static final int USER_CATEGORY_ADMIN = 1;
+	public static final int USER_CATEGORY_SALES_REP = 2;
+	public static final int USER_CATEGORY_RETAILER = 3;
+	public static final int USER_CATEGORY_PRODUCT_MASTER = 4;
+
+	private static final int USERS_PER_CHUNK = 10000;
+	private static final int PRODUCTS_PER_CHUNK = 10000;
+	private static final int LINES_PER_CHUNK = 100000;
+	private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+	private static final String[] COLOURS = {"Black", "White", "Red", "Blue", "Green", "Grey", "Orange", "Yellow"};
+	private static final String[] MANUFACTURERS = {"Alpine", "Summit", "Trailhead", "Fairway", "Basecamp",
+			"Northwind", "Ridge", "Evergreen"};
+	private static final String[] CATEGORY_ITEMS = {"", "Tent", "Club", "Harness", "Jacket", "Kit"};
+	private static final String[] CITIES = {"Mumbai", "Pune", "Bengaluru", "Chennai", "Kolkata", "Delhi",
+			"Hyderabad", "Jaipur"};
+	private static final String[] STATES = {"Maharashtra", "Maharashtra", "Karnataka", "Tamil Nadu",
+			"West Bengal", "Delhi", "Telangana", "Rajasthan"};
+
+	private final Config config;
+	// user index of every retailer; orders are placed by retailers
+	private final int[] retailers;
+	// cumulative Zipf weights: retailer and product ranks, most active first
+	private final double[] retailerCdf;
+	private final double[] productCdf;
+
+	public DummyDataGenerator(Config config) {
+		this.config = config;
+		int count = 0;
+		int[] found = new int[config.users];
+		for (int user = 0; user < config.users; user++) {
+			if (userCategory(user) == USER_CATEGORY_RETAILER) {
+				found[count++] = user;
+			}
+		}
+		this.retailers = Arrays.copyOf(found, count);
+		this.retailerCdf = zipfCdf(retailers.length, 0.8);
+		this.productCdf = zipfCdf(config.products, 1.1);
+	}
+
+	/**
+	 * - Function Name : generate <br>
+	 * - Description : Generates users (with addresses), then products, then orders with their lines and <br>
+	 * inventory rows, each phase split into chunks run on config.threads threads.
+	 */
+	public void generate(Target target) throws SQLException, InterruptedException {
+		if (retailers.length == 0 && config.orderLines > 0) {
+			throw new IllegalArgumentException("no retailers to place orders; raise the number of users");
+		}
+		run("users", chunks(config.users, USERS_PER_CHUNK), target, this::users);
+		run("products", chunks(config.products, PRODUCTS_PER_CHUNK), target, this::products);
+		run("order lines", chunks(config.orderLines, LINES_PER_CHUNK), target, this::orders);
+	}
+
 	/**
-	 * This function is only to be used to populate the retailer inventory table with dummy data.
-	 * It does not check to see if the table exists or not, nor does it delete existing data.
-	 * It inserts @numOfSamples number of new entities in the table.
+	 * - Function Name : jdbcTarget <br>
+	 * - Description : Writes each chunk through its own session's JDBC connection, committing every <br>
+	 * batchSize rows. A failed write is thrown as the SQLException that Hibernate wrapped.
 	 */
-	public static void initializeRetailerInventory (int numOfSamples) {
-		String retailerIds [] = {"avik", "GO09", "QW01", "RT03", "RT1235", "RT1239",
-				"RT1240", "RT421", "RT55", "SR01", "TY900", "TY989", "TYP09", "USER01",
-				"USERA22", "UU555", "XX99"};
-		
-		String productIds [] = {"prod01", "prod02", "prod03", "prod04", "prod05",
-				"prod06", "prod07", "prod08", "prod11", "prod12", "prod1245", "prod12458",
-				"prod18", "prod26", "prod420", "prod99", "prodxxx"};
-		
-		int productCat [] = {2, 1, 3, 5, 3, 5, 5, 1, -1, 5, 4, 5, 3, 5, 3, 5, 1};
-		
-		int numberOfSamples = numOfSamples;
-		
-		Random randomGenerator = new Random();
-		Calendar temp = null;
-		
-		int samplesAdded = 0;
-		int samplesRejected = 0;
-		boolean flag = false;
-		while (samplesAdded != numberOfSamples) {
-			int index = randomGenerator.nextInt(retailerIds.length);
-			String retailerId = retailerIds[index];
-			
-			index = randomGenerator.nextInt(productIds.length);
-			int productCategory = productCat[index];
-			String productId = productIds[index];
-			String productUID = productId + Integer.toString(randomGenerator.nextInt(9000) + 1000);// + some random 4 digit number
-			
-			int baseYear = 2000, baseMonth = 0, baseDay = 1;
-			Calendar dispatchTimeStamp = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-			int year = baseYear + randomGenerator.nextInt(2), month = baseMonth + randomGenerator.nextInt(12), day = baseDay + randomGenerator.nextInt(31);
-			dispatchTimeStamp.set (year, month, day);
-			
-			temp = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-			year = year + randomGenerator.nextInt(2); month = month + randomGenerator.nextInt(12); day = day + randomGenerator.nextInt(31);
-			temp.set(year, month, day);
-			
-			flag = ((randomGenerator.nextInt(2)) % 2 == 0)?(true):(false);
-			Calendar receiveTimeStamp = (flag)?(temp):(null);
-			
-			year = year + randomGenerator.nextInt(2); month = month + randomGenerator.nextInt(12); day = day + randomGenerator.nextInt(31);
-			temp.set(year, month, day);
-			Calendar saleTimeStamp = (flag && (randomGenerator.nextInt(2))%2 == 0)?(temp):(null);
-			RetailerInventoryDTO newItem = new RetailerInventoryDTO (retailerId, 
-					(byte)productCategory, productId, productUID, dispatchTimeStamp, receiveTimeStamp, saleTimeStamp);
+	public static Target jdbcTarget(SessionFactory sessionFactory, int batchSize) {
+		return chunk -> {
+			Session session = sessionFactory.openSession();
 			try {
-				if (retailerInventoryDao.insertItemInRetailerInventory(newItem)) {
-					samplesAdded++;
+				session.doWork(connection -> {
+					boolean autoCommit = connection.getAutoCommit();
+					connection.setAutoCommit(false);
+					try (JdbcSink sink = new JdbcSink(connection, batchSize)) {
+						chunk.write(sink);
+						sink.flush();
+					} catch (SQLException | RuntimeException exp) {
+						connection.rollback();
+						throw exp;
+					} finally {
+						connection.setAutoCommit(autoCommit);
+					}
+				});
+			} catch (JDBCException exp) {
+				throw exp.getSQLException();
+			} finally {
+				session.close();
+			}
+		};
+	}
+
+	private interface ChunkWriter {
+		void write(Sink sink, int chunk, Random random) throws SQLException;
+	}
+
+	private void run(String phase, int chunks, Target target, ChunkWriter writer)
+			throws SQLException, InterruptedException {
+		long start = System.nanoTime();
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(config.threads, chunks)));
+		try {
+			List<Future<?>> done = new ArrayList<Future<?>>();
+			for (int chunk = 0; chunk < chunks; chunk++) {
+				int index = chunk;
+				Random random = new Random(chunkSeed(phase, chunk));
+				done.add(pool.submit(() -> {
+					target.write(sink -> writer.write(sink, index, random));
+					return null;
+				}));
+			}
+			for (Future<?> future : done) {
+				future.get();
+			}
+		} catch (ExecutionException exp) {
+			if (exp.getCause() instanceof SQLException) {
+				throw (SQLException) exp.getCause();
+			}
+			throw new IllegalStateException(exp.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		logger.info("DummyDataGenerator - " + phase + " written in " + chunks + " chunks, "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+	}
+
+	private void users(Sink sink, int chunk, Random random) throws SQLException {
+		int end = (int) Math.min(config.users, (long) (chunk + 1) * USERS_PER_CHUNK);
+		for (int user = chunk * USERS_PER_CHUNK; user < end; user++) {
+			String userId = userId(user);
+			sink.user(userId, "User " + user, "user" + user + "@example.com",
+					"Go@" + (1000 + random.nextInt(9000)), 6000000000L + (long) (random.nextDouble() * 3999999999L),
+					userCategory(user));
+			int city = random.nextInt(CITIES.length);
+			sink.address(addressId(user), userId, Integer.toString(1 + random.nextInt(500)), CITIES[city],
+					STATES[city], Integer.toString(400000 + random.nextInt(200000)));
+		}
+	}
+
+	private void products(Sink sink, int chunk, Random random) throws SQLException {
+		int end = (int) Math.min(config.products, (long) (chunk + 1) * PRODUCTS_PER_CHUNK);
+		for (int product = chunk * PRODUCTS_PER_CHUNK; product < end; product++) {
+			String manufacturer = MANUFACTURERS[random.nextInt(MANUFACTURERS.length)];
+			sink.product(productId(product), price(product), COLOURS[random.nextInt(COLOURS.length)],
+					(10 + random.nextInt(190)) + "x" + (10 + random.nextInt(90)) + "x" + (5 + random.nextInt(45))
+							+ " cm",
+					"Model " + (char) ('A' + random.nextInt(26)) + random.nextInt(1000), manufacturer,
+					random.nextInt(1000), productCategory(product),
+					manufacturer + " " + CATEGORY_ITEMS[productCategory(product)] + " " + product);
+		}
+	}
+
+	// lines are numbered across the whole set; a chunk starts a new order at its first line
+	private void orders(Sink sink, int chunk, Random random) throws SQLException {
+		long line = (long) chunk * LINES_PER_CHUNK;
+		long end = Math.min(config.orderLines, line + LINES_PER_CHUNK);
+		long firstMillis = config.firstDay.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+		long days = config.lastDay.toEpochDay() - config.firstDay.toEpochDay() + 1;
+		// the data set ends with the last day; later receive and sale times have not happened yet
+		long asOf = firstMillis + days * DAY_MILLIS;
+		double lineP = 1 / Math.max(config.linesPerOrder, 1);
+		int order = 0;
+		while (line < end) {
+			String orderId = String.format("GO%06d%06d", chunk, order++);
+			int user = retailers[pick(retailerCdf, random)];
+			// order volume grows linearly over the range: the density of sqrt(u) rises linearly
+			long initiate = firstMillis + (long) (Math.sqrt(random.nextDouble()) * days) * DAY_MILLIS
+					+ (long) (random.nextDouble() * DAY_MILLIS);
+			long dispatch = initiate + (long) (random.nextDouble() * 3 * DAY_MILLIS);
+			sink.order(orderId, userId(user), addressId(user), initiate, dispatch);
+			// geometric number of lines with mean linesPerOrder
+			long lines = 1 + (lineP >= 1 ? 0 : (long) (Math.log(1 - random.nextDouble()) / Math.log(1 - lineP)));
+			for (long l = 0; l < lines && line < end; l++, line++) {
+				int product = pick(productCdf, random);
+				String productUin = String.format("GN%012d", line);
+				sink.orderLine(orderId, productId(product), productUin, random.nextDouble() < 0.97 ? 1 : 0,
+						random.nextDouble() < 0.05 ? 1 : 0);
+				if (random.nextDouble() < config.inventoryShare) {
+					// delivery days are log-normal around 4 days, shelf days exponential with a 30 day mean
+					Long receive = dispatch + (long) (Math.exp(Math.log(4) + 0.5 * random.nextGaussian()) * DAY_MILLIS);
+					Long sale = receive + (long) (-Math.log(1 - random.nextDouble()) * 30 * DAY_MILLIS);
+					if (receive >= asOf || random.nextDouble() < 0.1) {
+						receive = null;
+						sale = null;
+					} else if (sale >= asOf || random.nextDouble() < 0.3) {
+						sale = null;
+					}
+					sink.inventoryItem(userId(user), productCategory(product), productId(product), productUin,
+							dispatch, receive, sale);
+				}
+			}
+		}
+	}
+
+	// attributes that orders need again are derived from the index, not drawn from a chunk's stream
+
+	private int userCategory(int user) {
+		if (user == 0) {
+			return USER_CATEGORY_ADMIN;
+		}
+		double u = unit(config.seed, 1, user);
+		if (u < 0.02) {
+			return USER_CATEGORY_SALES_REP;
+		}
+		if (u < 0.025) {
+			return USER_CATEGORY_PRODUCT_MASTER;
+		}
+		return USER_CATEGORY_RETAILER;
+	}
+
+	private int productCategory(int product) {
+		return 1 + (int) (unit(config.seed, 2, product) * 5);
+	}
+
+	// log-normal around 40 with a long tail, in whole cents
+	private double price(int product) {
+		double u = Math.min(Math.max(unit(config.seed, 3, product), 1e-9), 1 - 1e-9);
+		double price = Math.exp(Math.log(40) + 0.9 * inverseNormal(u));
+		return Math.round(Math.min(Math.max(price, 1), 5000) * 100) / 100D;
+	}
+
+	private static String userId(int user) {
+		return String.format("GU%07d", user);
+	}
+
+	private static String addressId(int user) {
+		return String.format("GA%07d", user);
+	}
+
+	private static String productId(int product) {
+		return String.format("GP%06d", product);
+	}
+
+	private static int chunks(long rows, int perChunk) {
+		return (int) ((rows + perChunk - 1) / perChunk);
+	}
+
+	private long chunkSeed(String phase, int chunk) {
+		return mix(config.seed ^ mix(phase.hashCode() * 0x9E3779B97F4A7C15L + chunk));
+	}
+
+	private static double unit(long seed, int stream, int index) {
+		return (mix(seed ^ mix(((long) stream << 32) | index)) >>> 11) * 0x1.0p-53;
+	}
+
+	// the 64-bit finaliser of MurmurHash3
+	private static long mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	private static double[] zipfCdf(int n, double exponent) {
+		double[] cdf = new double[n];
+		double total = 0;
+		for (int rank = 0; rank < n; rank++) {
+			total += 1 / Math.pow(rank + 1, exponent);
+			cdf[rank] = total;
+		}
+		for (int rank = 0; rank < n; rank++) {
+			cdf[rank] /= total;
+		}
+		return cdf;
+	}
+
+	private static int pick(double[] cdf, Random random) {
+		int index = Arrays.binarySearch(cdf, random.nextDouble());
+		return Math.min(index < 0 ? -index - 1 : index, cdf.length - 1);
+	}
+
+	// Acklam's rational approximation of the standard normal quantile (relative error below 1.2e-9)
+	private static double inverseNormal(double p) {
+		double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02, 1.383577518672690e+02,
+				-3.066479806614716e+01, 2.506628277459239e+00};
+		double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02, 6.680131188771972e+01,
+				-1.328068155288572e+01};
+		double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00, -2.549732539343734e+00,
+				4.374664141464968e+00, 2.938163982698783e+00};
+		double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+		if (p < 0.02425) {
+			double q = Math.sqrt(-2 * Math.log(p));
+			return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+					/ ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+		}
+		if (p > 1 - 0.02425) {
+			return -inverseNormal(1 - p);
+		}
+		double q = p - 0.5;
+		double r = q * q;
+		return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+				/ (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+	}
+
+	/**
+	 * Batched inserts over one connection; commits every batchSize rows.
+	 */
+	private static final class JdbcSink implements Sink, AutoCloseable {
+		private final Connection connection;
+		private final int batchSize;
+		// in insertion order, so every batch writes orders before their lines
+		private final PreparedStatement[] statements = new PreparedStatement[6];
+		private final int[] pending = new int[6];
+		private int rows;
+
+		private static final String[] SQL = {
+				"INSERT INTO USER (USER_NAME, USER_ID, USER_MAIL, USER_PASSWORD, USER_CONTACT, USER_CATEGORY, USER_ACTIVE_STATUS) VALUES (?, ?, ?, ?, ?, ?, 1)",
+				"INSERT INTO ADDRESS (ADDRESS_ID, USER_ID, BUILDING_NO, CITY, STATE, COUNTRY, ZIP, BASE_ADDRESS_STATUS) VALUES (?, ?, ?, ?, ?, 'India', ?, 1)",
+				"INSERT INTO PRODUCT (PRODUCT_ID, PRODUCT_PRICE, PRODUCT_COLOUR, PRODUCT_DIMENSION, PRODUCT_SPECIFICATION, PRODUCT_MANUFACTURER, PRODUCT_QUANTITY, PRODUCT_CATEGORY, PRODUCT_NAME) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+				"INSERT INTO `ORDER` (ORDER_ID, ORDER_DISPATCH_STATUS, ORDER_DISPATCH_TIME, USER_ID, ADDRESS_ID, ORDER_INITIATE_TIME) VALUES (?, 1, ?, ?, ?, ?)",
+				"INSERT INTO ORDER_PRODUCT_MAP (ORDER_ID, PRODUCT_ID, PRODUCT_UIN, PRODUCT_STATUS, GIFT_STATUS) VALUES (?, ?, ?, ?, ?)",
+				"INSERT INTO RETAILER_INVENTORY (RETAILER_ID, PRODUCT_CATEGORY, PRODUCT_ID, PRODUCT_UIN, PRODUCT_DISPATCH_TIMESTAMP, PRODUCT_RECEIVE_TIMESTAMP, PRODUCT_SALE_TIMESTAMP) VALUES (?, ?, ?, ?, ?, ?, ?)" };
+
+		private JdbcSink(Connection connection, int batchSize) {
+			this.connection = connection;
+			this.batchSize = batchSize;
+		}
+
+		private PreparedStatement statement(int table) throws SQLException {
+			if (statements[table] == null) {
+				statements[table] = connection.prepareStatement(SQL[table]);
+			}
+			return statements[table];
+		}
+
+		private void added(int table) throws SQLException {
+			statements[table].addBatch();
+			pending[table]++;
+			if (++rows % batchSize == 0) {
+				flush();
+			}
+		}
+
+		@Override
+		public void user(String userId, String userName, String userMail, String userPassword, long userContact,
+				int userCategory) throws SQLException {
+			PreparedStatement insert = statement(0);
+			insert.setString(1, userName);
+			insert.setString(2, userId);
+			insert.setString(3, userMail);
+			insert.setString(4, userPassword);
+			insert.setLong(5, userContact);
+			insert.setInt(6, userCategory);
+			added(0);
+		}
+
+		@Override
+		public void address(String addressId, String userId, String buildingNo, String city, String state,
+				String zip) throws SQLException {
+			PreparedStatement insert = statement(1);
+			insert.setString(1, addressId);
+			insert.setString(2, userId);
+			insert.setString(3, buildingNo);
+			insert.setString(4, city);
+			insert.setString(5, state);
+			insert.setString(6, zip);
+			added(1);
+		}
+
+		@Override
+		public void product(String productId, double price, String colour, String dimension, String specification,
+				String manufacturer, int quantity, int productCategory, String productName) throws SQLException {
+			PreparedStatement insert = statement(2);
+			insert.setString(1, productId);
+			insert.setDouble(2, price);
+			insert.setString(3, colour);
+			insert.setString(4, dimension);
+			insert.setString(5, specification);
+			insert.setString(6, manufacturer);
+			insert.setInt(7, quantity);
+			insert.setInt(8, productCategory);
+			insert.setString(9, productName);
+			added(2);
+		}
+
+		@Override
+		public void order(String orderId, String userId, String addressId, long initiateTime, long dispatchTime)
+				throws SQLException {
+			PreparedStatement insert = statement(3);
+			insert.setString(1, orderId);
+			insert.setTimestamp(2, new Timestamp(dispatchTime));
+			insert.setString(3, userId);
+			insert.setString(4, addressId);
+			insert.setTimestamp(5, new Timestamp(initiateTime));
+			added(3);
+		}
+
+		@Override
+		public void orderLine(String orderId, String productId, String productUin, int productStatus,
+				int giftStatus) throws SQLException {
+			PreparedStatement insert = statement(4);
+			insert.setString(1, orderId);
+			insert.setString(2, productId);
+			insert.setString(3, productUin);
+			insert.setInt(4, productStatus);
+			insert.setInt(5, giftStatus);
+			added(4);
+		}
+
+		@Override
+		public void inventoryItem(String retailerId, int productCategory, String productId, String productUin,
+				long dispatchTime, Long receiveTime, Long saleTime) throws SQLException {
+			PreparedStatement insert = statement(5);
+			insert.setString(1, retailerId);
+			insert.setInt(2, productCategory);
+			insert.setString(3, productId);
+			insert.setString(4, productUin);
+			insert.setTimestamp(5, new Timestamp(dispatchTime));
+			if (receiveTime == null) {
+				insert.setNull(6, Types.TIMESTAMP);
+			} else {
+				insert.setTimestamp(6, new Timestamp(receiveTime));
+			}
+			if (saleTime == null) {
+				insert.setNull(7, Types.TIMESTAMP);
+			} else {
+				insert.setTimestamp(7, new Timestamp(saleTime));
+			}
+			added(5);
+		}
+
+		private void flush() throws SQLException {
+			for (int table = 0; table < statements.length; table++) {
+				if (pending[table] > 0) {
+					statements[table].executeBatch();
+					pending[table] = 0;
+				}
+			}
+			connection.commit();
+		}
+
+		@Override
+		public void close() throws SQLException {
+			for (PreparedStatement statement : statements) {
+				if (statement != null) {
+					statement.close();
 				}
-			} catch (RetailerInventoryException e) {
-				System.out.println(e.getMessage());
-				samplesRejected++;
 			}
 		}
-		System.out.println("Total Samples: " + numberOfSamples + "; Samples Added: " 
-				+ samplesAdded + "; Samples Rejected: " + samplesRejected);
-		return;
 	}
 }
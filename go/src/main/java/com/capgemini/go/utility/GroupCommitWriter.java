@@ -0,0 +1,186 @@
+package com.capgemini.go.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.capgemini.go.exception.ExceptionConstants;
+
+/**
+ * - Class Name : GroupCommitWriter <br>
+ * - Description : Collects rows submitted by concurrent callers and hands them to a single writer thread, <br>
+ * which commits everything that arrived within one window (or up to a row limit) in one transaction. <br>
+ * Each caller's future completes only after the transaction holding its rows has committed. <br>
+ * If a group commit fails, the requests of that group are retried one by one so a single bad row <br>
+ * does not fail unrelated callers.
+ *
+ * @param <T> - row type handed to the committer
+ */
+public class GroupCommitWriter<T> {
+
+	private static Logger logger = Logger.getRootLogger();
+
+	/**
+	 * Writes all rows of one group in a single transaction; must either commit all of them or throw.
+	 */
+	public interface BatchCommitter<T> {
+		void commit(List<T> rows) throws Exception;
+	}
+
+	private static class PendingWrite<T> {
+		private final List<T> rows;
+		private final CompletableFuture<Void> durable = new CompletableFuture<Void>();
+
+		private PendingWrite(List<T> rows) {
+			this.rows = rows;
+		}
+	}
+
+	private final String name;
+	private final BatchCommitter<T> committer;
+	private final long windowNanos;
+	private final int maxRows;
+	private final BlockingQueue<PendingWrite<T>> queue;
+	private volatile boolean running;
+	private Thread writerThread;
+
+	public GroupCommitWriter(String name, BatchCommitter<T> committer, long windowMillis, int maxRows,
+			int queueCapacity) {
+		if (windowMillis < 0 || maxRows < 1 || queueCapacity < 1) {
+			logger.error("GroupCommitWriter - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+			throw new IllegalArgumentException("GroupCommitWriter - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+		}
+		this.name = name;
+		this.committer = committer;
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+		this.maxRows = maxRows;
+		this.queue = new ArrayBlockingQueue<PendingWrite<T>>(queueCapacity);
+	}
+
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		writerThread = new Thread(this::writeLoop, name);
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * Stops accepting rows, commits whatever is still queued and waits for the writer thread to finish.
+	 */
+	public synchronized void shutdown() throws InterruptedException {
+		if (!running) {
+			return;
+		}
+		running = false;
+		writerThread.join();
+		// rows queued by callers that raced with shutdown
+		failAll(new ArrayList<PendingWrite<T>>(),
+				new IllegalStateException(name + " - " + ExceptionConstants.WRITER_NOT_RUNNING));
+	}
+
+	/**
+	 * - Function Name : submit <br>
+	 * - Description : Queues the rows of one caller; waits while the queue is full and the writer is running. <br>
+	 * The returned future completes normally once the rows are committed and exceptionally if they could <br>
+	 * not be written, including when the writer shuts down before taking them.
+	 */
+	public CompletableFuture<Void> submit(List<T> rows) throws InterruptedException {
+		PendingWrite<T> pending = new PendingWrite<T>(new ArrayList<T>(rows));
+		if (rows.isEmpty()) {
+			pending.durable.complete(null);
+			return pending.durable;
+		}
+		while (running) {
+			if (queue.offer(pending, 100, TimeUnit.MILLISECONDS)) {
+				// a shutdown that started meanwhile may already have drained the queue for the last time; if
+				// the rows are still there nobody else will take them, otherwise the writer or the drain has
+				// them and completes the future
+				if (!running && queue.remove(pending)) {
+					break;
+				}
+				return pending.durable;
+			}
+		}
+		pending.durable.completeExceptionally(new IllegalStateException(name + " - " + ExceptionConstants.WRITER_NOT_RUNNING));
+		return pending.durable;
+	}
+
+	private void writeLoop() {
+		List<PendingWrite<T>> group = new ArrayList<PendingWrite<T>>();
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingWrite<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				group.add(first);
+				int rowCount = first.rows.size();
+				long deadline = System.nanoTime() + windowNanos;
+				while (rowCount < maxRows) {
+					long remaining = deadline - System.nanoTime();
+					PendingWrite<T> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+					if (next == null) {
+						break;
+					}
+					group.add(next);
+					rowCount += next.rows.size();
+				}
+				commitGroup(group, rowCount);
+			} catch (InterruptedException exp) {
+				Thread.currentThread().interrupt();
+				failAll(group, exp);
+				break;
+			} finally {
+				group.clear();
+			}
+		}
+	}
+
+	private void commitGroup(List<PendingWrite<T>> group, int rowCount) {
+		List<T> rows = new ArrayList<T>(rowCount);
+		for (PendingWrite<T> pending : group) {
+			rows.addAll(pending.rows);
+		}
+		try {
+			committer.commit(rows);
+			for (PendingWrite<T> pending : group) {
+				pending.durable.complete(null);
+			}
+			return;
+		} catch (Exception exp) {
+			if (group.size() == 1) {
+				logger.error(name + " - " + exp.getMessage());
+				group.get(0).durable.completeExceptionally(exp);
+				return;
+			}
+			logger.error(name + " - group of " + group.size() + " failed, retrying individually - " + exp.getMessage());
+		}
+		for (PendingWrite<T> pending : group) {
+			try {
+				committer.commit(pending.rows);
+				pending.durable.complete(null);
+			} catch (Exception exp) {
+				logger.error(name + " - " + exp.getMessage());
+				pending.durable.completeExceptionally(exp);
+			}
+		}
+	}
+
+	private void failAll(List<PendingWrite<T>> group, Exception cause) {
+		for (PendingWrite<T> pending : group) {
+			pending.durable.completeExceptionally(cause);
+		}
+		PendingWrite<T> pending;
+		while ((pending = queue.poll()) != null) {
+			pending.durable.completeExceptionally(cause);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.capgemini.go.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
+
+/**
+ * - Class Name : GrowthReportCalculator <br>
+ * - Description : Builds the month, quarter and year growth rows of the growth report from monthly <br>
+ * revenue. A year only depends on its own months and on the previous year's December, fourth quarter <br>
+ * and total, all of which follow from the previous year's months, so years are computed independently <br>
+ * (in parallel for long ranges) and concatenated in year order. The result is the same as computing the <br>
+ * years one after another.
+ */
+public final class GrowthReportCalculator {
+
+	public static final String MONTH = "MONTH";
+	public static final String QUARTER = "QUARTER";
+	public static final String YEAR = "YEAR";
+
+	private static final double[] NO_REVENUE = new double[12];
+
+	private GrowthReportCalculator() {
+	}
+
+	/**
+	 * - Function Name : compute <br>
+	 * - Description : Rows of the given type (MONTH, QUARTER or YEAR) for startYear..endYear, years <br>
+	 * counted since 1900 as in revenueByYear. With a pool the years are split across its threads.
+	 */
+	public static List<ViewDetailedSalesReportByProductDTO> compute(Map<Integer, double[]> revenueByYear,
+			int startYear, int endYear, String type, ForkJoinPool pool) throws InterruptedException {
+		if (pool == null) {
+			List<ViewDetailedSalesReportByProductDTO> rows = new ArrayList<ViewDetailedSalesReportByProductDTO>();
+			for (int year = startYear; year <= endYear; year++) {
+				rows.addAll(computeYear(revenueByYear, year, startYear, type));
+			}
+			return rows;
+		}
+		try {
+			// a parallel stream started from inside the pool runs its tasks on that pool
+			return pool.submit(() -> IntStream.rangeClosed(startYear, endYear).parallel()
+					.mapToObj(year -> computeYear(revenueByYear, year, startYear, type))
+					.flatMap(List::stream).collect(Collectors.toList())).get();
+		} catch (ExecutionException exp) {
+			throw new IllegalStateException(exp.getCause());
+		}
+	}
+
+	/**
+	 * - Function Name : computeYear <br>
+	 * - Description : Rows of one year; the first year of the report is compared against zero revenue.
+	 */
+	public static List<ViewDetailedSalesReportByProductDTO> computeYear(Map<Integer, double[]> revenueByYear,
+			int year, int startYear, String type) {
+		double[] arrRevM = revenueByYear.getOrDefault(year, NO_REVENUE);
+		double[] previous = year == startYear ? NO_REVENUE : revenueByYear.getOrDefault(year - 1, NO_REVENUE);
+		double[] arrRevQ = quarters(arrRevM);
+		double[] prevRevQ = quarters(previous);
+		List<ViewDetailedSalesReportByProductDTO> rows = new ArrayList<ViewDetailedSalesReportByProductDTO>(12);
+
+		if (MONTH.equalsIgnoreCase(type)) {
+			double prevM = previous[11];
+			for (int j = 0; j <= 11; j++) {
+				double amtM;
+				double perChngM;
+				if (j == 0) {
+					amtM = arrRevM[j] - prevM;
+					perChngM = Math.round((100 * (amtM) / prevM) * 100) / 100D;
+				} else {
+					amtM = arrRevM[j] - arrRevM[j - 1];
+					perChngM = Math.round((100 * (amtM) / arrRevM[j - 1]) * 100) / 100D;
+				}
+				rows.add(row(j, arrRevM[j], amtM, perChngM, MONTH));
+			}
+		} else if (QUARTER.equalsIgnoreCase(type)) {
+			double prevQ = prevRevQ[3];
+			for (int j = 0; j <= 3; j++) {
+				double amtQ;
+				double perChngQ;
+				if (j == 0) {
+					amtQ = arrRevQ[j] - prevQ;
+					perChngQ = Math.round((100 * (amtQ) / prevQ) * 100) / 100D;
+				} else {
+					amtQ = arrRevQ[j] - arrRevQ[j - 1];
+					perChngQ = Math.round((100 * (amtQ) / arrRevQ[j - 1]) * 100) / 100D;
+				}
+				rows.add(row(j, arrRevQ[j], amtQ, perChngQ, QUARTER));
+			}
+		} else if (YEAR.equalsIgnoreCase(type)) {
+			double arrRevY = arrRevQ[0] + arrRevQ[1] + arrRevQ[2] + arrRevQ[3];
+			double prevY = prevRevQ[0] + prevRevQ[1] + prevRevQ[2] + prevRevQ[3];
+			double amtY = arrRevY - prevY;
+			double perChngY = Math.round((100 * (amtY / prevY)));
+			rows.add(row(year + 1900, arrRevY, amtY, perChngY, YEAR));
+		}
+		return rows;
+	}
+
+	private static double[] quarters(double[] arrRevM) {
+		double[] arrRevQ = new double[4];
+		int k = 0;
+		for (int j = 0; j <= 3; j++) {
+			arrRevQ[j] = arrRevM[k] + arrRevM[k + 1] + arrRevM[k + 2];
+			k += 3;
+		}
+		return arrRevQ;
+	}
+
+	private static ViewDetailedSalesReportByProductDTO row(int period, double revenue, double amountChange,
+			double percentageGrowth, String type) {
+		ViewDetailedSalesReportByProductDTO temp = new ViewDetailedSalesReportByProductDTO();
+		temp.setPeriod(period);
+		temp.setRevenue(revenue);
+		temp.setAmountChange(amountChange);
+		temp.setPercentageGrowth(percentageGrowth);
+		temp.setCode(code(percentageGrowth));
+		temp.setType(type);
+		return temp;
+	}
+
+	// checking the necessary condition for color code
+	private static String code(double percentageGrowth) {
+		if (percentageGrowth >= 10.0)
+			return "GREEN";
+		else if (percentageGrowth >= 2.0 && percentageGrowth <= 10)
+			return "AMBER";
+		else
+			return "RED";
+	}
+}
@@ -0,0 +1,141 @@
+package com.capgemini.go.utility;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * - Class Name : HyperLogLog <br>
+ * - Description : Fixed size sketch estimating how many distinct strings were offered to it. It keeps <br>
+ * 2^precision one-byte registers whatever the number of values, and sketches of the same precision <br>
+ * merge into the sketch of the union of their values. The relative standard error of the estimate is <br>
+ * 1.04 / sqrt(2^precision), e.g. 1.6% at precision 12 (4 KB), so about 95% of estimates fall within <br>
+ * twice that of the exact count; small counts are estimated by linear counting and are close to exact. <br>
+ * Values cannot be removed. Not thread-safe.
+ */
+public class HyperLogLog {
+
+	private final int precision;
+	private final byte[] registers;
+
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 16) {
+			throw new IllegalArgumentException("precision must be between 4 and 16: " + precision);
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	public HyperLogLog(HyperLogLog from) {
+		this.precision = from.precision;
+		this.registers = from.registers.clone();
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	public static double relativeError(int precision) {
+		return 1.04 / Math.sqrt(1 << precision);
+	}
+
+	public void offer(String value) {
+		long hash = hash(value);
+		int index = (int) (hash >>> (64 - precision));
+		// the guard bit caps the rank at 64 - precision + 1 when the remaining bits are all zero
+		int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+		if (rank > registers[index]) {
+			registers[index] = (byte) rank;
+		}
+	}
+
+	/**
+	 * - Function Name : merge <br>
+	 * - Description : Adds the values of other to this sketch.
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("cannot merge precision " + other.precision + " into " + precision);
+		}
+		byte[] theirs = other.registers;
+		for (int i = 0; i < registers.length; i++) {
+			if (theirs[i] > registers[i]) {
+				registers[i] = theirs[i];
+			}
+		}
+	}
+
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double alpha = 0.7213 / (1 + 1.079 / m);
+		double estimate = alpha * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	// first 64 bits of the 128-bit x64 MurmurHash3 (seed 0) of the UTF-8 bytes; hashing the bytes rather than
+	// folding the characters into a 64-bit polynomial first keeps ids that collide under such a polynomial
+	// (e.g. "P10" and "P0O") apart
+	private static long hash(String value) {
+		byte[] data = value.getBytes(StandardCharsets.UTF_8);
+		int blocks = data.length / 16;
+		long h1 = 0;
+		long h2 = 0;
+		for (int block = 0; block < blocks; block++) {
+			h1 ^= mixK1(littleEndianLong(data, block * 16, 8));
+			h1 = Long.rotateLeft(h1, 27) + h2;
+			h1 = h1 * 5 + 0x52dce729;
+			h2 ^= mixK2(littleEndianLong(data, block * 16 + 8, 8));
+			h2 = Long.rotateLeft(h2, 31) + h1;
+			h2 = h2 * 5 + 0x38495ab5;
+		}
+		int tail = blocks * 16;
+		int remaining = data.length - tail;
+		if (remaining > 8) {
+			h2 ^= mixK2(littleEndianLong(data, tail + 8, remaining - 8));
+		}
+		if (remaining > 0) {
+			h1 ^= mixK1(littleEndianLong(data, tail, Math.min(remaining, 8)));
+		}
+		h1 ^= data.length;
+		h2 ^= data.length;
+		h1 += h2;
+		h2 += h1;
+		h1 = finalizeMix(h1);
+		h2 = finalizeMix(h2);
+		return h1 + h2;
+	}
+
+	private static long littleEndianLong(byte[] data, int offset, int length) {
+		long value = 0;
+		for (int i = length - 1; i >= 0; i--) {
+			value = (value << 8) | (data[offset + i] & 0xff);
+		}
+		return value;
+	}
+
+	private static long mixK1(long k1) {
+		return Long.rotateLeft(k1 * 0x87c37b91114253d5L, 31) * 0x4cf5ad432745937fL;
+	}
+
+	private static long mixK2(long k2) {
+		return Long.rotateLeft(k2 * 0x4cf5ad432745937fL, 33) * 0x87c37b91114253d5L;
+	}
+
+	private static long finalizeMix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
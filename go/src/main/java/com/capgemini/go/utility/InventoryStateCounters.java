@@ -0,0 +1,140 @@
+package com.capgemini.go.utility;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.capgemini.go.bean.InventoryStateCountBean;
+
+/**
+ * - Class Name : InventoryStateCounters <br>
+ * - Description : Live count of inventory items in transit (dispatched, not received), on shelf (received, <br>
+ * not sold) and sold, per retailer and product category. Every retailer and category has its own cell of <br>
+ * atomic counters, so concurrent updates only contend when they hit the same retailer and category, and <br>
+ * reading a retailer's counts touches only that retailer's cells. <br>
+ * Each cell also accumulates the changes not yet written to the summary table; drain takes them (and <br>
+ * restore puts them back if the write fails), so no change is written twice or lost.
+ */
+public class InventoryStateCounters {
+
+	public static final int NONE = -1;
+	public static final int IN_TRANSIT = 0;
+	public static final int ON_SHELF = 1;
+	public static final int SOLD = 2;
+	private static final int STATES = 3;
+
+	private static final class Cell {
+		private final AtomicLongArray live = new AtomicLongArray(STATES);
+		private final AtomicLongArray pending = new AtomicLongArray(STATES);
+	}
+
+	// by retailer, then category in ascending order
+	private final ConcurrentMap<String, ConcurrentSkipListMap<Byte, Cell>> cells = new ConcurrentHashMap<String, ConcurrentSkipListMap<Byte, Cell>>();
+
+	/**
+	 * - Function Name : state <br>
+	 * - Description : State of an item from its receive and sale times.
+	 */
+	public static int state(Calendar receiveTimestamp, Calendar saleTimestamp) {
+		if (saleTimestamp != null) {
+			return SOLD;
+		}
+		return receiveTimestamp != null ? ON_SHELF : IN_TRANSIT;
+	}
+
+	private Cell cell(String retailerId, byte productCategory) {
+		return cells.computeIfAbsent(retailerId, id -> new ConcurrentSkipListMap<Byte, Cell>())
+				.computeIfAbsent(productCategory, category -> new Cell());
+	}
+
+	/**
+	 * - Function Name : move <br>
+	 * - Description : Records items of a retailer and category going from one state to another; NONE as <br>
+	 * from is an insert, NONE as to a delete.
+	 */
+	public void move(String retailerId, byte productCategory, int from, int to, long items) {
+		if (from == to || items == 0) {
+			return;
+		}
+		Cell cell = cell(retailerId, productCategory);
+		if (from != NONE) {
+			cell.live.addAndGet(from, -items);
+			cell.pending.addAndGet(from, -items);
+		}
+		if (to != NONE) {
+			cell.live.addAndGet(to, items);
+			cell.pending.addAndGet(to, items);
+		}
+	}
+
+	/**
+	 * - Function Name : get <br>
+	 * - Description : Current counts of a retailer, one bean per category in category order.
+	 */
+	public List<InventoryStateCountBean> get(String retailerId) {
+		List<InventoryStateCountBean> result = new ArrayList<InventoryStateCountBean>();
+		Map<Byte, Cell> categories = cells.get(retailerId);
+		if (categories == null) {
+			return result;
+		}
+		for (Map.Entry<Byte, Cell> entry : categories.entrySet()) {
+			AtomicLongArray live = entry.getValue().live;
+			result.add(new InventoryStateCountBean(retailerId, entry.getKey(), live.get(IN_TRANSIT),
+					live.get(ON_SHELF), live.get(SOLD)));
+		}
+		return result;
+	}
+
+	/**
+	 * - Function Name : drain <br>
+	 * - Description : Takes the changes accumulated since the last drain, one bean per changed cell.
+	 */
+	public List<InventoryStateCountBean> drain() {
+		List<InventoryStateCountBean> changes = new ArrayList<InventoryStateCountBean>();
+		for (Map.Entry<String, ConcurrentSkipListMap<Byte, Cell>> retailer : cells.entrySet()) {
+			for (Map.Entry<Byte, Cell> entry : retailer.getValue().entrySet()) {
+				AtomicLongArray pending = entry.getValue().pending;
+				long inTransit = pending.getAndSet(IN_TRANSIT, 0);
+				long onShelf = pending.getAndSet(ON_SHELF, 0);
+				long sold = pending.getAndSet(SOLD, 0);
+				if (inTransit != 0 || onShelf != 0 || sold != 0) {
+					changes.add(new InventoryStateCountBean(retailer.getKey(), entry.getKey(), inTransit, onShelf, sold));
+				}
+			}
+		}
+		return changes;
+	}
+
+	/**
+	 * - Function Name : restore <br>
+	 * - Description : Puts back changes taken by drain that could not be written.
+	 */
+	public void restore(List<InventoryStateCountBean> changes) {
+		for (InventoryStateCountBean change : changes) {
+			AtomicLongArray pending = cell(change.getRetailerId(), change.getProductCategoryNumber()).pending;
+			pending.addAndGet(IN_TRANSIT, change.getInTransit());
+			pending.addAndGet(ON_SHELF, change.getOnShelf());
+			pending.addAndGet(SOLD, change.getSold());
+		}
+	}
+
+	/**
+	 * - Function Name : reset <br>
+	 * - Description : Replaces all counts with the given ones and drops the unwritten changes, which the <br>
+	 * given counts are expected to include.
+	 */
+	public void reset(List<InventoryStateCountBean> counts) {
+		cells.clear();
+		for (InventoryStateCountBean count : counts) {
+			AtomicLongArray live = cell(count.getRetailerId(), count.getProductCategoryNumber()).live;
+			live.set(IN_TRANSIT, count.getInTransit());
+			live.set(ON_SHELF, count.getOnShelf());
+			live.set(SOLD, count.getSold());
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.capgemini.go.utility;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * - Class Name : OrderQuantileSketches <br>
+ * - Description : Quantile sketches of order value and basket size (order lines) per order day and <br>
+ * product category. Category 0 holds whole orders; categories 1 to 5 hold, for every order with lines <br>
+ * of that category, the value and line count of those lines. Ranges of days are answered by merging <br>
+ * their day sketches. <br>
+ * No order is kept: a change to an order is given the totals the order had before it.
+ */
+public class OrderQuantileSketches {
+
+	public static final int WHOLE_ORDER = 0;
+	public static final int CATEGORIES = 6;
+
+	private final double relativeAccuracy;
+	// per day: value sketch at 2 * category, basket size sketch at 2 * category + 1
+	private final ConcurrentHashMap<Integer, QuantileSketch[]> days = new ConcurrentHashMap<Integer, QuantileSketch[]>();
+
+	public OrderQuantileSketches(double relativeAccuracy) {
+		this.relativeAccuracy = relativeAccuracy;
+	}
+
+	public void add(int day, int category, double value, long lines) {
+		update(day, category, value, lines, true);
+	}
+
+	/**
+	 * - Function Name : remove <br>
+	 * - Description : Takes back an order (or order category) added earlier, e.g. before it changed.
+	 */
+	public void remove(int day, int category, double value, long lines) {
+		update(day, category, value, lines, false);
+	}
+
+	/**
+	 * - Function Name : changeOrder <br>
+	 * - Description : Moves an order from the value and line count it had, as a whole and in the <br>
+	 * category, by the value and line count of lines placed (positive) or cancelled and returned <br>
+	 * (negative). An order with no lines before is added, one left with no lines is taken out.
+	 */
+	public void changeOrder(int day, int category, double previousOrderValue, long previousOrderLines,
+			double previousCategoryValue, long previousCategoryLines, double value, long lines) {
+		if (category <= WHOLE_ORDER || category >= CATEGORIES || lines == 0) {
+			return;
+		}
+		move(day, WHOLE_ORDER, previousOrderValue, previousOrderLines, value, lines);
+		move(day, category, previousCategoryValue, previousCategoryLines, value, lines);
+	}
+
+	private void move(int day, int category, double previousValue, long previousLines, double value, long lines) {
+		if (previousLines > 0) {
+			remove(day, category, previousValue, previousLines);
+		}
+		if (previousLines + lines > 0) {
+			add(day, category, previousValue + value, previousLines + lines);
+		}
+	}
+
+	private void update(int day, int category, double value, long lines, boolean add) {
+		if (category < 0 || category >= CATEGORIES) {
+			return;
+		}
+		QuantileSketch[] sketches = days.computeIfAbsent(day, d -> new QuantileSketch[2 * CATEGORIES]);
+		synchronized (sketches) {
+			if (sketches[2 * category] == null) {
+				sketches[2 * category] = new QuantileSketch(relativeAccuracy);
+				sketches[2 * category + 1] = new QuantileSketch(relativeAccuracy);
+			}
+			if (add) {
+				sketches[2 * category].add(value);
+				sketches[2 * category + 1].add(lines);
+			} else {
+				sketches[2 * category].remove(value);
+				sketches[2 * category + 1].remove(lines);
+			}
+		}
+	}
+
+	/**
+	 * - Function Name : merge <br>
+	 * - Description : Order value and basket size sketches of one category over the days fromDay..toDay <br>
+	 * (epoch days, inclusive), as a two element array.
+	 */
+	public QuantileSketch[] merge(int fromDay, int toDay, int category) {
+		QuantileSketch value = new QuantileSketch(relativeAccuracy);
+		QuantileSketch basket = new QuantileSketch(relativeAccuracy);
+		for (int day = fromDay; day <= toDay; day++) {
+			QuantileSketch[] sketches = days.get(day);
+			if (sketches != null) {
+				synchronized (sketches) {
+					if (sketches[2 * category] != null) {
+						value.merge(sketches[2 * category]);
+						basket.merge(sketches[2 * category + 1]);
+					}
+				}
+			}
+		}
+		return new QuantileSketch[] { value, basket };
+	}
+}
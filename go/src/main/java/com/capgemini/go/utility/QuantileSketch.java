@@ -0,0 +1,131 @@
+package com.capgemini.go.utility;
+
+/**
+ * - Class Name : QuantileSketch <br>
+ * - Description : Mergeable sketch of a distribution of non-negative values, answering quantiles with a <br>
+ * bounded relative error. Values are counted in logarithmic buckets [gamma^(i-1), gamma^i) with <br>
+ * gamma = (1 + a) / (1 - a), and a quantile is reported as the midpoint of its bucket, so it is within a <br>
+ * (the relative accuracy) of the exact value. Memory depends on the spread of the values, not on their <br>
+ * number: a values spanning three orders of magnitude need ln(1000) / ln(gamma) buckets, about 350 at <br>
+ * a = 1%. Merging adds bucket counts, so sketches of disjoint periods merge into the sketch of their union; <br>
+ * and unlike t-digest a value can be removed again. Not thread-safe.
+ */
+public class QuantileSketch {
+
+	private static final long[] NO_COUNTS = new long[0];
+
+	private final double relativeAccuracy;
+	private final double gamma;
+	private final double logGamma;
+
+	// counts[i] holds bucket offset + i
+	private long[] counts = NO_COUNTS;
+	private int offset;
+	private long zeroCount;
+	private long count;
+
+	public QuantileSketch(double relativeAccuracy) {
+		if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+			throw new IllegalArgumentException("relative accuracy must be between 0 and 1: " + relativeAccuracy);
+		}
+		this.relativeAccuracy = relativeAccuracy;
+		this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+		this.logGamma = Math.log(gamma);
+	}
+
+	public double getRelativeAccuracy() {
+		return relativeAccuracy;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void add(double value) {
+		update(value, 1);
+	}
+
+	/**
+	 * - Function Name : remove <br>
+	 * - Description : Takes back one earlier added value; a value whose bucket is empty is ignored.
+	 */
+	public void remove(double value) {
+		update(value, -1);
+	}
+
+	private void update(double value, long delta) {
+		if (value <= 0) {
+			if (delta > 0 || zeroCount > 0) {
+				zeroCount += delta;
+				count += delta;
+			}
+			return;
+		}
+		int index = (int) Math.ceil(Math.log(value) / logGamma);
+		if (delta < 0 && (index < offset || index >= offset + counts.length || counts[index - offset] == 0)) {
+			return;
+		}
+		cover(index, index);
+		counts[index - offset] += delta;
+		count += delta;
+	}
+
+	/**
+	 * - Function Name : merge <br>
+	 * - Description : Adds the values of other, which must have the same relative accuracy.
+	 */
+	public void merge(QuantileSketch other) {
+		if (other.gamma != gamma) {
+			throw new IllegalArgumentException("cannot merge sketches of different relative accuracy");
+		}
+		zeroCount += other.zeroCount;
+		count += other.count;
+		if (other.counts.length == 0) {
+			return;
+		}
+		cover(other.offset, other.offset + other.counts.length - 1);
+		for (int i = 0; i < other.counts.length; i++) {
+			counts[other.offset + i - offset] += other.counts[i];
+		}
+	}
+
+	// grows counts so that it holds the buckets from..to
+	private void cover(int from, int to) {
+		if (counts.length == 0) {
+			counts = new long[to - from + 1];
+			offset = from;
+			return;
+		}
+		int low = Math.min(from, offset);
+		int high = Math.max(to, offset + counts.length - 1);
+		if (low == offset && high == offset + counts.length - 1) {
+			return;
+		}
+		long[] grown = new long[high - low + 1];
+		System.arraycopy(counts, 0, grown, offset - low, counts.length);
+		counts = grown;
+		offset = low;
+	}
+
+	/**
+	 * - Function Name : quantile <br>
+	 * - Description : The value at quantile q (0 to 1), or NaN when the sketch is empty.
+	 */
+	public double quantile(double q) {
+		if (count <= 0) {
+			return Double.NaN;
+		}
+		long rank = (long) Math.floor(Math.max(0, Math.min(1, q)) * (count - 1));
+		if (rank < zeroCount) {
+			return 0;
+		}
+		long seen = zeroCount;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen > rank) {
+				return 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+			}
+		}
+		return 2 * Math.pow(gamma, offset + counts.length - 1) / (gamma + 1);
+	}
+}
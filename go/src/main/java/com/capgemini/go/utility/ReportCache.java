@@ -0,0 +1,255 @@
+package com.capgemini.go.utility;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * - Class Name : ReportCache <br>
+ * - Description : Bounded cache of report results keyed by the full parameter set of a report. Entries <br>
+ * expire after a fixed time to live and the least recently used entry is evicted once the cache is full. <br>
+ * Each entry records either the order days it covers or the user it belongs to, so that order activity <br>
+ * can drop exactly the entries it makes stale. A result computed while an invalidation ran is returned but not <br>
+ * cached, since it may predate that invalidation. <br>
+ * Concurrent misses on the same key are coalesced: the first caller loads the result and the others wait <br>
+ * for it and share it (or its exception) instead of running the same report again. Callers arriving after <br>
+ * an invalidation do not join a load started before it.
+ */
+public class ReportCache {
+
+	/**
+	 * Computes a report on a cache miss.
+	 */
+	public interface Loader<V, E extends Exception> {
+		V load() throws E;
+	}
+
+	private static final class Entry {
+		private final Object value;
+		private final long expiresAt;
+		private final int fromDay;
+		private final int toDay;
+		private final String owner;
+
+		private Entry(Object value, long expiresAt, int fromDay, int toDay, String owner) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.fromDay = fromDay;
+			this.toDay = toDay;
+			this.owner = owner;
+		}
+	}
+
+	private final String name;
+	private final int maxEntries;
+	private final long ttlMillis;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong expirations = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+
+	// bumped by every invalidation; guarded by `this` together with entries
+	private long generation;
+
+	// access-ordered, so the eldest entry is the least recently used one
+	private final LinkedHashMap<String, Entry> entries;
+
+	private static final class InFlight {
+		private final long generation;
+		private final CompletableFuture<Object> result = new CompletableFuture<Object>();
+
+		private InFlight(long generation) {
+			this.generation = generation;
+		}
+	}
+
+	// loads running now, by key; guarded by `this`
+	private final Map<String, InFlight> inFlight = new HashMap<String, InFlight>();
+
+	public ReportCache(String name, int maxEntries, long ttlMillis) {
+		this.name = name;
+		this.maxEntries = maxEntries;
+		this.ttlMillis = ttlMillis;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > ReportCache.this.maxEntries) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public static String key(String report, Object... parameters) {
+		StringBuilder key = new StringBuilder(report);
+		for (Object parameter : parameters) {
+			key.append('|').append(parameter instanceof Date ? ((Date) parameter).getTime() : parameter);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * - Function Name : get <br>
+	 * - Description : Returns the cached result for key, or loads, caches and returns it. fromDay..toDay <br>
+	 * (epoch days, inclusive) are the order days the result depends on.
+	 */
+	public <V, E extends Exception> V get(String key, int fromDay, int toDay, Loader<V, E> loader) throws E {
+		return get(key, fromDay, toDay, null, loader);
+	}
+
+	/**
+	 * - Function Name : get <br>
+	 * - Description : Returns the cached result for key, or loads, caches and returns it. owner is the user <br>
+	 * whose data the result is built from.
+	 */
+	public <V, E extends Exception> V get(String key, String owner, Loader<V, E> loader) throws E {
+		return get(key, Integer.MAX_VALUE, Integer.MIN_VALUE, owner, loader);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <V, E extends Exception> V get(String key, int fromDay, int toDay, String owner, Loader<V, E> loader)
+			throws E {
+		InFlight flight;
+		boolean leader;
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				if (entry.expiresAt > System.currentTimeMillis()) {
+					hits.incrementAndGet();
+					return (V) entry.value;
+				}
+				entries.remove(key);
+				expirations.incrementAndGet();
+			}
+			flight = inFlight.get(key);
+			if (flight != null && flight.generation == generation) {
+				coalesced.incrementAndGet();
+				leader = false;
+			} else {
+				flight = new InFlight(generation);
+				inFlight.put(key, flight);
+				leader = true;
+			}
+		}
+		if (!leader) {
+			return await(flight);
+		}
+		return load(key, fromDay, toDay, owner, loader, flight);
+	}
+
+	private <V, E extends Exception> V load(String key, int fromDay, int toDay, String owner, Loader<V, E> loader,
+			InFlight flight) throws E {
+		misses.incrementAndGet();
+		try {
+			V value = loader.load();
+			synchronized (this) {
+				if (maxEntries > 0 && generation == flight.generation) {
+					entries.put(key, new Entry(value, System.currentTimeMillis() + ttlMillis, fromDay, toDay, owner));
+				}
+			}
+			flight.result.complete(value);
+			return value;
+		} catch (Exception | Error exp) {
+			flight.result.completeExceptionally(exp);
+			throw exp;
+		} finally {
+			synchronized (this) {
+				inFlight.remove(key, flight);
+			}
+		}
+	}
+
+	// the waiting callers asked for the same key, so they expect the same result and exception types
+	@SuppressWarnings("unchecked")
+	private static <V, E extends Exception> V await(InFlight flight) throws E {
+		try {
+			return (V) flight.result.join();
+		} catch (CompletionException exp) {
+			Throwable cause = exp.getCause();
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw (E) cause;
+		}
+	}
+
+	/**
+	 * - Function Name : invalidateDay <br>
+	 * - Description : Drops the entries covering the given order day; returns the number dropped.
+	 */
+	public synchronized int invalidateDay(int day) {
+		generation++;
+		int dropped = 0;
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (day >= entry.fromDay && day <= entry.toDay) {
+				iterator.remove();
+				dropped++;
+			}
+		}
+		invalidations.addAndGet(dropped);
+		return dropped;
+	}
+
+	/**
+	 * - Function Name : invalidateOwner <br>
+	 * - Description : Drops the entries belonging to owner; returns the number dropped.
+	 */
+	public synchronized int invalidateOwner(String owner) {
+		generation++;
+		int dropped = 0;
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			if (owner.equals(iterator.next().owner)) {
+				iterator.remove();
+				dropped++;
+			}
+		}
+		invalidations.addAndGet(dropped);
+		return dropped;
+	}
+
+	public synchronized void invalidateAll() {
+		generation++;
+		invalidations.addAndGet(entries.size());
+		entries.clear();
+	}
+
+	/**
+	 * - Function Name : getStats <br>
+	 * - Description : size, hits, misses, evictions (size bound), expirations (time to live), <br>
+	 * invalidations (order activity) and coalesced (calls that shared another call's load) since startup.
+	 */
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<String, Object>();
+		stats.put("cache", name);
+		synchronized (this) {
+			stats.put("size", entries.size());
+		}
+		stats.put("maxEntries", maxEntries);
+		stats.put("ttlMillis", ttlMillis);
+		stats.put("hits", hits.get());
+		stats.put("misses", misses.get());
+		stats.put("evictions", evictions.get());
+		stats.put("expirations", expirations.get());
+		stats.put("invalidations", invalidations.get());
+		stats.put("coalesced", coalesced.get());
+		synchronized (this) {
+			stats.put("inFlight", inFlight.size());
+		}
+		return stats;
+	}
+}
@@ -0,0 +1,176 @@
+package com.capgemini.go.utility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.log4j.Logger;
+
+import com.google.gson.JsonPrimitive;
+
+/**
+ * - Class Name : ReportExportWriter <br>
+ * - Description : Writes report rows as gzip-compressed CSV or NDJSON. Rows are formatted into a small <br>
+ * character buffer, encoded into a ByteBuffer and written to a gzip channel in chunks, so memory use <br>
+ * does not depend on how many rows are exported. Logs the row count and rows per second on close. <br>
+ * An export that fails part way is ended with abort instead of close, which leaves out the gzip trailer <br>
+ * so that the client sees a corrupt download rather than a short but valid file.
+ */
+public class ReportExportWriter implements Closeable {
+
+	private static Logger logger = Logger.getRootLogger();
+
+	public enum Format {
+		CSV("csv"), NDJSON("ndjson");
+
+		private final String extension;
+
+		Format(String extension) {
+			this.extension = extension;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+
+		public static Format of(String name) {
+			return name != null && name.equalsIgnoreCase("ndjson") ? NDJSON : CSV;
+		}
+	}
+
+	private static final int CHUNK_CHARS = 64 * 1024;
+
+	// exposes the deflater so that abort can release it without writing the trailer
+	private static final class ExportGzipStream extends GZIPOutputStream {
+		private ExportGzipStream(OutputStream target) throws IOException {
+			super(target, CHUNK_CHARS);
+		}
+
+		private void abort() {
+			def.end();
+		}
+	}
+
+	private final Format format;
+	private final String[] columns;
+	private final ExportGzipStream gzip;
+	private final WritableByteChannel channel;
+	private final StringBuilder pending = new StringBuilder(CHUNK_CHARS + 1024);
+	private final long startNanos = System.nanoTime();
+	private long rows;
+	private boolean finished;
+
+	public ReportExportWriter(OutputStream target, Format format, String... columns) throws IOException {
+		this.format = format;
+		this.columns = columns;
+		this.gzip = new ExportGzipStream(target);
+		this.channel = Channels.newChannel(gzip);
+		if (format == Format.CSV) {
+			appendCsvLine(columns);
+		}
+	}
+
+	/**
+	 * - Function Name : writeRow <br>
+	 * - Description : Writes one row; values are matched to the columns given to the constructor.
+	 */
+	public void writeRow(Object... values) throws IOException {
+		if (format == Format.CSV) {
+			appendCsvLine(values);
+		} else {
+			pending.append('{');
+			for (int i = 0; i < columns.length; i++) {
+				if (i > 0) {
+					pending.append(',');
+				}
+				pending.append(new JsonPrimitive(columns[i]).toString()).append(':');
+				pending.append(jsonValue(values[i]));
+			}
+			pending.append("}\n");
+		}
+		rows++;
+		if (pending.length() >= CHUNK_CHARS) {
+			drain();
+		}
+	}
+
+	// numbers and booleans stay JSON numbers and booleans, anything else is written as its string;
+	// NaN and infinities have no JSON form and are written as null
+	private static String jsonValue(Object value) {
+		if (value instanceof Number) {
+			double number = ((Number) value).doubleValue();
+			return Double.isNaN(number) || Double.isInfinite(number) ? "null"
+					: new JsonPrimitive((Number) value).toString();
+		}
+		if (value instanceof Boolean) {
+			return new JsonPrimitive((Boolean) value).toString();
+		}
+		return value == null ? "null" : new JsonPrimitive(String.valueOf(value)).toString();
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	private void appendCsvLine(Object[] values) {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				pending.append(',');
+			}
+			String value = values[i] == null ? "" : String.valueOf(values[i]);
+			if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+				pending.append('"').append(value.replace("\"", "\"\"")).append('"');
+			} else {
+				pending.append(value);
+			}
+		}
+		pending.append('\n');
+	}
+
+	private void drain() throws IOException {
+		ByteBuffer chunk = StandardCharsets.UTF_8.encode(CharBuffer.wrap(pending));
+		while (chunk.hasRemaining()) {
+			channel.write(chunk);
+		}
+		pending.setLength(0);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		try {
+			drain();
+		} finally {
+			// closing the channel finishes the gzip trailer and closes the target stream
+			channel.close();
+			double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+			logger.info("ReportExportWriter - " + format + " export of " + rows + " rows, "
+					+ Math.round(rows / seconds) + " rows/s");
+		}
+	}
+
+	/**
+	 * - Function Name : abort <br>
+	 * - Description : Ends a failed export: drops the rows not yet written and releases the compressor <br>
+	 * without finishing the gzip stream. The target stream is left open, so that a caller whose response <br>
+	 * is not committed yet can reset it and send an error instead.
+	 */
+	public void abort() {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		pending.setLength(0);
+		gzip.abort();
+		logger.warn("ReportExportWriter - " + format + " export aborted after " + rows + " rows");
+	}
+}
@@ -0,0 +1,158 @@
+package com.capgemini.go.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.capgemini.go.bean.RetailerInventoryBean;
+
+/**
+ * - Class Name : RetailerRegistry <br>
+ * - Description : The retailers that have items in RETAILER_INVENTORY, with their names and item counts, <br>
+ * kept up to date by the inventory inserts and deletes so that listing them needs no table scan. <br>
+ * It is seeded from the database with load, which only takes effect if no insert or delete was begun or <br>
+ * recorded since the caller took its mark, and none was being written when it took it; otherwise the <br>
+ * counts read may already be out of date, or already hold a write that is still to be recorded, and the <br>
+ * caller should read them again. Every write is begun with writing before it is sent to the database and <br>
+ * then recorded with added, removed or failed. Writes recorded before the first load only move the mark.
+ */
+public class RetailerRegistry {
+
+	private static final class Retailer {
+		private String name;
+		private long items;
+
+		private Retailer(String name, long items) {
+			this.name = name;
+			this.items = items;
+		}
+	}
+
+	// by retailer id, which is the order of the list; guarded by `this`
+	private final TreeMap<String, Retailer> retailers = new TreeMap<String, Retailer>();
+	private boolean loaded;
+	private long modifications;
+	// writes begun and not yet recorded
+	private int writing;
+
+	// rebuilt on the first read after a change
+	private volatile List<RetailerInventoryBean> snapshot;
+
+	public synchronized boolean isLoaded() {
+		return loaded;
+	}
+
+	// a mark taken while a write is in flight never loads
+	public synchronized long mark() {
+		return writing > 0 ? -1 : modifications;
+	}
+
+	/**
+	 * - Function Name : writing <br>
+	 * - Description : Records that an insert or delete is about to be written, before the database can <br>
+	 * show it to a load.
+	 */
+	public synchronized void writing() {
+		writing++;
+		modifications++;
+	}
+
+	/**
+	 * - Function Name : failed <br>
+	 * - Description : Records that a write begun with writing was not made.
+	 */
+	public synchronized void failed() {
+		writing--;
+		modifications++;
+	}
+
+	/**
+	 * - Function Name : load <br>
+	 * - Description : Replaces the registry with the given item counts and names, read after mark() <br>
+	 * returned mark; returns false, leaving the registry as it was, if it changed in between.
+	 */
+	public synchronized boolean load(Map<String, Long> itemsByRetailer, Map<String, String> names, long mark) {
+		if (mark != modifications) {
+			return false;
+		}
+		retailers.clear();
+		for (Map.Entry<String, Long> entry : itemsByRetailer.entrySet()) {
+			if (entry.getValue() > 0) {
+				retailers.put(entry.getKey(), new Retailer(names.get(entry.getKey()), entry.getValue()));
+			}
+		}
+		loaded = true;
+		snapshot = null;
+		return true;
+	}
+
+	/**
+	 * - Function Name : added <br>
+	 * - Description : Records an item inserted for retailerId, as begun with writing; returns true if <br>
+	 * that made it a new retailer, whose name is then to be given with named.
+	 */
+	public synchronized boolean added(String retailerId) {
+		writing--;
+		modifications++;
+		if (!loaded) {
+			return false;
+		}
+		Retailer retailer = retailers.get(retailerId);
+		if (retailer != null) {
+			retailer.items++;
+			return false;
+		}
+		retailers.put(retailerId, new Retailer(null, 1));
+		snapshot = null;
+		return true;
+	}
+
+	public synchronized void named(String retailerId, String name) {
+		Retailer retailer = retailers.get(retailerId);
+		if (retailer != null) {
+			retailer.name = name;
+			snapshot = null;
+		}
+	}
+
+	/**
+	 * - Function Name : removed <br>
+	 * - Description : Records an item deleted for retailerId, as begun with writing; the retailer leaves <br>
+	 * the registry with its last item.
+	 */
+	public synchronized void removed(String retailerId) {
+		writing--;
+		modifications++;
+		Retailer retailer = retailers.get(retailerId);
+		if (retailer != null && --retailer.items <= 0) {
+			retailers.remove(retailerId);
+			snapshot = null;
+		}
+	}
+
+	/**
+	 * - Function Name : getRetailers <br>
+	 * - Description : The registered retailers (id and name) in id order, as an unmodifiable list.
+	 */
+	public List<RetailerInventoryBean> getRetailers() {
+		List<RetailerInventoryBean> result = snapshot;
+		if (result != null) {
+			return result;
+		}
+		synchronized (this) {
+			if (snapshot == null) {
+				List<RetailerInventoryBean> list = new ArrayList<RetailerInventoryBean>(retailers.size());
+				for (Map.Entry<String, Retailer> entry : retailers.entrySet()) {
+					RetailerInventoryBean object = new RetailerInventoryBean();
+					object.setRetailerId(entry.getKey());
+					object.setRetailerName(entry.getValue().name);
+					list.add(object);
+				}
+				snapshot = Collections.unmodifiableList(list);
+			}
+			return snapshot;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package com.capgemini.go.utility;
+
+import java.io.IOException;
+
+/**
+ * - Interface Name : RowHandler <br>
+ * - Description : Receives rows one at a time from a DAO reading a forward-only cursor, <br>
+ * so callers can write each row out (e.g. to a response stream) without collecting a list.
+ *
+ * @param <T> - row type
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+	void handle(T row) throws IOException;
+}
@@ -0,0 +1,338 @@
+package com.capgemini.go.utility;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * - Class Name : SalesColumnStore <br>
+ * - Description : Column-oriented, append-only store of sales facts. Each fact is one order line (or a <br>
+ * negative correction for a cancel/return) held as parallel primitive arrays: epoch day, dictionary codes <br>
+ * for user and product, category byte, unit count and signed amount. Queries are plain loops over the <br>
+ * arrays, so slicing tens of millions of facts touches no objects; per-block day ranges let date-bounded <br>
+ * queries skip most of the store. <br>
+ * A single writer appends (calls are serialised); readers never lock and see every fact appended before <br>
+ * they started.
+ */
+public class SalesColumnStore {
+
+	public enum GroupBy {
+		NONE, DAY, USER, CATEGORY, PRODUCT
+	}
+
+	/**
+	 * Filter of a slice; null / 0 fields do not filter. Days are inclusive.
+	 */
+	public static class Slice {
+		private LocalDate from;
+		private LocalDate to;
+		private String userId;
+		private int category;
+		private String productId;
+		private GroupBy groupBy = GroupBy.NONE;
+
+		public Slice(LocalDate from, LocalDate to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		public Slice user(String userId) {this.userId = userId; return this;}
+		public Slice category(int category) {this.category = category; return this;}
+		public Slice product(String productId) {this.productId = productId; return this;}
+		public Slice groupBy(GroupBy groupBy) {this.groupBy = groupBy; return this;}
+	}
+
+	public static class SliceResult {
+		private double revenue;
+		private long units;
+		private int lines;
+		private final Map<String, Double> revenueByGroup = new LinkedHashMap<String, Double>();
+
+		public double getRevenue() {return revenue;}
+		public long getUnits() {return units;}
+		public int getLines() {return lines;}
+		public Map<String, Double> getRevenueByGroup() {return revenueByGroup;}
+	}
+
+	// facts are scanned in blocks; each block keeps the lowest and highest day it holds (a zone map) so
+	// that date-bounded queries skip blocks outside the range. Facts arrive roughly in day order, so most
+	// blocks cover a few days only.
+	private static final int BLOCK_SHIFT = 12;
+	private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+	// blocks per parallel task; smaller stores are scanned on the calling thread
+	private static final int BLOCKS_PER_TASK = 256;
+
+	private static final class Columns {
+		private final int[] day;
+		private final int[] user;
+		private final int[] product;
+		private final byte[] category;
+		private final int[] units;
+		private final double[] amount;
+		private final int[] blockMinDay;
+		private final int[] blockMaxDay;
+
+		private Columns(int capacity) {
+			day = new int[capacity];
+			user = new int[capacity];
+			product = new int[capacity];
+			category = new byte[capacity];
+			units = new int[capacity];
+			amount = new double[capacity];
+			blockMinDay = new int[blocks(capacity)];
+			blockMaxDay = new int[blocks(capacity)];
+		}
+
+		private Columns(Columns from, int capacity) {
+			day = Arrays.copyOf(from.day, capacity);
+			user = Arrays.copyOf(from.user, capacity);
+			product = Arrays.copyOf(from.product, capacity);
+			category = Arrays.copyOf(from.category, capacity);
+			units = Arrays.copyOf(from.units, capacity);
+			amount = Arrays.copyOf(from.amount, capacity);
+			blockMinDay = Arrays.copyOf(from.blockMinDay, blocks(capacity));
+			blockMaxDay = Arrays.copyOf(from.blockMaxDay, blocks(capacity));
+		}
+
+		private static int blocks(int rows) {
+			return (rows + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+		}
+	}
+
+	// running totals of one scan task
+	private static final class Partial {
+		private double revenue;
+		private long units;
+		private int lines;
+		private final double[] groups;
+
+		private Partial(int groupCount) {
+			groups = new double[groupCount];
+		}
+
+		private Partial merge(Partial other) {
+			revenue += other.revenue;
+			units += other.units;
+			lines += other.lines;
+			for (int g = 0; g < groups.length; g++) {
+				groups[g] += other.groups[g];
+			}
+			return this;
+		}
+	}
+
+	// written before size, so a reader that sees a size also sees columns holding that many facts
+	private volatile Columns columns;
+	private volatile int size;
+
+	private final Map<String, Integer> userCodes = new HashMap<String, Integer>();
+	private final Map<String, Integer> productCodes = new HashMap<String, Integer>();
+	private volatile String[] userNames = new String[0];
+	private volatile String[] productNames = new String[0];
+
+	public SalesColumnStore(int initialCapacity) {
+		columns = new Columns(Math.max(initialCapacity, BLOCK_SIZE));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public static int toEpochDay(Date date) {
+		return (int) Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+	}
+
+	/**
+	 * - Function Name : append <br>
+	 * - Description : Adds one fact; cancels and returns are appended with negative units and amount.
+	 */
+	public synchronized void append(Date orderDate, String userId, String productId, int category, int units,
+			double amount) {
+		int row = size;
+		Columns target = columns;
+		if (row == target.day.length) {
+			target = new Columns(target, row * 2);
+			columns = target;
+		}
+		int day = toEpochDay(orderDate);
+		int block = row >>> BLOCK_SHIFT;
+		if ((row & (BLOCK_SIZE - 1)) == 0) {
+			target.blockMinDay[block] = day;
+			target.blockMaxDay[block] = day;
+		} else {
+			target.blockMinDay[block] = Math.min(target.blockMinDay[block], day);
+			target.blockMaxDay[block] = Math.max(target.blockMaxDay[block], day);
+		}
+		target.day[row] = day;
+		target.user[row] = userCodes.computeIfAbsent(userId, id -> {
+			userNames = append(userNames, id);
+			return userNames.length - 1;
+		});
+		target.product[row] = productCodes.computeIfAbsent(productId, id -> {
+			productNames = append(productNames, id);
+			return productNames.length - 1;
+		});
+		target.category[row] = (byte) category;
+		target.units[row] = units;
+		target.amount[row] = amount;
+		size = row + 1;
+	}
+
+	private static String[] append(String[] names, String name) {
+		String[] grown = Arrays.copyOf(names, names.length + 1);
+		grown[names.length] = name;
+		return grown;
+	}
+
+	/**
+	 * - Function Name : query <br>
+	 * - Description : Filters and aggregates the facts in one pass over the blocks whose days overlap the <br>
+	 * slice; large stores are split into block ranges scanned in parallel.
+	 */
+	public SliceResult query(Slice slice) {
+		int n = size;
+		Columns c = columns;
+		String[] users = userNames;
+		String[] products = productNames;
+		SliceResult result = new SliceResult();
+		if (n == 0) {
+			return result;
+		}
+
+		int fromDay = slice.from == null ? Integer.MIN_VALUE : (int) slice.from.toEpochDay();
+		int toDay = slice.to == null ? Integer.MAX_VALUE : (int) slice.to.toEpochDay();
+		int userCode = slice.userId == null ? -1 : codeOf(userCodes, slice.userId);
+		int productCode = slice.productId == null ? -1 : codeOf(productCodes, slice.productId);
+		if ((slice.userId != null && userCode < 0) || (slice.productId != null && productCode < 0)) {
+			return result;
+		}
+
+		int blocks = Columns.blocks(n);
+		int firstDay = 0;
+		int groupCount;
+		switch (slice.groupBy) {
+		case DAY:
+			int lowest = Integer.MAX_VALUE;
+			int highest = Integer.MIN_VALUE;
+			for (int b = 0; b < blocks; b++) {
+				lowest = Math.min(lowest, c.blockMinDay[b]);
+				highest = Math.max(highest, c.blockMaxDay[b]);
+			}
+			firstDay = Math.max(fromDay, lowest);
+			groupCount = Math.max(Math.min(toDay, highest) - firstDay + 1, 0);
+			break;
+		case USER:
+			groupCount = users.length;
+			break;
+		case PRODUCT:
+			groupCount = products.length;
+			break;
+		case CATEGORY:
+			groupCount = 256;
+			break;
+		default:
+			groupCount = 0;
+			break;
+		}
+
+		int dayBase = firstDay;
+		int tasks = (blocks + BLOCKS_PER_TASK - 1) / BLOCKS_PER_TASK;
+		Partial total = IntStream.range(0, tasks).parallel()
+				.mapToObj(task -> scan(c, n, task * BLOCKS_PER_TASK, Math.min(blocks, (task + 1) * BLOCKS_PER_TASK),
+						fromDay, toDay, userCode, productCode, (byte) slice.category, slice.groupBy, dayBase,
+						groupCount))
+				.reduce(Partial::merge).orElse(new Partial(groupCount));
+
+		result.revenue = total.revenue;
+		result.units = total.units;
+		result.lines = total.lines;
+		for (int g = 0; g < groupCount; g++) {
+			if (total.groups[g] != 0) {
+				result.revenueByGroup.put(groupKey(slice.groupBy, g, users, products, dayBase), total.groups[g]);
+			}
+		}
+		return result;
+	}
+
+	private static Partial scan(Columns c, int n, int firstBlock, int endBlock, int fromDay, int toDay, int userCode,
+			int productCode, byte category, GroupBy groupBy, int dayBase, int groupCount) {
+		Partial partial = new Partial(groupCount);
+		int[] day = c.day;
+		int[] user = c.user;
+		int[] product = c.product;
+		byte[] cat = c.category;
+		int[] units = c.units;
+		double[] amount = c.amount;
+		double[] groups = partial.groups;
+		boolean anyUser = userCode < 0;
+		boolean anyProduct = productCode < 0;
+		boolean anyCategory = category == 0;
+		double revenue = 0;
+		long unitTotal = 0;
+		int lines = 0;
+
+		for (int b = firstBlock; b < endBlock; b++) {
+			if (c.blockMaxDay[b] < fromDay || c.blockMinDay[b] > toDay) {
+				continue;
+			}
+			// a block inside the range needs no per-row day test
+			boolean wholeBlock = c.blockMinDay[b] >= fromDay && c.blockMaxDay[b] <= toDay;
+			int end = Math.min(n, (b + 1) << BLOCK_SHIFT);
+			for (int i = b << BLOCK_SHIFT; i < end; i++) {
+				int d = day[i];
+				if (!(wholeBlock || (d >= fromDay & d <= toDay)) || !(anyUser || user[i] == userCode)
+						|| !(anyProduct || product[i] == productCode) || !(anyCategory || cat[i] == category)) {
+					continue;
+				}
+				double a = amount[i];
+				revenue += a;
+				unitTotal += units[i];
+				lines++;
+				switch (groupBy) {
+				case DAY:
+					groups[d - dayBase] += a;
+					break;
+				case USER:
+					groups[user[i]] += a;
+					break;
+				case PRODUCT:
+					groups[product[i]] += a;
+					break;
+				case CATEGORY:
+					groups[cat[i]] += a;
+					break;
+				default:
+					break;
+				}
+			}
+		}
+		partial.revenue = revenue;
+		partial.units = unitTotal;
+		partial.lines = lines;
+		return partial;
+	}
+
+	private static String groupKey(GroupBy groupBy, int group, String[] users, String[] products, int dayBase) {
+		switch (groupBy) {
+		case DAY:
+			return LocalDate.ofEpochDay(dayBase + (long) group).toString();
+		case USER:
+			return users[group];
+		case PRODUCT:
+			return products[group];
+		default:
+			return Integer.toString(group);
+		}
+	}
+
+	private synchronized int codeOf(Map<String, Integer> codes, String id) {
+		Integer code = codes.get(id);
+		return code == null ? -1 : code;
+	}
+}
@@ -0,0 +1,60 @@
+package com.capgemini.go.utility;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.capgemini.go.dto.SalesRollupDTO;
+import com.capgemini.go.exception.ExceptionConstants;
+
+/**
+ * - Class Name : SalesRollupDelta <br>
+ * - Description : The change one order event makes to SALES_ROLLUP. Order lines are added with the sign <br>
+ * of the event, 1 when they are placed and -1 when they are cancelled, returned or removed, and are <br>
+ * summed per rollup row (order day, product category, user). Each resulting row is added to the <br>
+ * matching SALES_ROLLUP row, or inserted if there is none, so a placement followed by the cancellation <br>
+ * of the same lines leaves the rollup where it was.
+ */
+public class SalesRollupDelta {
+
+	private final int sign;
+	private final Map<String, SalesRollupDTO> rows = new LinkedHashMap<String, SalesRollupDTO>();
+
+	public SalesRollupDelta(int sign) {
+		if (sign != 1 && sign != -1) {
+			throw new IllegalArgumentException("SalesRollupDelta - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED);
+		}
+		this.sign = sign;
+	}
+
+	/**
+	 * - Function Name : addLines <br>
+	 * - Description : Adds `lines` order lines worth `revenue` in total to the row of their day, category <br>
+	 * and user.
+	 */
+	public void addLines(Date salesDay, int productCategory, String userId, double revenue, long lines) {
+		String key = salesDay.getTime() + "|" + productCategory + "|" + userId;
+		SalesRollupDTO row = rows.get(key);
+		if (row == null) {
+			row = new SalesRollupDTO(salesDay, productCategory, userId, 0, 0);
+			rows.put(key, row);
+		}
+		row.setRevenue(row.getRevenue() + sign * revenue);
+		row.setUnits(row.getUnits() + sign * lines);
+	}
+
+	/**
+	 * - Function Name : addLines <br>
+	 * - Description : Adds a row of SALES_ROLLUP_LINES: day, category, user, price sum, line count.
+	 */
+	public void addLines(Object[] linesRow) {
+		addLines((Date) linesRow[0], ((Number) linesRow[1]).intValue(), (String) linesRow[2],
+				((Number) linesRow[3]).doubleValue(), ((Number) linesRow[4]).longValue());
+	}
+
+	public List<SalesRollupDTO> getRows() {
+		return new ArrayList<SalesRollupDTO>(rows.values());
+	}
+}
@@ -0,0 +1,55 @@
+package com.capgemini.go.utility;
+
+/**
+ * - Class Name : TimeHistogramBuckets <br>
+ * - Description : Buckets of the shelf and delivery time histograms. The buckets are given by ascending, <br>
+ * inclusive upper bounds in days, one per bucket but the last, which is open ended: bounds 7, 30, 90 <br>
+ * make the buckets 0-7, 8-30, 31-90 and 91+. The database returns, per bound, the number of items at or <br>
+ * below it, and the bucket counts are the differences of those.
+ */
+public class TimeHistogramBuckets {
+
+	private TimeHistogramBuckets() {
+	}
+
+	/**
+	 * - Function Name : isValid <br>
+	 * - Description : true if there are at most maxBounds bounds, none negative, in strictly ascending order.
+	 */
+	public static boolean isValid(int[] upperBounds, int maxBounds) {
+		if (upperBounds.length > maxBounds) {
+			return false;
+		}
+		for (int bound = 0; bound < upperBounds.length; bound++) {
+			if (upperBounds[bound] < 0 || (bound > 0 && upperBounds[bound] <= upperBounds[bound - 1])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * - Function Name : fromCumulative <br>
+	 * - Description : Item count of every bucket, from the total item count and the count at or below each <br>
+	 * bound; the result has one more entry than atOrBelow, for the open last bucket.
+	 */
+	public static long[] fromCumulative(long items, long[] atOrBelow) {
+		long[] bucketItems = new long[atOrBelow.length + 1];
+		long below = 0;
+		for (int bucket = 0; bucket < atOrBelow.length; bucket++) {
+			bucketItems[bucket] = atOrBelow[bucket] - below;
+			below = atOrBelow[bucket];
+		}
+		bucketItems[atOrBelow.length] = items - below;
+		return bucketItems;
+	}
+
+	/**
+	 * - Function Name : label <br>
+	 * - Description : "0-7", "8-30", ..., "91+" for bucket 0, 1, ..., upperBounds.length.
+	 */
+	public static String label(int[] upperBounds, int bucket) {
+		int from = bucket == 0 ? 0 : upperBounds[bucket - 1] + 1;
+		return bucket == upperBounds.length ? from + "+" : from + "-" + upperBounds[bucket];
+	}
+}
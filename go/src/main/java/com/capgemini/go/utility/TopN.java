@@ -0,0 +1,52 @@
+package com.capgemini.go.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * - Class Name : TopN <br>
+ * - Description : Keeps the n greatest of the items offered to it in a min-heap of at most n items, <br>
+ * so selecting the top n of a stream costs O(n) memory and O(log n) per item.
+ */
+public class TopN<T> {
+
+	private final int n;
+	private final Comparator<? super T> order;
+	private final PriorityQueue<T> heap;
+
+	public TopN(int n, Comparator<? super T> order) {
+		this.n = n;
+		this.order = order;
+		this.heap = new PriorityQueue<T>(Math.max(n, 1), order);
+	}
+
+	public void offer(T item) {
+		if (n <= 0) {
+			return;
+		}
+		if (heap.size() < n) {
+			heap.add(item);
+		} else if (order.compare(item, heap.peek()) > 0) {
+			heap.poll();
+			heap.add(item);
+		}
+	}
+
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+
+	/**
+	 * - Function Name : drain <br>
+	 * - Description : Returns the kept items, greatest first, and empties the heap for reuse.
+	 */
+	public List<T> drain() {
+		List<T> top = new ArrayList<T>(heap);
+		heap.clear();
+		top.sort(Collections.reverseOrder(order));
+		return top;
+	}
+}
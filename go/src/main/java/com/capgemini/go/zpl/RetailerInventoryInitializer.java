@@ -1,14 +1,22 @@
 package com.capgemini.go.zpl;
 
-import com.capgemini.go.dao.RetailerInventoryDaoImpl;
+import java.sql.SQLException;
+
 import com.capgemini.go.utility.DummyDataGenerator;
 import com.capgemini.go.utility.HibernateUtil;
 
 public class RetailerInventoryInitializer {
-		
-	public static void main (String args []) {
-		DummyDataGenerator.retailerInventoryDao = new RetailerInventoryDaoImpl ();
-		((RetailerInventoryDaoImpl) DummyDataGenerator.retailerInventoryDao).setSessionFactory(HibernateUtil.getSessionFactory());
-		DummyDataGenerator.initializeRetailerInventory(600);
+
+	/*
+	 * arguments (all optional, in order): seed, users, products, order lines, threads
+	 */
+	public static void main (String args []) throws SQLException, InterruptedException {
+		DummyDataGenerator.Config config = new DummyDataGenerator.Config();
+		if (args.length > 0) config.seed(Long.parseLong(args[0]));
+		if (args.length > 1) config.users(Integer.parseInt(args[1]));
+		if (args.length > 2) config.products(Integer.parseInt(args[2]));
+		if (args.length > 3) config.orderLines(Long.parseLong(args[3]));
+		if (args.length > 4) config.threads(Integer.parseInt(args[4]));
+		new DummyDataGenerator(config).generate(DummyDataGenerator.jdbcTarget(HibernateUtil.getSessionFactory(), 1000));
 	}
 }
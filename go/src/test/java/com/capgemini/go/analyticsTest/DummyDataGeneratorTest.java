@@ -0,0 +1,122 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.JDBCException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.Test;
+
+import com.capgemini.go.utility.DummyDataGenerator;
+
+public class DummyDataGeneratorTest {
+
+	// every generated row as text, sorted, since chunks finish in any order
+	private static List<String> rows(DummyDataGenerator.Config config) throws Exception {
+		List<String> rows = Collections.synchronizedList(new ArrayList<String>());
+		new DummyDataGenerator(config).generate(chunk -> chunk.write(new DummyDataGenerator.Sink() {
+			@Override
+			public void user(String userId, String userName, String userMail, String userPassword, long userContact,
+					int userCategory) {
+				rows.add("U " + userId + " " + userName + " " + userMail + " " + userContact + " " + userCategory);
+			}
+
+			@Override
+			public void address(String addressId, String userId, String buildingNo, String city, String state,
+					String zip) {
+				rows.add("A " + addressId + " " + userId + " " + buildingNo + " " + city + " " + zip);
+			}
+
+			@Override
+			public void product(String productId, double price, String colour, String dimension,
+					String specification, String manufacturer, int quantity, int productCategory,
+					String productName) {
+				rows.add("P " + productId + " " + price + " " + productCategory + " " + productName);
+			}
+
+			@Override
+			public void order(String orderId, String userId, String addressId, long initiateTime,
+					long dispatchTime) {
+				assertTrue(dispatchTime >= initiateTime);
+				rows.add("O " + orderId + " " + userId + " " + initiateTime + " " + dispatchTime);
+			}
+
+			@Override
+			public void orderLine(String orderId, String productId, String productUin, int productStatus,
+					int giftStatus) {
+				rows.add("L " + productUin + " " + orderId + " " + productId + " " + productStatus + giftStatus);
+			}
+
+			@Override
+			public void inventoryItem(String retailerId, int productCategory, String productId, String productUin,
+					long dispatchTime, Long receiveTime, Long saleTime) {
+				assertTrue(receiveTime == null || receiveTime > dispatchTime);
+				assertTrue(saleTime == null || saleTime >= receiveTime);
+				rows.add("I " + productUin + " " + retailerId + " " + receiveTime + " " + saleTime);
+			}
+		}));
+		Collections.sort(rows);
+		return rows;
+	}
+
+	private static DummyDataGenerator.Config config(long seed, int threads) {
+		return new DummyDataGenerator.Config().seed(seed).users(25000).products(12000).orderLines(250000)
+				.threads(threads);
+	}
+
+	private static long count(List<String> rows, String prefix) {
+		return rows.stream().filter(row -> row.startsWith(prefix)).count();
+	}
+
+	@Test
+	public void testSameSeedSameRowsWhateverTheThreads() throws Exception {
+		List<String> single = rows(config(7, 1));
+		assertEquals(single, rows(config(7, 4)));
+		assertNotEquals(single, rows(config(8, 4)));
+	}
+
+	@Test
+	public void testCardinalities() throws Exception {
+		List<String> rows = rows(config(42, 4));
+		assertEquals(25000, count(rows, "U "));
+		assertEquals(25000, count(rows, "A "));
+		assertEquals(12000, count(rows, "P "));
+		assertEquals(250000, count(rows, "L "));
+		long orders = count(rows, "O ");
+		assertTrue(orders > 250000 / 4 && orders < 250000 / 2);
+		long inventory = count(rows, "I ");
+		assertTrue(inventory > 250000 * 0.18 && inventory < 250000 * 0.22);
+	}
+
+	@Test
+	public void testFailedJdbcWriteThrowsTheSqlException() throws Exception {
+		SessionFactory sessionFactory = mock(SessionFactory.class);
+		Session session = mock(Session.class);
+		when(sessionFactory.openSession()).thenReturn(session);
+		SQLException duplicate = new SQLException("Duplicate entry 'G0000000001' for key 'PRIMARY'", "23000", 1062);
+		// Session.doWork wraps what the work throws
+		doThrow(new JDBCException("could not execute batch", duplicate)).when(session).doWork(any());
+
+		try {
+			new DummyDataGenerator(new DummyDataGenerator.Config().users(10).products(0).orderLines(0))
+					.generate(DummyDataGenerator.jdbcTarget(sessionFactory, 100));
+			fail("the write should have failed");
+		} catch (SQLException exp) {
+			assertEquals(duplicate, exp);
+		}
+		verify(session).close();
+	}
+}
@@ -0,0 +1,184 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.utility.GroupCommitWriter;
+
+public class GroupCommitWriterTest {
+
+	// every committed group, in order; the first commit waits for the gate
+	private final List<List<String>> commits = Collections.synchronizedList(new ArrayList<List<String>>());
+	private final CountDownLatch gate = new CountDownLatch(1);
+	private final CountDownLatch committing = new CountDownLatch(1);
+	private GroupCommitWriter<String> writer;
+
+	private void commit(List<String> rows) throws Exception {
+		committing.countDown();
+		if (!gate.await(10, TimeUnit.SECONDS)) {
+			throw new IllegalStateException("gate not opened");
+		}
+		if (rows.contains("bad")) {
+			throw new IllegalStateException("duplicate key bad");
+		}
+		commits.add(new ArrayList<String>(rows));
+	}
+
+	private GroupCommitWriter<String> start(int maxRows, int queueCapacity) {
+		writer = new GroupCommitWriter<String>("test-writer", this::commit, 50, maxRows, queueCapacity);
+		writer.start();
+		return writer;
+	}
+
+	@After
+	public void stop() throws InterruptedException {
+		gate.countDown();
+		writer.shutdown();
+	}
+
+	private static void await(CompletableFuture<Void> durable) throws Exception {
+		durable.get(10, TimeUnit.SECONDS);
+	}
+
+	private static String failure(CompletableFuture<Void> durable) throws Exception {
+		try {
+			await(durable);
+			fail("the write should have failed");
+			return null;
+		} catch (ExecutionException exp) {
+			return exp.getCause().getMessage();
+		}
+	}
+
+	@Test
+	public void testRowsQueuedDuringACommitShareTheNext() throws Exception {
+		start(500, 100);
+		CompletableFuture<Void> first = writer.submit(Collections.singletonList("r1"));
+		assertTrue(committing.await(10, TimeUnit.SECONDS));
+		List<CompletableFuture<Void>> waiting = new ArrayList<CompletableFuture<Void>>();
+		for (String row : new String[] { "r2", "r3", "r4" }) {
+			waiting.add(writer.submit(Collections.singletonList(row)));
+		}
+		assertTrue(!first.isDone());
+
+		gate.countDown();
+		await(first);
+		for (CompletableFuture<Void> durable : waiting) {
+			await(durable);
+		}
+		assertEquals(Arrays.asList(Arrays.asList("r1"), Arrays.asList("r2", "r3", "r4")), commits);
+	}
+
+	@Test
+	public void testGroupsCloseAtTheRowLimit() throws Exception {
+		start(2, 100);
+		CompletableFuture<Void> first = writer.submit(Collections.singletonList("r1"));
+		assertTrue(committing.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Void> pair = writer.submit(Arrays.asList("r2", "r3"));
+		CompletableFuture<Void> last = writer.submit(Collections.singletonList("r4"));
+
+		gate.countDown();
+		await(first);
+		await(pair);
+		await(last);
+		assertEquals(Arrays.asList(Arrays.asList("r1"), Arrays.asList("r2", "r3"), Arrays.asList("r4")), commits);
+	}
+
+	@Test
+	public void testAFailedGroupIsRetriedRequestByRequest() throws Exception {
+		start(500, 100);
+		CompletableFuture<Void> first = writer.submit(Collections.singletonList("r1"));
+		assertTrue(committing.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Void> good = writer.submit(Collections.singletonList("r2"));
+		CompletableFuture<Void> bad = writer.submit(Arrays.asList("r3", "bad"));
+		CompletableFuture<Void> alsoGood = writer.submit(Collections.singletonList("r4"));
+
+		gate.countDown();
+		await(first);
+		await(good);
+		await(alsoGood);
+		assertEquals("duplicate key bad", failure(bad));
+		assertEquals(Arrays.asList(Arrays.asList("r1"), Arrays.asList("r2"), Arrays.asList("r4")), commits);
+	}
+
+	@Test
+	public void testShutdownCommitsWhatIsQueuedAndRefusesMore() throws Exception {
+		start(500, 100);
+		CompletableFuture<Void> first = writer.submit(Collections.singletonList("r1"));
+		assertTrue(committing.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Void> queued = writer.submit(Collections.singletonList("r2"));
+
+		gate.countDown();
+		writer.shutdown();
+		assertTrue(first.isDone() && queued.isDone());
+		assertEquals(Arrays.asList(Arrays.asList("r1"), Arrays.asList("r2")), commits);
+		assertEquals("test-writer - " + ExceptionConstants.WRITER_NOT_RUNNING,
+				failure(writer.submit(Collections.singletonList("r3"))));
+	}
+
+	@Test
+	public void testSubmitBlockedOnAFullQueueEndsAtShutdown() throws Exception {
+		start(1, 1);
+		CompletableFuture<Void> first = writer.submit(Collections.singletonList("r1"));
+		assertTrue(committing.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Void> queued = writer.submit(Collections.singletonList("r2"));
+
+		// the queue is full: these callers wait until the writer takes r2 or shuts down
+		List<CompletableFuture<Void>> blocked = Collections.synchronizedList(new ArrayList<CompletableFuture<Void>>());
+		List<Thread> callers = new ArrayList<Thread>();
+		for (String row : new String[] { "r3", "r4", "r5" }) {
+			Thread caller = new Thread(() -> {
+				try {
+					blocked.add(writer.submit(Collections.singletonList(row)));
+				} catch (InterruptedException exp) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			caller.start();
+			callers.add(caller);
+		}
+		Thread stopping = new Thread(() -> {
+			try {
+				writer.shutdown();
+			} catch (InterruptedException exp) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		stopping.start();
+		gate.countDown();
+
+		stopping.join(10000);
+		for (Thread caller : callers) {
+			caller.join(10000);
+			assertTrue(!caller.isAlive());
+		}
+		await(first);
+		await(queued);
+		// every caller hears back: committed if the writer took its rows, refused otherwise
+		assertEquals(3, blocked.size());
+		int committed = 2;
+		for (CompletableFuture<Void> durable : blocked) {
+			try {
+				await(durable);
+				committed++;
+			} catch (ExecutionException exp) {
+				assertEquals("test-writer - " + ExceptionConstants.WRITER_NOT_RUNNING, exp.getCause().getMessage());
+			}
+		}
+		assertEquals(committed, commits.size());
+	}
+}
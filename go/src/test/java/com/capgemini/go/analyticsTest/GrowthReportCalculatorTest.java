@@ -0,0 +1,73 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
+import com.capgemini.go.utility.GrowthReportCalculator;
+
+public class GrowthReportCalculatorTest {
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	@AfterClass
+	public static void shutdownPool() {
+		POOL.shutdownNow();
+	}
+
+	private static Map<Integer, double[]> revenue(int startYear, int endYear) {
+		Random random = new Random(7);
+		Map<Integer, double[]> revenueByYear = new HashMap<Integer, double[]>();
+		for (int year = startYear; year <= endYear; year++) {
+			// leave some years without sales
+			if (year % 5 == 3) {
+				continue;
+			}
+			double[] months = new double[12];
+			for (int month = 0; month < 12; month++) {
+				months[month] = random.nextInt(100000) / 7.0;
+			}
+			revenueByYear.put(year, months);
+		}
+		return revenueByYear;
+	}
+
+	private static String render(List<ViewDetailedSalesReportByProductDTO> rows) {
+		StringBuilder text = new StringBuilder();
+		for (ViewDetailedSalesReportByProductDTO row : rows) {
+			text.append(row.getPeriod()).append(',').append(row.getRevenue()).append(',')
+					.append(row.getAmountChange()).append(',').append(row.getPercentageGrowth()).append(',')
+					.append(row.getCode()).append(',').append(row.getType()).append('\n');
+		}
+		return text.toString();
+	}
+
+	@Test
+	public void testParallelMatchesSequential() throws InterruptedException {
+		Map<Integer, double[]> revenueByYear = revenue(105, 124);
+		for (String type : new String[] { GrowthReportCalculator.MONTH, GrowthReportCalculator.QUARTER,
+				GrowthReportCalculator.YEAR }) {
+			assertEquals(render(GrowthReportCalculator.compute(revenueByYear, 105, 124, type, null)),
+					render(GrowthReportCalculator.compute(revenueByYear, 105, 124, type, POOL)));
+		}
+	}
+
+	@Test
+	public void testYearAfterMissingYear() throws InterruptedException {
+		Map<Integer, double[]> revenueByYear = revenue(105, 124);
+		// 108 has no sales, so 109 grows from zero
+		List<ViewDetailedSalesReportByProductDTO> years = GrowthReportCalculator.compute(revenueByYear, 105, 124,
+				GrowthReportCalculator.YEAR, null);
+		assertEquals(20, years.size());
+		assertEquals(2009, years.get(4).getPeriod());
+		assertEquals(years.get(4).getRevenue(), years.get(4).getAmountChange(), 1e-9);
+	}
+}
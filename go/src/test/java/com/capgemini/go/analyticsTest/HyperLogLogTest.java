@@ -0,0 +1,74 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.capgemini.go.bean.DistinctCountBean;
+import com.capgemini.go.utility.DailyDistinctSketches;
+import com.capgemini.go.utility.HyperLogLog;
+
+public class HyperLogLogTest {
+
+	@Test
+	public void testSmallCountsAreNearlyExact() {
+		HyperLogLog sketch = new HyperLogLog(12);
+		for (int i = 0; i < 100; i++) {
+			sketch.offer("retailer" + i);
+			sketch.offer("retailer" + i);
+		}
+		assertEquals(100, sketch.estimate(), 2);
+	}
+
+	@Test
+	public void testLargeCountWithinErrorBound() {
+		HyperLogLog sketch = new HyperLogLog(12);
+		int distinct = 1000000;
+		for (int i = 0; i < distinct; i++) {
+			sketch.offer("user" + i);
+		}
+		// three standard errors
+		double bound = 3 * HyperLogLog.relativeError(12) * distinct;
+		assertTrue(Math.abs(sketch.estimate() - distinct) < bound);
+	}
+
+	@Test
+	public void testIdsWithTheSamePolynomialHashAreDistinct() {
+		// "10" and "0O" have the same base-31 polynomial over their characters, so each pair would collide
+		// under a hash of that polynomial
+		HyperLogLog sketch = new HyperLogLog(12);
+		for (int i = 0; i < 1000; i++) {
+			sketch.offer("P" + i + "10");
+			sketch.offer("P" + i + "0O");
+		}
+		assertEquals(2000, sketch.estimate(), 3 * HyperLogLog.relativeError(12) * 2000);
+	}
+
+	@Test
+	public void testMergeIsUnion() {
+		HyperLogLog first = new HyperLogLog(12);
+		HyperLogLog second = new HyperLogLog(12);
+		for (int i = 0; i < 30000; i++) {
+			first.offer("user" + i);
+			second.offer("user" + (i + 20000));
+		}
+		HyperLogLog union = new HyperLogLog(first);
+		union.merge(second);
+		assertTrue(Math.abs(union.estimate() - 50000) < 3 * HyperLogLog.relativeError(12) * 50000);
+	}
+
+	@Test
+	public void testDailySketchesMergeRange() {
+		DailyDistinctSketches sketches = new DailyDistinctSketches(12);
+		for (int day = 0; day < 30; day++) {
+			for (int user = 0; user < 10; user++) {
+				sketches.add(day, "user" + (day * 2 + user), "product" + user);
+			}
+		}
+		DistinctCountBean firstWeek = sketches.estimate(0, 6);
+		assertEquals(22, firstWeek.getDistinctRetailers(), 1);
+		assertEquals(10, firstWeek.getDistinctProducts(), 1);
+		assertEquals(0, sketches.estimate(100, 200).getDistinctRetailers());
+	}
+}
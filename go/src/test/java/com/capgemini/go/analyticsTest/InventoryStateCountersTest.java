@@ -0,0 +1,85 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.capgemini.go.bean.InventoryStateCountBean;
+import com.capgemini.go.utility.InventoryStateCounters;
+
+public class InventoryStateCountersTest {
+
+	private static String counts(List<InventoryStateCountBean> counts) {
+		StringBuilder text = new StringBuilder();
+		for (InventoryStateCountBean count : counts) {
+			text.append(count.getProductCategoryNumber()).append(':').append(count.getInTransit()).append('/')
+					.append(count.getOnShelf()).append('/').append(count.getSold()).append(' ');
+		}
+		return text.toString().trim();
+	}
+
+	@Test
+	public void testItemLifecycle() {
+		InventoryStateCounters counters = new InventoryStateCounters();
+		counters.move("R1", (byte) 2, InventoryStateCounters.NONE, InventoryStateCounters.IN_TRANSIT, 3);
+		counters.move("R1", (byte) 1, InventoryStateCounters.NONE, InventoryStateCounters.IN_TRANSIT, 1);
+		counters.move("R1", (byte) 2, InventoryStateCounters.IN_TRANSIT, InventoryStateCounters.ON_SHELF, 2);
+		counters.move("R1", (byte) 2, InventoryStateCounters.ON_SHELF, InventoryStateCounters.SOLD, 1);
+		counters.move("R1", (byte) 1, InventoryStateCounters.IN_TRANSIT, InventoryStateCounters.NONE, 1);
+		assertEquals("1:0/0/0 2:1/1/1", counts(counters.get("R1")));
+		assertTrue(counters.get("R2").isEmpty());
+	}
+
+	@Test
+	public void testDrainTakesChangesOnce() {
+		InventoryStateCounters counters = new InventoryStateCounters();
+		counters.reset(Collections.singletonList(new InventoryStateCountBean("R1", (byte) 1, 5, 5, 5)));
+		assertTrue(counters.drain().isEmpty());
+		counters.move("R1", (byte) 1, InventoryStateCounters.IN_TRANSIT, InventoryStateCounters.ON_SHELF, 2);
+		List<InventoryStateCountBean> changes = counters.drain();
+		assertEquals("1:-2/2/0", counts(changes));
+		assertTrue(counters.drain().isEmpty());
+		counters.restore(changes);
+		assertEquals("1:-2/2/0", counts(counters.drain()));
+		assertEquals("1:3/7/5", counts(counters.get("R1")));
+	}
+
+	@Test
+	public void testConcurrentMovesAreAllCounted() throws InterruptedException {
+		InventoryStateCounters counters = new InventoryStateCounters();
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		List<InventoryStateCountBean> drained = Collections.synchronizedList(new ArrayList<InventoryStateCountBean>());
+		for (int thread = 0; thread < 4; thread++) {
+			pool.execute(() -> {
+				for (int item = 0; item < 10000; item++) {
+					byte category = (byte) (1 + item % 3);
+					counters.move("R1", category, InventoryStateCounters.NONE, InventoryStateCounters.IN_TRANSIT, 1);
+					counters.move("R1", category, InventoryStateCounters.IN_TRANSIT, InventoryStateCounters.SOLD, 1);
+					if (item % 1000 == 0) {
+						drained.addAll(counters.drain());
+					}
+				}
+			});
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+		drained.addAll(counters.drain());
+		long inTransit = 0;
+		long sold = 0;
+		for (InventoryStateCountBean change : drained) {
+			inTransit += change.getInTransit();
+			sold += change.getSold();
+		}
+		assertEquals(0, inTransit);
+		assertEquals(40000, sold);
+		assertEquals("1:0/0/13336 2:0/0/13332 3:0/0/13332", counts(counters.get("R1")));
+	}
+}
@@ -0,0 +1,82 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.capgemini.go.utility.OrderQuantileSketches;
+import com.capgemini.go.utility.QuantileSketch;
+
+public class QuantileSketchTest {
+
+	private static final double ACCURACY = 0.01;
+
+	private static double exact(double[] sorted, double q) {
+		return sorted[(int) Math.floor(q * (sorted.length - 1))];
+	}
+
+	@Test
+	public void testQuantilesWithinRelativeAccuracy() {
+		Random random = new Random(7);
+		double[] values = new double[100000];
+		QuantileSketch sketch = new QuantileSketch(ACCURACY);
+		for (int i = 0; i < values.length; i++) {
+			// long tailed, like order values
+			values[i] = Math.exp(random.nextGaussian() * 1.5 + 6);
+			sketch.add(values[i]);
+		}
+		Arrays.sort(values);
+		for (double q : new double[] { 0, 0.5, 0.9, 0.99, 1 }) {
+			double expected = exact(values, q);
+			assertEquals(expected, sketch.quantile(q), expected * ACCURACY);
+		}
+	}
+
+	@Test
+	public void testMergeEqualsSketchOfUnion() {
+		QuantileSketch first = new QuantileSketch(ACCURACY);
+		QuantileSketch second = new QuantileSketch(ACCURACY);
+		QuantileSketch union = new QuantileSketch(ACCURACY);
+		for (int i = 1; i <= 1000; i++) {
+			(i % 2 == 0 ? first : second).add(i * 3.5);
+			union.add(i * 3.5);
+		}
+		first.merge(second);
+		assertEquals(union.getCount(), first.getCount());
+		for (double q : new double[] { 0.1, 0.5, 0.9, 0.99 }) {
+			assertEquals(union.quantile(q), first.quantile(q), 0);
+		}
+	}
+
+	@Test
+	public void testRemoveTakesBackValue() {
+		QuantileSketch sketch = new QuantileSketch(ACCURACY);
+		sketch.add(10);
+		sketch.add(20);
+		sketch.add(1000);
+		sketch.remove(1000);
+		// never added, ignored
+		sketch.remove(5000);
+		assertEquals(2, sketch.getCount());
+		assertEquals(20, sketch.quantile(1), 20 * ACCURACY);
+		assertTrue(Double.isNaN(new QuantileSketch(ACCURACY).quantile(0.5)));
+	}
+
+	@Test
+	public void testOrderSketchesMergeDaysOfOneCategory() {
+		OrderQuantileSketches orders = new OrderQuantileSketches(ACCURACY);
+		for (int day = 0; day < 10; day++) {
+			orders.add(day, 2, 100 * (day + 1), day + 1);
+			orders.add(day, OrderQuantileSketches.WHOLE_ORDER, 150 * (day + 1), day + 2);
+		}
+		QuantileSketch[] firstDays = orders.merge(0, 4, 2);
+		assertEquals(5, firstDays[0].getCount());
+		assertEquals(300, firstDays[0].quantile(0.5), 3);
+		assertEquals(3, Math.round(firstDays[1].quantile(0.5)));
+		assertEquals(0, orders.merge(0, 9, 3)[0].getCount());
+	}
+}
@@ -0,0 +1,107 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.capgemini.go.utility.ReportCache;
+
+public class ReportCacheTest {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private String load(String value) {
+		loads.incrementAndGet();
+		return value;
+	}
+
+	@Test
+	public void testHitsAndDayInvalidation() {
+		ReportCache cache = new ReportCache("test", 10, 60000);
+		cache.get("january", 100, 130, () -> load("a"));
+		cache.get("january", 100, 130, () -> load("a"));
+		cache.get("february", 131, 158, () -> load("b"));
+		assertEquals(2, loads.get());
+
+		// an order on day 120 only touches the January entry
+		assertEquals(1, cache.invalidateDay(120));
+		cache.get("january", 100, 130, () -> load("a"));
+		cache.get("february", 131, 158, () -> load("b"));
+		assertEquals(3, loads.get());
+		assertEquals(2L, cache.getStats().get("hits"));
+		assertEquals(3L, cache.getStats().get("misses"));
+		assertEquals(1L, cache.getStats().get("invalidations"));
+	}
+
+	@Test
+	public void testOwnerInvalidationAndEviction() {
+		ReportCache cache = new ReportCache("test", 2, 60000);
+		cache.get("r1", "R1", () -> load("1"));
+		cache.get("r2", "R2", () -> load("2"));
+		cache.get("r1", "R1", () -> load("1"));
+		// r2 is the least recently used entry
+		cache.get("r3", "R3", () -> load("3"));
+		assertEquals(1L, cache.getStats().get("evictions"));
+		assertEquals(1, cache.invalidateOwner("R1"));
+		assertEquals(0, cache.invalidateDay(5));
+		assertEquals(1, cache.getStats().get("size"));
+	}
+
+	@Test
+	public void testExpiry() throws InterruptedException {
+		ReportCache cache = new ReportCache("test", 10, 1);
+		cache.get("report", 1, 2, () -> load("a"));
+		Thread.sleep(5);
+		cache.get("report", 1, 2, () -> load("a"));
+		assertEquals(2, loads.get());
+		assertEquals(1L, cache.getStats().get("expirations"));
+	}
+
+	@Test
+	public void testResultLoadedDuringInvalidationIsNotCached() {
+		ReportCache cache = new ReportCache("test", 10, 60000);
+		cache.get("report", 1, 2, () -> {
+			cache.invalidateDay(50);
+			return load("stale");
+		});
+		cache.get("report", 1, 2, () -> load("fresh"));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testConcurrentMissesShareOneLoad() throws Exception {
+		// caching disabled, so every call is a miss and only coalescing avoids repeated loads
+		ReportCache cache = new ReportCache("test", 0, 60000);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService callers = Executors.newFixedThreadPool(5);
+		try {
+			List<Future<String>> results = new ArrayList<Future<String>>();
+			for (int i = 0; i < 5; i++) {
+				results.add(callers.submit(() -> cache.get("growth", 1, 365, () -> {
+					release.await();
+					return load("report");
+				})));
+			}
+			while ((Long) cache.getStats().get("coalesced") < 4) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			for (Future<String> result : results) {
+				assertEquals("report", result.get());
+			}
+		} finally {
+			callers.shutdown();
+		}
+		assertEquals(1, loads.get());
+		assertEquals(1L, cache.getStats().get("misses"));
+		assertEquals(0, cache.getStats().get("inFlight"));
+	}
+}
@@ -0,0 +1,161 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.capgemini.go.controller.GoAdminReportsController;
+import com.capgemini.go.dto.ViewSalesReportByUserDTO;
+import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.service.GoAdminReportsService;
+import com.capgemini.go.utility.ReportExportWriter;
+import com.capgemini.go.utility.RowHandler;
+
+public class ReportExportWriterTest {
+
+	private static String gunzip(byte[] content) throws IOException {
+		ByteArrayOutputStream text = new ByteArrayOutputStream();
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+			byte[] buffer = new byte[8192];
+			for (int read; (read = in.read(buffer)) > 0;) {
+				text.write(buffer, 0, read);
+			}
+		}
+		return new String(text.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static void assertTruncated(byte[] content) throws IOException {
+		try {
+			gunzip(content);
+			fail("an aborted export must not decompress");
+		} catch (EOFException expected) {
+			// no gzip trailer
+		}
+	}
+
+	@Test
+	public void testCsvQuotingAndNdjson() throws Exception {
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		try (ReportExportWriter writer = new ReportExportWriter(csv, ReportExportWriter.Format.CSV, "name", "price")) {
+			writer.writeRow("tent, 2 person", 120.5);
+			writer.writeRow("\"alpine\" stove", null);
+			assertEquals(2, writer.getRows());
+		}
+		assertEquals("name,price\n\"tent, 2 person\",120.5\n\"\"\"alpine\"\" stove\",\n", gunzip(csv.toByteArray()));
+
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		try (ReportExportWriter writer = new ReportExportWriter(ndjson, ReportExportWriter.Format.NDJSON, "name",
+				"price")) {
+			writer.writeRow("tent \"2p\"", 120.5);
+			writer.writeRow("stove", null);
+			writer.writeRow(7, true);
+			writer.writeRow("gone", Double.NaN);
+		}
+		// numbers and booleans are written as JSON numbers and booleans
+		assertEquals("{\"name\":\"tent \\\"2p\\\"\",\"price\":120.5}\n{\"name\":\"stove\",\"price\":null}\n"
+				+ "{\"name\":7,\"price\":true}\n{\"name\":\"gone\",\"price\":null}\n", gunzip(ndjson.toByteArray()));
+	}
+
+	@Test
+	public void testRowsSpanningManyChunks() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ReportExportWriter writer = new ReportExportWriter(out, ReportExportWriter.Format.CSV, "row")) {
+			for (int row = 0; row < 100000; row++) {
+				writer.writeRow(row);
+			}
+		}
+		String[] lines = gunzip(out.toByteArray()).split("\n");
+		assertEquals(100001, lines.length);
+		assertEquals("99999", lines[100000]);
+	}
+
+	@Test
+	public void testAbortLeavesOutTheTrailer() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ReportExportWriter writer = new ReportExportWriter(out, ReportExportWriter.Format.CSV, "row");
+		for (int row = 0; row < 100000; row++) {
+			writer.writeRow(row);
+		}
+		writer.abort();
+		// closing after an abort must not finish the stream either
+		writer.close();
+		assertTrue(out.size() > 0);
+		assertTruncated(out.toByteArray());
+	}
+
+	// the revenue report of `rows` rows, failing after them when failing is set
+	private static GoAdminReportsController controller(int rows, boolean failing) throws Exception {
+		GoAdminReportsService service = mock(GoAdminReportsService.class);
+		when(service.streamSalesReportByUserAndCategory(any(), any(), anyString(), anyInt(), any()))
+				.thenAnswer(invocation -> {
+					RowHandler<ViewSalesReportByUserDTO> handler = invocation.getArgument(4);
+					for (int row = 0; row < rows; row++) {
+						handler.handle(new ViewSalesReportByUserDTO("USER" + row, "2019-10-01", "ORDER" + row,
+								"PROD" + row, row % 5 + 1, 10.0 + row));
+					}
+					if (failing) {
+						throw new GoAdminException("Error in viewing : connection reset");
+					}
+					return rows;
+				});
+		GoAdminReportsController controller = new GoAdminReportsController();
+		controller.setGoAdminReportsService(service);
+		return controller;
+	}
+
+	@Test
+	public void testExport() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller(3, false).exportRevenueReport("ALL", 5, "2019-01-01", "2019-12-31", "csv", response);
+		assertEquals(200, response.getStatus());
+		assertEquals("application/gzip", response.getContentType());
+		assertEquals("attachment; filename=\"revenue-report.csv.gz\"", response.getHeader("Content-Disposition"));
+		String[] lines = gunzip(response.getContentAsByteArray()).split("\n");
+		assertEquals(4, lines.length);
+		assertEquals("USER2,2019-10-01,ORDER2,PROD2,3,12.0", lines[3]);
+	}
+
+	@Test
+	public void testFailureBeforeAnythingSentIsAJsonError() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller(2, true).exportRevenueReport("ALL", 5, "2019-01-01", "2019-12-31", "csv", response);
+		assertEquals(500, response.getStatus());
+		assertTrue(response.getContentType().startsWith("application/json"));
+		assertNull(response.getHeader("Content-Disposition"));
+		assertEquals("{\"Error\":\"Error in viewing : connection reset\"}", response.getContentAsString());
+	}
+
+	@Test
+	public void testFailureAfterRowsWereSentIsACorruptDownload() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller(50000, true).exportRevenueReport("ALL", 5, "2019-01-01", "2019-12-31", "csv", response);
+		assertTrue(response.isCommitted());
+		assertEquals(200, response.getStatus());
+		assertTruncated(response.getContentAsByteArray());
+	}
+
+	@Test
+	public void testUnparsableDateIsAJsonError() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller(0, false).exportRevenueReport("ALL", 5, "01/01/2019", "2019-12-31", "csv", response);
+		assertEquals(400, response.getStatus());
+		assertEquals("{\"Error\":\"Unparseable date: \\\"01/01/2019\\\"\"}", response.getContentAsString());
+	}
+}
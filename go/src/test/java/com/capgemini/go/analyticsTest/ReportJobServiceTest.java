@@ -0,0 +1,185 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.capgemini.go.bean.ReportJob;
+import com.capgemini.go.bean.RetailerInventoryBean;
+import com.capgemini.go.bean.ShelfTimeReportBean;
+import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.exception.RetailerInventoryException;
+import com.capgemini.go.service.GoAdminReportsService;
+import com.capgemini.go.service.ReportJobServiceImpl;
+import com.capgemini.go.service.RetailerInventoryService;
+
+public class ReportJobServiceTest {
+
+	// growth reports wait for the gate; started counts the ones that began
+	private final CountDownLatch gate = new CountDownLatch(1);
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private final ReportJobServiceImpl service = new ReportJobServiceImpl();
+	private final RetailerInventoryService retailerInventoryService = mock(RetailerInventoryService.class);
+
+	public ReportJobServiceTest() throws Exception {
+		GoAdminReportsService goAdminReportsService = mock(GoAdminReportsService.class);
+		when(goAdminReportsService.viewDetailedSalesReportByProduct(any(), any(), anyInt())).thenAnswer(invocation -> {
+			started.countDown();
+			if (!gate.await(10, TimeUnit.SECONDS)) {
+				throw new GoAdminException("gate not opened");
+			}
+			return Collections.singletonList(new ViewDetailedSalesReportByProductDTO());
+		});
+		service.setGoAdminReportsService(goAdminReportsService);
+
+		List<RetailerInventoryBean> retailers = new ArrayList<RetailerInventoryBean>();
+		for (String retailerId : new String[] { "R1", "R2", "R3" }) {
+			RetailerInventoryBean retailer = new RetailerInventoryBean();
+			retailer.setRetailerId(retailerId);
+			retailers.add(retailer);
+		}
+		when(retailerInventoryService.getListOfRetailers()).thenReturn(retailers);
+		// monthly shelf time report: R2 has no data
+		when(retailerInventoryService.getMonthlyShelfTimeReport(anyString(), any()))
+				.thenReturn(Collections.nCopies(2, new ShelfTimeReportBean()));
+		when(retailerInventoryService.getMonthlyShelfTimeReport(eq("R2"), any())).thenThrow(
+				new RetailerInventoryException("getMonthlyShelfTimeAggregates - " + ExceptionConstants.NO_DATA_FOUND));
+		service.setRetailerInventoryService(retailerInventoryService);
+	}
+
+	private void start(int threads, int queueCapacity, long retentionMillis) {
+		ReflectionTestUtils.setField(service, "threads", threads);
+		ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+		ReflectionTestUtils.setField(service, "retentionMillis", retentionMillis);
+		service.startExecutor();
+	}
+
+	@After
+	public void stop() {
+		gate.countDown();
+		service.stopExecutor();
+	}
+
+	private static ReportJob awaitFinished(ReportJob job) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (job.getFinishedAt() == 0) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("report job " + job.getJobId() + " did not finish");
+			}
+			Thread.sleep(5);
+		}
+		return job;
+	}
+
+	@Test
+	public void testStatusTransitions() throws Exception {
+		start(1, 1, 3600000);
+		ReportJob job = service.submitGrowthReport(new Date(), new Date(), 1);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		assertEquals(ReportJob.Status.RUNNING, job.getStatus());
+		assertEquals(0, job.getProgressPercent());
+		assertSame(job, service.getJob(job.getJobId()));
+
+		gate.countDown();
+		awaitFinished(job);
+		assertEquals(ReportJob.Status.DONE, job.getStatus());
+		assertEquals(100, job.getProgressPercent());
+		assertEquals(1, job.getResult().size());
+		assertTrue(job.getFinishedAt() >= job.getStartedAt());
+	}
+
+	@Test
+	public void testQueueFullIsRejected() throws Exception {
+		start(1, 1, 3600000);
+		ReportJob running = service.submitGrowthReport(new Date(), new Date(), 1);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		ReportJob queued = service.submitGrowthReport(new Date(), new Date(), 1);
+		assertEquals(ReportJob.Status.QUEUED, queued.getStatus());
+		try {
+			service.submitGrowthReport(new Date(), new Date(), 1);
+			fail("a third job should not fit");
+		} catch (GoAdminException exp) {
+			assertEquals(ExceptionConstants.REPORT_JOB_QUEUE_FULL, exp.getMessage());
+		}
+
+		gate.countDown();
+		assertEquals(ReportJob.Status.DONE, awaitFinished(running).getStatus());
+		assertEquals(ReportJob.Status.DONE, awaitFinished(queued).getStatus());
+		// the queue has room again
+		assertEquals(ReportJob.Status.DONE, awaitFinished(service.submitGrowthReport(new Date(), new Date(), 1))
+				.getStatus());
+	}
+
+	@Test
+	public void testShelfTimeForAllRetailersSkipsThoseWithoutData() throws Exception {
+		start(1, 1, 3600000);
+		ReportJob job = awaitFinished(service.submitShelfTimeReport("ALL", 1));
+		assertEquals(ReportJob.Status.DONE, job.getStatus());
+		assertEquals(3, job.getTotalSteps());
+		assertEquals(3, job.getCompletedSteps());
+		assertEquals(4, job.getResult().size());
+
+		// a single retailer without data, or an unknown report type, fails the job
+		ReportJob missing = awaitFinished(service.submitShelfTimeReport("R2", 1));
+		assertEquals(ReportJob.Status.FAILED, missing.getStatus());
+		assertEquals("getMonthlyShelfTimeAggregates - " + ExceptionConstants.NO_DATA_FOUND, missing.getError());
+		ReportJob invalid = awaitFinished(service.submitShelfTimeReport("R1", 7));
+		assertEquals(ReportJob.Status.FAILED, invalid.getStatus());
+		assertEquals("Invalid Argument Received", invalid.getError());
+	}
+
+	@Test
+	public void testDatabaseFailureFailsTheAllRetailersJob() throws Exception {
+		when(retailerInventoryService.getMonthlyShelfTimeReport(eq("R3"), any())).thenThrow(
+				new RetailerInventoryException("getMonthlyShelfTimeAggregates - " + ExceptionConstants.PERSISTENCE_ERROR));
+		start(1, 1, 3600000);
+		ReportJob job = awaitFinished(service.submitShelfTimeReport("ALL", 1));
+		// R3 is not silently left out of a report that claims to be done
+		assertEquals(ReportJob.Status.FAILED, job.getStatus());
+		assertEquals("getMonthlyShelfTimeAggregates - " + ExceptionConstants.PERSISTENCE_ERROR, job.getError());
+		assertEquals(2, job.getCompletedSteps());
+	}
+
+	@Test
+	public void testFinishedJobsExpireAfterRetention() throws Exception {
+		start(2, 1, 200);
+		ReportJob finished = awaitFinished(service.submitShelfTimeReport("R1", 1));
+		ReportJob running = service.submitGrowthReport(new Date(), new Date(), 1);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		service.removeExpiredJobs();
+		assertSame(finished, service.getJob(finished.getJobId()));
+
+		Thread.sleep(300);
+		service.removeExpiredJobs();
+		try {
+			service.getJob(finished.getJobId());
+			fail("the finished job should have expired");
+		} catch (GoAdminException exp) {
+			assertEquals(ExceptionConstants.REPORT_JOB_NOT_FOUND + finished.getJobId(), exp.getMessage());
+		}
+		// a job still running is kept however long it takes
+		assertSame(running, service.getJob(running.getJobId()));
+	}
+}
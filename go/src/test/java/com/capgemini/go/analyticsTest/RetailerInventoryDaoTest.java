@@ -0,0 +1,120 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyByte;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+import org.junit.Test;
+
+import com.capgemini.go.dao.RetailerInventoryDaoImpl;
+import com.capgemini.go.dao.RetailerInventorySummaryDao;
+import com.capgemini.go.dto.RetailerInventoryDTO;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.RetailerInventoryException;
+import com.capgemini.go.utility.InventoryStateCounters;
+
+public class RetailerInventoryDaoTest {
+
+	private final Session session = mock(Session.class);
+	private final RetailerInventorySummaryDao summaryDao = mock(RetailerInventorySummaryDao.class);
+	private final RetailerInventoryDaoImpl retailerInventoryDao = new RetailerInventoryDaoImpl();
+
+	public RetailerInventoryDaoTest() {
+		SessionFactory sessionFactory = mock(SessionFactory.class);
+		when(sessionFactory.openSession()).thenReturn(session);
+		Transaction transaction = mock(Transaction.class);
+		when(session.beginTransaction()).thenReturn(transaction);
+		when(session.getTransaction()).thenReturn(transaction);
+		retailerInventoryDao.setSessionFactory(sessionFactory);
+		retailerInventoryDao.setRetailerInventorySummaryDao(summaryDao);
+	}
+
+	private static RetailerInventoryDTO item(String retailerId, String productUin) {
+		RetailerInventoryDTO item = new RetailerInventoryDTO();
+		item.setRetailerId(retailerId);
+		item.setProductUniqueId(productUin);
+		item.setProductCategory((byte) 1);
+		return item;
+	}
+
+	@Test
+	public void testDeleteOfAnotherRetailersItemIsRejected() {
+		when(session.find(eq(RetailerInventoryDTO.class), eq("U1"), eq(LockModeType.PESSIMISTIC_WRITE)))
+				.thenReturn(item("R2", "U1"));
+		try {
+			retailerInventoryDao.deleteItemInRetailerInventory(item("R1", "U1"));
+			fail("expected RetailerInventoryException");
+		} catch (RetailerInventoryException error) {
+			assertEquals("deleteItemInRetailerInventory - " + ExceptionConstants.PRODUCT_NOT_IN_INVENTORY,
+					error.getMessage());
+		}
+		verify(session, never()).remove(any());
+		verify(summaryDao, never()).recordTransition(anyString(), anyByte(), anyInt(), anyInt(), anyLong());
+		// the change is over for a load of the counts
+		verify(summaryDao).endInventoryChange();
+	}
+
+	@Test
+	public void testDeleteOfOwnItemIsCounted() throws RetailerInventoryException {
+		when(session.find(eq(RetailerInventoryDTO.class), eq("U1"), eq(LockModeType.PESSIMISTIC_WRITE)))
+				.thenReturn(item("R1", "U1"));
+		assertTrue(retailerInventoryDao.deleteItemInRetailerInventory(item("R1", "U1")));
+		verify(session).remove(any());
+		verify(summaryDao).recordTransition("R1", (byte) 1, InventoryStateCounters.IN_TRANSIT,
+				InventoryStateCounters.NONE, 1);
+		verify(summaryDao).endInventoryChange();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBulkUpdateCountsTheRowsItLocks() throws RetailerInventoryException {
+		List<String> statements = new ArrayList<String>();
+		NativeQuery<Object> unsoldQuery = mock(NativeQuery.class);
+		when(session.createNativeQuery(anyString())).thenAnswer(invocation -> {
+			statements.add(invocation.getArgument(0));
+			return unsoldQuery;
+		});
+		when(unsoldQuery.setParameter(anyString(), any())).thenAnswer(invocation -> invocation.getMock());
+		when(unsoldQuery.setParameterList(anyString(), any())).thenAnswer(invocation -> invocation.getMock());
+		// category 1: three unsold, one of them on shelf
+		List<Object> unsold = new ArrayList<Object>();
+		unsold.add(new Object[] { (byte) 1, 3L, 1L });
+		when(unsoldQuery.getResultList()).thenReturn(unsold);
+		Query<Object> updateQuery = mock(Query.class);
+		when(session.createQuery(anyString())).thenReturn(updateQuery);
+		when(updateQuery.setParameter(anyString(), any())).thenAnswer(invocation -> invocation.getMock());
+		when(updateQuery.setParameterList(anyString(), any())).thenAnswer(invocation -> invocation.getMock());
+		when(updateQuery.executeUpdate()).thenReturn(3);
+		assertEquals(3, retailerInventoryDao
+				.bulkUpdateProductSaleTimeStamp("R1", Arrays.asList("U1", "U2", "U3"), Calendar.getInstance()).size());
+		assertEquals(1, statements.size());
+		assertTrue(statements.get(0).endsWith(" FOR UPDATE"));
+		verify(summaryDao).recordTransition("R1", (byte) 1, InventoryStateCounters.IN_TRANSIT,
+				InventoryStateCounters.SOLD, 2);
+		verify(summaryDao).recordTransition("R1", (byte) 1, InventoryStateCounters.ON_SHELF,
+				InventoryStateCounters.SOLD, 1);
+		verify(summaryDao).endInventoryChange();
+	}
+}
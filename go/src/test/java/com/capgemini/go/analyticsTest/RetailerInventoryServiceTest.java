@@ -0,0 +1,246 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyByte;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.capgemini.go.bean.DeliveryTimeOutlierBean;
+import com.capgemini.go.bean.DeliveryTimeStatsBean;
+import com.capgemini.go.bean.RetailerInventoryBean;
+import com.capgemini.go.bean.RetailerInventoryPageBean;
+import com.capgemini.go.bean.ShelfTimeReportBean;
+import com.capgemini.go.dao.RetailerInventoryDao;
+import com.capgemini.go.dao.UserDao;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.RetailerInventoryException;
+import com.capgemini.go.service.RetailerInventoryServiceImpl;
+import com.capgemini.go.utility.RowHandler;
+
+public class RetailerInventoryServiceTest {
+
+	private final RetailerInventoryDao retailerInventoryDao = mock(RetailerInventoryDao.class);
+	private final UserDao userDao = mock(UserDao.class);
+	private final RetailerInventoryServiceImpl service = new RetailerInventoryServiceImpl();
+
+	public RetailerInventoryServiceTest() throws Exception {
+		when(userDao.getUserNames(any())).thenReturn(Collections.singletonMap("R1", "Retailer One"));
+		service.setRetailerInventoryDao(retailerInventoryDao);
+		service.setUserDao(userDao);
+		ReflectionTestUtils.setField(service, "cacheMaxEntries", 100);
+		ReflectionTestUtils.setField(service, "cacheTtlMillis", 60000L);
+		ReflectionTestUtils.setField(service, "outlierZScore", 2.0);
+		ReflectionTestUtils.setField(service, "inventoryPageSize", 2);
+		ReflectionTestUtils.setField(service, "inventoryPageMaxSize", 3);
+		service.createReportCache();
+	}
+
+	// "period category items total min max first-month" per row
+	private static String render(List<ShelfTimeReportBean> rows) {
+		StringBuilder text = new StringBuilder();
+		for (ShelfTimeReportBean row : rows) {
+			text.append(row.getPeriod()).append(' ').append(row.getProductCategoryName()).append(' ')
+					.append(row.getItems()).append(' ').append(row.getTotalShelfDays()).append(' ')
+					.append(row.getMinShelfDays()).append(' ').append(row.getMaxShelfDays()).append(' ')
+					.append(row.getMonth()).append('\n');
+		}
+		return text.toString();
+	}
+
+	@Test
+	public void testQuartersAndYearsAreFoldedFromMonths() throws Exception {
+		List<Calendar[]> ranges = new ArrayList<Calendar[]>();
+		when(retailerInventoryDao.getMonthlyShelfTimeAggregates(anyString(), any(), any())).thenAnswer(invocation -> {
+			ranges.add(new Calendar[] { invocation.getArgument(1), invocation.getArgument(2) });
+			return Arrays.asList(new ShelfTimeReportBean(2019, 1, (byte) 1, 2, 10, 3, 7),
+					new ShelfTimeReportBean(2019, 2, (byte) 2, 3, 9, 2, 4),
+					new ShelfTimeReportBean(2019, 3, (byte) 1, 1, 20, 20, 20),
+					new ShelfTimeReportBean(2019, 4, (byte) 1, 1, 4, 4, 4));
+		});
+		Calendar selection = Calendar.getInstance();
+		selection.set(2019, Calendar.JUNE, 15);
+
+		assertEquals("2019-Q1 CAMPING 3 30 3 20 1\n" + "2019-Q1 GOLF 3 9 2 4 1\n" + "2019-Q2 CAMPING 1 4 4 4 4\n",
+				render(service.getQuarterlyShelfTimeReport("R1", selection)));
+		assertEquals("2019 CAMPING 4 34 3 20 1\n" + "2019 GOLF 3 9 2 4 1\n",
+				render(service.getYearlyShelfTimeReport("R1", selection)));
+		assertEquals("2019-01 CAMPING 2 10 3 7 1\n" + "2019-02 GOLF 3 9 2 4 2\n" + "2019-03 CAMPING 1 20 20 20 3\n"
+				+ "2019-04 CAMPING 1 4 4 4 4\n", render(service.getMonthlyShelfTimeReport("R1", selection)));
+
+		// the database is asked for the sale months of the selected year only
+		SimpleDateFormat day = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+		day.setTimeZone(TimeZone.getTimeZone("UTC"));
+		assertEquals("2019-01-01 00:00", day.format(ranges.get(0)[0].getTime()));
+		assertEquals("2020-01-01 00:00", day.format(ranges.get(0)[1].getTime()));
+		assertEquals("Retailer One", service.getYearlyShelfTimeReport("R1", selection).get(0).getRetailerName());
+	}
+
+	@Test
+	public void testCategoryDeliveryTimeStatistics() throws Exception {
+		// delivery days 2, 4, 6, 8
+		when(retailerInventoryDao.getCategoryDeliveryTimeAggregates("R1"))
+				.thenReturn(Arrays.asList(new DeliveryTimeStatsBean((byte) 1, 4, 20, 120, 2, 8)));
+
+		DeliveryTimeStatsBean camping = service.getCategoryWiseDeliveryTimeReport("R1").get(0);
+		assertEquals("Retailer One", camping.getRetailerName());
+		assertEquals("CAMPING", camping.getProductCategoryName());
+		assertEquals(5, camping.getAverageDeliveryDays(), 1e-9);
+		assertEquals(Math.sqrt(5), camping.getStandardDeviationDeliveryDays(), 1e-9);
+		assertEquals(2, camping.getMinDeliveryDays());
+		assertEquals(8, camping.getMaxDeliveryDays());
+	}
+
+	@Test
+	public void testOutliersAreScoredAgainstTheStatisticsOfTheSameRead() throws Exception {
+		// category 1: nine items delivered in a day and one in ten (mean 1.9, deviation 2.7); category 2: no spread
+		when(retailerInventoryDao.streamDeliveryDays(anyString(), any(), any())).thenAnswer(invocation -> {
+			RowHandler<DeliveryTimeStatsBean> categories = invocation.getArgument(1);
+			RowHandler<DeliveryTimeOutlierBean> items = invocation.getArgument(2);
+			categories.handle(new DeliveryTimeStatsBean((byte) 1, 10, 19, 109, 1, 10));
+			categories.handle(new DeliveryTimeStatsBean((byte) 2, 2, 10, 50, 5, 5));
+			for (int item = 0; item < 9; item++) {
+				items.handle(new DeliveryTimeOutlierBean("UIN" + item, (byte) 1, 1));
+			}
+			items.handle(new DeliveryTimeOutlierBean("UIN9", (byte) 1, 10));
+			items.handle(new DeliveryTimeOutlierBean("UIN10", (byte) 2, 5));
+			items.handle(new DeliveryTimeOutlierBean("UIN11", (byte) 2, 5));
+			return 12;
+		});
+
+		List<DeliveryTimeOutlierBean> outliers = service.getOutlierCategoryItemWiseDeliveryTimeReport("R1");
+		assertEquals(1, outliers.size());
+		DeliveryTimeOutlierBean outlier = outliers.get(0);
+		assertEquals("UIN9", outlier.getProductUniqueId());
+		assertEquals(3.0, outlier.getZScore(), 1e-9);
+		assertEquals(1.9, outlier.getAverageDeliveryDays(), 1e-9);
+		assertEquals("Retailer One", outlier.getRetailerName());
+		assertEquals("CAMPING", outlier.getProductCategoryName());
+		// not scored against the separately cached category report
+		verify(retailerInventoryDao, never()).getCategoryDeliveryTimeAggregates(anyString());
+	}
+
+	@Test
+	public void testOutliersOfARetailerWithoutItems() throws Exception {
+		when(retailerInventoryDao.streamDeliveryDays(anyString(), any(), any())).thenReturn(0);
+		try {
+			service.getOutlierCategoryItemWiseDeliveryTimeReport("R1");
+			fail("a retailer without received items has no report");
+		} catch (RetailerInventoryException exp) {
+			assertEquals("getOutlierCategoryItemWiseDeliveryTimeReport - " + ExceptionConstants.NO_DATA_FOUND,
+					exp.getMessage());
+		}
+	}
+
+	private static RetailerInventoryBean item(String uin) {
+		RetailerInventoryBean item = new RetailerInventoryBean();
+		item.setProductUniqueId(uin);
+		item.setProductCategoryNumber((byte) 2);
+		return item;
+	}
+
+	@Test
+	public void testInventoryIsPagedByUniqueId() throws Exception {
+		List<String> uins = Arrays.asList("UIN1", "UIN2", "UIN3");
+		List<Object[]> requests = new ArrayList<Object[]>();
+		when(retailerInventoryDao.getItemPageByRetailer(anyString(), anyByte(), any(), anyInt())).thenAnswer(invocation -> {
+			String afterUin = invocation.getArgument(2);
+			int maxResults = invocation.getArgument(3);
+			requests.add(new Object[] { afterUin, maxResults });
+			List<RetailerInventoryBean> page = new ArrayList<RetailerInventoryBean>();
+			for (String uin : uins) {
+				if ((afterUin == null || uin.compareTo(afterUin) > 0) && page.size() < maxResults) {
+					page.add(item(uin));
+				}
+			}
+			return page;
+		});
+
+		RetailerInventoryPageBean first = service.getInventoryById("R1", (byte) 0, null, 0);
+		assertEquals(2, first.getItems().size());
+		assertEquals("GOLF", first.getItems().get(1).getProductCategoryName());
+		RetailerInventoryPageBean second = service.getInventoryById("R1", (byte) 0, first.getNextCursor(), 0);
+		assertEquals("UIN3", second.getItems().get(0).getProductUniqueId());
+		assertNull(second.getNextCursor());
+		// one row more than the page is read to tell whether another page follows
+		assertEquals(Arrays.asList(null, 3), Arrays.asList(requests.get(0)));
+		assertEquals(Arrays.asList("UIN2", 3), Arrays.asList(requests.get(1)));
+
+		// page sizes are capped
+		service.getInventoryById("R1", (byte) 0, null, 50);
+		assertEquals(4, requests.get(2)[1]);
+
+		try {
+			service.getInventoryById("R1", (byte) 0, "not a cursor!", 0);
+			fail("the cursor should have been rejected");
+		} catch (RetailerInventoryException exp) {
+			assertEquals("getInventoryById - " + ExceptionConstants.INAPPROPRIATE_ARGUMENT_PASSED, exp.getMessage());
+		}
+	}
+
+	@Test
+	public void testBulkTimestampUpdateReportsEachUniqueId() throws Exception {
+		List<Collection<String>> requested = new ArrayList<Collection<String>>();
+		when(retailerInventoryDao.bulkUpdateProductSaleTimeStamp(anyString(), any(), any())).thenAnswer(invocation -> {
+			requested.add(new ArrayList<String>(invocation.<Collection<String>>getArgument(1)));
+			// no timestamp given: the current time
+			assertNotNull(invocation.getArgument(2));
+			Set<String> updated = new HashSet<String>();
+			updated.add("U1");
+			updated.add("U3");
+			return updated;
+		});
+
+		assertEquals("{U1=true, U2=false, U3=true}", service
+				.updateItemSaleTimestamps("R1", Arrays.asList("U1", "U2", "U1", "U3"), null).toString());
+		// duplicates are sent once, in request order
+		assertEquals(Arrays.asList("U1", "U2", "U3"), requested.get(0));
+	}
+
+	@Test
+	public void testRetailerRegistryFollowsOnlyTheDeletesMade() throws Exception {
+		when(retailerInventoryDao.getItemCountByRetailer()).thenReturn(Collections.singletonMap("R1", 1L));
+		assertEquals("Retailer One", service.getListOfRetailers().get(0).getRetailerName());
+
+		// the item belongs to another retailer: nothing is deleted and R1 keeps its item
+		when(retailerInventoryDao.deleteItemInRetailerInventory(any())).thenThrow(new RetailerInventoryException(
+				"deleteItemInRetailerInventory - " + ExceptionConstants.PRODUCT_NOT_IN_INVENTORY)).thenReturn(true);
+		try {
+			service.deleteItemFromInventory("R1", "UIN-OF-R2");
+			fail("the delete should have been refused");
+		} catch (RetailerInventoryException exp) {
+			assertEquals("deleteItemInRetailerInventory - " + ExceptionConstants.PRODUCT_NOT_IN_INVENTORY,
+					exp.getMessage());
+		}
+		assertEquals(1, service.getListOfRetailers().size());
+
+		service.deleteItemFromInventory("R1", "UIN1");
+		try {
+			service.getListOfRetailers();
+			fail("R1 left the registry with its last item");
+		} catch (RetailerInventoryException exp) {
+			assertEquals("getListOfRetailers - " + ExceptionConstants.NO_DATA_FOUND, exp.getMessage());
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+import org.junit.After;
+import org.junit.Test;
+
+import com.capgemini.go.bean.InventoryStateCountBean;
+import com.capgemini.go.dao.RetailerInventorySummaryDaoImpl;
+import com.capgemini.go.utility.InventoryStateCounters;
+
+public class RetailerInventorySummaryDaoTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+	private final Session session = mock(Session.class);
+	private final RetailerInventorySummaryDaoImpl summaryDao = new RetailerInventorySummaryDaoImpl();
+	// what RETAILER_INVENTORY_SUMMARY holds, answered to SELECT_INVENTORY_SUMMARY
+	private final List<InventoryStateCountBean> summary = Collections
+			.synchronizedList(new ArrayList<InventoryStateCountBean>());
+	// run while the summary is read
+	private Runnable duringRead = () -> {
+	};
+
+	@SuppressWarnings("unchecked")
+	public RetailerInventorySummaryDaoTest() {
+		SessionFactory sessionFactory = mock(SessionFactory.class);
+		when(sessionFactory.openSession()).thenReturn(session);
+		when(session.beginTransaction()).thenReturn(mock(Transaction.class));
+		// the written changes are added to the summary
+		NativeQuery<Object> addQuery = mock(NativeQuery.class);
+		when(session.createNativeQuery(anyString())).thenReturn(addQuery);
+		when(addQuery.setParameter(anyString(), any())).thenAnswer(invocation -> invocation.getMock());
+		when(addQuery.executeUpdate()).thenReturn(1);
+		Query<InventoryStateCountBean> summaryQuery = mock(Query.class);
+		when(session.createQuery(anyString(), eq(InventoryStateCountBean.class))).thenReturn(summaryQuery);
+		when(summaryQuery.getResultList()).thenAnswer(invocation -> {
+			duringRead.run();
+			return new ArrayList<InventoryStateCountBean>(summary);
+		});
+		summaryDao.setSessionFactory(sessionFactory);
+	}
+
+	@After
+	public void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+
+	private String counts() {
+		StringBuilder text = new StringBuilder();
+		for (InventoryStateCountBean count : summaryDao.getInventoryStateCounts("R1")) {
+			text.append(count.getProductCategoryNumber()).append(':').append(count.getInTransit()).append('/')
+					.append(count.getOnShelf()).append('/').append(count.getSold()).append(' ');
+		}
+		return text.toString().trim();
+	}
+
+	private static void assertWaiting(Future<?> future) throws Exception {
+		try {
+			future.get(200, TimeUnit.MILLISECONDS);
+			fail("expected to wait");
+		} catch (TimeoutException expected) {
+			assertFalse(future.isDone());
+		}
+	}
+
+	@Test
+	public void testLoadWaitsForChangeInProgress() throws Exception {
+		summary.add(new InventoryStateCountBean("R1", (byte) 1, 2, 0, 0));
+		summaryDao.loadInventoryStateCounts(false);
+		// an insert committed and already in the summary table, not yet recorded
+		summaryDao.beginInventoryChange();
+		summary.add(new InventoryStateCountBean("R1", (byte) 2, 1, 0, 0));
+		Future<Integer> load = executor.submit(() -> summaryDao.loadInventoryStateCounts(true));
+		assertWaiting(load);
+		summaryDao.recordTransition("R1", (byte) 2, InventoryStateCounters.NONE, InventoryStateCounters.IN_TRANSIT, 1);
+		summaryDao.endInventoryChange();
+		assertEquals(2, load.get(5, TimeUnit.SECONDS).intValue());
+		// counted once, from the summary the load read
+		assertEquals("1:2/0/0 2:1/0/0", counts());
+	}
+
+	@Test
+	public void testChangeWaitsForLoad() throws Exception {
+		summary.add(new InventoryStateCountBean("R1", (byte) 1, 2, 0, 0));
+		List<Future<?>> changes = new ArrayList<Future<?>>();
+		// a change arriving while the summary is read commits after it and is recorded after the swap
+		duringRead = () -> {
+			changes.add(executor.submit(() -> {
+				summaryDao.beginInventoryChange();
+				try {
+					summaryDao.recordTransition("R1", (byte) 1, InventoryStateCounters.IN_TRANSIT,
+							InventoryStateCounters.ON_SHELF, 1);
+				} finally {
+					summaryDao.endInventoryChange();
+				}
+			}));
+			try {
+				assertWaiting(changes.get(0));
+			} catch (Exception error) {
+				throw new AssertionError(error);
+			}
+		};
+		summaryDao.loadInventoryStateCounts(false);
+		changes.get(0).get(5, TimeUnit.SECONDS);
+		// not dropped by the swap
+		assertEquals("1:1/1/0", counts());
+	}
+}
@@ -0,0 +1,117 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.capgemini.go.bean.RetailerInventoryBean;
+import com.capgemini.go.utility.RetailerRegistry;
+
+public class RetailerRegistryTest {
+
+	private static RetailerRegistry loaded() {
+		RetailerRegistry registry = new RetailerRegistry();
+		Map<String, Long> items = new HashMap<String, Long>();
+		items.put("R2", 2L);
+		items.put("R1", 1L);
+		Map<String, String> names = new HashMap<String, String>();
+		names.put("R1", "Ann");
+		names.put("R2", "Bob");
+		assertTrue(registry.load(items, names, registry.mark()));
+		return registry;
+	}
+
+	private static String ids(List<RetailerInventoryBean> retailers) {
+		StringBuilder ids = new StringBuilder();
+		for (RetailerInventoryBean retailer : retailers) {
+			ids.append(retailer.getRetailerId()).append(' ');
+		}
+		return ids.toString().trim();
+	}
+
+	@Test
+	public void testListsInIdOrderWithNames() {
+		List<RetailerInventoryBean> retailers = loaded().getRetailers();
+		assertEquals("R1 R2", ids(retailers));
+		assertEquals("Ann", retailers.get(0).getRetailerName());
+		assertEquals("Bob", retailers.get(1).getRetailerName());
+	}
+
+	// an insert or delete, begun before it is written
+	private static boolean added(RetailerRegistry registry, String retailerId) {
+		registry.writing();
+		return registry.added(retailerId);
+	}
+
+	private static void removed(RetailerRegistry registry, String retailerId) {
+		registry.writing();
+		registry.removed(retailerId);
+	}
+
+	@Test
+	public void testRetailerLeavesWithLastItem() {
+		RetailerRegistry registry = loaded();
+		removed(registry, "R2");
+		assertEquals("R1 R2", ids(registry.getRetailers()));
+		removed(registry, "R2");
+		removed(registry, "R1");
+		assertEquals("", ids(registry.getRetailers()));
+	}
+
+	@Test
+	public void testNewRetailerIsNamed() {
+		RetailerRegistry registry = loaded();
+		assertFalse(added(registry, "R1"));
+		assertTrue(added(registry, "R0"));
+		registry.named("R0", "Cy");
+		List<RetailerInventoryBean> retailers = registry.getRetailers();
+		assertEquals("R0 R1 R2", ids(retailers));
+		assertEquals("Cy", retailers.get(0).getRetailerName());
+		assertSame(retailers, registry.getRetailers());
+	}
+
+	@Test
+	public void testLoadRefusedAfterConcurrentChange() {
+		RetailerRegistry registry = new RetailerRegistry();
+		long mark = registry.mark();
+		// not loaded yet: the change is not applied, but the counts read before it are stale
+		assertFalse(added(registry, "R3"));
+		assertFalse(registry.load(Collections.<String, Long>emptyMap(), Collections.<String, String>emptyMap(), mark));
+		assertFalse(registry.isLoaded());
+		assertTrue(registry.load(Collections.singletonMap("R3", 1L), Collections.<String, String>emptyMap(),
+				registry.mark()));
+		assertEquals("R3", ids(registry.getRetailers()));
+	}
+
+	@Test
+	public void testNoLoadWhileAWriteIsInFlight() {
+		RetailerRegistry registry = loaded();
+		// the insert may commit before the counts are read, and is recorded after they are loaded
+		registry.writing();
+		long mark = registry.mark();
+		assertFalse(registry.load(Collections.singletonMap("R3", 1L), Collections.<String, String>emptyMap(), mark));
+		assertTrue(registry.added("R3"));
+		assertEquals("R1 R2 R3", ids(registry.getRetailers()));
+		// read once the write is recorded, the counts hold it exactly once
+		assertTrue(registry.load(Collections.singletonMap("R3", 1L), Collections.<String, String>emptyMap(),
+				registry.mark()));
+		removed(registry, "R3");
+		assertEquals("", ids(registry.getRetailers()));
+
+		// a write that was not made moves the mark too
+		mark = registry.mark();
+		registry.writing();
+		registry.failed();
+		assertFalse(registry.load(Collections.singletonMap("R4", 1L), Collections.<String, String>emptyMap(), mark));
+		assertTrue(registry.load(Collections.singletonMap("R4", 1L), Collections.<String, String>emptyMap(),
+				registry.mark()));
+	}
+}
@@ -0,0 +1,238 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.capgemini.go.bean.OrderPercentileBean;
+import com.capgemini.go.bean.OrderTotalBean;
+import com.capgemini.go.bean.SalesActivityEvent;
+import com.capgemini.go.bean.SalesLineBean;
+import com.capgemini.go.dao.GoAdminReportsDao;
+import com.capgemini.go.dao.OrderAndCartDao;
+import com.capgemini.go.dto.OrderProductMapDTO;
+import com.capgemini.go.exception.ExceptionConstants;
+import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.service.SalesActivityPublisher;
+import com.capgemini.go.service.SalesAnalyticsServiceImpl;
+import com.capgemini.go.utility.RowHandler;
+import com.capgemini.go.utility.SalesColumnStore;
+
+public class SalesAnalyticsServiceTest {
+
+	private static final LocalDate DAY = LocalDate.of(2019, 10, 1);
+	private static final Date ORDER_DATE = Date.from(DAY.atTime(10, 0).atZone(ZoneId.systemDefault()).toInstant());
+
+	private final SalesAnalyticsServiceImpl service = new SalesAnalyticsServiceImpl();
+	private final GoAdminReportsDao goAdminReportsDao = mock(GoAdminReportsDao.class);
+	private final OrderAndCartDao orderAndCartDao = mock(OrderAndCartDao.class);
+	private final SalesActivityPublisher publisher = new SalesActivityPublisher();
+	private final List<SalesActivityEvent> published = new ArrayList<SalesActivityEvent>();
+
+	// the active order lines as the database holds them, by order
+	private final List<SalesLineBean> activeLines = new ArrayList<SalesLineBean>();
+
+	// PROD1 and PROD3 are category 1 at 50 and 10, PROD2 and PROD4 category 2 at 80 and 300
+	private static SalesLineBean line(String orderId, String productId) {
+		int product = Integer.parseInt(productId.substring(4));
+		double[] prices = { 50, 80, 10, 300 };
+		return new SalesLineBean(orderId, productId, "USER1", ORDER_DATE, 2 - product % 2, prices[product - 1]);
+	}
+
+	// ORD1: 2 lines of category 1 worth 100; ORD2: 1 line of category 1 worth 50 and 1 of category 2 worth 80
+	public SalesAnalyticsServiceTest() throws Exception {
+		activeLines.add(line("ORD1", "PROD1"));
+		activeLines.add(line("ORD1", "PROD1"));
+		activeLines.add(line("ORD2", "PROD1"));
+		activeLines.add(line("ORD2", "PROD2"));
+		when(goAdminReportsDao.streamActiveSalesLines(any())).thenAnswer(invocation -> stream(invocation.getArgument(0)));
+		when(orderAndCartDao.getSalesLine(anyString(), anyString()))
+				.thenAnswer(invocation -> line(invocation.getArgument(0), invocation.getArgument(1)));
+		when(orderAndCartDao.getOrderCategoryTotals(anyString())).thenAnswer(invocation -> {
+			Map<Integer, OrderTotalBean> totals = new TreeMap<Integer, OrderTotalBean>();
+			for (SalesLineBean line : activeLines) {
+				if (line.getOrderId().equals(invocation.getArgument(0))) {
+					OrderTotalBean total = totals.computeIfAbsent(line.getProductCategory(),
+							category -> new OrderTotalBean(line.getOrderId(), ORDER_DATE, category, 0, 0));
+					total.setValue(total.getValue() + line.getPrice());
+					total.setLines(total.getLines() + 1);
+				}
+			}
+			return new ArrayList<OrderTotalBean>(totals.values());
+		});
+		publisher.setOrderAndCartDao(orderAndCartDao);
+		publisher.setApplicationEventPublisher(event -> {
+			published.add((SalesActivityEvent) event);
+			service.onSalesActivity((SalesActivityEvent) event);
+		});
+		service.setGoAdminReportsDao(goAdminReportsDao);
+		ReflectionTestUtils.setField(service, "initialCapacity", 1024);
+		ReflectionTestUtils.setField(service, "distinctPrecision", 10);
+		ReflectionTestUtils.setField(service, "quantileAccuracy", 0.01);
+	}
+
+	private int stream(RowHandler<SalesLineBean> handler) throws Exception {
+		List<SalesLineBean> lines = new ArrayList<SalesLineBean>(activeLines);
+		for (SalesLineBean line : lines) {
+			handler.handle(line);
+		}
+		return lines.size();
+	}
+
+	@Before
+	public void load() throws Exception {
+		service.loadSalesFacts();
+	}
+
+	// each change is written before it is published, as in the services
+	private void place(String orderId, String productId) {
+		activeLines.add(line(orderId, productId));
+		publisher.publish(orderId, productId, 1, SalesActivityEvent.ActivityType.ORDER);
+	}
+
+	private void cancel(String orderId, String productId) {
+		for (Iterator<SalesLineBean> lines = activeLines.iterator(); lines.hasNext();) {
+			SalesLineBean line = lines.next();
+			if (line.getOrderId().equals(orderId) && line.getProductId().equals(productId)) {
+				lines.remove();
+				break;
+			}
+		}
+		publisher.publish(orderId, productId, -1, SalesActivityEvent.ActivityType.CANCEL);
+	}
+
+	private void cancelOrder(String orderId) {
+		List<OrderProductMapDTO> cancelled = new ArrayList<OrderProductMapDTO>();
+		for (Iterator<SalesLineBean> lines = activeLines.iterator(); lines.hasNext();) {
+			SalesLineBean line = lines.next();
+			if (line.getOrderId().equals(orderId)) {
+				cancelled.add(new OrderProductMapDTO(orderId, line.getProductId(), "UIN" + cancelled.size(), 0, 0));
+				lines.remove();
+			}
+		}
+		publisher.publishAll(cancelled, -1, SalesActivityEvent.ActivityType.CANCEL);
+	}
+
+	// "orders median-value p99-basket" of the day for a category (6 is whole orders); the value is rounded to
+	// tens, within the sketch accuracy, and quantiles take the lower of two ranks
+	private String percentiles(int category) throws Exception {
+		OrderPercentileBean row = service.orderPercentiles(DAY, DAY, category, false).get(0);
+		return row.getOrders() + " " + Math.round(row.getValueP50() / 10) * 10 + " " + Math.round(row.getBasketP99());
+	}
+
+	// "order value/lines category value/lines" before an event
+	private static String previous(SalesActivityEvent event) {
+		return Math.round(event.getPreviousOrderValue()) + "/" + event.getPreviousOrderLines() + " "
+				+ Math.round(event.getPreviousCategoryValue()) + "/" + event.getPreviousCategoryLines();
+	}
+
+	@Test
+	public void testWholeOrderCancelReturnsToBaseline() throws Exception {
+		String wholeOrders = percentiles(6);
+		String category1 = percentiles(1);
+		String category2 = percentiles(2);
+		assertEquals("2 100 2", wholeOrders);
+
+		// placed one line at a time, as at checkout
+		place("ORD3", "PROD3");
+		place("ORD3", "PROD3");
+		place("ORD3", "PROD4");
+		assertEquals("3 130 2", percentiles(6));
+		assertEquals("3 50 2", percentiles(1));
+		assertEquals("2 80 1", percentiles(2));
+
+		// cancelled as a whole: every line is inactive before the first event, one event per product
+		published.clear();
+		cancelOrder("ORD3");
+		assertEquals(2, published.size());
+		assertEquals("320/3 20/2", previous(published.get(0)));
+		assertEquals("300/1 300/1", previous(published.get(1)));
+		assertEquals(wholeOrders, percentiles(6));
+		assertEquals(category1, percentiles(1));
+		assertEquals(category2, percentiles(2));
+	}
+
+	@Test
+	public void testPartialCancelMovesTheOrder() throws Exception {
+		cancel("ORD2", "PROD2");
+		assertEquals("130/2 80/1", previous(published.get(0)));
+		assertEquals("2 50 1", percentiles(6));
+		assertEquals("2 50 1", percentiles(1));
+		assertEquals(0, service.orderPercentiles(DAY, DAY, 2, false).get(0).getOrders());
+
+		// the order leaves the sketches with its last line
+		cancel("ORD2", "PROD1");
+		assertEquals("1 100 2", percentiles(6));
+		assertEquals("1 100 2", percentiles(1));
+	}
+
+	@After
+	public void stopLoading() {
+		service.stopLoading();
+	}
+
+	@Test
+	public void testActivityDuringALoadIsAppliedOnceAfterIt() throws Exception {
+		// an order placed while the order lines are being read, after the scan has passed it
+		doAnswer(invocation -> {
+			int lines = stream(invocation.getArgument(0));
+			place("ORD3", "PROD3");
+			return lines;
+		}).when(goAdminReportsDao).streamActiveSalesLines(any());
+		service.loadSalesFacts();
+		assertEquals("3 100 2", percentiles(6));
+		SalesColumnStore.SliceResult day = service.slice(new SalesColumnStore.Slice(DAY, DAY));
+		assertEquals(5, day.getUnits());
+		assertEquals(240, day.getRevenue(), 1e-9);
+	}
+
+	@Test
+	public void testAFailedLoadIsRetriedInTheBackground() throws Exception {
+		SalesAnalyticsServiceImpl reloading = new SalesAnalyticsServiceImpl();
+		GoAdminReportsDao unavailableOnce = mock(GoAdminReportsDao.class);
+		when(unavailableOnce.streamActiveSalesLines(any()))
+				.thenThrow(new GoAdminException("streamActiveSalesLines - connection refused")).thenReturn(0);
+		reloading.setGoAdminReportsDao(unavailableOnce);
+		ReflectionTestUtils.setField(reloading, "enabled", true);
+		ReflectionTestUtils.setField(reloading, "initialCapacity", 1024);
+		ReflectionTestUtils.setField(reloading, "distinctPrecision", 10);
+		ReflectionTestUtils.setField(reloading, "quantileAccuracy", 0.01);
+		ReflectionTestUtils.setField(reloading, "retryMillis", 20L);
+		try {
+			reloading.startLoading();
+			long deadline = System.currentTimeMillis() + 10000;
+			while (true) {
+				try {
+					assertEquals(0, reloading.orderPercentiles(DAY, DAY, 6, false).get(0).getOrders());
+					break;
+				} catch (GoAdminException exp) {
+					assertEquals(ExceptionConstants.SALES_STORE_NOT_LOADED, exp.getMessage());
+					if (System.currentTimeMillis() > deadline) {
+						fail("the load was not retried");
+					}
+					Thread.sleep(5);
+				}
+			}
+		} finally {
+			reloading.stopLoading();
+		}
+	}
+}
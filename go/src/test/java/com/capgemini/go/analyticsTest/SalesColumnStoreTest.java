@@ -0,0 +1,68 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.capgemini.go.utility.SalesColumnStore;
+import com.capgemini.go.utility.SalesColumnStore.GroupBy;
+import com.capgemini.go.utility.SalesColumnStore.Slice;
+import com.capgemini.go.utility.SalesColumnStore.SliceResult;
+
+public class SalesColumnStoreTest {
+
+	private SalesColumnStore store;
+
+	private static Date day(String isoDate) {
+		return Date.from(LocalDate.parse(isoDate).atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+
+	@Before
+	public void setUp() {
+		// capacity below the fact count so the columns have to grow
+		store = new SalesColumnStore(2);
+		for (int i = 0; i < 20; i++) {
+			store.append(day("2019-01-01"), "SR01", "P1", 1, 1, 100.0);
+		}
+		store.append(day("2019-01-02"), "SR02", "P2", 2, 2, 500.0);
+		store.append(day("2019-02-01"), "SR01", "P2", 2, 1, 250.0);
+		// return of one unit of the first order line
+		store.append(day("2019-01-01"), "SR01", "P1", 1, -1, -100.0);
+	}
+
+	@Test
+	public void testWholeRange() {
+		SliceResult result = store.query(new Slice(LocalDate.parse("2019-01-01"), LocalDate.parse("2019-12-31")));
+		assertEquals(2650.0, result.getRevenue(), 1e-9);
+		assertEquals(22, result.getUnits());
+		assertEquals(23, result.getLines());
+	}
+
+	@Test
+	public void testFilters() {
+		Slice january = new Slice(LocalDate.parse("2019-01-01"), LocalDate.parse("2019-01-31"));
+		assertEquals(1900.0, store.query(january.user("SR01")).getRevenue(), 1e-9);
+		assertEquals(500.0, store.query(new Slice(null, null).category(2).user("SR02")).getRevenue(), 1e-9);
+		assertEquals(750.0, store.query(new Slice(null, null).product("P2")).getRevenue(), 1e-9);
+		assertEquals(0, store.query(new Slice(null, null).user("UNKNOWN")).getLines());
+	}
+
+	@Test
+	public void testGroupBy() {
+		SliceResult byDay = store.query(new Slice(null, null).groupBy(GroupBy.DAY));
+		assertEquals(3, byDay.getRevenueByGroup().size());
+		assertEquals(1900.0, byDay.getRevenueByGroup().get("2019-01-01"), 1e-9);
+		assertEquals(250.0, byDay.getRevenueByGroup().get("2019-02-01"), 1e-9);
+
+		SliceResult byCategory = store.query(new Slice(null, null).groupBy(GroupBy.CATEGORY));
+		assertEquals(750.0, byCategory.getRevenueByGroup().get("2"), 1e-9);
+
+		SliceResult byUser = store.query(new Slice(null, null).groupBy(GroupBy.USER));
+		assertEquals(2150.0, byUser.getRevenueByGroup().get("SR01"), 1e-9);
+	}
+}
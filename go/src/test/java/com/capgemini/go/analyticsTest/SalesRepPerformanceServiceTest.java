@@ -0,0 +1,125 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.capgemini.go.bean.SalesActivityEvent;
+import com.capgemini.go.bean.SalesLineBean;
+import com.capgemini.go.dao.SalesRepresentativeDaoImpl;
+import com.capgemini.go.dto.SalesRepDTO;
+import com.capgemini.go.exception.SalesRepresentativeException;
+import com.capgemini.go.service.SalesRepPerformanceServiceImpl;
+
+public class SalesRepPerformanceServiceTest {
+
+	// SALES_REP in memory; addToCurrentSales fails while failing is set
+	private static class SalesRepTable extends SalesRepresentativeDaoImpl {
+		private final List<SalesRepDTO> salesReps = new ArrayList<SalesRepDTO>();
+		private final Map<String, Double> written = new TreeMap<String, Double>();
+		private boolean failing;
+
+		private void add(String userId, double target, double currentSales) {
+			salesReps.add(new SalesRepDTO(userId, 0.0, target, 0, "CART-" + userId, currentSales));
+		}
+
+		@Override
+		public List<SalesRepDTO> getAllSalesReps() {
+			return new ArrayList<SalesRepDTO>(salesReps);
+		}
+
+		@Override
+		public boolean addToCurrentSales(String userId, double delta) throws SalesRepresentativeException {
+			if (failing) {
+				throw new SalesRepresentativeException("addToCurrentSales - connection lost");
+			}
+			written.merge(userId, delta, Double::sum);
+			return true;
+		}
+	}
+
+	private final SalesRepTable table = new SalesRepTable();
+	private final SalesRepPerformanceServiceImpl service = new SalesRepPerformanceServiceImpl();
+
+	public SalesRepPerformanceServiceTest() {
+		table.add("SR1", 150, 100);
+		table.add("SR2", 100, 120);
+		table.add("SR3", 80, 50);
+		service.setSalesRepDao(table);
+	}
+
+	private static SalesActivityEvent event(String userId, double price, int units,
+			SalesActivityEvent.ActivityType activityType) {
+		SalesLineBean salesLine = new SalesLineBean("ORD1", "PROD1", userId, null, 1, price);
+		return new SalesActivityEvent(SalesRepPerformanceServiceTest.class, salesLine, units, activityType, 0, 0, 0, 0);
+	}
+
+	// "SR2=120.0/-1 SR1=100.0/1 ...", highest first
+	private String leaderboard() throws SalesRepresentativeException {
+		StringBuilder text = new StringBuilder();
+		for (SalesRepDTO standing : service.getLeaderboard(10)) {
+			text.append(standing.getUserId()).append('=').append(standing.getCurrentSales()).append('/')
+					.append(standing.getTargetStatus()).append(' ');
+		}
+		return text.toString().trim();
+	}
+
+	@Test
+	public void testStandingsFollowOrdersCancelsAndReturns() throws Exception {
+		assertEquals("SR2=120.0/-1 SR1=100.0/1 SR3=50.0/1", leaderboard());
+
+		service.onSalesActivity(event("SR1", 30, 2, SalesActivityEvent.ActivityType.ORDER));
+		assertEquals("SR1=160.0/-1 SR2=120.0/-1 SR3=50.0/1", leaderboard());
+
+		service.onSalesActivity(event("SR1", 30, -1, SalesActivityEvent.ActivityType.CANCEL));
+		service.onSalesActivity(event("SR2", 20, -1, SalesActivityEvent.ActivityType.RETURN));
+		assertEquals("SR1=130.0/1 SR2=100.0/0 SR3=50.0/1", leaderboard());
+
+		// orders not placed by a sales representative leave the standings alone
+		service.onSalesActivity(event("USER1", 500, 1, SalesActivityEvent.ActivityType.ORDER));
+		assertEquals("SR1=130.0/1 SR2=100.0/0 SR3=50.0/1", leaderboard());
+		assertEquals(2, service.getLeaderboard(2).size());
+	}
+
+	@Test
+	public void testTiesOrderedByUserId() throws Exception {
+		service.onSalesActivity(event("SR3", 10, 5, SalesActivityEvent.ActivityType.ORDER));
+		service.onSalesActivity(event("SR1", 20, 1, SalesActivityEvent.ActivityType.ORDER));
+		assertEquals("SR1=120.0/1 SR2=120.0/-1 SR3=100.0/-1", leaderboard());
+	}
+
+	@Test
+	public void testFlushWritesDeltasOnceAndKeepsThemOnFailure() throws Exception {
+		service.onSalesActivity(event("SR1", 30, 2, SalesActivityEvent.ActivityType.ORDER));
+		service.onSalesActivity(event("SR1", 30, -1, SalesActivityEvent.ActivityType.CANCEL));
+		service.onSalesActivity(event("SR3", 10, 1, SalesActivityEvent.ActivityType.ORDER));
+
+		table.failing = true;
+		assertEquals(0, service.flushPendingSales());
+		assertEquals(0, table.written.size());
+
+		// a sale between the failed and the next flush is merged into the kept delta
+		service.onSalesActivity(event("SR3", 10, 1, SalesActivityEvent.ActivityType.ORDER));
+		table.failing = false;
+		assertEquals(2, service.flushPendingSales());
+		assertEquals("{SR1=30.0, SR3=20.0}", table.written.toString());
+
+		assertEquals(0, service.flushPendingSales());
+		assertEquals("{SR1=30.0, SR3=20.0}", table.written.toString());
+	}
+
+	@Test
+	public void testFlushPicksUpNewSalesReps() throws Exception {
+		assertEquals(3, service.getLeaderboard(10).size());
+		table.add("SR4", 100, 200);
+		service.flushPendingSales();
+		assertEquals("SR4=200.0/-1", leaderboard().split(" ")[0]);
+		service.onSalesActivity(event("SR4", 50, -1, SalesActivityEvent.ActivityType.RETURN));
+		assertEquals("SR4=150.0/-1", leaderboard().split(" ")[0]);
+	}
+}
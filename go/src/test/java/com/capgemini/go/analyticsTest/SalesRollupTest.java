@@ -0,0 +1,212 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
+import org.junit.Test;
+
+import com.capgemini.go.dao.HQLQuerryMapper;
+import com.capgemini.go.dao.SalesRollupDao;
+import com.capgemini.go.dao.SalesRollupDaoImpl;
+import com.capgemini.go.dto.SalesRollupDTO;
+import com.capgemini.go.exception.GoAdminException;
+import com.capgemini.go.service.GoAdminReportServiceImpl;
+import com.capgemini.go.utility.SalesRollupDelta;
+
+public class SalesRollupTest {
+
+	private static final Date DAY1 = java.sql.Date.valueOf("2019-10-01");
+	private static final Date DAY2 = java.sql.Date.valueOf("2019-10-02");
+
+	// SALES_ROLLUP as "day category user" -> "revenue units", maintained the way SALES_ROLLUP_UPSERT does
+	private final Map<String, String> rollup = new TreeMap<String, String>();
+
+	private void upsert(SalesRollupDelta delta) {
+		for (SalesRollupDTO row : delta.getRows()) {
+			String key = row.getSalesDay() + " " + row.getProductCategory() + " " + row.getUserId();
+			double revenue = row.getRevenue();
+			long units = row.getUnits();
+			if (rollup.containsKey(key)) {
+				String[] existing = rollup.get(key).split(" ");
+				revenue += Double.parseDouble(existing[0]);
+				units += Long.parseLong(existing[1]);
+			}
+			rollup.put(key, revenue + " " + units);
+		}
+	}
+
+	@Test
+	public void testPlacedLinesAddUpPerRollupRow() {
+		SalesRollupDelta order = new SalesRollupDelta(1);
+		order.addLines(DAY1, 1, "USER1", 30, 2);
+		order.addLines(DAY1, 2, "USER1", 100, 1);
+		order.addLines(DAY1, 1, "USER1", 5, 1);
+		upsert(order);
+		SalesRollupDelta otherOrder = new SalesRollupDelta(1);
+		otherOrder.addLines(DAY2, 1, "USER1", 20, 1);
+		otherOrder.addLines(DAY1, 1, "USER1", 10, 1);
+		upsert(otherOrder);
+
+		assertEquals("{2019-10-01 1 USER1=45.0 4, 2019-10-01 2 USER1=100.0 1, 2019-10-02 1 USER1=20.0 1}",
+				rollup.toString());
+	}
+
+	@Test
+	public void testCancellingLinesTakesThemBackOut() {
+		SalesRollupDelta order = new SalesRollupDelta(1);
+		order.addLines(DAY1, 1, "USER1", 30, 2);
+		order.addLines(DAY1, 2, "USER1", 100, 1);
+		upsert(order);
+		Map<String, String> placed = new TreeMap<String, String>(rollup);
+
+		// one of the two category 1 lines returned, then the rest of the order cancelled
+		SalesRollupDelta returned = new SalesRollupDelta(-1);
+		returned.addLines(DAY1, 1, "USER1", 15, 1);
+		upsert(returned);
+		assertEquals("15.0 1", rollup.get("2019-10-01 1 USER1"));
+		SalesRollupDelta cancelled = new SalesRollupDelta(-1);
+		cancelled.addLines(DAY1, 1, "USER1", 15, 1);
+		cancelled.addLines(DAY1, 2, "USER1", 100, 1);
+		upsert(cancelled);
+		assertEquals("{2019-10-01 1 USER1=0.0 0, 2019-10-01 2 USER1=0.0 0}", rollup.toString());
+
+		// placed again, the rollup is where it was after the first placement
+		upsert(order);
+		assertEquals(placed, rollup);
+	}
+
+	@Test
+	public void testRowsOfTheLinesQuery() {
+		// MySQL returns the sum as DECIMAL and the count as BIGINT
+		SalesRollupDelta delta = new SalesRollupDelta(-1);
+		delta.addLines(new Object[] { DAY1, 3, "USER2", new BigDecimal("49.90"), BigInteger.valueOf(2) });
+		SalesRollupDTO row = delta.getRows().get(0);
+		assertEquals(new SalesRollupDTO(DAY1, 3, "USER2", 0, 0), row);
+		assertEquals(-49.9, row.getRevenue(), 1e-9);
+		assertEquals(-2, row.getUnits());
+
+		try {
+			new SalesRollupDelta(2);
+			fail("a delta adds or removes lines");
+		} catch (IllegalArgumentException expected) {
+			// sign must be 1 or -1
+		}
+	}
+
+	@Test
+	public void testDeltaUpsertsTheSignedRowsInTheCallersSession() {
+		Session session = mock(Session.class);
+		NativeQuery lines = mock(NativeQuery.class);
+		NativeQuery upsert = mock(NativeQuery.class);
+		when(session.createNativeQuery(anyString())).thenReturn(upsert);
+		when(session.createNativeQuery(
+				String.format(HQLQuerryMapper.SALES_ROLLUP_DELTA_LINES, HQLQuerryMapper.ROLLUP_BY_ORDER)))
+						.thenReturn(lines);
+		List<Object> rows = new ArrayList<Object>();
+		rows.add(new Object[] { DAY1, 1, "USER1", new BigDecimal("30.00"), BigInteger.valueOf(2) });
+		when(lines.getResultList()).thenReturn(rows);
+
+		new SalesRollupDaoImpl().applyByOrder(session, "ORD1", -1);
+
+		// pending inserts are flushed first so the lines query sees them
+		verify(session).flush();
+		verify(lines).setParameter("orderId", "ORD1");
+		verify(upsert).setParameter("salesDay", DAY1);
+		verify(upsert).setParameter("productCategory", 1);
+		verify(upsert).setParameter("userId", "USER1");
+		verify(upsert).setParameter("revenue", -30.0);
+		verify(upsert).setParameter("units", -2L);
+		verify(upsert).executeUpdate();
+		// no transaction of its own: it commits or rolls back with the order change
+		verify(session, never()).beginTransaction();
+	}
+
+	private static SalesRollupDaoImpl rollupDao(Session session) {
+		SessionFactory sessionFactory = mock(SessionFactory.class);
+		when(sessionFactory.openSession()).thenReturn(session);
+		SalesRollupDaoImpl rollupDao = new SalesRollupDaoImpl();
+		rollupDao.setSessionFactory(sessionFactory);
+		return rollupDao;
+	}
+
+	@Test
+	public void testRebuildReplacesTheRollupInOneTransaction() throws Exception {
+		Session session = mock(Session.class);
+		Transaction transaction = mock(Transaction.class);
+		NativeQuery clear = mock(NativeQuery.class);
+		NativeQuery rebuild = mock(NativeQuery.class);
+		when(session.beginTransaction()).thenReturn(transaction);
+		when(session.createNativeQuery(HQLQuerryMapper.CLEAR_SALES_ROLLUP)).thenReturn(clear);
+		when(session.createNativeQuery(
+				String.format(HQLQuerryMapper.SALES_ROLLUP_REBUILD, HQLQuerryMapper.ROLLUP_BY_ALL_ACTIVE)))
+						.thenReturn(rebuild);
+		when(rebuild.executeUpdate()).thenReturn(3);
+
+		assertEquals(3, rollupDao(session).rebuildRollup());
+		verify(clear).executeUpdate();
+		verify(transaction).commit();
+		verify(session).close();
+	}
+
+	@Test
+	public void testFailedRebuildRollsBack() {
+		Session session = mock(Session.class);
+		Transaction transaction = mock(Transaction.class);
+		NativeQuery query = mock(NativeQuery.class);
+		when(session.beginTransaction()).thenReturn(transaction);
+		when(session.createNativeQuery(anyString())).thenReturn(query);
+		when(query.executeUpdate()).thenThrow(new HibernateException("deadlock"));
+
+		try {
+			rollupDao(session).rebuildRollup();
+			fail("rebuild should have failed");
+		} catch (GoAdminException exp) {
+			assertTrue(exp.getMessage().contains("deadlock"));
+		}
+		verify(transaction).rollback();
+		verify(transaction, never()).commit();
+		verify(session).close();
+	}
+
+	@Test
+	public void testBackfillOnlyFillsAnEmptyRollup() throws Exception {
+		SalesRollupDao rollupDao = mock(SalesRollupDao.class);
+		GoAdminReportServiceImpl service = new GoAdminReportServiceImpl();
+		service.setSalesRollupDao(rollupDao);
+
+		when(rollupDao.isRollupEmpty()).thenReturn(true);
+		service.backfillSalesRollup();
+		verify(rollupDao).rebuildRollup();
+
+		// once it exists the rollup is kept up to date by the deltas, not rebuilt at every start
+		rollupDao = mock(SalesRollupDao.class);
+		service.setSalesRollupDao(rollupDao);
+		when(rollupDao.isRollupEmpty()).thenReturn(false);
+		service.backfillSalesRollup();
+		verify(rollupDao, never()).rebuildRollup();
+
+		// a failure is logged and startup goes on
+		when(rollupDao.isRollupEmpty()).thenThrow(new GoAdminException("isRollupEmpty - connection refused"));
+		service.backfillSalesRollup();
+		verify(rollupDao, never()).rebuildRollup();
+	}
+}
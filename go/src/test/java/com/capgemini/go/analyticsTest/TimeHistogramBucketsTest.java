@@ -0,0 +1,49 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.capgemini.go.bean.TimeHistogramBean;
+import com.capgemini.go.utility.TimeHistogramBuckets;
+
+public class TimeHistogramBucketsTest {
+
+	@Test
+	public void testBoundValidation() {
+		assertTrue(TimeHistogramBuckets.isValid(new int[] { 7, 30, 90 }, 20));
+		assertTrue(TimeHistogramBuckets.isValid(new int[] { 0 }, 1));
+		assertTrue(TimeHistogramBuckets.isValid(new int[0], 20));
+		assertFalse(TimeHistogramBuckets.isValid(new int[] { -1, 30 }, 20));
+		assertFalse(TimeHistogramBuckets.isValid(new int[] { 30, 7 }, 20));
+		assertFalse(TimeHistogramBuckets.isValid(new int[] { 7, 7, 90 }, 20));
+		assertFalse(TimeHistogramBuckets.isValid(new int[] { 7, 30, 90 }, 2));
+	}
+
+	@Test
+	public void testBucketsFromCumulativeCounts() {
+		// 10 items at or below 7 days, 25 at or below 30, 25 at or below 90, 40 in all
+		assertArrayEquals(new long[] { 10, 15, 0, 15 },
+				TimeHistogramBuckets.fromCumulative(40, new long[] { 10, 25, 25 }));
+		// everything beyond the last bound
+		assertArrayEquals(new long[] { 0, 0, 5 }, TimeHistogramBuckets.fromCumulative(5, new long[] { 0, 0 }));
+		// no bounds: a single open bucket
+		assertArrayEquals(new long[] { 12 }, TimeHistogramBuckets.fromCumulative(12, new long[0]));
+	}
+
+	@Test
+	public void testLabels() {
+		int[] bounds = { 7, 30, 90 };
+		assertEquals("0-7", TimeHistogramBuckets.label(bounds, 0));
+		assertEquals("8-30", TimeHistogramBuckets.label(bounds, 1));
+		assertEquals("31-90", TimeHistogramBuckets.label(bounds, 2));
+		assertEquals("91+", TimeHistogramBuckets.label(bounds, 3));
+		assertEquals("0+", TimeHistogramBuckets.label(new int[0], 0));
+
+		TimeHistogramBean bean = new TimeHistogramBean((byte) 1, 40, bounds, new long[] { 10, 15, 0, 15 });
+		assertEquals("31-90", bean.getBucketLabel(2));
+	}
+}
@@ -0,0 +1,51 @@
+package com.capgemini.go.analyticsTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.capgemini.go.utility.TopN;
+
+public class TopNTest {
+
+	@Test
+	public void testKeepsGreatestInDescendingOrder() {
+		TopN<Integer> top = new TopN<Integer>(3, Comparator.naturalOrder());
+		for (int value : new int[] { 5, 1, 9, 3, 7, 9, 2 }) {
+			top.offer(value);
+		}
+		assertEquals(Arrays.asList(9, 9, 7), top.drain());
+		assertTrue(top.isEmpty());
+	}
+
+	@Test
+	public void testMatchesFullSort() {
+		Random random = new Random(42);
+		List<Integer> values = new ArrayList<Integer>();
+		TopN<Integer> top = new TopN<Integer>(20, Comparator.naturalOrder());
+		for (int i = 0; i < 10000; i++) {
+			int value = random.nextInt(1000);
+			values.add(value);
+			top.offer(value);
+		}
+		values.sort(Collections.reverseOrder());
+		assertEquals(values.subList(0, 20), top.drain());
+	}
+
+	@Test
+	public void testFewerItemsThanN() {
+		TopN<Integer> top = new TopN<Integer>(5, Comparator.naturalOrder());
+		top.offer(2);
+		top.offer(4);
+		assertEquals(Arrays.asList(4, 2), top.drain());
+		assertEquals(Collections.emptyList(), top.drain());
+	}
+}
@@ -0,0 +1,83 @@
+package com.capgemini.go.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.capgemini.go.utility.GroupCommitWriter;
+
+/**
+ * - Class Name : GroupCommitWriterBenchmark <br>
+ * - Description : Audit-row throughput with one commit per request versus the group-commit writer, <br>
+ * at 1, 16 and 64 concurrent callers. The database is simulated by a single log that serialises <br>
+ * commits and charges a fixed sync cost per commit plus a small cost per row. <br>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.capgemini.go.benchmark.GroupCommitWriterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class GroupCommitWriterBenchmark {
+
+	private static final long SYNC_NANOS = TimeUnit.MICROSECONDS.toNanos(1000);
+	private static final long ROW_NANOS = TimeUnit.MICROSECONDS.toNanos(5);
+
+	private final Object log = new Object();
+	private GroupCommitWriter<String> writer;
+
+	@Setup(Level.Trial)
+	public void startWriter() {
+		writer = new GroupCommitWriter<String>("benchmark-writer", this::commit, 2, 500, 10000);
+		writer.start();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopWriter() throws InterruptedException {
+		writer.shutdown();
+	}
+
+	private void commit(List<String> rows) {
+		synchronized (log) {
+			LockSupport.parkNanos(SYNC_NANOS + ROW_NANOS * rows.size());
+		}
+	}
+
+	@Benchmark
+	public void commitPerRequest() {
+		commit(Collections.singletonList("audit-row"));
+	}
+
+	@Benchmark
+	public void groupCommit() throws Exception {
+		writer.submit(Collections.singletonList("audit-row")).get();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		for (int threads : new int[] { 1, 16, 64 }) {
+			Options options = new OptionsBuilder().include(GroupCommitWriterBenchmark.class.getSimpleName())
+					.threads(threads).build();
+			new Runner(options).run();
+		}
+	}
+}
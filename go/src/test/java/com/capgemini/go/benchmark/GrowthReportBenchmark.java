@@ -0,0 +1,87 @@
+package com.capgemini.go.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.capgemini.go.dto.ViewDetailedSalesReportByProductDTO;
+import com.capgemini.go.utility.GrowthReportCalculator;
+
+/**
+ * - Class Name : GrowthReportBenchmark <br>
+ * - Description : Month-to-month growth rows for report ranges of 10 to 200 years, computed year by <br>
+ * year on the calling thread and split across fork/join pools of 1 to 8 threads. <br>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.capgemini.go.benchmark.GrowthReportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class GrowthReportBenchmark {
+
+	@Param({ "10", "50", "200" })
+	private int years;
+
+	@Param({ "1", "2", "4", "8" })
+	private int parallelism;
+
+	private final Map<Integer, double[]> revenueByYear = new HashMap<Integer, double[]>();
+	private ForkJoinPool pool;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		for (int year = 0; year < years; year++) {
+			double[] months = new double[12];
+			for (int month = 0; month < 12; month++) {
+				months[month] = random.nextInt(1000000) / 100.0;
+			}
+			revenueByYear.put(year, months);
+		}
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public List<ViewDetailedSalesReportByProductDTO> sequential() throws InterruptedException {
+		return GrowthReportCalculator.compute(revenueByYear, 0, years - 1, GrowthReportCalculator.MONTH, null);
+	}
+
+	@Benchmark
+	public List<ViewDetailedSalesReportByProductDTO> parallel() throws InterruptedException {
+		return GrowthReportCalculator.compute(revenueByYear, 0, years - 1, GrowthReportCalculator.MONTH, pool);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder().include(GrowthReportBenchmark.class.getSimpleName()).build();
+		new Runner(options).run();
+	}
+}